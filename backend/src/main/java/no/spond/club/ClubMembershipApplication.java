@@ -1,11 +1,36 @@
 package no.spond.club;
 
+import no.spond.club.reactive.ReactiveRegistrationApplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
-@SpringBootApplication
+/**
+ * The servlet application. R2DBC is only used by {@link ReactiveRegistrationApplication}, which
+ * {@link #main} starts instead when the {@code reactive} profile is active.
+ */
+@SpringBootApplication(exclude = {
+    R2dbcAutoConfiguration.class,
+    R2dbcDataAutoConfiguration.class,
+    R2dbcRepositoriesAutoConfiguration.class,
+    R2dbcTransactionManagerAutoConfiguration.class
+})
+@ConfigurationPropertiesScan
 public class ClubMembershipApplication {
     public static void main(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        if (environment.acceptsProfiles(Profiles.of(ReactiveRegistrationApplication.PROFILE))) {
+            ReactiveRegistrationApplication.application().run(args);
+            return;
+        }
         SpringApplication.run(ClubMembershipApplication.class, args);
     }
-} 
\ No newline at end of file
+}
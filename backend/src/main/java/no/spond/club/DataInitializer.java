@@ -1,34 +1,76 @@
 package no.spond.club;
 
+import jakarta.persistence.EntityManagerFactory;
+import no.spond.club.model.EligibilityRule;
 import no.spond.club.model.Group;
 import no.spond.club.model.MemberType;
 import no.spond.club.model.RegistrationForm;
+import no.spond.club.repository.MemberTypeRepository;
 import no.spond.club.repository.RegistrationFormRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
+    static final String CODING_CAMP_FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+    static final String SOCIAL_MEMBER_TYPE_ID = "4237C55C5CC3B4B082CBF2540612778E";
+
+    /**
+     * The allocationSize of the member type and group sequences.
+     */
+    private static final long ID_ALLOCATION = 50;
+
     private final RegistrationFormRepository formRepository;
-    
+    private final MemberTypeRepository memberTypeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
     @Autowired
-    public DataInitializer(RegistrationFormRepository formRepository) {
+    public DataInitializer(RegistrationFormRepository formRepository, MemberTypeRepository memberTypeRepository,
+                           DataSource dataSource, EntityManagerFactory entityManagerFactory) {
         this.formRepository = formRepository;
+        this.memberTypeRepository = memberTypeRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
     }
-    
+
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
+        boolean empty = formRepository.count() == 0;
+
+        // Skjemaer opprettet før offentlige ID-er og versjonering fantes
+        backfillExternalIds();
+        formRepository.backfillVersions();
+        alignIdSequence("member_types", "member_types_seq");
+        alignIdSequence("groups", "groups_seq");
+
+        // Standardskjemaet som API-et har levert siden starten
+        if (!formRepository.existsByExternalId(CODING_CAMP_FORM_ID)) {
+            createCodingCampForm();
+        }
+
         // Sjekk om data allerede eksisterer
-        if (formRepository.count() > 0) {
+        if (!empty) {
             return;
         }
-        
+
         // Opprett registreringsskjema
         RegistrationForm form = new RegistrationForm(
                 "Spond Fotballklubb - Medlemsregistrering 2024",
@@ -36,61 +78,131 @@ public class DataInitializer implements CommandLineRunner {
                 "Vennligst fyll ut informasjonen nedenfor for å fullføre din registrering.",
                 LocalDate.of(2024, 12, 31)
         );
-        
+        form.setClubId("spondfk");
+
         // Opprett medlemstyper
         MemberType juniorType = new MemberType(
                 "Junior (under 18 år)",
                 "For spillere under 18 år. Inkluderer treninger, kamper og utstyr.",
                 new BigDecimal("500.00")
         );
+        juniorType.setEligibility(new EligibilityRule(null, 17));
         juniorType.setForm(form);
-        
+
         MemberType seniorType = new MemberType(
                 "Senior (18 år og over)",
                 "For spillere 18 år og over. Inkluderer treninger, kamper og sosiale arrangementer.",
                 new BigDecimal("800.00")
         );
+        seniorType.setEligibility(new EligibilityRule(18, null));
         seniorType.setForm(form);
-        
+
         MemberType supporterType = new MemberType(
                 "Støttemedlem",
                 "For de som ønsker å støtte klubben uten å være aktiv spiller.",
                 new BigDecimal("200.00")
         );
         supporterType.setForm(form);
-        
+
         // Opprett grupper
         Group menGroup = new Group(
                 "Herrelag",
                 "Hovedlaget for menn, trener tirsdager og torsdager kl 19:00"
         );
         menGroup.setForm(form);
-        
+
         Group womenGroup = new Group(
                 "Damelag",
                 "Hovedlaget for kvinner, trener mandager og onsdager kl 18:30"
         );
         womenGroup.setForm(form);
-        
+
         Group youthGroup = new Group(
                 "Ungdomslag (13-17 år)",
                 "For ungdommer, trener mandager og onsdager kl 17:00"
         );
+        youthGroup.setEligibility(new EligibilityRule(13, 17));
         youthGroup.setForm(form);
-        
+
         Group childrenGroup = new Group(
                 "Barneavdeling (6-12 år)",
                 "For barn, trener lørdager kl 10:00"
         );
+        childrenGroup.setEligibility(new EligibilityRule(6, 12));
         childrenGroup.setForm(form);
-        
+
         // Sett opp relasjoner
         form.setMemberTypes(Arrays.asList(juniorType, seniorType, supporterType));
         form.setGroups(Arrays.asList(menGroup, womenGroup, youthGroup, childrenGroup));
-        
+
         // Lagre
         formRepository.save(form);
-        
+
         System.out.println("Testdata initialisert med skjema ID: " + form.getId());
     }
-} 
\ No newline at end of file
+
+    private void createCodingCampForm() {
+        RegistrationForm form = new RegistrationForm(
+                "Coding camp summer 2025",
+                "Join our exciting coding camp this summer! Learn programming, work on projects, " +
+                "and have fun with fellow developers.",
+                LocalDate.of(2024, 12, 16)
+        );
+        form.setExternalId(CODING_CAMP_FORM_ID);
+        form.setClubId("britsport");
+
+        MemberType activeType = new MemberType(
+                "Active Member",
+                "Full participation in the camp programme.",
+                new BigDecimal("1500.00")
+        );
+        activeType.setExternalId(ACTIVE_MEMBER_TYPE_ID);
+        activeType.setForm(form);
+
+        MemberType socialType = new MemberType(
+                "Social Member",
+                "Social events and demo day only.",
+                new BigDecimal("300.00")
+        );
+        socialType.setExternalId(SOCIAL_MEMBER_TYPE_ID);
+        socialType.setForm(form);
+
+        Group allParticipants = new Group(
+                "Alle deltakere",
+                "Alle som er påmeldt sommerleiren"
+        );
+        allParticipants.setForm(form);
+
+        form.setMemberTypes(Arrays.asList(activeType, socialType));
+        form.setGroups(Arrays.asList(allParticipants));
+
+        formRepository.save(form);
+
+        log.info("Standardskjema initialisert med skjema ID: {}", form.getExternalId());
+    }
+
+    private void backfillExternalIds() {
+        for (RegistrationForm form : formRepository.findByExternalIdIsNull()) {
+            form.setExternalId(RegistrationForm.newExternalId());
+        }
+        for (MemberType memberType : memberTypeRepository.findByExternalIdIsNull()) {
+            memberType.setExternalId(RegistrationForm.newExternalId());
+        }
+    }
+
+    /**
+     * Medlemstyper og grupper fikk ID fra identitetskolonner før de fikk sekvenser. Sekvensen
+     * flyttes forbi eksisterende rader, så nye ID-er ikke kolliderer med dem.
+     */
+    private void alignIdSequence(String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        // Hibernate uses the block of ID_ALLOCATION IDs ending at each sequence value
+        if (next - ID_ALLOCATION < maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ID_ALLOCATION + 1));
+        }
+    }
+}
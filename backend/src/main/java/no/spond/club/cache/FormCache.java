@@ -0,0 +1,258 @@
+package no.spond.club.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.FormCacheProperties;
+import no.spond.club.dto.RegistrationFormDto;
+import no.spond.club.eligibility.FormEligibility;
+import no.spond.club.schedule.FormWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-instance cache of form DTOs by external ID. Entries are evicted by
+ * {@link FormChangeListener} when the form, or one of its member types or groups, changes;
+ * expiry and background refresh are optional ({@code spondy.forms.cache.expire-after} and
+ * {@code refresh-after}).
+ *
+ * <p>Loads are single-flight: concurrent misses on a form share one database load, so a cold
+ * cache right before registration opens costs one load per form, not one per request.
+ */
+@Component
+public class FormCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FormCache.class);
+
+    /**
+     * A cached form, its compiled eligibility rules, the entity version it was built from and
+     * when it takes registrations.
+     */
+    public record CachedForm(RegistrationFormDto form, FormEligibility eligibility, long version, FormWindow window) {
+
+        public CachedForm(RegistrationFormDto form, FormEligibility eligibility, long version) {
+            this(form, eligibility, version, FormWindow.ALWAYS_OPEN);
+        }
+    }
+
+    private record Entry(CachedForm form, long loadedAt) {
+    }
+
+    private record Load(CompletableFuture<CachedForm> result, long startedAt) {
+    }
+
+    private final boolean enabled;
+    private final long loadTimeoutNanos;
+    private final long refreshAfterNanos;
+    private final long expireAfterNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> forms = new ConcurrentHashMap<>();
+    private final Map<String, Load> loads = new ConcurrentHashMap<>();
+    /**
+     * Bumped by every invalidation; a load that overlapped one may have read the old form and is not cached.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ExecutorService refresher;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evictions;
+
+    @Autowired
+    public FormCache(FormCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    FormCache(FormCacheProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.enabled = properties.isEnabled();
+        this.loadTimeoutNanos = properties.getLoadTimeout().toNanos();
+        this.refreshAfterNanos = nanosOrNever(properties.getRefreshAfter());
+        this.expireAfterNanos = nanosOrNever(properties.getExpireAfter());
+        this.nanoClock = nanoClock;
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "form-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hits = Counter.builder("spondy.forms.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("spondy.forms.cache").tag("result", "miss").register(meterRegistry);
+        this.coalesced = Counter.builder("spondy.forms.cache.coalesced")
+                .description("Misses that waited for a load already in flight instead of starting one")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("spondy.forms.cache.evictions").register(meterRegistry);
+        Gauge.builder("spondy.forms.cache.size", forms, Map::size).register(meterRegistry);
+    }
+
+    private static long nanosOrNever(Duration duration) {
+        return duration != null ? duration.toNanos() : Long.MAX_VALUE;
+    }
+
+    public RegistrationFormDto get(String externalId, Supplier<CachedForm> loader) {
+        return entry(externalId, loader).form();
+    }
+
+    /**
+     * Returns the cached form, loading it with {@code loader} on a miss unless another thread
+     * is already loading it, in which case this waits for that load.
+     *
+     * @throws IllegalStateException if the load in flight does not finish within {@code load-timeout}
+     */
+    public CachedForm entry(String externalId, Supplier<CachedForm> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        long now = nanoClock.getAsLong();
+        Entry cached = forms.get(externalId);
+        if (cached != null && now - cached.loadedAt() < expireAfterNanos) {
+            hits.increment();
+            if (now - cached.loadedAt() >= refreshAfterNanos) {
+                refreshInBackground(externalId, loader, now);
+            }
+            return cached.form();
+        }
+
+        misses.increment();
+        Load mine = new Load(new CompletableFuture<>(), now);
+        while (true) {
+            Load current = loads.putIfAbsent(externalId, mine);
+            if (current == null) {
+                return load(externalId, loader, mine);
+            }
+            if (now - current.startedAt() < loadTimeoutNanos) {
+                coalesced.increment();
+                return await(externalId, current, now);
+            }
+            // Stuck for longer than any waiter would wait: take over
+            if (loads.replace(externalId, current, mine)) {
+                return load(externalId, loader, mine);
+            }
+        }
+    }
+
+    private CachedForm load(String externalId, Supplier<CachedForm> loader, Load load) {
+        long generation = invalidations.get();
+        try {
+            CachedForm loaded = loader.get();
+            if (invalidations.get() == generation) {
+                store(externalId, loaded, load.startedAt());
+            }
+            load.result().complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            load.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(externalId, load);
+        }
+    }
+
+    private CachedForm await(String externalId, Load load, long now) {
+        try {
+            return load.result().get(loadTimeoutNanos - (now - load.startedAt()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Kunne ikke laste skjema " + externalId, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Skjemaet lastes fortsatt. Prøv igjen om litt.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Avbrutt under lasting av skjema " + externalId);
+        }
+    }
+
+    /**
+     * Reloads an entry that is due for refresh on the refresh thread, unless it is already being loaded.
+     */
+    private void refreshInBackground(String externalId, Supplier<CachedForm> loader, long now) {
+        Load mine = new Load(new CompletableFuture<>(), now);
+        if (loads.putIfAbsent(externalId, mine) != null) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(externalId, loader, mine);
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of form {} failed, serving the cached copy: {}", externalId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loads.remove(externalId, mine);
+        }
+    }
+
+    private void store(String externalId, CachedForm form, long loadedAt) {
+        // A newer version may have been published while loading
+        forms.merge(externalId, new Entry(form, loadedAt), (current, candidate) ->
+                candidate.form().version() >= current.form().version() ? candidate : current);
+    }
+
+    /**
+     * Replaces the cached copy with one built from a committed change, unless a newer version
+     * is already cached. Readers go from the old version to the new one without a miss.
+     */
+    public void publish(String externalId, CachedForm form) {
+        if (!enabled) {
+            return;
+        }
+        store(externalId, form, nanoClock.getAsLong());
+    }
+
+    /**
+     * Evicts the form unless the cached copy is already newer than {@code version}. A load in
+     * flight is abandoned, so requests after the invalidation do not wait for a stale result.
+     *
+     * @return true if an entry was evicted
+     */
+    public boolean invalidate(String externalId, Long version) {
+        invalidations.incrementAndGet();
+        loads.remove(externalId);
+        boolean[] evicted = {false};
+        forms.computeIfPresent(externalId, (id, cached) -> {
+            if (version != null && cached.form().version() > version) {
+                return cached;
+            }
+            evicted[0] = true;
+            return null;
+        });
+        if (evicted[0]) {
+            evictions.increment();
+        }
+        return evicted[0];
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        loads.clear();
+        forms.clear();
+    }
+
+    public boolean contains(String externalId) {
+        return forms.containsKey(externalId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
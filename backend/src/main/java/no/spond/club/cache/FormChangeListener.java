@@ -0,0 +1,81 @@
+package no.spond.club.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import no.spond.club.config.FormCacheProperties;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.RegistrationForm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+/**
+ * JPA listener on forms, member types and groups. Evicts the owning form from this
+ * instance's {@link FormCache} once the change commits and, with
+ * {@code spondy.forms.cache.notify-enabled}, sends {@code NOTIFY <channel>, '<formId>:<version>'}
+ * for other instances.
+ *
+ * <p>The NOTIFY is issued on the changing transaction's own connection, so PostgreSQL only
+ * delivers it if that transaction commits.
+ */
+@Component
+public class FormChangeListener {
+
+    private final FormCache formCache;
+    private final FormCacheProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FormChangeListener(FormCache formCache, FormCacheProperties properties, DataSource dataSource) {
+        this.formCache = formCache;
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        RegistrationForm form = owningForm(entity);
+        if (form == null || form.getExternalId() == null) {
+            return;
+        }
+        String formId = form.getExternalId();
+        Long version = form.getVersion();
+
+        if (properties.isNotifyEnabled()) {
+            jdbcTemplate.queryForRowSet("SELECT pg_notify(?, ?)",
+                    properties.getChannel(), formId + ":" + (version != null ? version : 0));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    formCache.invalidate(formId, version);
+                }
+            });
+        } else {
+            formCache.invalidate(formId, version);
+        }
+    }
+
+    private static RegistrationForm owningForm(Object entity) {
+        if (entity instanceof RegistrationForm form) {
+            return form;
+        }
+        if (entity instanceof MemberType memberType) {
+            return memberType.getForm();
+        }
+        if (entity instanceof Group group) {
+            return group.getForm();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,169 @@
+package no.spond.club.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import no.spond.club.config.FormCacheProperties;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.RegistrationForm;
+import no.spond.club.repository.RegistrationFormRepository;
+import org.hibernate.Cache;
+import no.spond.club.service.RegistrationFormService;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Listens for form change notifications from other instances on a dedicated connection,
+ * outside the pool, and evicts and reloads only the form that changed. After the connection
+ * is lost the whole cache is cleared, since notifications sent meanwhile were missed.
+ *
+ * <p>Hibernate's second-level cache only sees changes made through this instance, so its form
+ * regions are evicted too, before the form is reloaded from them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spondy.forms.cache", name = "notify-enabled", havingValue = "true")
+public class FormInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(FormInvalidationListener.class);
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final FormCache formCache;
+    private final RegistrationFormService registrationFormService;
+    private final DataSourceProperties dataSourceProperties;
+    private final FormCacheProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread worker;
+
+    @Autowired
+    public FormInvalidationListener(FormCache formCache,
+                                    @Lazy RegistrationFormService registrationFormService,
+                                    DataSourceProperties dataSourceProperties,
+                                    FormCacheProperties properties,
+                                    EntityManagerFactory entityManagerFactory) {
+        this.formCache = formCache;
+        this.registrationFormService = registrationFormService;
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "form-invalidation-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * True while the listener connection is up and subscribed.
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                // Anything cached before this point may have missed a notification
+                evictSecondLevelCache();
+                formCache.clear();
+                listening = true;
+                log.info("Listening for form changes on channel {}", properties.getChannel());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Form change listener connection lost: {}", e.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+
+            if (running) {
+                sleep();
+            }
+        }
+    }
+
+    void handle(String payload) {
+        int separator = payload.lastIndexOf(':');
+        String formId = separator > 0 ? payload.substring(0, separator) : payload;
+        Long version = null;
+        if (separator > 0) {
+            try {
+                version = Long.parseLong(payload.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                log.debug("Form change notification without version: {}", payload);
+            }
+        }
+
+        // Edits are rare, so whole regions go rather than tracking which rows belong to the form
+        evictSecondLevelCache();
+        if (formCache.invalidate(formId, version)) {
+            try {
+                registrationFormService.getFormById(formId);
+            } catch (RuntimeException e) {
+                // Deleted, or the database is busy; the next request loads it
+                log.debug("Could not reload form {}: {}", formId, e.getMessage());
+            }
+        }
+    }
+
+    private void evictSecondLevelCache() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(RegistrationForm.class);
+        cache.evictEntityData(MemberType.class);
+        cache.evictEntityData(Group.class);
+        cache.evictCollectionData(RegistrationForm.class.getName() + ".memberTypes");
+        cache.evictCollectionData(RegistrationForm.class.getName() + ".groups");
+        cache.evictQueryRegion(RegistrationFormRepository.QUERY_CACHE_REGION);
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(properties.getReconnectDelay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(POLL_TIMEOUT_MILLIS * 2L);
+        }
+    }
+}
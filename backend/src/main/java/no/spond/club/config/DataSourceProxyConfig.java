@@ -0,0 +1,52 @@
+package no.spond.club.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import no.spond.club.monitoring.StatementMetricsListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application datasource in a datasource-proxy so every statement is timed
+ * per repository method. Hikari's own pool metrics (acquire, usage, pending) are still
+ * bound by Spring Boot, since the proxy unwraps to the underlying pool.
+ *
+ * <p>Any {@link QueryExecutionListener} beans are added to the proxy as well.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spondy.jdbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<JdbcInstrumentationProperties> properties,
+            ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                // Delegating datasources (read/write routing) reach the pools, which are wrapped themselves
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new StatementMetricsListener(
+                                meterRegistry.getObject(),
+                                properties.getObject().getSlowQueryThreshold()));
+                listeners.orderedStream().forEach(builder::listener);
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Routing of read-only transactions to a replica. The replica connection itself is configured
+ * under {@code spondy.datasource.replica} (url, username, password, hikari.*), the same way as
+ * {@code spring.datasource}.
+ */
+@ConfigurationProperties(prefix = "spondy.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Reads go back to the primary while the replica is further behind than this.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Query returning the replica's lag in seconds. Without one, the replica is only checked
+     * for being reachable.
+     */
+    private String lagQuery;
+
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+}
@@ -0,0 +1,75 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "spondy.duplicates")
+public class DuplicateDetectionProperties {
+
+    /**
+     * Where duplicate reports are written, one CSV file per run.
+     */
+    private Path reportDirectory = Path.of("data", "reports");
+
+    /**
+     * Lowest score reported as a likely duplicate, from 0 to 1.
+     */
+    private double threshold = 0.9;
+
+    /**
+     * Registrations read per database round trip.
+     */
+    private int pageSize = 5000;
+
+    /**
+     * Fork-join workers scoring blocks; 0 uses one per available processor.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Registrations read but not yet scored before reading pauses, which bounds the job's memory.
+     */
+    private int maxPendingRows = 50_000;
+
+    // Getters and Setters
+    public Path getReportDirectory() {
+        return reportDirectory;
+    }
+
+    public void setReportDirectory(Path reportDirectory) {
+        this.reportDirectory = reportDirectory;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxPendingRows() {
+        return maxPendingRows;
+    }
+
+    public void setMaxPendingRows(int maxPendingRows) {
+        this.maxPendingRows = maxPendingRows;
+    }
+}
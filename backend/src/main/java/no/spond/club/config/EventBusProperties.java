@@ -0,0 +1,107 @@
+package no.spond.club.config;
+
+import no.spond.club.event.OverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "spondy.events")
+public class EventBusProperties {
+
+    /**
+     * Settings used by every subscriber unless overridden under {@code subscribers.<name>}.
+     */
+    private Subscriber defaults = new Subscriber();
+
+    /**
+     * Per-subscriber overrides, keyed by subscriber name (its simple class name).
+     */
+    private Map<String, Subscriber> subscribers = new HashMap<>();
+
+    /**
+     * Where subscribers with the SPILL policy write the registration IDs of events their queue
+     * had no room for. The events are read back from the database when they are replayed.
+     */
+    private Path spillDirectory = Path.of("data", "event-spill");
+
+    public Subscriber settingsFor(String subscriberName) {
+        Subscriber override = subscribers.get(subscriberName);
+        if (override == null) {
+            return defaults;
+        }
+        Subscriber merged = new Subscriber();
+        merged.setThreads(override.threads != null ? override.threads : defaults.getThreads());
+        merged.setQueueCapacity(override.queueCapacity != null ? override.queueCapacity : defaults.getQueueCapacity());
+        merged.setOverflowPolicy(override.overflowPolicy != null ? override.overflowPolicy : defaults.getOverflowPolicy());
+        merged.setBlockTimeout(override.blockTimeout != null ? override.blockTimeout : defaults.getBlockTimeout());
+        return merged;
+    }
+
+    // Getters and Setters
+    public Subscriber getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Subscriber defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Subscriber> getSubscribers() {
+        return subscribers;
+    }
+
+    public void setSubscribers(Map<String, Subscriber> subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public void setSpillDirectory(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    public static class Subscriber {
+
+        private Integer threads;
+        private Integer queueCapacity;
+        private OverflowPolicy overflowPolicy;
+        private Duration blockTimeout;
+
+        public int getThreads() {
+            return threads != null ? threads : 1;
+        }
+
+        public void setThreads(Integer threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity != null ? queueCapacity : 1000;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy != null ? overflowPolicy : OverflowPolicy.DROP;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public Duration getBlockTimeout() {
+            return blockTimeout != null ? blockTimeout : Duration.ofMillis(50);
+        }
+
+        public void setBlockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+        }
+    }
+}
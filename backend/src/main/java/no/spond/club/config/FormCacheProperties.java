@@ -0,0 +1,99 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.forms.cache")
+public class FormCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Send and listen for PostgreSQL NOTIFY on form changes, so every instance evicts forms
+     * edited through any other instance. Requires PostgreSQL.
+     */
+    private boolean notifyEnabled = false;
+
+    private String channel = "form_changed";
+
+    /**
+     * Wait before reconnecting the listener connection after it was lost.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /**
+     * Requests for a form that is already being loaded wait this long for that load, after which
+     * they fail and the next request starts a new one.
+     */
+    private Duration loadTimeout = Duration.ofSeconds(5);
+
+    /**
+     * A hit on an entry older than this reloads it in the background while the cached copy is
+     * served. Not set means entries are only replaced when invalidated.
+     */
+    private Duration refreshAfter;
+
+    /**
+     * Entries older than this are reloaded before being served. Not set means no expiry, which
+     * is safe as long as every instance receives invalidations.
+     */
+    private Duration expireAfter;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isNotifyEnabled() {
+        return notifyEnabled;
+    }
+
+    public void setNotifyEnabled(boolean notifyEnabled) {
+        this.notifyEnabled = notifyEnabled;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public Duration getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public void setReconnectDelay(Duration reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public Duration getLoadTimeout() {
+        return loadTimeout;
+    }
+
+    public void setLoadTimeout(Duration loadTimeout) {
+        this.loadTimeout = loadTimeout;
+    }
+
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    public void setRefreshAfter(Duration refreshAfter) {
+        this.refreshAfter = refreshAfter;
+    }
+
+    public Duration getExpireAfter() {
+        return expireAfter;
+    }
+
+    public void setExpireAfter(Duration expireAfter) {
+        this.expireAfter = expireAfter;
+    }
+}
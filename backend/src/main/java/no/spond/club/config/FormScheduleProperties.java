@@ -0,0 +1,63 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.forms.schedule")
+public class FormScheduleProperties {
+
+    /**
+     * Pre-warm forms before they open and refresh cached forms when they open or close.
+     * Registrations are refused outside a form's window either way.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the schedules of forms still to open or close are read from the database.
+     */
+    private Duration pollInterval = Duration.ofMinutes(1);
+
+    /**
+     * How often the clock is compared with the schedules read.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * How long before a form opens it is pre-warmed.
+     */
+    private Duration prewarmLead = Duration.ofMinutes(5);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getTick() {
+        return tick;
+    }
+
+    public void setTick(Duration tick) {
+        this.tick = tick;
+    }
+
+    public Duration getPrewarmLead() {
+        return prewarmLead;
+    }
+
+    public void setPrewarmLead(Duration prewarmLead) {
+        this.prewarmLead = prewarmLead;
+    }
+}
@@ -0,0 +1,26 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "spondy.hibernate-cache")
+public class HibernateCacheProperties {
+
+    /**
+     * Entries per second-level cache region, keyed by region name, overriding
+     * {@code policy.maximum.size} in {@code application.conf}. Lets a profile shrink the cache
+     * for a smaller heap without a second copy of that file.
+     */
+    private Map<String, Long> maximumSize = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public Map<String, Long> getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(Map<String, Long> maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+}
@@ -0,0 +1,35 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "spondy.invoicing")
+public class InvoicingProperties {
+
+    /**
+     * Registrations read per database round trip, billed and committed together.
+     */
+    private int chunkSize = 2000;
+
+    /**
+     * Workers billing chunks at once. Each holds a pooled connection while it writes, so this
+     * stays well below the pool size to leave room for registrations.
+     */
+    private int parallelism = 4;
+
+    // Getters and Setters
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
@@ -0,0 +1,36 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.jdbc")
+public class JdbcInstrumentationProperties {
+
+    /**
+     * Wrap the datasource in a proxy that times every statement.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements slower than this are logged with their bind parameters redacted.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+}
@@ -0,0 +1,38 @@
+package no.spond.club.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.spond.club.journal.RegistrationJournal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Durability mode. Only active with {@code spondy.journal.enabled=true}; otherwise
+ * registrations are written straight to the database as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spondy.journal", name = "enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Bean
+    public RegistrationJournal registrationJournal(JournalProperties properties,
+                                                   MeterRegistry meterRegistry) throws IOException {
+        RegistrationJournal journal = new RegistrationJournal(
+                properties.getDirectory(),
+                properties.getSegmentSize(),
+                properties.getFlushInterval());
+
+        Gauge.builder("spondy.journal.backlog", journal, RegistrationJournal::backlog)
+                .description("Journaled registrations not yet applied to the database")
+                .register(meterRegistry);
+        Gauge.builder("spondy.journal.segments", journal, RegistrationJournal::segmentCount)
+                .register(meterRegistry);
+        Gauge.builder("spondy.journal.failed", journal, j -> j.isFailed() ? 1 : 0)
+                .description("1 once an fsync failed and the journal stopped accepting registrations")
+                .register(meterRegistry);
+        return journal;
+    }
+}
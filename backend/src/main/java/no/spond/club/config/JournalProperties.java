@@ -0,0 +1,95 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.journal")
+public class JournalProperties {
+
+    /**
+     * Durability mode: acknowledge registrations once they are fsync'ed to the local
+     * journal and apply them to the database in the background.
+     */
+    private boolean enabled = false;
+
+    private Path directory = Path.of("data", "journal");
+
+    /**
+     * Size of each memory-mapped segment file.
+     */
+    private int segmentSize = 8 * 1024 * 1024;
+
+    /**
+     * How long the flusher waits to gather appends into one fsync. Zero syncs as soon as
+     * anything is pending.
+     */
+    private Duration flushInterval = Duration.ofMillis(2);
+
+    /**
+     * Longest a request waits for its entry to become durable before failing.
+     */
+    private Duration appendTimeout = Duration.ofSeconds(2);
+
+    private Duration replayInterval = Duration.ofSeconds(2);
+
+    private int replayBatchSize = 200;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getAppendTimeout() {
+        return appendTimeout;
+    }
+
+    public void setAppendTimeout(Duration appendTimeout) {
+        this.appendTimeout = appendTimeout;
+    }
+
+    public Duration getReplayInterval() {
+        return replayInterval;
+    }
+
+    public void setReplayInterval(Duration replayInterval) {
+        this.replayInterval = replayInterval;
+    }
+
+    public int getReplayBatchSize() {
+        return replayBatchSize;
+    }
+
+    public void setReplayBatchSize(int replayBatchSize) {
+        this.replayBatchSize = replayBatchSize;
+    }
+}
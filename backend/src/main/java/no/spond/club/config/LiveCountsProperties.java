@@ -0,0 +1,117 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.live")
+public class LiveCountsProperties {
+
+    /**
+     * Shortest time between two frames for the same form. Registrations in between are
+     * coalesced into one frame.
+     */
+    private Duration interval = Duration.ofSeconds(1);
+
+    /**
+     * Comment line sent to idle streams so proxies keep them open and dead clients are noticed.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * A subscriber still busy with an older frame when this many newer ones have replaced it
+     * is considered too slow and disconnected.
+     */
+    private int maxSkippedFrames = 5;
+
+    /**
+     * A single write taking longer than this disconnects the subscriber.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Open streams across all forms on this instance; further requests get 503.
+     */
+    private int maxSubscribers = 1000;
+
+    /**
+     * Open streams per client address, resolved as for rate limiting; further requests get 429.
+     * Keeps one client from using up {@code max-subscribers} for everyone else.
+     */
+    private int maxSubscribersPerClient = 5;
+
+    /**
+     * Threads writing frames to subscribers.
+     */
+    private int senderThreads = 2;
+
+    /**
+     * Streams are closed after this long; EventSource clients reconnect on their own.
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    // Getters and Setters
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public int getMaxSkippedFrames() {
+        return maxSkippedFrames;
+    }
+
+    public void setMaxSkippedFrames(int maxSkippedFrames) {
+        this.maxSkippedFrames = maxSkippedFrames;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public int getMaxSubscribersPerClient() {
+        return maxSubscribersPerClient;
+    }
+
+    public void setMaxSubscribersPerClient(int maxSubscribersPerClient) {
+        this.maxSubscribersPerClient = maxSubscribersPerClient;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    public void setStreamTimeout(Duration streamTimeout) {
+        this.streamTimeout = streamTimeout;
+    }
+}
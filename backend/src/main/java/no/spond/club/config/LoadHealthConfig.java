@@ -0,0 +1,86 @@
+package no.spond.club.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import no.spond.club.health.LoadHealthIndicator;
+import no.spond.club.health.LoadSignals;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Load signals for the {@code readiness} health group, so a proxy polling
+ * {@code /actuator/health/readiness} stops sending traffic to an instance that is falling
+ * behind before its requests time out. Liveness is not affected.
+ *
+ * <p>Indicator names follow the bean names: {@code hikariLoad}, {@code tomcatLoad},
+ * {@code queueLoad} and {@code latencyLoad}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spondy.health.load", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LoadHealthConfig {
+
+    @Bean
+    public LoadHealthIndicator hikariLoadHealthIndicator(LoadHealthProperties properties, MeterRegistry meterRegistry) {
+        LoadHealthProperties.Threshold threshold = properties.getHikariPending();
+        return new LoadHealthIndicator("hikari-pending",
+                () -> LoadSignals.maxGauge(meterRegistry, List.of("hikaricp.connections.pending")),
+                threshold.getHigh(), threshold.getLow(), meterRegistry);
+    }
+
+    @Bean
+    public LoadHealthIndicator tomcatLoadHealthIndicator(LoadHealthProperties properties, MeterRegistry meterRegistry,
+                                                         ApplicationContext context) {
+        LoadHealthProperties.Threshold threshold = properties.getTomcatBusyRatio();
+        return new LoadHealthIndicator("tomcat-busy-ratio",
+                () -> LoadSignals.tomcatBusyRatio(context),
+                threshold.getHigh(), threshold.getLow(), meterRegistry);
+    }
+
+    @Bean
+    public LoadHealthIndicator queueLoadHealthIndicator(LoadHealthProperties properties, MeterRegistry meterRegistry) {
+        LoadHealthProperties.Threshold threshold = properties.getQueueDepth();
+        List<String> gauges = List.copyOf(properties.getQueueGauges());
+        return new LoadHealthIndicator("queue-depth",
+                () -> LoadSignals.maxGauge(meterRegistry, gauges),
+                threshold.getHigh(), threshold.getLow(), meterRegistry);
+    }
+
+    @Bean
+    public LoadHealthIndicator latencyLoadHealthIndicator(LoadHealthProperties properties, MeterRegistry meterRegistry) {
+        Set<String> uris = Set.copyOf(properties.getLatencyUris());
+        return new LoadHealthIndicator("latency-p99-seconds",
+                () -> LoadSignals.p99Seconds(meterRegistry, uris),
+                properties.getLatencyP99High().toMillis() / 1000.0,
+                properties.getLatencyP99Low().toMillis() / 1000.0,
+                meterRegistry);
+    }
+
+    /**
+     * Keeps a rolling 99th percentile on the watched request timers only, rather than on every URI.
+     */
+    @Bean
+    public MeterFilter latencyPercentilesMeterFilter(LoadHealthProperties properties) {
+        Set<String> uris = Set.copyOf(properties.getLatencyUris());
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!"http.server.requests".equals(id.getName()) || !uris.contains(id.getTag("uri"))) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(LoadSignals.P99)
+                        .expiry(properties.getLatencyWindow())
+                        .bufferLength(3)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "spondy.health.load")
+public class LoadHealthProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Threads waiting for a pooled connection, in the busiest pool.
+     */
+    private Threshold hikariPending = new Threshold(4, 0);
+
+    /**
+     * Busy Tomcat request threads as a fraction of the maximum.
+     */
+    private Threshold tomcatBusyRatio = new Threshold(0.9, 0.6);
+
+    /**
+     * Gauges read as internal queues; the deepest one counts.
+     */
+    private List<String> queueGauges = new ArrayList<>(List.of(
+            "spondy.events.listener.queue.depth", "spondy.journal.backlog"));
+
+    private Threshold queueDepth = new Threshold(500, 50);
+
+    /**
+     * Request URIs, as in the {@code uri} tag of {@code http.server.requests}, whose 99th
+     * percentile is watched. Long-lived streams such as live counts must not be listed.
+     */
+    private List<String> latencyUris = new ArrayList<>(List.of(
+            "/api/form", "/api/form/{id}", "/api/form/{formId}/register"));
+
+    /**
+     * How far back the 99th percentile looks.
+     */
+    private Duration latencyWindow = Duration.ofMinutes(1);
+
+    private Duration latencyP99High = Duration.ofSeconds(2);
+
+    private Duration latencyP99Low = Duration.ofMillis(500);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Threshold getHikariPending() {
+        return hikariPending;
+    }
+
+    public void setHikariPending(Threshold hikariPending) {
+        this.hikariPending = hikariPending;
+    }
+
+    public Threshold getTomcatBusyRatio() {
+        return tomcatBusyRatio;
+    }
+
+    public void setTomcatBusyRatio(Threshold tomcatBusyRatio) {
+        this.tomcatBusyRatio = tomcatBusyRatio;
+    }
+
+    public List<String> getQueueGauges() {
+        return queueGauges;
+    }
+
+    public void setQueueGauges(List<String> queueGauges) {
+        this.queueGauges = queueGauges;
+    }
+
+    public Threshold getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(Threshold queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public List<String> getLatencyUris() {
+        return latencyUris;
+    }
+
+    public void setLatencyUris(List<String> latencyUris) {
+        this.latencyUris = latencyUris;
+    }
+
+    public Duration getLatencyWindow() {
+        return latencyWindow;
+    }
+
+    public void setLatencyWindow(Duration latencyWindow) {
+        this.latencyWindow = latencyWindow;
+    }
+
+    public Duration getLatencyP99High() {
+        return latencyP99High;
+    }
+
+    public void setLatencyP99High(Duration latencyP99High) {
+        this.latencyP99High = latencyP99High;
+    }
+
+    public Duration getLatencyP99Low() {
+        return latencyP99Low;
+    }
+
+    public void setLatencyP99Low(Duration latencyP99Low) {
+        this.latencyP99Low = latencyP99Low;
+    }
+
+    /**
+     * The instance goes out of service when the value reaches {@code high} and comes back only
+     * once it has fallen to {@code low}, so it does not flap around a single limit.
+     */
+    public static class Threshold {
+
+        private double high;
+
+        private double low;
+
+        public Threshold() {
+        }
+
+        public Threshold(double high, double low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        public double getHigh() {
+            return high;
+        }
+
+        public void setHigh(double high) {
+            this.high = high;
+        }
+
+        public double getLow() {
+            return low;
+        }
+
+        public void setLow(double low) {
+            this.low = low;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package no.spond.club.config;
+
+import no.spond.club.mail.LoggingMailPort;
+import no.spond.club.mail.MailPort;
+import no.spond.club.mail.SmtpMailPort;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+@Configuration
+public class MailConfig {
+
+    /**
+     * Spring Boot only creates a {@link JavaMailSender} when {@code spring.mail.host} is set;
+     * without one, outgoing mail is logged instead of sent.
+     */
+    @Bean
+    public MailPort mailPort(ObjectProvider<JavaMailSender> mailSender, OutboxProperties properties) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            return new LoggingMailPort();
+        }
+        return new SmtpMailPort(sender, properties.getFromAddress());
+    }
+}
@@ -0,0 +1,95 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.outbox")
+public class OutboxProperties {
+
+    /**
+     * Run the scheduled dispatcher. Messages are still written to the outbox when disabled.
+     */
+    private boolean dispatcherEnabled = true;
+
+    /**
+     * Maximum number of messages claimed per database round trip.
+     */
+    private int batchSize = 50;
+
+    /**
+     * How long a claimed message stays invisible to other dispatchers while it is being sent.
+     */
+    private Duration lease = Duration.ofMinutes(5);
+
+    /**
+     * Delay before the first retry; doubled on every further failure up to {@link #maxBackoff}.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    /**
+     * Attempts before a message is given up on and marked FAILED.
+     */
+    private int maxAttempts = 8;
+
+    private String fromAddress = "noreply@spondy.rotchess.com";
+
+    // Getters and Setters
+    public boolean isDispatcherEnabled() {
+        return dispatcherEnabled;
+    }
+
+    public void setDispatcherEnabled(boolean dispatcherEnabled) {
+        this.dispatcherEnabled = dispatcherEnabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    public void setLease(Duration lease) {
+        this.lease = lease;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public String getFromAddress() {
+        return fromAddress;
+    }
+
+    public void setFromAddress(String fromAddress) {
+        this.fromAddress = fromAddress;
+    }
+}
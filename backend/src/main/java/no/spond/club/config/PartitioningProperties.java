@@ -0,0 +1,90 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.partitioning")
+public class PartitioningProperties {
+
+    /**
+     * Maintain a partition of {@code registrations} per form and archive closed forms. PostgreSQL
+     * only, and the table must have been created partitioned by
+     * {@code db/registrations-partitioning-postgresql.sql}.
+     */
+    private boolean enabled = false;
+
+    private Duration maintenanceInterval = Duration.ofMinutes(15);
+
+    /**
+     * How long a form stays closed before its registrations are moved out of the database.
+     */
+    private Duration archiveAfter = Duration.ofDays(30);
+
+    /**
+     * Archive a closed form only once its latest invoice run has completed. Invoicing reads the
+     * live table, so a form archived before it is billed is never billed.
+     */
+    private boolean requireInvoiced = true;
+
+    /**
+     * Where archived partitions are written, one gzipped CSV file per form.
+     */
+    private Path archiveDirectory = Path.of("data", "archive");
+
+    /**
+     * Longest a maintenance step waits for a table lock before giving up until the next run, so
+     * it never queues registrations behind a long-running transaction.
+     */
+    private Duration lockTimeout = Duration.ofSeconds(5);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaintenanceInterval() {
+        return maintenanceInterval;
+    }
+
+    public void setMaintenanceInterval(Duration maintenanceInterval) {
+        this.maintenanceInterval = maintenanceInterval;
+    }
+
+    public Duration getArchiveAfter() {
+        return archiveAfter;
+    }
+
+    public void setArchiveAfter(Duration archiveAfter) {
+        this.archiveAfter = archiveAfter;
+    }
+
+    public boolean isRequireInvoiced() {
+        return requireInvoiced;
+    }
+
+    public void setRequireInvoiced(boolean requireInvoiced) {
+        this.requireInvoiced = requireInvoiced;
+    }
+
+    public Path getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    public void setArchiveDirectory(Path archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    public Duration getLockTimeout() {
+        return lockTimeout;
+    }
+
+    public void setLockTimeout(Duration lockTimeout) {
+        this.lockTimeout = lockTimeout;
+    }
+}
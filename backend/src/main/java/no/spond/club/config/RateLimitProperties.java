@@ -0,0 +1,143 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "spondy.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Reverse proxies in front of the application that append to {@code X-Forwarded-For}.
+     * The client is the address the outermost of them saw; with 0 the header is ignored, so
+     * it cannot be spoofed when clients reach the application directly.
+     */
+    private int trustedProxies = 0;
+
+    /**
+     * Clients tracked per endpoint. Clients beyond this share one bucket until idle ones are evicted.
+     */
+    private int maxClients = 100_000;
+
+    /**
+     * A client's bucket is dropped once it has been full for this long.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * Limits keyed by endpoint name, checked in order; a request counts against the first match only.
+     */
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(int trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public static class Endpoint {
+
+        /**
+         * HTTP methods the limit applies to; empty means all.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Path patterns such as {@code /api/form/{formId}/register}.
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * Requests a client may make in a burst.
+         */
+        private int capacity = 20;
+
+        /**
+         * Tokens added back per second, i.e. the sustained rate.
+         */
+        private double refillPerSecond = 10;
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
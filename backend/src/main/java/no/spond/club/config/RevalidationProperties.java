@@ -0,0 +1,65 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "spondy.revalidation")
+public class RevalidationProperties {
+
+    /**
+     * Where violation reports are written, one CSV file per run.
+     */
+    private Path reportDirectory = Path.of("data", "reports");
+
+    /**
+     * Registration IDs per fork-join task. The form's ID span is cut into ranges of this size
+     * up front, which is also the unit progress is reported in.
+     */
+    private int rangeSize = 20_000;
+
+    /**
+     * Registrations read per database round trip.
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Fork-join workers reading and checking ranges; 0 uses one per available processor. Each
+     * holds a pooled connection while it reads a page, so this stays well below the pool size to
+     * leave room for registrations.
+     */
+    private int parallelism = 2;
+
+    // Getters and Setters
+    public Path getReportDirectory() {
+        return reportDirectory;
+    }
+
+    public void setReportDirectory(Path reportDirectory) {
+        this.reportDirectory = reportDirectory;
+    }
+
+    public int getRangeSize() {
+        return rangeSize;
+    }
+
+    public void setRangeSize(int rangeSize) {
+        this.rangeSize = rangeSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
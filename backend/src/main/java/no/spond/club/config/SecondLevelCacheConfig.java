@@ -0,0 +1,52 @@
+package no.spond.club.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Gives Hibernate's second-level cache a Caffeine cache manager of its own, configured from
+ * {@code application.conf}. The JCache default manager is shared by everything in the JVM, so
+ * two application contexts (as in the tests) would otherwise read each other's rows by ID.
+ * Region sizes can be lowered per profile with {@code spondy.hibernate-cache.maximum-size}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        // Any URI other than a file or classpath resource makes Caffeine read application.conf
+        URI uri = URI.create("spondy-hibernate:" + UUID.randomUUID());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, SecondLevelCacheConfig.class.getClassLoader());
+        properties.getMaximumSize().forEach((region, maximumSize) -> resize(cacheManager, region, maximumSize));
+        return cacheManager;
+    }
+
+    /**
+     * Creates the region from application.conf, as Hibernate would on first use, and lowers its bound.
+     */
+    private static void resize(CacheManager cacheManager, String region, long maximumSize) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        if (cache == null) {
+            throw new IllegalStateException("No second-level cache region '" + region + "' in application.conf");
+        }
+        com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        caffeine.policy().eviction()
+                .orElseThrow(() -> new IllegalStateException("Second-level cache region '" + region + "' is unbounded"))
+                .setMaximum(maximumSize);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
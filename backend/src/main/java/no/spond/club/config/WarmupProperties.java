@@ -0,0 +1,50 @@
+package no.spond.club.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "spondy.warmup")
+public class WarmupProperties {
+
+    /**
+     * Times the request validation, eligibility check and JSON serialization of a form are run
+     * when it is warmed, so the JIT has compiled them before real requests arrive.
+     */
+    private int iterations = 2000;
+
+    /**
+     * Read-only transactions against the form and registration tables per warmup, so Hibernate's
+     * query plans, the connection pool and the JDBC driver are exercised as well.
+     */
+    private int roundTrips = 50;
+
+    /**
+     * Whether the default form is warmed when the application has started. Readiness reports
+     * OUT_OF_SERVICE until it is done.
+     */
+    private boolean onStartup = true;
+
+    // Getters and Setters
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    public void setRoundTrips(int roundTrips) {
+        this.roundTrips = roundTrips;
+    }
+
+    public boolean isOnStartup() {
+        return onStartup;
+    }
+
+    public void setOnStartup(boolean onStartup) {
+        this.onStartup = onStartup;
+    }
+}
@@ -0,0 +1,84 @@
+package no.spond.club.controller;
+
+import no.spond.club.duplicates.DuplicateDetectionJob;
+import no.spond.club.duplicates.DuplicateJobStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Starts the duplicate member scan and serves its report. Behind the same proxy restriction as
+ * the rest of {@code /api/admin}.
+ */
+@RestController
+@RequestMapping("/api/admin/duplicates")
+public class DuplicateReportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final DuplicateDetectionJob duplicateDetectionJob;
+
+    @Autowired
+    public DuplicateReportController(DuplicateDetectionJob duplicateDetectionJob) {
+        this.duplicateDetectionJob = duplicateDetectionJob;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> start() {
+        if (!duplicateDetectionJob.start()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Et duplikatsøk kjører allerede.");
+            response.put("error", "JOB_RUNNING");
+            response.put("data", duplicateDetectionJob.status());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ok(HttpStatus.ACCEPTED, "Duplikatsøket er startet.", duplicateDetectionJob.status());
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ok(HttpStatus.OK, null, duplicateDetectionJob.status());
+    }
+
+    @GetMapping("/report")
+    public ResponseEntity<?> report() {
+        Optional<Path> report = duplicateDetectionJob.latestReport();
+        if (report.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Det finnes ingen fullført duplikatrapport.");
+            response.put("error", "REPORT_NOT_FOUND");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        Resource file = new FileSystemResource(report.get());
+        return ResponseEntity.ok()
+            .contentType(TEXT_CSV)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + report.get().getFileName() + "\"")
+            .body(file);
+    }
+
+    private ResponseEntity<Map<String, Object>> ok(HttpStatus status, String message, DuplicateJobStatus job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        if (message != null) {
+            response.put("message", message);
+        }
+        response.put("data", job);
+        return ResponseEntity.status(status).body(response);
+    }
+}
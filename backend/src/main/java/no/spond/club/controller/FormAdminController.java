@@ -0,0 +1,125 @@
+package no.spond.club.controller;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.service.FormAdministrationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Form administration. Not meant to be reachable from the public internet; both nginx configs
+ * deny {@code /api/admin}, so it is only served on the backend's own port.
+ */
+@RestController
+@RequestMapping("/api/admin/forms")
+public class FormAdminController {
+
+    private final FormAdministrationService formAdministrationService;
+
+    @Autowired
+    public FormAdminController(FormAdministrationService formAdministrationService) {
+        this.formAdministrationService = formAdministrationService;
+    }
+
+    @GetMapping("/{formId}")
+    public ResponseEntity<Map<String, Object>> getForm(@PathVariable String formId) {
+        return ok(HttpStatus.OK, null, formAdministrationService.getForm(formId));
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createForm(@Valid @RequestBody FormAdminDto request,
+                                                          BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return validationError(bindingResult);
+        }
+        return ok(HttpStatus.CREATED, "Skjemaet er opprettet.", formAdministrationService.createForm(request));
+    }
+
+    @PutMapping("/{formId}")
+    public ResponseEntity<Map<String, Object>> updateForm(@PathVariable String formId,
+                                                          @Valid @RequestBody FormAdminDto request,
+                                                          BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return validationError(bindingResult);
+        }
+        return ok(HttpStatus.OK, "Skjemaet er oppdatert.", formAdministrationService.updateForm(formId, request));
+    }
+
+    @PostMapping("/{formId}/clone")
+    public ResponseEntity<Map<String, Object>> cloneForm(@PathVariable String formId,
+                                                         @RequestBody(required = false) FormCloneRequestDto request) {
+        return ok(HttpStatus.CREATED, "Skjemaet er kopiert.", formAdministrationService.cloneForm(formId, request));
+    }
+
+    @PostMapping("/{formId}/close")
+    public ResponseEntity<Map<String, Object>> closeForm(@PathVariable String formId) {
+        return ok(HttpStatus.OK, "Skjemaet er stengt for påmelding.", formAdministrationService.closeForm(formId));
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleUnknownForm(EntityNotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, e.getMessage(), "FORM_NOT_FOUND");
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidInput(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage(), "INVALID_INPUT");
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleVersionConflict(OptimisticLockingFailureException e) {
+        return error(HttpStatus.CONFLICT, "Skjemaet er endret av noen andre. Hent det på nytt og prøv igjen.",
+            "VERSION_CONFLICT");
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, Object>> handleInUse(IllegalStateException e) {
+        return error(HttpStatus.CONFLICT, e.getMessage(), "FORM_IN_USE");
+    }
+
+    private ResponseEntity<Map<String, Object>> ok(HttpStatus status, String message, FormAdminDto form) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        if (message != null) {
+            response.put("message", message);
+        }
+        response.put("data", form);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> validationError(BindingResult bindingResult) {
+        Map<String, String> fieldErrors = bindingResult.getFieldErrors()
+            .stream()
+            .collect(Collectors.toMap(
+                FieldError::getField,
+                FieldError::getDefaultMessage,
+                (existing, replacement) -> existing
+            ));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Vennligst rett opp følgende feil:");
+        response.put("error", "VALIDATION_ERROR");
+        response.put("fieldErrors", fieldErrors);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message, String error) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        response.put("error", error);
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,69 @@
+package no.spond.club.controller;
+
+import no.spond.club.invoicing.InvoicingJob;
+import no.spond.club.invoicing.InvoicingStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts invoicing a form and reports its progress. Behind the same proxy restriction as the
+ * rest of {@code /api/admin}.
+ */
+@RestController
+@RequestMapping("/api/admin/invoices")
+public class InvoiceController {
+
+    private final InvoicingJob invoicingJob;
+
+    @Autowired
+    public InvoiceController(InvoicingJob invoicingJob) {
+        this.invoicingJob = invoicingJob;
+    }
+
+    @PostMapping("/{formId}")
+    public ResponseEntity<Map<String, Object>> start(@PathVariable String formId) {
+        boolean started;
+        try {
+            started = invoicingJob.start(formId);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("error", "FORM_NOT_FOUND");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        if (!started) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "En fakturering kjører allerede.");
+            response.put("error", "JOB_RUNNING");
+            response.put("data", invoicingJob.status());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ok(HttpStatus.ACCEPTED, "Faktureringen er startet.", invoicingJob.status());
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ok(HttpStatus.OK, null, invoicingJob.status());
+    }
+
+    private ResponseEntity<Map<String, Object>> ok(HttpStatus status, String message, InvoicingStatus job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        if (message != null) {
+            response.put("message", message);
+        }
+        response.put("data", job);
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,66 @@
+package no.spond.club.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import no.spond.club.config.RateLimitProperties;
+import no.spond.club.live.LiveRegistrationCounts;
+import no.spond.club.ratelimit.ClientAddress;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class LiveCountsController {
+
+    private final LiveRegistrationCounts liveCounts;
+    private final RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    public LiveCountsController(LiveRegistrationCounts liveCounts, RateLimitProperties rateLimitProperties) {
+        this.liveCounts = liveCounts;
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    @GetMapping("/form/{formId}/live")
+    public ResponseEntity<SseEmitter> live(@PathVariable String formId, HttpServletRequest request) {
+        // The same client the rate limiter sees, so the per-client stream limit cannot be spoofed either
+        String client = ClientAddress.resolve(request.getRemoteAddr(), request.getHeader("X-Forwarded-For"),
+            rateLimitProperties.getTrustedProxies());
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            // Tells nginx not to buffer the stream
+            .header("X-Accel-Buffering", "no")
+            .body(liveCounts.subscribe(formId, client));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleUnknownForm(IllegalArgumentException e) {
+        return error(HttpStatus.NOT_FOUND, e.getMessage(), "FORM_NOT_FOUND");
+    }
+
+    @ExceptionHandler(LiveRegistrationCounts.ClientLimitReached.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyClientStreams(LiveRegistrationCounts.ClientLimitReached e) {
+        return error(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), "RATE_LIMITED");
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManySubscribers(IllegalStateException e) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), "LIVE_UNAVAILABLE");
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message, String error) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        response.put("error", error);
+        // Explicit, so an EventSource asking only for text/event-stream still gets the status
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+}
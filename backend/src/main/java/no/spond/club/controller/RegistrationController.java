@@ -3,7 +3,10 @@ package no.spond.club.controller;
 import jakarta.validation.Valid;
 import no.spond.club.dto.RegistrationFormDto;
 import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.service.FieldValidationService;
+import no.spond.club.service.JournaledRegistrationService;
 import no.spond.club.service.RegistrationFormService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,10 +23,16 @@ import java.util.stream.Collectors;
 public class RegistrationController {
     
     private final RegistrationFormService registrationFormService;
+    private final FieldValidationService fieldValidationService;
+    private final JournaledRegistrationService journaledRegistrationService;
     
     @Autowired
-    public RegistrationController(RegistrationFormService registrationFormService) {
+    public RegistrationController(RegistrationFormService registrationFormService,
+                                  FieldValidationService fieldValidationService,
+                                  ObjectProvider<JournaledRegistrationService> journaledRegistrationService) {
         this.registrationFormService = registrationFormService;
+        this.fieldValidationService = fieldValidationService;
+        this.journaledRegistrationService = journaledRegistrationService.getIfAvailable();
     }
     
     @GetMapping("/form")
@@ -93,6 +102,17 @@ public class RegistrationController {
         }
         
         try {
+            if (journaledRegistrationService != null) {
+                // Durability mode: accepted once journaled, stored in the database shortly after
+                journaledRegistrationService.submit(formId, request);
+                
+                response.put("success", true);
+                response.put("message", "Takk for din registrering! Du vil motta en bekreftelse på e-post.");
+                response.put("memberName", request.getFullName());
+                
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            }
+            
             Long registrationId = registrationFormService.registerMember(formId, request);
             
             response.put("success", true);
@@ -118,6 +138,28 @@ public class RegistrationController {
         }
     }
     
+    /**
+     * Checks the fields given so far, e.g. when one loses focus. Fields left out are not checked.
+     * Answers 200 either way; nothing is read from the database.
+     */
+    @PostMapping("/form/{formId}/validate")
+    public ResponseEntity<Map<String, Object>> validateFields(
+            @PathVariable String formId,
+            @RequestBody RegistrationRequestDto request) {
+        
+        Map<String, String> fieldErrors = fieldValidationService.validateFields(request);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", fieldErrors.isEmpty());
+        if (!fieldErrors.isEmpty()) {
+            response.put("message", "Vennligst rett opp følgende feil:");
+            response.put("error", "VALIDATION_ERROR");
+        }
+        response.put("fieldErrors", fieldErrors);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleException(Exception e) {
         Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,70 @@
+package no.spond.club.controller;
+
+import no.spond.club.dto.RegistrationSearchHitDto;
+import no.spond.club.search.RegistrationSearchIndex;
+import no.spond.club.service.RegistrationFormService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searches a form's registrants by name and e-mail. Answers with personal data, so it lives
+ * under {@code /api/admin} and is only reachable on the backend's own port.
+ */
+@RestController
+@RequestMapping("/api/admin/forms")
+public class RegistrationSearchController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final RegistrationSearchIndex searchIndex;
+    private final RegistrationFormService registrationFormService;
+    
+    @Autowired
+    public RegistrationSearchController(RegistrationSearchIndex searchIndex,
+                                        RegistrationFormService registrationFormService) {
+        this.searchIndex = searchIndex;
+        this.registrationFormService = registrationFormService;
+    }
+    
+    @GetMapping("/{formId}/registrations/search")
+    public ResponseEntity<Map<String, Object>> search(
+            @PathVariable String formId,
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        if (query == null || query.trim().isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Søkeord mangler.");
+            response.put("error", "INVALID_INPUT");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        
+        try {
+            // Unknown forms are a 404, not an empty result
+            registrationFormService.getFormById(formId);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("error", "FORM_NOT_FOUND");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        
+        List<RegistrationSearchHitDto> hits = searchIndex
+            .search(formId, query, Math.max(1, Math.min(limit, MAX_LIMIT)))
+            .stream()
+            .map(hit -> new RegistrationSearchHitDto(hit.registrationId(), hit.fullName(), hit.email()))
+            .toList();
+        
+        response.put("success", true);
+        response.put("data", hits);
+        return ResponseEntity.ok(response);
+    }
+}
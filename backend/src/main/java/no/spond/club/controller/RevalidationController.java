@@ -0,0 +1,95 @@
+package no.spond.club.controller;
+
+import no.spond.club.revalidation.RevalidationJob;
+import no.spond.club.revalidation.RevalidationStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Starts re-validating a form's registrations against its current rules and serves the
+ * violations report. Behind the same proxy restriction as the rest of {@code /api/admin}.
+ */
+@RestController
+@RequestMapping("/api/admin/revalidation")
+public class RevalidationController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final RevalidationJob revalidationJob;
+
+    @Autowired
+    public RevalidationController(RevalidationJob revalidationJob) {
+        this.revalidationJob = revalidationJob;
+    }
+
+    @PostMapping("/{formId}")
+    public ResponseEntity<Map<String, Object>> start(@PathVariable String formId) {
+        boolean started;
+        try {
+            started = revalidationJob.start(formId);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("error", "FORM_NOT_FOUND");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        if (!started) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "En revalidering kjører allerede.");
+            response.put("error", "JOB_RUNNING");
+            response.put("data", revalidationJob.status());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ok(HttpStatus.ACCEPTED, "Revalideringen er startet.", revalidationJob.status());
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ok(HttpStatus.OK, null, revalidationJob.status());
+    }
+
+    @GetMapping("/report")
+    public ResponseEntity<?> report() {
+        Optional<Path> report = revalidationJob.latestReport();
+        if (report.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Det finnes ingen fullført revalideringsrapport.");
+            response.put("error", "REPORT_NOT_FOUND");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        Resource file = new FileSystemResource(report.get());
+        return ResponseEntity.ok()
+            .contentType(TEXT_CSV)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + report.get().getFileName() + "\"")
+            .body(file);
+    }
+
+    private ResponseEntity<Map<String, Object>> ok(HttpStatus status, String message, RevalidationStatus job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        if (message != null) {
+            response.put("message", message);
+        }
+        response.put("data", job);
+        return ResponseEntity.status(status).body(response);
+    }
+}
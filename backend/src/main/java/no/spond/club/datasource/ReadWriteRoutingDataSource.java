@@ -0,0 +1,83 @@
+package no.spond.club.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the replica, and
+ * everything else to the primary. Read-only work falls back to the primary while the
+ * replica is unhealthy or a replica connection cannot be obtained.
+ *
+ * <p>Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager opens its connection before the read-only flag is bound to the
+ * thread, so the choice has to wait until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealthMonitor replicaHealth;
+    private final Counter primaryRoute;
+    private final Counter replicaRoute;
+    private final Counter fallbackRoute;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaHealthMonitor replicaHealth, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaHealth = replicaHealth;
+        this.primaryRoute = routeCounter(meterRegistry, "primary");
+        this.replicaRoute = routeCounter(meterRegistry, "replica");
+        this.fallbackRoute = routeCounter(meterRegistry, "fallback");
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("spondy.datasource.route")
+                .description("Connections handed out, by pool; fallback is read-only work sent to the primary")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routed like {@link #getConnection()}; the chosen pool decides whether it takes per-call credentials.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(pool -> pool.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoute.increment();
+            return source.open(primary);
+        }
+
+        if (replicaHealth.isHealthy()) {
+            try {
+                Connection connection = source.open(replica);
+                replicaRoute.increment();
+                return connection;
+            } catch (SQLException e) {
+                replicaHealth.markDown(e);
+            }
+        }
+        fallbackRoute.increment();
+        return source.open(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource pool) throws SQLException;
+    }
+}
@@ -0,0 +1,82 @@
+package no.spond.club.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Decides whether the replica may serve reads. Checked on a schedule; a failed connection
+ * attempt from {@link ReadWriteRoutingDataSource} also takes the replica out until the next
+ * successful check.
+ */
+public class ReplicaHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    private volatile boolean healthy;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaHealthMonitor(DataSource replica, Duration maxLag, String lagQuery, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+
+        Gauge.builder("spondy.datasource.replica.healthy", this, monitor -> monitor.healthy ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        Gauge.builder("spondy.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${spondy.datasource.routing.check-interval:PT5S}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                update(connection.isValid(2), "not reachable");
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.NaN;
+            }
+            update(lagSeconds <= maxLag.toMillis() / 1000.0, "lagging " + lagSeconds + "s");
+        } catch (SQLException e) {
+            lagSeconds = Double.NaN;
+            update(false, e.getMessage());
+        }
+    }
+
+    /**
+     * Called when a replica connection could not be obtained during a request.
+     */
+    void markDown(SQLException cause) {
+        update(false, cause.getMessage());
+    }
+
+    private void update(boolean nowHealthy, String reason) {
+        if (healthy && !nowHealthy) {
+            log.warn("Replica taken out of rotation, reads go to the primary: {}", reason);
+        } else if (!healthy && nowHealthy) {
+            log.info("Replica back in rotation for read-only transactions");
+        }
+        healthy = nowHealthy;
+    }
+}
@@ -0,0 +1,124 @@
+package no.spond.club.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A whole form as the admin API reads and writes it. {@code formId} and {@code closedAt} are
+ * ignored on input; {@code version} must be the one last read when updating.
+ */
+public class FormAdminDto {
+    
+    private String formId;
+    
+    private String clubId;
+    
+    @NotBlank(message = "Tittel er påkrevd")
+    private String title;
+    
+    private String description;
+    
+    @NotNull(message = "Registreringsdato er påkrevd")
+    private LocalDate registrationDate;
+    
+    private LocalDateTime registrationCloses;
+    
+    private LocalDateTime closedAt;
+    
+    private Long version;
+    
+    @NotEmpty(message = "Skjemaet må ha minst én medlemstype")
+    private List<@Valid MemberTypeAdminDto> memberTypes;
+    
+    @NotEmpty(message = "Skjemaet må ha minst én gruppe")
+    private List<@Valid GroupAdminDto> groups;
+    
+    // Constructors
+    public FormAdminDto() {}
+    
+    // Getters and Setters
+    public String getFormId() {
+        return formId;
+    }
+    
+    public void setFormId(String formId) {
+        this.formId = formId;
+    }
+    
+    public String getClubId() {
+        return clubId;
+    }
+    
+    public void setClubId(String clubId) {
+        this.clubId = clubId;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDate getRegistrationDate() {
+        return registrationDate;
+    }
+    
+    public void setRegistrationDate(LocalDate registrationDate) {
+        this.registrationDate = registrationDate;
+    }
+    
+    public LocalDateTime getRegistrationCloses() {
+        return registrationCloses;
+    }
+    
+    public void setRegistrationCloses(LocalDateTime registrationCloses) {
+        this.registrationCloses = registrationCloses;
+    }
+    
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+    
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public List<MemberTypeAdminDto> getMemberTypes() {
+        return memberTypes;
+    }
+    
+    public void setMemberTypes(List<MemberTypeAdminDto> memberTypes) {
+        this.memberTypes = memberTypes;
+    }
+    
+    public List<GroupAdminDto> getGroups() {
+        return groups;
+    }
+    
+    public void setGroups(List<GroupAdminDto> groups) {
+        this.groups = groups;
+    }
+}
@@ -0,0 +1,38 @@
+package no.spond.club.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Optional overrides for a cloned form; anything left out is copied from the original.
+ */
+public class FormCloneRequestDto {
+    
+    private String title;
+    
+    private LocalDate registrationDate;
+    
+    // Constructors
+    public FormCloneRequestDto() {}
+    
+    public FormCloneRequestDto(String title, LocalDate registrationDate) {
+        this.title = title;
+        this.registrationDate = registrationDate;
+    }
+    
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public LocalDate getRegistrationDate() {
+        return registrationDate;
+    }
+    
+    public void setRegistrationDate(LocalDate registrationDate) {
+        this.registrationDate = registrationDate;
+    }
+}
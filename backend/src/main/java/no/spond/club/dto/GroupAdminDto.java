@@ -0,0 +1,64 @@
+package no.spond.club.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import no.spond.club.model.EligibilityRule;
+
+/**
+ * A group in the admin API. Groups have no public ID, so they are matched on their database ID.
+ */
+public class GroupAdminDto {
+    
+    private Long id;
+    
+    @NotBlank(message = "Navn på gruppe er påkrevd")
+    private String name;
+    
+    private String description;
+    
+    @Valid
+    private EligibilityRule eligibility;
+    
+    // Constructors
+    public GroupAdminDto() {}
+    
+    public GroupAdminDto(Long id, String name, String description, EligibilityRule eligibility) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.eligibility = eligibility;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public EligibilityRule getEligibility() {
+        return eligibility;
+    }
+    
+    public void setEligibility(EligibilityRule eligibility) {
+        this.eligibility = eligibility;
+    }
+}
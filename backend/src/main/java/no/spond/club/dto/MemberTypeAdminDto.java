@@ -0,0 +1,81 @@
+package no.spond.club.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import no.spond.club.model.EligibilityRule;
+import java.math.BigDecimal;
+
+/**
+ * A member type in the admin API. Without an {@code id} it is added to the form; existing
+ * member types left out of an update are removed.
+ */
+public class MemberTypeAdminDto {
+    
+    private String id;
+    
+    @NotBlank(message = "Navn på medlemstype er påkrevd")
+    private String name;
+    
+    private String description;
+    
+    @NotNull(message = "Pris er påkrevd")
+    @PositiveOrZero(message = "Pris kan ikke være negativ")
+    private BigDecimal price;
+    
+    @Valid
+    private EligibilityRule eligibility;
+    
+    // Constructors
+    public MemberTypeAdminDto() {}
+    
+    public MemberTypeAdminDto(String id, String name, String description, BigDecimal price, EligibilityRule eligibility) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.eligibility = eligibility;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public EligibilityRule getEligibility() {
+        return eligibility;
+    }
+    
+    public void setEligibility(EligibilityRule eligibility) {
+        this.eligibility = eligibility;
+    }
+}
@@ -9,7 +9,9 @@ public class RegistrationFormDto {
     private String title;
     private String description;
     private LocalDateTime registrationOpens;
+    private LocalDateTime registrationCloses;
     private List<MemberTypeDto> memberTypes;
+    private boolean closed;
     
     // Constructors
     public RegistrationFormDto() {}
@@ -65,6 +67,14 @@ public class RegistrationFormDto {
         this.registrationOpens = registrationOpens;
     }
     
+    public LocalDateTime getRegistrationCloses() {
+        return registrationCloses;
+    }
+    
+    public void setRegistrationCloses(LocalDateTime registrationCloses) {
+        this.registrationCloses = registrationCloses;
+    }
+    
     public List<MemberTypeDto> getMemberTypes() {
         return memberTypes;
     }
@@ -72,4 +82,12 @@ public class RegistrationFormDto {
     public void setMemberTypes(List<MemberTypeDto> memberTypes) {
         this.memberTypes = memberTypes;
     }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
 } 
\ No newline at end of file
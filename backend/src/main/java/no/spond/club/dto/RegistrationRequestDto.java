@@ -3,6 +3,7 @@ package no.spond.club.dto;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import jakarta.validation.Constraint;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -21,21 +22,26 @@ import java.lang.annotation.Target;
 public class RegistrationRequestDto {
     
     @NotBlank(message = "Fullt navn er påkrevd")
+    @Size(max = 255, message = "Fullt navn kan ikke være lengre enn 255 tegn")
     private String fullName;
     
     @NotBlank(message = "E-post er påkrevd")
+    @Size(max = 255, message = "E-post kan ikke være lengre enn 255 tegn")
     @Pattern(regexp = "^[A-Za-z0-9][A-Za-z0-9+_.-]*@[A-Za-z0-9][A-Za-z0-9.-]*\\.[A-Za-z]{2,}$", message = "Ugyldig e-postadresse format")
     private String email;
     
     @NotBlank(message = "Telefonnummer er påkrevd")
+    @Size(max = 255, message = "Telefonnummer kan ikke være lengre enn 255 tegn")
     @Pattern(regexp = "^\\d{8,11}$", message = "Telefonnummer må være mellom 8-11 siffer")
     private String phoneNumber;
     
     @NotBlank(message = "Fødselsdato er påkrevd")
+    @Size(max = 255, message = "Fødselsdato kan ikke være lengre enn 255 tegn")
     @ValidBirthDate(message = "Ugyldig fødselsdato. Må være i format DD.MM.YYYY og i fortiden")
     private String birthDate;
     
     @NotBlank(message = "Medlemstype må velges")
+    @Size(max = 255, message = "Medlemstype kan ikke være lengre enn 255 tegn")
     private String memberTypeId;
     
     private static final DateTimeFormatter BIRTH_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
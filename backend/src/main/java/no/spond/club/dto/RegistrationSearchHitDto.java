@@ -0,0 +1,41 @@
+package no.spond.club.dto;
+
+public class RegistrationSearchHitDto {
+    private Long registrationId;
+    private String fullName;
+    private String email;
+    
+    // Constructors
+    public RegistrationSearchHitDto() {}
+    
+    public RegistrationSearchHitDto(Long registrationId, String fullName, String email) {
+        this.registrationId = registrationId;
+        this.fullName = fullName;
+        this.email = email;
+    }
+    
+    // Getters and Setters
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+    
+    public void setRegistrationId(Long registrationId) {
+        this.registrationId = registrationId;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,10 @@
+package no.spond.club.duplicates;
+
+import java.time.LocalDate;
+
+/**
+ * The columns duplicate detection compares, read in birth date order.
+ */
+public record DuplicateCandidate(long id, String formId, String fullName, String email,
+                                 String phoneNumber, LocalDate birthDate) {
+}
@@ -0,0 +1,188 @@
+package no.spond.club.duplicates;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.DuplicateDetectionProperties;
+import no.spond.club.job.CsvReport;
+import no.spond.club.job.SingleRunExecutor;
+import no.spond.club.repository.RegistrationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link DuplicateDetector} over every registration, in the background, and streams the
+ * matches to {@code duplicates-<timestamp>.csv} in the report directory. Registrations are read
+ * in keyset pages in birth date order, one short query per page, so no transaction or lock is
+ * held while scoring and live registrations are not held up. One run at a time per instance.
+ */
+@Component
+public class DuplicateDetectionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetectionJob.class);
+    private static final DateTimeFormatter REPORT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final LocalDate FIRST_DATE = LocalDate.of(1, 1, 1);
+    static final String REPORT_HEADER = "score,first_id,first_form,first_name,first_email,"
+            + "second_id,second_form,second_name,second_email,same_email,same_phone";
+
+    private final RegistrationRepository registrationRepository;
+    private final DuplicateDetectionProperties properties;
+    private final Clock clock;
+    private final Timer runTimer;
+    private final DuplicateScorer scorer = new DuplicateScorer();
+    private final SingleRunExecutor runner = new SingleRunExecutor("duplicate-detection");
+
+    private volatile DuplicateJobStatus lastStatus = DuplicateJobStatus.idle();
+    private volatile DuplicateDetector current;
+    private volatile LocalDateTime currentStartedAt;
+
+    @Autowired
+    public DuplicateDetectionJob(RegistrationRepository registrationRepository,
+                                 DuplicateDetectionProperties properties,
+                                 Clock clock,
+                                 MeterRegistry meterRegistry) {
+        this.registrationRepository = registrationRepository;
+        this.properties = properties;
+        this.clock = clock;
+        this.runTimer = Timer.builder("spondy.duplicates.run")
+                .description("Duplicate detection runs over all registrations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return false if a run is already in progress
+     */
+    public boolean start() {
+        return runner.start(() -> {
+            currentStartedAt = LocalDateTime.now(clock);
+            lastStatus = new DuplicateJobStatus(DuplicateJobStatus.State.RUNNING, currentStartedAt, null, 0, 0, 0, null, null);
+        }, this::run);
+    }
+
+    /**
+     * Progress of the running job, or the outcome of the last one.
+     */
+    public DuplicateJobStatus status() {
+        DuplicateDetector detector = current;
+        if (detector != null) {
+            return new DuplicateJobStatus(DuplicateJobStatus.State.RUNNING, currentStartedAt, null,
+                    detector.candidates(), detector.comparisons(), detector.matches(), null, null);
+        }
+        return lastStatus;
+    }
+
+    /**
+     * The report of the last completed run.
+     */
+    public Optional<Path> latestReport() {
+        DuplicateJobStatus status = lastStatus;
+        if (status.state() != DuplicateJobStatus.State.COMPLETED) {
+            return Optional.empty();
+        }
+        Path report = properties.getReportDirectory().resolve(status.report());
+        return Files.exists(report) ? Optional.of(report) : Optional.empty();
+    }
+
+    DuplicateJobStatus run() {
+        LocalDateTime startedAt = currentStartedAt != null ? currentStartedAt : LocalDateTime.now(clock);
+        String name = "duplicates-" + startedAt.format(REPORT_TIMESTAMP) + ".csv";
+        Path target = properties.getReportDirectory().resolve(name);
+        Path temporary = target.resolveSibling(name + ".tmp");
+        long start = System.nanoTime();
+        DuplicateDetector detector = null;
+        try {
+            Files.createDirectories(target.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(REPORT_HEADER);
+                writer.newLine();
+                detector = new DuplicateDetector(scorer, properties.getThreshold(), properties.getParallelism(),
+                        properties.getMaxPendingRows(), match -> write(writer, match));
+                current = detector;
+                scan(detector);
+                detector.finish();
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            lastStatus = new DuplicateJobStatus(DuplicateJobStatus.State.COMPLETED, startedAt, LocalDateTime.now(clock),
+                    detector.candidates(), detector.comparisons(), detector.matches(), name, null);
+            log.info("Duplicate detection compared {} pairs among {} registrations and found {} likely duplicates in {} ms",
+                    detector.comparisons(), detector.candidates(), detector.matches(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            if (detector != null) {
+                detector.cancel();
+            }
+            CsvReport.deleteQuietly(temporary);
+            lastStatus = new DuplicateJobStatus(DuplicateJobStatus.State.FAILED, startedAt, LocalDateTime.now(clock),
+                    detector != null ? detector.candidates() : 0, detector != null ? detector.comparisons() : 0,
+                    detector != null ? detector.matches() : 0, null, e.getMessage());
+            log.error("Duplicate detection failed", e);
+        } finally {
+            current = null;
+            currentStartedAt = null;
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return lastStatus;
+    }
+
+    private void scan(DuplicateDetector detector) {
+        LocalDate afterDate = FIRST_DATE;
+        long afterId = 0;
+        List<DuplicateCandidate> page;
+        do {
+            page = registrationRepository.findForDuplicateScan(afterDate, afterId, PageRequest.ofSize(properties.getPageSize()));
+            for (DuplicateCandidate candidate : page) {
+                detector.accept(candidate);
+                afterDate = candidate.birthDate();
+                afterId = candidate.id();
+            }
+        } while (page.size() == properties.getPageSize());
+    }
+
+    private static void write(Writer writer, DuplicateMatch match) {
+        String line = String.join(",",
+                String.format(Locale.ROOT, "%.3f", match.score()),
+                String.valueOf(match.first().id()), CsvReport.field(match.first().formId()),
+                CsvReport.field(match.first().fullName()), CsvReport.field(match.first().email()),
+                String.valueOf(match.second().id()), CsvReport.field(match.second().formId()),
+                CsvReport.field(match.second().fullName()), CsvReport.field(match.second().email()),
+                String.valueOf(match.sameEmail()), String.valueOf(match.samePhone()));
+        try {
+            synchronized (writer) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        DuplicateDetector detector = current;
+        if (detector != null) {
+            detector.cancel();
+        }
+        runner.shutdown();
+    }
+}
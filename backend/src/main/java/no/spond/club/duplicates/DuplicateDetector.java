@@ -0,0 +1,220 @@
+package no.spond.club.duplicates;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Finds likely duplicate registrations without comparing every pair. Candidates arrive in birth
+ * date order; all candidates of one birth date are blocked twice, by the phonetic code of the
+ * first name and by that of the last name, and pairs are scored only within a block. A pair
+ * sharing both codes is scored in the first-name block only. Each birth date is scored as a
+ * fork-join task while the next ones are read, and a large block is split by rows.
+ *
+ * <p>Work grows with the number of candidates times the size of a block, which stays small as
+ * long as birth dates spread out, so a million registrations take about four times as long as
+ * a quarter million. Pairs that differ in birth date, or in both name codes, are not compared.
+ *
+ * <p>Matches are passed to the sink from the worker threads.
+ */
+public class DuplicateDetector {
+
+    /**
+     * Comparisons below which a block is scored in one task.
+     */
+    private static final long SPLIT_PAIRS = 20_000;
+
+    private final DuplicateScorer scorer;
+    private final double threshold;
+    private final Consumer<DuplicateMatch> sink;
+    private final ForkJoinPool pool;
+    private final Semaphore pendingRows;
+    private final int maxPendingRows;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final LongAdder candidates = new LongAdder();
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+
+    private LocalDate currentDate;
+    private List<DuplicateCandidate> group = new ArrayList<>();
+
+    /**
+     * @param sink called concurrently, must be thread-safe
+     */
+    public DuplicateDetector(DuplicateScorer scorer, double threshold, int parallelism, int maxPendingRows,
+                             Consumer<DuplicateMatch> sink) {
+        this.scorer = scorer;
+        this.threshold = threshold;
+        this.sink = sink;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxPendingRows = maxPendingRows;
+        this.pendingRows = new Semaphore(maxPendingRows);
+    }
+
+    /**
+     * Adds the next candidate. Blocks while {@code maxPendingRows} candidates await scoring.
+     *
+     * @throws IllegalArgumentException if candidates are out of birth date order
+     */
+    public void accept(DuplicateCandidate candidate) {
+        if (!candidate.birthDate().equals(currentDate)) {
+            if (currentDate != null && candidate.birthDate().isBefore(currentDate)) {
+                throw new IllegalArgumentException("Candidates must be in birth date order");
+            }
+            submitGroup();
+            currentDate = candidate.birthDate();
+        }
+        group.add(candidate);
+        candidates.increment();
+    }
+
+    /**
+     * Scores the last birth date and waits until every match has been passed to the sink.
+     *
+     * @throws IllegalStateException if scoring failed
+     */
+    public void finish() throws InterruptedException {
+        submitGroup();
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("Duplicate scoring failed", error);
+        }
+    }
+
+    /**
+     * Stops scoring; matches may still reach the sink until the workers notice.
+     */
+    public void cancel() {
+        pool.shutdownNow();
+    }
+
+    public long candidates() {
+        return candidates.sum();
+    }
+
+    public long comparisons() {
+        return comparisons.sum();
+    }
+
+    public long matches() {
+        return matches.sum();
+    }
+
+    private void submitGroup() {
+        if (group.isEmpty()) {
+            return;
+        }
+        List<DuplicateCandidate> rows = group;
+        group = new ArrayList<>();
+        if (rows.size() == 1) {
+            return;
+        }
+        int permits = Math.min(rows.size(), maxPendingRows);
+        pendingRows.acquireUninterruptibly(permits);
+        pool.execute(new BirthDateTask(rows, permits));
+    }
+
+    private final class BirthDateTask extends RecursiveAction {
+
+        private final List<DuplicateCandidate> rows;
+        private final int permits;
+
+        BirthDateTask(List<DuplicateCandidate> rows, int permits) {
+            this.rows = rows;
+            this.permits = permits;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                Map<String, List<DuplicateScorer.Profile>> byFirstName = new HashMap<>();
+                Map<String, List<DuplicateScorer.Profile>> byLastName = new HashMap<>();
+                for (DuplicateCandidate row : rows) {
+                    DuplicateScorer.Profile profile = scorer.profile(row);
+                    if (!profile.firstCode().isEmpty()) {
+                        byFirstName.computeIfAbsent(profile.firstCode(), code -> new ArrayList<>()).add(profile);
+                        byLastName.computeIfAbsent(profile.lastCode(), code -> new ArrayList<>()).add(profile);
+                    }
+                }
+                List<BlockTask> blocks = new ArrayList<>();
+                for (List<DuplicateScorer.Profile> block : byFirstName.values()) {
+                    if (block.size() > 1) {
+                        blocks.add(new BlockTask(block, 0, block.size(), false));
+                    }
+                }
+                for (List<DuplicateScorer.Profile> block : byLastName.values()) {
+                    if (block.size() > 1) {
+                        blocks.add(new BlockTask(block, 0, block.size(), true));
+                    }
+                }
+                invokeAll(blocks);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                pendingRows.release(permits);
+            }
+        }
+    }
+
+    /**
+     * Scores rows {@code from} to {@code to} of a block against every later row.
+     */
+    private final class BlockTask extends RecursiveAction {
+
+        private final List<DuplicateScorer.Profile> block;
+        private final int from;
+        private final int to;
+        private final boolean skipSameFirstName;
+
+        BlockTask(List<DuplicateScorer.Profile> block, int from, int to, boolean skipSameFirstName) {
+            this.block = block;
+            this.from = from;
+            this.to = to;
+            this.skipSameFirstName = skipSameFirstName;
+        }
+
+        @Override
+        protected void compute() {
+            long pairs = (long) (to - from) * (block.size() - from);
+            if (to - from > 1 && pairs > SPLIT_PAIRS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BlockTask(block, from, middle, skipSameFirstName),
+                        new BlockTask(block, middle, to, skipSameFirstName));
+                return;
+            }
+            long compared = 0;
+            for (int i = from; i < to; i++) {
+                DuplicateScorer.Profile a = block.get(i);
+                for (int j = i + 1; j < block.size(); j++) {
+                    DuplicateScorer.Profile b = block.get(j);
+                    if (skipSameFirstName && a.firstCode().equals(b.firstCode())) {
+                        continue;
+                    }
+                    compared++;
+                    DuplicateMatch match = scorer.match(a, b, threshold);
+                    if (match != null) {
+                        matches.increment();
+                        sink.accept(match);
+                    }
+                }
+            }
+            comparisons.add(compared);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package no.spond.club.duplicates;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the running duplicate detection, or the outcome of the last one.
+ *
+ * @param report file name of the report in the report directory, once completed
+ */
+public record DuplicateJobStatus(State state, LocalDateTime startedAt, LocalDateTime finishedAt,
+                                 long registrations, long comparisons, long duplicates,
+                                 String report, String error) {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    static DuplicateJobStatus idle() {
+        return new DuplicateJobStatus(State.IDLE, null, null, 0, 0, 0, null, null);
+    }
+}
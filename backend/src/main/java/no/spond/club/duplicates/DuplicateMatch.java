@@ -0,0 +1,8 @@
+package no.spond.club.duplicates;
+
+/**
+ * Two registrations that are likely the same person; {@code first} has the lower ID.
+ */
+public record DuplicateMatch(DuplicateCandidate first, DuplicateCandidate second, double score,
+                             boolean sameEmail, boolean samePhone) {
+}
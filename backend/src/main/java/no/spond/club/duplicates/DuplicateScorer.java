@@ -0,0 +1,204 @@
+package no.spond.club.duplicates;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Blocking keys and a similarity score for two registrations of the same birth date.
+ *
+ * <p>Names are compared with Jaro-Winkler on the whole name, and on the first and on the last
+ * word separately, averaged, which ignores a middle name given once; the words are also tried
+ * swapped, for "Nordmann Ola". The best of these counts. Scoring the words separately keeps a
+ * shared last name from lifting siblings born the same day over the threshold. A shared e-mail address or phone number halves the distance to a perfect score.
+ *
+ * <p>The phonetic code is a small consonant skeleton tuned for Norwegian names: the first
+ * letter is kept, later vowels and a silent {@code h} are dropped, letters that sound alike are
+ * merged ({@code ph/f}, {@code c/k/q}, {@code z/s}, {@code w/v}, {@code gj/hj/j}) and doubled
+ * letters count once, so "Christian" and "Kristian", "Sophie" and "Sofie", or "Mohammed" and
+ * "Muhammad" share a code.
+ */
+public class DuplicateScorer {
+
+    private static final int CODE_LENGTH = 4;
+    private static final double PREFIX_SCALE = 0.1;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+
+    /**
+     * A candidate with everything the comparisons need computed once.
+     */
+    public record Profile(DuplicateCandidate candidate, String name, String first, String last,
+                          String firstCode, String lastCode, String email, String phone) {
+    }
+
+    public Profile profile(DuplicateCandidate candidate) {
+        String name = normalizeName(candidate.fullName());
+        String[] words = name.isEmpty() ? new String[0] : name.split(" ");
+        String first = words.length > 0 ? words[0] : "";
+        String last = words.length > 0 ? words[words.length - 1] : "";
+        return new Profile(candidate, name, first, last,
+                phonetic(first), phonetic(last), normalizeEmail(candidate.email()),
+                normalizePhone(candidate.phoneNumber()));
+    }
+
+    /**
+     * @return the match, or null if the pair scores below the threshold
+     */
+    public DuplicateMatch match(Profile a, Profile b, double threshold) {
+        double words = (jaroWinkler(a.first(), b.first()) + jaroWinkler(a.last(), b.last())) / 2;
+        double swapped = (jaroWinkler(a.first(), b.last()) + jaroWinkler(a.last(), b.first())) / 2;
+        double score = Math.max(jaroWinkler(a.name(), b.name()), Math.max(words, swapped));
+        boolean sameEmail = !a.email().isEmpty() && a.email().equals(b.email());
+        boolean samePhone = !a.phone().isEmpty() && a.phone().equals(b.phone());
+        if (sameEmail || samePhone) {
+            score += (1 - score) / 2;
+        }
+        if (score < threshold) {
+            return null;
+        }
+        boolean ordered = a.candidate().id() < b.candidate().id();
+        return new DuplicateMatch(ordered ? a.candidate() : b.candidate(), ordered ? b.candidate() : a.candidate(),
+                score, sameEmail, samePhone);
+    }
+
+    /**
+     * Lower case letters and single spaces, with accents and Norwegian letters folded.
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = name.toLowerCase(Locale.ROOT).replace("æ", "ae").replace("ø", "o").replace("å", "a");
+        folded = MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        return NON_LETTERS.matcher(folded).replaceAll(" ").trim();
+    }
+
+    /**
+     * The address in lower case without a {@code +tag}.
+     */
+    static String normalizeEmail(String email) {
+        if (email == null) {
+            return "";
+        }
+        String address = email.trim().toLowerCase(Locale.ROOT);
+        int at = address.indexOf('@');
+        int plus = address.indexOf('+');
+        if (plus > 0 && at > plus) {
+            address = address.substring(0, plus) + address.substring(at);
+        }
+        return address;
+    }
+
+    /**
+     * The digits, without a Norwegian country code.
+     */
+    static String normalizePhone(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        String digits = NON_DIGITS.matcher(phone).replaceAll("");
+        if (digits.length() == 12 && digits.startsWith("0047")) {
+            return digits.substring(4);
+        }
+        if (digits.length() == 10 && digits.startsWith("47")) {
+            return digits.substring(2);
+        }
+        return digits;
+    }
+
+    /**
+     * @param word a normalized word
+     */
+    static String phonetic(String word) {
+        StringBuilder code = new StringBuilder(CODE_LENGTH);
+        String previous = "";
+        int length = word.length();
+        for (int i = 0; i < length && code.length() < CODE_LENGTH; i++) {
+            char c = word.charAt(i);
+            char next = i + 1 < length ? word.charAt(i + 1) : 0;
+            String sound;
+            switch (c) {
+                case 'a', 'e', 'i', 'o', 'u', 'y' -> sound = i == 0 ? String.valueOf(c) : "";
+                case 'h' -> sound = i == 0 && next != 'j' ? "h" : "";
+                case 'p' -> {
+                    sound = next == 'h' ? "f" : "p";
+                    i += next == 'h' ? 1 : 0;
+                }
+                case 't' -> {
+                    sound = "t";
+                    i += next == 'h' ? 1 : 0;
+                }
+                case 'c' -> {
+                    if (next == 'h') {
+                        char after = i + 2 < length ? word.charAt(i + 2) : 0;
+                        sound = after == 'r' || after == 'l' ? "k" : "sj";
+                        i++;
+                    } else {
+                        sound = next == 'e' || next == 'i' || next == 'y' ? "s" : "k";
+                    }
+                }
+                case 'g' -> {
+                    sound = next == 'j' ? "j" : "g";
+                    i += next == 'j' ? 1 : 0;
+                }
+                case 'q' -> sound = "k";
+                case 'z' -> sound = "s";
+                case 'w' -> sound = "v";
+                case 'x' -> sound = "ks";
+                default -> sound = String.valueOf(c);
+            }
+            // Doubled letters sound once: "anna" and "ana"
+            if (!sound.isEmpty() && !sound.equals(previous)) {
+                code.append(sound);
+            }
+            previous = sound;
+        }
+        return code.length() > CODE_LENGTH ? code.substring(0, CODE_LENGTH) : code.toString();
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return a.isEmpty() ? 0 : 1;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length(), i + window + 1);
+            for (int j = from; j < to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * PREFIX_SCALE * (1 - jaro);
+    }
+}
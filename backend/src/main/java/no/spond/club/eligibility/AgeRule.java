@@ -0,0 +1,57 @@
+package no.spond.club.eligibility;
+
+import no.spond.club.model.EligibilityRule;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of an {@link EligibilityRule}, so a compiled form does not hold on to entities.
+ */
+record AgeRule(Integer minAge, Integer maxAge, LocalDate bornOnOrAfter, LocalDate bornOnOrBefore) {
+
+    static final AgeRule ANYONE = new AgeRule(null, null, null, null);
+
+    static AgeRule of(EligibilityRule rule) {
+        if (rule == null) {
+            return ANYONE;
+        }
+        return new AgeRule(rule.getMinAge(), rule.getMaxAge(), rule.getBornOnOrAfter(), rule.getBornOnOrBefore());
+    }
+
+    boolean restricted() {
+        return minAge != null || maxAge != null || bornOnOrAfter != null || bornOnOrBefore != null;
+    }
+
+    boolean ageDependent() {
+        return minAge != null || maxAge != null;
+    }
+
+    /**
+     * First eligible birth date on {@code today} as an epoch day, or {@link Long#MIN_VALUE}.
+     */
+    long earliestBirthDay(LocalDate today) {
+        long earliest = Long.MIN_VALUE;
+        if (maxAge != null) {
+            // Still maxAge the day before turning maxAge + 1
+            earliest = today.minusYears(maxAge + 1L).plusDays(1).toEpochDay();
+        }
+        if (bornOnOrAfter != null) {
+            earliest = Math.max(earliest, bornOnOrAfter.toEpochDay());
+        }
+        return earliest;
+    }
+
+    /**
+     * Last eligible birth date on {@code today} as an epoch day, or {@link Long#MAX_VALUE}.
+     */
+    long latestBirthDay(LocalDate today) {
+        long latest = Long.MAX_VALUE;
+        if (minAge != null) {
+            latest = today.minusYears(minAge).toEpochDay();
+        }
+        if (bornOnOrBefore != null) {
+            latest = Math.min(latest, bornOnOrBefore.toEpochDay());
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,163 @@
+package no.spond.club.eligibility;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A form's rules compiled for one day. The birth-date axis is cut into segments at every rule
+ * boundary; within a segment the same member types are allowed and the same group is chosen,
+ * so both are stored once per segment.
+ *
+ * <p>Finding the segment is a lookup by birth year followed by a step over the boundaries inside
+ * that year. Age limits all cut on today's day of the year, so that is one or two steps however
+ * many rules the form has.
+ */
+final class EligibilityTable {
+
+    private final LocalDate compiledFor;
+    private final long[] starts;
+    private final int words;
+    private final long[] memberTypeMasks;
+    private final int[] groups;
+    private final int firstYear;
+    private final int[] segmentByYear;
+
+    private EligibilityTable(LocalDate compiledFor, long[] starts, int words, long[] memberTypeMasks, int[] groups) {
+        this.compiledFor = compiledFor;
+        this.starts = starts;
+        this.words = words;
+        this.memberTypeMasks = memberTypeMasks;
+        this.groups = groups;
+
+        if (starts.length > 1) {
+            firstYear = LocalDate.ofEpochDay(starts[1]).getYear();
+            int lastYear = LocalDate.ofEpochDay(starts[starts.length - 1]).getYear();
+            segmentByYear = new int[lastYear - firstYear + 1];
+            int segment = 0;
+            for (int year = firstYear; year <= lastYear; year++) {
+                long newYear = LocalDate.of(year, 1, 1).toEpochDay();
+                while (segment + 1 < starts.length && starts[segment + 1] <= newYear) {
+                    segment++;
+                }
+                segmentByYear[year - firstYear] = segment;
+            }
+        } else {
+            firstYear = 0;
+            segmentByYear = new int[0];
+        }
+    }
+
+    /**
+     * Groups with a rule are preferred over groups without one; otherwise the earliest group wins.
+     * Both arrays are in the form's order.
+     */
+    static EligibilityTable compile(AgeRule[] memberTypes, AgeRule[] groups, LocalDate today) {
+        int ruleCount = memberTypes.length + groups.length;
+        BitSet allowed = new BitSet(memberTypes.length);
+        BitSet restrictedGroups = new BitSet(groups.length);
+        int unrestrictedGroup = -1;
+        List<long[]> events = new ArrayList<>();
+
+        for (int rule = 0; rule < ruleCount; rule++) {
+            boolean isGroup = rule >= memberTypes.length;
+            AgeRule ageRule = isGroup ? groups[rule - memberTypes.length] : memberTypes[rule];
+            if (isGroup && !ageRule.restricted()) {
+                if (unrestrictedGroup < 0) {
+                    unrestrictedGroup = rule - memberTypes.length;
+                }
+                continue;
+            }
+            long earliest = ageRule.earliestBirthDay(today);
+            long latest = ageRule.latestBirthDay(today);
+            if (earliest > latest) {
+                continue;
+            }
+            if (earliest == Long.MIN_VALUE) {
+                set(rule, memberTypes.length, allowed, restrictedGroups, true);
+            } else {
+                events.add(new long[] {earliest, rule, 1});
+            }
+            if (latest != Long.MAX_VALUE) {
+                events.add(new long[] {latest + 1, rule, 0});
+            }
+        }
+        events.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        int words = Math.max(1, (memberTypes.length + 63) / 64);
+        List<Long> starts = new ArrayList<>();
+        List<long[]> masks = new ArrayList<>();
+        List<Integer> chosenGroups = new ArrayList<>();
+        long start = Long.MIN_VALUE;
+        int next = 0;
+        while (true) {
+            starts.add(start);
+            masks.add(Arrays.copyOf(allowed.toLongArray(), words));
+            int restricted = restrictedGroups.nextSetBit(0);
+            chosenGroups.add(restricted >= 0 ? restricted : unrestrictedGroup);
+            if (next == events.size()) {
+                break;
+            }
+            start = events.get(next)[0];
+            while (next < events.size() && events.get(next)[0] == start) {
+                long[] event = events.get(next++);
+                set((int) event[1], memberTypes.length, allowed, restrictedGroups, event[2] == 1);
+            }
+        }
+
+        long[] startArray = new long[starts.size()];
+        long[] maskArray = new long[starts.size() * words];
+        int[] groupArray = new int[starts.size()];
+        for (int segment = 0; segment < startArray.length; segment++) {
+            startArray[segment] = starts.get(segment);
+            System.arraycopy(masks.get(segment), 0, maskArray, segment * words, words);
+            groupArray[segment] = chosenGroups.get(segment);
+        }
+        return new EligibilityTable(today, startArray, words, maskArray, groupArray);
+    }
+
+    private static void set(int rule, int memberTypeCount, BitSet allowed, BitSet restrictedGroups, boolean value) {
+        if (rule < memberTypeCount) {
+            allowed.set(rule, value);
+        } else {
+            restrictedGroups.set(rule - memberTypeCount, value);
+        }
+    }
+
+    LocalDate compiledFor() {
+        return compiledFor;
+    }
+
+    int segment(LocalDate birthDate) {
+        long day = birthDate.toEpochDay();
+        if (starts.length == 1 || day < starts[1]) {
+            return 0;
+        }
+        int yearOffset = birthDate.getYear() - firstYear;
+        if (yearOffset >= segmentByYear.length) {
+            return starts.length - 1;
+        }
+        int segment = segmentByYear[yearOffset];
+        while (segment + 1 < starts.length && starts[segment + 1] <= day) {
+            segment++;
+        }
+        return segment;
+    }
+
+    boolean allows(int segment, int memberType) {
+        return (memberTypeMasks[segment * words + (memberType >>> 6)] & (1L << memberType)) != 0;
+    }
+
+    /**
+     * @return the group index, or -1 if no group takes this birth date
+     */
+    int group(int segment) {
+        return groups[segment];
+    }
+
+    int segmentCount() {
+        return starts.length;
+    }
+}
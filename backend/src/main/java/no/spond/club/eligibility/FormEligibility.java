@@ -0,0 +1,134 @@
+package no.spond.club.eligibility;
+
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The eligibility rules of one form, compiled when the form is loaded and cached with it.
+ * Age limits move with the calendar, so the table is recompiled the first time it is used on
+ * a new day.
+ */
+public final class FormEligibility {
+
+    /**
+     * Entity IDs of the member type and the group a registration goes to.
+     */
+    public record Assignment(long memberTypeId, long groupId) {
+    }
+
+    static final int NOT_ELIGIBLE = -1;
+    static final int NO_GROUP = -2;
+
+    private final long[] memberTypeIds;
+    private final String[] memberTypeNames;
+    private final AgeRule[] memberTypeRules;
+    private final Map<String, Integer> memberTypeIndex = new HashMap<>();
+    private final long[] groupIds;
+    private final AgeRule[] groupRules;
+    private final boolean ageDependent;
+    private volatile EligibilityTable table;
+
+    private FormEligibility(List<MemberType> memberTypes, List<Group> groups, LocalDate today) {
+        memberTypeIds = new long[memberTypes.size()];
+        memberTypeNames = new String[memberTypes.size()];
+        memberTypeRules = new AgeRule[memberTypes.size()];
+        for (int i = 0; i < memberTypes.size(); i++) {
+            MemberType memberType = memberTypes.get(i);
+            memberTypeIds[i] = memberType.getId();
+            memberTypeNames[i] = memberType.getName();
+            memberTypeRules[i] = AgeRule.of(memberType.getEligibility());
+            memberTypeIndex.put(memberType.getExternalId(), i);
+        }
+        groupIds = new long[groups.size()];
+        groupRules = new AgeRule[groups.size()];
+        for (int i = 0; i < groups.size(); i++) {
+            groupIds[i] = groups.get(i).getId();
+            groupRules[i] = AgeRule.of(groups.get(i).getEligibility());
+        }
+
+        boolean anyAgeLimit = false;
+        for (AgeRule rule : memberTypeRules) {
+            anyAgeLimit |= rule.ageDependent();
+        }
+        for (AgeRule rule : groupRules) {
+            anyAgeLimit |= rule.ageDependent();
+        }
+        ageDependent = anyAgeLimit;
+        table = EligibilityTable.compile(memberTypeRules, groupRules, today);
+    }
+
+    /**
+     * Member types and groups are ordered by ID, so the earliest group wins a tie.
+     */
+    public static FormEligibility compile(Collection<MemberType> memberTypes, Collection<Group> groups, LocalDate today) {
+        return new FormEligibility(
+            memberTypes.stream().sorted(Comparator.comparing(MemberType::getId)).toList(),
+            groups.stream().sorted(Comparator.comparing(Group::getId)).toList(),
+            today);
+    }
+
+    /**
+     * Checks that the member type is open to someone born on {@code birthDate} and picks their group.
+     *
+     * @throws IllegalArgumentException if the member type is not on the form, the age does not
+     *                                  qualify for it, or no group takes the birth date
+     */
+    public Assignment assign(String memberTypeId, LocalDate birthDate, LocalDate today) {
+        int memberType = memberTypeIndex(memberTypeId);
+        if (memberType < 0) {
+            throw new IllegalArgumentException("Ugyldig medlemstype valgt. Vennligst velg en gyldig medlemstype.");
+        }
+        if (groupIds.length == 0) {
+            throw new IllegalStateException("Skjemaet har ingen grupper");
+        }
+
+        int group = lookup(memberType, birthDate, today);
+        if (group == NOT_ELIGIBLE) {
+            throw new IllegalArgumentException(
+                "Fødselsdatoen oppfyller ikke alderskravet for medlemstypen «" + memberTypeNames[memberType] + "».");
+        }
+        if (group == NO_GROUP) {
+            throw new IllegalArgumentException("Ingen grupper i skjemaet passer for denne fødselsdatoen.");
+        }
+        return new Assignment(memberTypeIds[memberType], groupIds[group]);
+    }
+
+    int memberTypeIndex(String memberTypeId) {
+        Integer index = memberTypeIndex.get(memberTypeId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return the group index, {@link #NOT_ELIGIBLE} or {@link #NO_GROUP}
+     */
+    int lookup(int memberType, LocalDate birthDate, LocalDate today) {
+        EligibilityTable current = tableFor(today);
+        int segment = current.segment(birthDate);
+        if (!current.allows(segment, memberType)) {
+            return NOT_ELIGIBLE;
+        }
+        int group = current.group(segment);
+        return group >= 0 ? group : NO_GROUP;
+    }
+
+    private EligibilityTable tableFor(LocalDate today) {
+        EligibilityTable current = table;
+        if (ageDependent && !current.compiledFor().equals(today)) {
+            // Racing threads compile the same table; either result is correct
+            current = EligibilityTable.compile(memberTypeRules, groupRules, today);
+            table = current;
+        }
+        return current;
+    }
+
+    int segmentCount() {
+        return table.segmentCount();
+    }
+}
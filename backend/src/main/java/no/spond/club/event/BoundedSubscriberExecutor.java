@@ -0,0 +1,207 @@
+package no.spond.club.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.spond.club.config.EventBusProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A dedicated, bounded executor for one subscriber. A full queue is handled by the
+ * subscriber's {@link OverflowPolicy}; the publishing thread never runs subscriber code.
+ */
+class BoundedSubscriberExecutor {
+    
+    private static final Logger log = LoggerFactory.getLogger(BoundedSubscriberExecutor.class);
+    
+    private final RegistrationSubscriber subscriber;
+    private final EventBusProperties.Subscriber settings;
+    private final ArrayBlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    private final SpillFile spillFile;
+    private final Function<List<Long>, List<RegistrationCommitted>> loader;
+    
+    private final Timer latency;
+    private final Timer execution;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter failed;
+    
+    BoundedSubscriberExecutor(RegistrationSubscriber subscriber,
+                              EventBusProperties.Subscriber settings,
+                              Path spillDirectory,
+                              Function<List<Long>, List<RegistrationCommitted>> loader,
+                              MeterRegistry meterRegistry) throws IOException {
+        this.subscriber = subscriber;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(),
+                0L, TimeUnit.MILLISECONDS, queue, threadFactory(subscriber.name()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.spillFile = settings.getOverflowPolicy() == OverflowPolicy.SPILL
+                ? new SpillFile(spillDirectory.resolve(subscriber.name() + ".jsonl"))
+                : null;
+        this.loader = loader;
+        
+        String name = subscriber.name();
+        Gauge.builder("spondy.events.listener.queue.depth", queue, ArrayBlockingQueue::size)
+                .description("Events waiting in a subscriber's queue")
+                .tag("listener", name)
+                .register(meterRegistry);
+        this.latency = Timer.builder("spondy.events.listener.latency")
+                .description("Time from publish until the subscriber finished handling the event")
+                .tag("listener", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.execution = Timer.builder("spondy.events.listener.execution")
+                .description("Time spent inside the subscriber")
+                .tag("listener", name)
+                .register(meterRegistry);
+        this.dropped = overflowCounter(meterRegistry, name, "dropped");
+        this.spilled = overflowCounter(meterRegistry, name, "spilled");
+        this.failed = Counter.builder("spondy.events.listener.failures")
+                .description("Events the subscriber threw on")
+                .tag("listener", name)
+                .register(meterRegistry);
+    }
+    
+    void submit(RegistrationCommitted event) {
+        Task task = new Task(event, System.nanoTime());
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException full) {
+            overflow(task);
+        }
+    }
+    
+    /**
+     * Moves spilled events back into the queue while it has room.
+     */
+    void drainSpill() {
+        if (spillFile == null || spillFile.isEmpty() || executor.isShutdown()) {
+            return;
+        }
+        try {
+            spillFile.drain(loader, event -> queue.offer(new Task(event, System.nanoTime())));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not replay spilled events for {}: {}", subscriber.name(), e.getMessage());
+        }
+    }
+    
+    int queueDepth() {
+        return queue.size();
+    }
+    
+    String name() {
+        return subscriber.name();
+    }
+    
+    void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> unprocessed = executor.shutdownNow();
+        if (unprocessed.isEmpty()) {
+            return;
+        }
+        if (spillFile != null) {
+            for (Runnable runnable : unprocessed) {
+                spill(((Task) runnable).event);
+            }
+        } else {
+            log.warn("Discarding {} unprocessed events for {} on shutdown", unprocessed.size(), subscriber.name());
+        }
+    }
+    
+    private void overflow(Task task) {
+        if (executor.isShutdown()) {
+            dropped.increment();
+            return;
+        }
+        switch (settings.getOverflowPolicy()) {
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(task, settings.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                        dropped.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case SPILL -> spill(task.event);
+            default -> dropped.increment();
+        }
+    }
+    
+    private void spill(RegistrationCommitted event) {
+        try {
+            spillFile.append(event);
+            spilled.increment();
+        } catch (IOException e) {
+            dropped.increment();
+            log.warn("Could not spill event for {}, dropping it: {}", subscriber.name(), e.getMessage());
+        }
+    }
+    
+    private static Counter overflowCounter(MeterRegistry meterRegistry, String listener, String outcome) {
+        return Counter.builder("spondy.events.listener.overflow")
+                .description("Events that did not fit in a subscriber's queue")
+                .tag("listener", listener)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "events-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private final class Task implements Runnable {
+        
+        private final RegistrationCommitted event;
+        private final long enqueuedAt;
+        
+        private Task(RegistrationCommitted event, long enqueuedAt) {
+            this.event = event;
+            this.enqueuedAt = enqueuedAt;
+        }
+        
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            try {
+                subscriber.onRegistrationCommitted(event);
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("Subscriber {} failed for registration {}: {}",
+                        subscriber.name(), event.registrationId(), e.getMessage());
+            } finally {
+                long finished = System.nanoTime();
+                execution.record(finished - started, TimeUnit.NANOSECONDS);
+                latency.record(finished - enqueuedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
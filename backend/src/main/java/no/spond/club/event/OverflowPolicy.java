@@ -0,0 +1,13 @@
+package no.spond.club.event;
+
+/**
+ * What happens to an event when a subscriber's queue is full.
+ */
+public enum OverflowPolicy {
+    /** Discard the event and count it. */
+    DROP,
+    /** Wait up to the configured block timeout for room, then drop. */
+    BLOCK,
+    /** Append the registration ID to a local spill file and replay the event, read back from the database, once the queue has room. */
+    SPILL
+}
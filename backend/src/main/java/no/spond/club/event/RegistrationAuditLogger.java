@@ -0,0 +1,20 @@
+package no.spond.club.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes an audit line for every committed registration. Personal data is left out.
+ */
+@Component
+public class RegistrationAuditLogger implements RegistrationSubscriber {
+    
+    private static final Logger log = LoggerFactory.getLogger("no.spond.club.audit");
+    
+    @Override
+    public void onRegistrationCommitted(RegistrationCommitted event) {
+        log.info("Registration {} committed on form {} with member type {} at {}",
+                event.registrationId(), event.formId(), event.memberTypeId(), event.createdAt());
+    }
+}
@@ -0,0 +1,19 @@
+package no.spond.club.event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Published when a registration has been saved. Subscribers only see it after the
+ * surrounding transaction has committed, so the registration is guaranteed to exist.
+ * Form and member type are identified by their public IDs.
+ */
+public record RegistrationCommitted(
+        Long registrationId,
+        String formId,
+        String memberTypeId,
+        String fullName,
+        String email,
+        LocalDate birthDate,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,88 @@
+package no.spond.club.event;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.EventBusProperties;
+import no.spond.club.repository.RegistrationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fans committed registrations out to every {@link RegistrationSubscriber}, each on its own
+ * bounded executor. Handing off is all that happens on the request thread, so a slow
+ * subscriber fills its own queue instead of adding to submit latency.
+ */
+@Component
+public class RegistrationEventBus {
+    
+    private final List<BoundedSubscriberExecutor> executors = new ArrayList<>();
+    
+    @Autowired
+    public RegistrationEventBus(List<RegistrationSubscriber> subscribers,
+                                EventBusProperties properties,
+                                RegistrationRepository registrationRepository,
+                                MeterRegistry meterRegistry) {
+        this(subscribers, properties, registrationRepository::findCommittedByIdIn, meterRegistry);
+    }
+    
+    /**
+     * @param loader reads spilled registrations back from the database
+     */
+    RegistrationEventBus(List<RegistrationSubscriber> subscribers,
+                         EventBusProperties properties,
+                         Function<List<Long>, List<RegistrationCommitted>> loader,
+                         MeterRegistry meterRegistry) {
+        for (RegistrationSubscriber subscriber : subscribers) {
+            try {
+                executors.add(new BoundedSubscriberExecutor(subscriber,
+                        properties.settingsFor(subscriber.name()),
+                        properties.getSpillDirectory(),
+                        loader,
+                        meterRegistry));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open spill file for " + subscriber.name(), e);
+            }
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRegistrationCommitted(RegistrationCommitted event) {
+        for (BoundedSubscriberExecutor executor : executors) {
+            executor.submit(event);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${spondy.events.spill-drain-interval:PT1S}")
+    public void drainSpills() {
+        for (BoundedSubscriberExecutor executor : executors) {
+            executor.drainSpill();
+        }
+    }
+    
+    /**
+     * Total number of events waiting across all subscriber queues.
+     */
+    public int queueDepth() {
+        int depth = 0;
+        for (BoundedSubscriberExecutor executor : executors) {
+            depth += executor.queueDepth();
+        }
+        return depth;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (BoundedSubscriberExecutor executor : executors) {
+            executor.shutdown(5000);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package no.spond.club.event;
+
+/**
+ * A side effect of a committed registration (audit, statistics, webhooks, ...).
+ * Each subscriber runs on its own bounded executor, never on the request thread.
+ */
+public interface RegistrationSubscriber {
+    
+    void onRegistrationCommitted(RegistrationCommitted event) throws Exception;
+    
+    /**
+     * Key used for per-subscriber configuration and metrics.
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,126 @@
+package no.spond.club.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only JSON-lines file of the IDs of registrations whose event a subscriber's queue had
+ * no room for. Only the ID is written, so no personal data ends up on disk; the event is
+ * read back from the database when it is drained. A registration deleted in the meantime is
+ * skipped. Spilled events are replayed after newer, queued ones; subscribers must not rely on
+ * order.
+ */
+final class SpillFile {
+    
+    private static final Logger log = LoggerFactory.getLogger(SpillFile.class);
+    
+    /**
+     * Registrations read from the database per query while draining.
+     */
+    private static final int DRAIN_BATCH = 100;
+    /**
+     * Earlier versions wrote the whole event as JSON; only its ID is kept.
+     */
+    private static final Pattern JSON_REGISTRATION_ID = Pattern.compile("\"registrationId\"\\s*:\\s*(\\d+)");
+    
+    private final Path file;
+    private volatile boolean empty;
+    
+    SpillFile(Path file) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.getParent());
+        this.empty = !Files.exists(file) || Files.size(file) == 0;
+    }
+    
+    synchronized void append(RegistrationCommitted event) throws IOException {
+        Files.writeString(file, event.registrationId() + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        empty = false;
+    }
+    
+    boolean isEmpty() {
+        return empty;
+    }
+    
+    /**
+     * Hands spilled events to {@code sink} until it refuses one; the rest stay on disk.
+     *
+     * @param loader reads the events of the given registrations, in any order
+     * @return number of events handed over
+     */
+    synchronized int drain(Function<List<Long>, List<RegistrationCommitted>> loader,
+                           Predicate<RegistrationCommitted> sink) throws IOException {
+        if (empty) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            Long id = parse(line);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        
+        int drained = 0;
+        int handedOver = 0;
+        batches:
+        while (drained < ids.size()) {
+            List<Long> batch = ids.subList(drained, Math.min(drained + DRAIN_BATCH, ids.size()));
+            Map<Long, RegistrationCommitted> events = loader.apply(batch).stream()
+                    .collect(Collectors.toMap(RegistrationCommitted::registrationId, event -> event, (a, b) -> a));
+            for (Long id : batch) {
+                RegistrationCommitted event = events.get(id);
+                if (event != null) {
+                    if (!sink.test(event)) {
+                        break batches;
+                    }
+                    handedOver++;
+                }
+                drained++;
+            }
+        }
+        
+        List<Long> remaining = ids.subList(drained, ids.size());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Long id : remaining) {
+                writer.write(Long.toString(id));
+                writer.newLine();
+            }
+        }
+        empty = remaining.isEmpty();
+        return handedOver;
+    }
+    
+    private Long parse(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException notAnId) {
+            Matcher matcher = JSON_REGISTRATION_ID.matcher(trimmed);
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1));
+            }
+            log.warn("Skipping unreadable line in spill file {}", file.getFileName());
+            return null;
+        }
+    }
+}
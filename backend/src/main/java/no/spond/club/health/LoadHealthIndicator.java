@@ -0,0 +1,73 @@
+package no.spond.club.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * One load signal for the readiness group. Reports OUT_OF_SERVICE once the value reaches
+ * {@code high} and stays there until it has fallen to {@code low}. A value that cannot be read
+ * (NaN) counts as not overloaded.
+ *
+ * <p>The state only changes when health is checked, so it follows the probe's interval.
+ */
+public class LoadHealthIndicator implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadHealthIndicator.class);
+
+    private final String signal;
+    private final DoubleSupplier value;
+    private final double high;
+    private final double low;
+
+    private boolean overloaded;
+
+    public LoadHealthIndicator(String signal, DoubleSupplier value, double high, double low, MeterRegistry meterRegistry) {
+        if (low > high) {
+            throw new IllegalArgumentException("Low threshold for " + signal + " is above the high one");
+        }
+        this.signal = signal;
+        this.value = value;
+        this.high = high;
+        this.low = low;
+
+        Gauge.builder("spondy.health.load.shedding", this, indicator -> indicator.isOverloaded() ? 1 : 0)
+                .description("1 while this signal keeps the instance out of service")
+                .tag("signal", signal)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Health health() {
+        double current = value.getAsDouble();
+        boolean nowOverloaded = update(current);
+        Health.Builder builder = nowOverloaded ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("value", Double.isNaN(current) ? "unknown" : current)
+                .withDetail("high", high)
+                .withDetail("low", low)
+                .build();
+    }
+
+    public synchronized boolean isOverloaded() {
+        return overloaded;
+    }
+
+    private synchronized boolean update(double current) {
+        if (Double.isNaN(current)) {
+            overloaded = false;
+        } else if (!overloaded && current >= high) {
+            log.warn("Out of service: {} is {}, at or above {}", signal, current, high);
+            overloaded = true;
+        } else if (overloaded && current <= low) {
+            log.info("Back in service: {} is {}, at or below {}", signal, current, low);
+            overloaded = false;
+        }
+        return overloaded;
+    }
+}
@@ -0,0 +1,74 @@
+package no.spond.club.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the current value of each load signal from what is already measured elsewhere.
+ */
+public final class LoadSignals {
+
+    public static final double P99 = 0.99;
+
+    private LoadSignals() {
+    }
+
+    /**
+     * The largest value among all gauges with these names, whatever their tags; 0 if there are none.
+     */
+    public static double maxGauge(MeterRegistry meterRegistry, Collection<String> names) {
+        double max = 0;
+        for (String name : names) {
+            for (Gauge gauge : meterRegistry.find(name).gauges()) {
+                double value = gauge.value();
+                if (!Double.isNaN(value)) {
+                    max = Math.max(max, value);
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Busy request threads over the maximum, or NaN without a running Tomcat.
+     */
+    public static double tomcatBusyRatio(ApplicationContext context) {
+        if (!(context instanceof WebServerApplicationContext webContext)
+                || !(webContext.getWebServer() instanceof TomcatWebServer tomcat)) {
+            return Double.NaN;
+        }
+        Executor executor = tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        if (executor instanceof org.apache.tomcat.util.threads.ThreadPoolExecutor pool && pool.getMaximumPoolSize() > 0) {
+            return (double) pool.getActiveCount() / pool.getMaximumPoolSize();
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * The highest 99th percentile, in seconds, among the {@code http.server.requests} timers for
+     * these URIs; 0 when none of them served a request within the window.
+     */
+    public static double p99Seconds(MeterRegistry meterRegistry, Collection<String> uris) {
+        double max = 0;
+        for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+            if (!uris.contains(timer.getId().getTag("uri"))) {
+                continue;
+            }
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == P99) {
+                    max = Math.max(max, percentile.value(TimeUnit.SECONDS));
+                }
+            }
+        }
+        return max;
+    }
+}
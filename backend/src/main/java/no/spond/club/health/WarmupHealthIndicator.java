@@ -0,0 +1,33 @@
+package no.spond.club.health;
+
+import no.spond.club.warmup.StartupWarmup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code warmup} member of the readiness group: OUT_OF_SERVICE until {@link StartupWarmup}
+ * has finished, so a proxy does not send the first requests after a restart to cold code.
+ * Boot itself reports the instance ready as soon as it has started, before warmup has run.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmup startupWarmup;
+
+    @Autowired
+    public WarmupHealthIndicator(StartupWarmup startupWarmup) {
+        this.startupWarmup = startupWarmup;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = startupWarmup.isFinished() ? Health.up() : Health.outOfService();
+        builder.withDetail("state", startupWarmup.state());
+        if (startupWarmup.isFinished() && startupWarmup.state() != StartupWarmup.State.DISABLED) {
+            builder.withDetail("durationMs", startupWarmup.durationMillis());
+        }
+        return builder.build();
+    }
+}
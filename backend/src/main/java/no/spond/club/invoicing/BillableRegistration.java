@@ -0,0 +1,7 @@
+package no.spond.club.invoicing;
+
+/**
+ * A registration without an invoice, with just what billing it needs.
+ */
+public record BillableRegistration(long id, long memberTypeId) {
+}
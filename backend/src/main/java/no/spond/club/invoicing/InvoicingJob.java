@@ -0,0 +1,353 @@
+package no.spond.club.invoicing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.InvoicingProperties;
+import no.spond.club.job.SingleRunExecutor;
+import no.spond.club.model.InvoiceRun;
+import no.spond.club.model.MemberType;
+import no.spond.club.repository.InvoiceRunRepository;
+import no.spond.club.repository.MemberTypeRepository;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bills every registration of a form that has no invoice yet, at the price of its member type.
+ * Registrations are read in keyset chunks of {@code chunk-size} by ID, in the background; each
+ * chunk is priced and written by one of {@code parallelism} workers with a batched insert, in a
+ * short transaction of its own that also adds to the run's totals. Member types that cost
+ * nothing get no invoice.
+ *
+ * <p>The run's checkpoint is the last registration of the longest unbroken sequence of
+ * committed chunks. A failed or interrupted run is resumed after it the next time the form is
+ * invoiced; chunks that had committed beyond it are skipped, since their registrations already
+ * have invoices. One run at a time per instance.
+ */
+@Component
+public class InvoicingJob {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoicingJob.class);
+    static final String INSERT_INVOICE = "INSERT INTO invoices "
+            + "(registration_id, form_id, member_type_id, run_id, amount, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final RegistrationRepository registrationRepository;
+    private final RegistrationFormRepository formRepository;
+    private final MemberTypeRepository memberTypeRepository;
+    private final InvoiceRunRepository runRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InvoicingProperties properties;
+    private final Clock clock;
+    private final Timer runTimer;
+    private final Counter invoiceCounter;
+    private final SingleRunExecutor runner = new SingleRunExecutor("invoicing");
+
+    private volatile InvoicingStatus lastStatus = InvoicingStatus.idle();
+    private volatile Progress current;
+    private volatile ExecutorService workers;
+
+    @Autowired
+    public InvoicingJob(RegistrationRepository registrationRepository,
+                        RegistrationFormRepository formRepository,
+                        MemberTypeRepository memberTypeRepository,
+                        InvoiceRunRepository runRepository,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        InvoicingProperties properties,
+                        Clock clock,
+                        MeterRegistry meterRegistry) {
+        this.registrationRepository = registrationRepository;
+        this.formRepository = formRepository;
+        this.memberTypeRepository = memberTypeRepository;
+        this.runRepository = runRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+        this.runTimer = Timer.builder("spondy.invoicing.run")
+                .description("Invoicing runs over a form")
+                .register(meterRegistry);
+        this.invoiceCounter = Counter.builder("spondy.invoicing.invoices")
+                .description("Invoices written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts invoicing the form in the background, resuming its last run if that did not complete.
+     *
+     * @return false if a run is already in progress
+     * @throws IllegalArgumentException if the form does not exist
+     */
+    public boolean start(String formId) {
+        long formKey = formRepository.findIdByExternalId(formId)
+                .orElseThrow(() -> new IllegalArgumentException("Ugyldig skjema-ID"));
+        Progress progress = new Progress(formId, LocalDateTime.now(clock));
+        return runner.start(() -> current = progress, () -> {
+            try {
+                run(formKey, progress);
+            } finally {
+                current = null;
+            }
+        });
+    }
+
+    /**
+     * Progress of the running job, or the outcome of the last one.
+     */
+    public InvoicingStatus status() {
+        Progress progress = current;
+        if (progress != null) {
+            return progress.status(InvoicingStatus.State.RUNNING, null, null);
+        }
+        return lastStatus;
+    }
+
+    InvoicingStatus run(long formKey, Progress progress) {
+        long start = System.nanoTime();
+        InvoiceRun run = null;
+        int parallelism = Math.max(1, properties.getParallelism());
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "invoicing-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers = pool;
+        try {
+            Map<Long, BigDecimal> prices = new HashMap<>();
+            for (MemberType memberType : memberTypeRepository.findByFormId(formKey)) {
+                prices.put(memberType.getId(), memberType.getPrice());
+            }
+            run = resumeOrCreate(formKey, progress.startedAt);
+            progress.begin(run);
+            long runId = run.getId();
+
+            // Two chunks per worker in flight: one being written, one read ahead
+            int maxInFlight = parallelism * 2;
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            Checkpoint checkpoint = new Checkpoint(runId);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            long afterId = run.getLastRegistrationId();
+            long sequence = 0;
+            List<BillableRegistration> chunk;
+            do {
+                chunk = registrationRepository.findBillable(formKey, afterId, PageRequest.ofSize(properties.getChunkSize()));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).id();
+                progress.read.add(chunk.size());
+
+                inFlight.acquire();
+                if (failure.get() != null) {
+                    inFlight.release();
+                    break;
+                }
+                List<BillableRegistration> rows = chunk;
+                long number = sequence++;
+                long lastId = afterId;
+                pool.execute(() -> {
+                    try {
+                        bill(runId, formKey, rows, prices, progress);
+                        checkpoint.committed(number, lastId);
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } while (chunk.size() == properties.getChunkSize());
+            inFlight.acquire(maxInFlight);
+
+            Throwable error = failure.get();
+            if (error != null) {
+                throw new IllegalStateException("Billing a chunk failed: " + error.getMessage(), error);
+            }
+            LocalDateTime finishedAt = LocalDateTime.now(clock);
+            runRepository.updateStatus(runId, InvoiceRun.Status.COMPLETED, finishedAt, null);
+            lastStatus = progress.status(InvoicingStatus.State.COMPLETED, finishedAt, null);
+            log.info("Invoiced form {}: {} invoices totalling {} for {} registrations read in {} ms",
+                    progress.formId, progress.invoiced.get(), progress.totalAmount(), progress.read.sum(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            LocalDateTime finishedAt = LocalDateTime.now(clock);
+            if (run != null) {
+                markFailed(run.getId(), finishedAt, e.getMessage());
+            }
+            lastStatus = progress.status(InvoicingStatus.State.FAILED, finishedAt, e.getMessage());
+            log.error("Invoicing form {} failed; the next run resumes after the checkpoint", progress.formId, e);
+        } finally {
+            pool.shutdownNow();
+            workers = null;
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return lastStatus;
+    }
+
+    private InvoiceRun resumeOrCreate(long formKey, LocalDateTime startedAt) {
+        Optional<InvoiceRun> previous = runRepository.findFirstByFormIdOrderByIdDesc(formKey);
+        if (previous.isPresent() && previous.get().getStatus() != InvoiceRun.Status.COMPLETED) {
+            InvoiceRun run = previous.get();
+            runRepository.updateStatus(run.getId(), InvoiceRun.Status.RUNNING, null, null);
+            log.info("Resuming invoice run {} after registration {}", run.getId(), run.getLastRegistrationId());
+            return run;
+        }
+        return runRepository.save(new InvoiceRun(formKey, startedAt));
+    }
+
+    /**
+     * Prices one chunk and commits its invoices together with the run's totals.
+     */
+    private void bill(long runId, long formKey, List<BillableRegistration> chunk, Map<Long, BigDecimal> prices,
+                      Progress progress) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Object[]> invoices = new ArrayList<>(chunk.size());
+        BigDecimal amount = BigDecimal.ZERO;
+        long free = 0;
+        for (BillableRegistration registration : chunk) {
+            BigDecimal price = prices.get(registration.memberTypeId());
+            if (price == null) {
+                throw new IllegalStateException("Registration " + registration.id()
+                        + " has a member type that is not on the form");
+            }
+            if (price.signum() <= 0) {
+                free++;
+                continue;
+            }
+            invoices.add(new Object[] {registration.id(), formKey, registration.memberTypeId(), runId, price, now});
+            amount = amount.add(price);
+        }
+        BigDecimal chunkAmount = amount;
+        long chunkFree = free;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!invoices.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_INVOICE, invoices);
+            }
+            runRepository.addBilled(runId, invoices.size(), chunkFree, chunkAmount);
+        });
+        progress.add(invoices.size(), chunkFree, chunkAmount);
+        invoiceCounter.increment(invoices.size());
+    }
+
+    private void markFailed(long runId, LocalDateTime finishedAt, String message) {
+        String error = message != null && message.length() > 500 ? message.substring(0, 500) : message;
+        try {
+            runRepository.updateStatus(runId, InvoiceRun.Status.FAILED, finishedAt, error);
+        } catch (RuntimeException e) {
+            log.warn("Could not mark invoice run {} as failed: {}", runId, e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the run's checkpoint forward as chunks commit, which they may do out of order.
+     */
+    private final class Checkpoint {
+
+        private final long runId;
+        private final TreeMap<Long, Long> committed = new TreeMap<>();
+        private long next;
+
+        Checkpoint(long runId) {
+            this.runId = runId;
+        }
+
+        synchronized void committed(long number, long lastRegistrationId) {
+            committed.put(number, lastRegistrationId);
+            Long through = null;
+            while (committed.containsKey(next)) {
+                through = committed.remove(next);
+                next++;
+            }
+            if (through != null) {
+                runRepository.advanceCheckpoint(runId, through);
+            }
+        }
+    }
+
+    /**
+     * Counters of a run as it goes, starting from what a resumed run had already billed.
+     */
+    static final class Progress {
+
+        private final String formId;
+        private final LocalDateTime startedAt;
+        private final LongAdder read = new LongAdder();
+        private final AtomicLong invoiced = new AtomicLong();
+        private final AtomicLong free = new AtomicLong();
+        private volatile Long runId;
+        private volatile long resumedAfter;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+
+        Progress(String formId, LocalDateTime startedAt) {
+            this.formId = formId;
+            this.startedAt = startedAt;
+        }
+
+        void begin(InvoiceRun run) {
+            runId = run.getId();
+            resumedAfter = run.getLastRegistrationId();
+            invoiced.set(run.getInvoiced());
+            free.set(run.getFreeRegistrations());
+            synchronized (this) {
+                totalAmount = run.getTotalAmount();
+            }
+        }
+
+        void add(long invoices, long freeRegistrations, BigDecimal amount) {
+            invoiced.addAndGet(invoices);
+            free.addAndGet(freeRegistrations);
+            synchronized (this) {
+                totalAmount = totalAmount.add(amount);
+            }
+        }
+
+        synchronized BigDecimal totalAmount() {
+            return totalAmount;
+        }
+
+        InvoicingStatus status(InvoicingStatus.State state, LocalDateTime finishedAt, String error) {
+            return new InvoicingStatus(state, formId, runId, startedAt, finishedAt, resumedAfter, read.sum(),
+                    invoiced.get(), free.get(), totalAmount(), error);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ExecutorService pool = workers;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        runner.shutdown();
+    }
+}
@@ -0,0 +1,23 @@
+package no.spond.club.invoicing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the running invoicing, or the outcome of the last one.
+ *
+ * @param resumedAfter the checkpoint a resumed run started after, or 0 for a fresh run
+ * @param invoiced invoices written by the run, including before it was resumed
+ */
+public record InvoicingStatus(State state, String formId, Long runId, LocalDateTime startedAt,
+                              LocalDateTime finishedAt, long resumedAfter, long read, long invoiced,
+                              long free, BigDecimal totalAmount, String error) {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    static InvoicingStatus idle() {
+        return new InvoicingStatus(State.IDLE, null, null, null, null, 0, 0, 0, 0, BigDecimal.ZERO, null);
+    }
+}
@@ -0,0 +1,49 @@
+package no.spond.club.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Helpers shared by the CSV reports the admin jobs write.
+ */
+public final class CsvReport {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvReport.class);
+    private static final String FORMULA_STARTS = "=+-@\t\r";
+
+    private CsvReport() {
+    }
+
+    /**
+     * A value as one CSV field: quoted where needed, and with {@code '} in front of one a
+     * spreadsheet would read as a formula, as names and e-mails are whatever the registrant typed.
+     * Null is an empty field.
+     */
+    public static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_STARTS.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Removes the half-written file of a failed run.
+     */
+    public static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+}
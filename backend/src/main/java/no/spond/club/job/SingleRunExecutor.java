@@ -0,0 +1,52 @@
+package no.spond.club.job;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs an admin job in the background on its own daemon thread, one run at a time per instance.
+ */
+public final class SingleRunExecutor {
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner;
+
+    public SingleRunExecutor(String threadName) {
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs {@code prepare} on the calling thread, so the run's status is visible as soon as this
+     * returns, and then {@code run} in the background.
+     *
+     * @return false if a run is already in progress, in which case neither is called
+     */
+    public boolean start(Runnable prepare, Runnable run) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            prepare.run();
+            runner.execute(() -> {
+                try {
+                    run.run();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
@@ -0,0 +1,7 @@
+package no.spond.club.journal;
+
+/**
+ * One durable record in the {@link RegistrationJournal}.
+ */
+public record JournalEntry(long sequence, byte[] payload) {
+}
@@ -0,0 +1,16 @@
+package no.spond.club.journal;
+
+import java.time.LocalDateTime;
+
+/**
+ * A validated registration as written to the journal.
+ */
+public record JournaledRegistration(
+        String formId,
+        String fullName,
+        String email,
+        String phoneNumber,
+        String birthDate,
+        String memberTypeId,
+        LocalDateTime receivedAt) {
+}
@@ -0,0 +1,523 @@
+package no.spond.club.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of accepted registrations, stored in preallocated memory-mapped
+ * segment files ({@code journal-<firstSequence>.seg}).
+ *
+ * <p>Appends are cheap memory writes; a single flusher thread forces the active segment
+ * to disk and completes every append that was waiting on it, so concurrent requests share
+ * one fsync. A request may be acknowledged once its future completes.
+ *
+ * <p>If a force fails the journal fails with it: the records that were not forced are zeroed
+ * again and their appends fail, so they are never replayed, and every later append is refused.
+ * After a failed fsync the kernel may already have dropped the dirty pages, so retrying it could
+ * report success for data that never reached the disk.
+ *
+ * <p>Replay progress is kept in a {@code checkpoint} file. Segments that lie entirely at or
+ * below the checkpoint are deleted by {@link #confirm(long)}.
+ *
+ * <p>Record layout: {@code [int length][int crc32][long sequence][payload]}. A zero length
+ * marks the end of a segment; a bad checksum marks a torn write and truncates the journal
+ * at that point during recovery.
+ */
+public class RegistrationJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationJournal.class);
+
+    private static final int MAGIC = 0x53504A31; // "SPJ1"
+    private static final int SEGMENT_HEADER = 16;
+    private static final int RECORD_HEADER = 16;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final String JOURNAL_ID = "journal-id";
+
+    private final Path directory;
+    private final String id;
+    private final int segmentSize;
+    private final long flushIntervalNanos;
+
+    private final Object lock = new Object();
+    private final List<Long> segmentStarts = new ArrayList<>();
+    private List<PendingAppend> pending = new ArrayList<>();
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private long lastSequence;
+    private volatile long durableSequence;
+    private volatile long confirmedSequence;
+    private volatile boolean running = true;
+    private volatile RuntimeException failure;
+    private final Thread flusher;
+
+    public RegistrationJournal(Path directory, int segmentSize, Duration flushInterval) throws IOException {
+        if (segmentSize < SEGMENT_HEADER + RECORD_HEADER + 1024) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+
+        Files.createDirectories(directory);
+        this.id = readOrCreateId();
+        this.confirmedSequence = readCheckpoint();
+        recover();
+        this.durableSequence = lastSequence;
+
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Writes a record and returns a future that completes with its sequence number once the
+     * record has been forced to disk.
+     */
+    public CompletableFuture<Long> append(byte[] payload) {
+        int recordSize = RECORD_HEADER + payload.length;
+        if (recordSize > segmentSize - SEGMENT_HEADER) {
+            throw new IllegalArgumentException("Journal record larger than a segment: " + payload.length);
+        }
+
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!running) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Journal failed, no longer accepting appends", failure);
+            }
+            if (activeBuffer.remaining() < recordSize + Integer.BYTES) {
+                rollSegment();
+            }
+
+            long sequence = ++lastSequence;
+            int start = activeBuffer.position();
+            activeBuffer.position(start + Integer.BYTES);
+            activeBuffer.putInt(checksum(sequence, payload));
+            activeBuffer.putLong(sequence);
+            activeBuffer.put(payload);
+            // Length last, so a torn write never looks like a complete record
+            activeBuffer.putInt(start, payload.length);
+
+            pending.add(new PendingAppend(sequence, segmentStarts.get(segmentStarts.size() - 1), start, future));
+            lock.notifyAll();
+        }
+        return future;
+    }
+
+    /**
+     * Returns up to {@code max} durable entries with a sequence greater than {@code afterSequence}.
+     */
+    public List<JournalEntry> readAfter(long afterSequence, int max) {
+        long upTo = durableSequence;
+        List<Long> starts;
+        synchronized (lock) {
+            starts = List.copyOf(segmentStarts);
+        }
+
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < starts.size() && entries.size() < max; i++) {
+            long nextStart = i + 1 < starts.size() ? starts.get(i + 1) : Long.MAX_VALUE;
+            if (nextStart <= afterSequence + 1) {
+                continue;
+            }
+            if (starts.get(i) > upTo) {
+                break;
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(starts.get(i)), StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.position(SEGMENT_HEADER);
+                JournalEntry entry;
+                while (entries.size() < max && (entry = readRecord(buffer)) != null && entry.sequence() <= upTo) {
+                    if (entry.sequence() > afterSequence) {
+                        entries.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read journal segment " + starts.get(i), e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Records that every entry up to and including {@code sequence} has been applied, and
+     * deletes segments that are no longer needed.
+     */
+    public void confirm(long sequence) throws IOException {
+        if (sequence <= confirmedSequence) {
+            return;
+        }
+        writeCheckpoint(sequence);
+        confirmedSequence = sequence;
+        compact();
+    }
+
+    /**
+     * Identifies this journal directory. Together with a sequence number it gives every entry
+     * a key that stays unique when the directory is recreated.
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Stable key for the entry with the given sequence number.
+     */
+    public String keyOf(long sequence) {
+        return id + ":" + sequence;
+    }
+
+    public long lastSequence() {
+        synchronized (lock) {
+            return lastSequence;
+        }
+    }
+
+    public long confirmedSequence() {
+        return confirmedSequence;
+    }
+
+    /**
+     * Entries that are durable but not yet applied.
+     */
+    public long backlog() {
+        return Math.max(0, durableSequence - confirmedSequence);
+    }
+
+    /**
+     * Whether a force failed, after which the journal refuses appends until it is reopened.
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public int segmentCount() {
+        synchronized (lock) {
+            return segmentStarts.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            try {
+                force(activeBuffer);
+            } catch (RuntimeException e) {
+                failLocked(List.of(), e);
+            }
+            completePending(pending);
+            pending = new ArrayList<>();
+            try {
+                activeChannel.close();
+            } catch (IOException e) {
+                log.warn("Could not close journal segment: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<PendingAppend> batch;
+            MappedByteBuffer buffer;
+            try {
+                synchronized (lock) {
+                    while (pending.isEmpty() && running) {
+                        lock.wait();
+                    }
+                    if (!running || failure != null) {
+                        return;
+                    }
+                }
+                if (flushIntervalNanos > 0) {
+                    // Group commit window: let concurrent appends join this fsync
+                    Thread.sleep(flushIntervalNanos / 1_000_000, (int) (flushIntervalNanos % 1_000_000));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            synchronized (lock) {
+                batch = pending;
+                pending = new ArrayList<>();
+                buffer = activeBuffer;
+            }
+            try {
+                force(buffer);
+                completePending(batch);
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    failLocked(batch, e);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forces the mapped segment to disk. Overridden in tests to simulate a failing disk.
+     */
+    void force(MappedByteBuffer buffer) {
+        buffer.force();
+    }
+
+    /**
+     * Called with the lock held when a force fails. Fails the batch and every append still
+     * pending, zeroes their records and rewinds the segment to the end of the last forced one.
+     */
+    private void failLocked(List<PendingAppend> batch, RuntimeException e) {
+        if (failure == null) {
+            log.error("Journal fsync failed, no longer accepting appends", e);
+            failure = e;
+        }
+        List<PendingAppend> unforced = new ArrayList<>(batch);
+        unforced.addAll(pending);
+        pending = new ArrayList<>();
+
+        long activeSegment = segmentStarts.get(segmentStarts.size() - 1);
+        List<PendingAppend> forced = new ArrayList<>();
+        PendingAppend first = null;
+        for (PendingAppend append : unforced) {
+            if (append.segment() < activeSegment) {
+                // Forced when its segment was rolled
+                forced.add(append);
+            } else if (first == null || append.offset() < first.offset()) {
+                first = append;
+            }
+        }
+        completePending(forced);
+
+        if (first != null && first.offset() < activeBuffer.position()) {
+            for (int i = first.offset(); i < activeBuffer.position(); i++) {
+                activeBuffer.put(i, (byte) 0);
+            }
+            activeBuffer.position(first.offset());
+            lastSequence = first.sequence() - 1;
+            try {
+                // Best effort; recovery stops at the first zero length anyway
+                force(activeBuffer);
+            } catch (RuntimeException ignored) {
+                // The disk is already failing
+            }
+        }
+        unforced.stream()
+                .filter(append -> append.segment() >= activeSegment)
+                .forEach(append -> append.future().completeExceptionally(e));
+    }
+
+    private void completePending(List<PendingAppend> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        durableSequence = Math.max(durableSequence, batch.get(batch.size() - 1).sequence());
+        batch.forEach(append -> append.future().complete(append.sequence()));
+    }
+
+    /**
+     * Called with the lock held. Segments are rolled synchronously, so only the active
+     * segment ever has unforced writes.
+     */
+    private void rollSegment() {
+        try {
+            force(activeBuffer);
+        } catch (RuntimeException e) {
+            failLocked(List.of(), e);
+            throw new IllegalStateException("Journal failed, no longer accepting appends", e);
+        }
+        try {
+            activeChannel.close();
+            openSegment(lastSequence + 1, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll journal segment", e);
+        }
+    }
+
+    private void openSegment(long firstSequence, boolean create) throws IOException {
+        Path path = segmentPath(firstSequence);
+        activeChannel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        if (create) {
+            activeBuffer.putInt(0, MAGIC);
+            activeBuffer.putLong(Integer.BYTES, firstSequence);
+            activeBuffer.force();
+            segmentStarts.add(firstSequence);
+        }
+        activeBuffer.position(SEGMENT_HEADER);
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segmentStarts::add);
+        }
+
+        if (segmentStarts.isEmpty()) {
+            lastSequence = confirmedSequence;
+            openSegment(confirmedSequence + 1, true);
+            return;
+        }
+
+        long last = segmentStarts.get(segmentStarts.size() - 1);
+        openSegment(last, false);
+        lastSequence = last - 1;
+        if (activeBuffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a journal segment: " + segmentPath(last));
+        }
+
+        JournalEntry entry;
+        int position = SEGMENT_HEADER;
+        while ((entry = readRecord(activeBuffer)) != null) {
+            lastSequence = entry.sequence();
+            position = activeBuffer.position();
+        }
+        if (hasTrailingBytes(position)) {
+            log.warn("Truncating torn journal tail in segment {} at offset {}", last, position);
+            for (int i = position; i < segmentSize; i++) {
+                activeBuffer.put(i, (byte) 0);
+            }
+            activeBuffer.force();
+        }
+        activeBuffer.position(position);
+        lastSequence = Math.max(lastSequence, confirmedSequence);
+
+        log.info("Journal recovered: {} segment(s), last sequence {}, confirmed {}",
+                segmentStarts.size(), lastSequence, confirmedSequence);
+    }
+
+    /**
+     * Pages of a mapped file reach the disk in no particular order, so a crash can leave
+     * payload bytes behind an unwritten header anywhere after the last valid record.
+     */
+    private boolean hasTrailingBytes(int position) {
+        for (int i = position; i < segmentSize; i++) {
+            if (activeBuffer.get(i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the record at the buffer's position, advancing past it, or returns {@code null}
+     * at the end of the written data or at a corrupt record.
+     */
+    private static JournalEntry readRecord(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - RECORD_HEADER) {
+            return null;
+        }
+        int crc = buffer.getInt(start + Integer.BYTES);
+        long sequence = buffer.getLong(start + 2 * Integer.BYTES);
+        byte[] payload = new byte[length];
+        buffer.get(start + RECORD_HEADER, payload);
+        if (checksum(sequence, payload) != crc) {
+            return null;
+        }
+        buffer.position(start + RECORD_HEADER + length);
+        return new JournalEntry(sequence, payload);
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private void compact() throws IOException {
+        List<Path> removable = new ArrayList<>();
+        synchronized (lock) {
+            // Never the active (last) segment
+            while (segmentStarts.size() > 1 && segmentStarts.get(1) - 1 <= confirmedSequence) {
+                removable.add(segmentPath(segmentStarts.remove(0)));
+            }
+        }
+        for (Path path : removable) {
+            Files.deleteIfExists(path);
+            log.debug("Deleted applied journal segment {}", path.getFileName());
+        }
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path path = directory.resolve(JOURNAL_ID);
+        if (Files.exists(path)) {
+            return Files.readString(path, StandardCharsets.US_ASCII).trim();
+        }
+        String newId = UUID.randomUUID().toString().replace("-", "");
+        Files.writeString(path, newId, StandardCharsets.US_ASCII);
+        return newId;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(path, StandardCharsets.US_ASCII).trim());
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * @param segment first sequence of the segment the record was written to
+     * @param offset  where the record starts in that segment
+     */
+    private record PendingAppend(long sequence, long segment, int offset, CompletableFuture<Long> future) {
+    }
+}
@@ -0,0 +1,7 @@
+package no.spond.club.live;
+
+/**
+ * A registration as counted by the database when a form's stream is opened.
+ */
+public record CountedRegistration(long id, String memberTypeId) {
+}
@@ -0,0 +1,15 @@
+package no.spond.club.live;
+
+import java.io.IOException;
+
+/**
+ * Where a subscriber's frames are written; an SSE response in production.
+ */
+interface FrameSink {
+
+    void send(long id, String data) throws IOException;
+
+    void heartbeat() throws IOException;
+
+    void close();
+}
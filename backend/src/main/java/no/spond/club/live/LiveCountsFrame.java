@@ -0,0 +1,13 @@
+package no.spond.club.live;
+
+import java.util.List;
+
+/**
+ * Payload of a {@code counts} event: every member type of the form, including those nobody has
+ * picked yet.
+ */
+public record LiveCountsFrame(String formId, long total, List<Count> memberTypes) {
+
+    public record Count(String id, String name, long count) {
+    }
+}
@@ -0,0 +1,381 @@
+package no.spond.club.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.LiveCountsProperties;
+import no.spond.club.dto.MemberTypeDto;
+import no.spond.club.dto.RegistrationFormDto;
+import no.spond.club.event.RegistrationCommitted;
+import no.spond.club.event.RegistrationSubscriber;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import no.spond.club.service.RegistrationFormService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live registration counts per member type, streamed to admin dashboards over SSE.
+ *
+ * <p>Counts are read from the database when the first stream for a form opens and then kept
+ * current from committed-registration events; forms nobody watches cost nothing. The channel
+ * is registered before the read, so no event is missed while it runs, and an event is only
+ * counted if its registration is not among the IDs the read saw, as events can arrive late and
+ * out of ID order. That keeps one long per registration in memory while the form is watched.
+ *
+ * <p>Updates are coalesced: at most one frame per form per {@code spondy.live.interval},
+ * serialized once and handed to every subscriber of the form. Each subscriber holds at most one unsent frame, and
+ * one that keeps falling behind or blocks on a write is disconnected.
+ */
+@Component
+public class LiveRegistrationCounts implements RegistrationSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveRegistrationCounts.class);
+
+    private final RegistrationRepository registrationRepository;
+    private final RegistrationFormRepository formRepository;
+    private final RegistrationFormService registrationFormService;
+    private final ObjectMapper objectMapper;
+    private final LiveCountsProperties properties;
+    private final Map<String, FormChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Map<String, Integer> clientStreams = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final Counter frames;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LiveRegistrationCounts(RegistrationRepository registrationRepository,
+                                  RegistrationFormRepository formRepository,
+                                  RegistrationFormService registrationFormService,
+                                  ObjectMapper objectMapper,
+                                  LiveCountsProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.registrationRepository = registrationRepository;
+        this.formRepository = formRepository;
+        this.registrationFormService = registrationFormService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "live-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.frames = Counter.builder("spondy.live.frames")
+                .description("Coalesced frames published, each shared by all subscribers of a form")
+                .register(meterRegistry);
+        Gauge.builder("spondy.live.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Refused when a client already has {@code spondy.live.max-subscribers-per-client} streams
+     * open, so one client cannot use up the instance's {@code max-subscribers}.
+     */
+    public static final class ClientLimitReached extends RuntimeException {
+
+        ClientLimitReached() {
+            super("For mange åpne direktestrømmer fra denne adressen. Lukk noen og prøv igjen.");
+        }
+    }
+
+    /**
+     * Opens a stream for the form. The current counts are sent right away.
+     *
+     * @param client the address the request came from, as resolved for rate limiting
+     * @throws IllegalArgumentException if the form does not exist
+     * @throws ClientLimitReached       if the client has reached {@code spondy.live.max-subscribers-per-client}
+     * @throws IllegalStateException    if the instance has reached {@code spondy.live.max-subscribers}
+     */
+    public SseEmitter subscribe(String formId, String client) {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        LiveSubscriber subscriber = subscribe(formId, client, new SseFrameSink(emitter));
+        emitter.onCompletion(() -> remove(subscriber, null));
+        emitter.onTimeout(() -> remove(subscriber, null));
+        emitter.onError(e -> remove(subscriber, null));
+        return emitter;
+    }
+
+    LiveSubscriber subscribe(String formId, String client, FrameSink sink) {
+        RegistrationFormDto form = registrationFormService.getFormById(formId);
+        if (!reserve(client)) {
+            meterRegistry.counter("spondy.live.refused", "reason", "client").increment();
+            throw new ClientLimitReached();
+        }
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            release(client);
+            meterRegistry.counter("spondy.live.refused", "reason", "instance").increment();
+            throw new IllegalStateException("For mange åpne direktestrømmer. Prøv igjen senere.");
+        }
+
+        LiveSubscriber subscriber = new LiveSubscriber(formId, client, sink, senders,
+                properties.getMaxSkippedFrames(), (failed, e) -> remove(failed, "error"));
+        // Under the map's lock, so a channel being removed for having no subscribers is not reused
+        FormChannel channel = channels.compute(formId, (id, existing) -> {
+            FormChannel joined = existing != null ? existing : new FormChannel(id);
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        try {
+            if (channel.claimLoad()) {
+                load(channel);
+            } else {
+                channel.awaitLoaded();
+            }
+        } catch (RuntimeException e) {
+            channel.subscribers.remove(subscriber);
+            subscriberCount.decrementAndGet();
+            release(client);
+            throw e;
+        }
+        subscriber.offer(channel.frame(form, objectMapper));
+        return subscriber;
+    }
+
+    @Override
+    public void onRegistrationCommitted(RegistrationCommitted event) {
+        FormChannel channel = channels.get(event.formId());
+        if (channel != null) {
+            channel.record(event);
+        }
+    }
+
+    /**
+     * Publishes one frame per form that changed since the last run, and heartbeats to idle streams.
+     */
+    @Scheduled(fixedRateString = "${spondy.live.interval:PT1S}")
+    public void publish() {
+        long now = System.nanoTime();
+        long sendTimeout = properties.getSendTimeout().toNanos();
+        long heartbeatInterval = properties.getHeartbeatInterval().toNanos();
+
+        for (FormChannel channel : channels.values()) {
+            if (!channel.isLoaded()) {
+                continue;
+            }
+            if (channels.computeIfPresent(channel.formId, (id, open) -> open.subscribers.isEmpty() ? null : open) == null) {
+                continue;
+            }
+            for (LiveSubscriber subscriber : channel.subscribers) {
+                if (subscriber.stuck(now, sendTimeout)) {
+                    remove(subscriber, "timeout");
+                }
+            }
+
+            if (channel.dirty.getAndSet(false)) {
+                LiveSubscriber.Frame frame;
+                try {
+                    frame = channel.frame(registrationFormService.getFormById(channel.formId), objectMapper);
+                } catch (RuntimeException e) {
+                    log.warn("Could not build live counts for form {}: {}", channel.formId, e.getMessage());
+                    channel.dirty.set(true);
+                    continue;
+                }
+                frames.increment();
+                for (LiveSubscriber subscriber : channel.subscribers) {
+                    if (!subscriber.offer(frame)) {
+                        remove(subscriber, "slow");
+                    }
+                }
+                channel.lastFrameAt = now;
+            } else if (now - channel.lastFrameAt >= heartbeatInterval) {
+                channel.subscribers.forEach(LiveSubscriber::heartbeat);
+                channel.lastFrameAt = now;
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Counts a stream against the client's limit, under the map's lock for that client.
+     *
+     * @return false if the client is already at the limit
+     */
+    private boolean reserve(String client) {
+        int limit = properties.getMaxSubscribersPerClient();
+        boolean[] reserved = new boolean[1];
+        clientStreams.compute(client, (key, open) -> {
+            int current = open != null ? open : 0;
+            if (current >= limit) {
+                return open;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+
+    private void release(String client) {
+        clientStreams.computeIfPresent(client, (key, open) -> open > 1 ? open - 1 : null);
+    }
+
+    void unsubscribe(LiveSubscriber subscriber) {
+        remove(subscriber, null);
+    }
+
+    /**
+     * @param reason tag for the disconnect counter, or null when the client went away
+     */
+    private void remove(LiveSubscriber subscriber, String reason) {
+        if (!subscriber.close()) {
+            return;
+        }
+        FormChannel channel = channels.get(subscriber.formId());
+        if (channel != null) {
+            channel.subscribers.remove(subscriber);
+        }
+        subscriberCount.decrementAndGet();
+        release(subscriber.client());
+        if (reason != null) {
+            meterRegistry.counter("spondy.live.disconnects", "reason", reason).increment();
+        }
+    }
+
+    /**
+     * Reads the counts of a channel that is already registered, outside the map's lock. On
+     * failure the channel is dropped, failing everyone waiting for it.
+     */
+    private void load(FormChannel channel) {
+        List<CountedRegistration> registrations;
+        try {
+            // By internal ID, so the query only reads the form's own partition
+            Long formKey = formRepository.findIdByExternalId(channel.formId)
+                    .orElseThrow(() -> new IllegalArgumentException("Ugyldig skjema-ID"));
+            registrations = registrationRepository.findCountedByFormId(formKey);
+        } catch (RuntimeException e) {
+            channels.remove(channel.formId, channel);
+            channel.failed(e);
+            throw e;
+        }
+        channel.loaded(registrations);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (FormChannel channel : channels.values()) {
+            channel.subscribers.forEach(subscriber -> remove(subscriber, null));
+        }
+        senders.shutdown();
+        senders.awaitTermination(2, TimeUnit.SECONDS);
+    }
+
+    private static final class FormChannel {
+
+        private final String formId;
+        private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+        private final Set<LiveSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicBoolean loadClaimed = new AtomicBoolean();
+        private final CompletableFuture<Void> ready = new CompletableFuture<>();
+        private volatile long lastFrameAt = System.nanoTime();
+        /**
+         * Events that arrived while the counts were being read, or null once they are read.
+         */
+        private List<RegistrationCommitted> pending = new ArrayList<>();
+        /**
+         * IDs included in the database count, sorted; events for them are already counted.
+         */
+        private long[] counted = new long[0];
+
+        FormChannel(String formId) {
+            this.formId = formId;
+        }
+
+        /**
+         * @return true for the one subscriber that reads the counts
+         */
+        boolean claimLoad() {
+            return loadClaimed.compareAndSet(false, true);
+        }
+
+        void awaitLoaded() {
+            try {
+                ready.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        boolean isLoaded() {
+            return ready.isDone() && !ready.isCompletedExceptionally();
+        }
+
+        synchronized void record(RegistrationCommitted event) {
+            if (pending != null) {
+                pending.add(event);
+            } else if (Arrays.binarySearch(counted, event.registrationId()) < 0) {
+                counts.computeIfAbsent(event.memberTypeId(), id -> new AtomicLong()).incrementAndGet();
+                dirty.set(true);
+            }
+        }
+
+        /**
+         * Takes the counts from the read and then the buffered events it did not include.
+         */
+        void loaded(List<CountedRegistration> registrations) {
+            synchronized (this) {
+                long[] ids = new long[registrations.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    CountedRegistration registration = registrations.get(i);
+                    ids[i] = registration.id();
+                    counts.computeIfAbsent(registration.memberTypeId(), id -> new AtomicLong()).incrementAndGet();
+                }
+                counted = ids;
+                List<RegistrationCommitted> buffered = pending;
+                pending = null;
+                buffered.forEach(this::record);
+            }
+            ready.complete(null);
+        }
+
+        void failed(RuntimeException e) {
+            ready.completeExceptionally(e);
+        }
+
+        LiveSubscriber.Frame frame(RegistrationFormDto form, ObjectMapper objectMapper) {
+            List<LiveCountsFrame.Count> memberTypes = form.getMemberTypes().stream()
+                    .map(type -> new LiveCountsFrame.Count(type.getId(), type.getName(), count(type)))
+                    .toList();
+            long total = counts.values().stream().mapToLong(AtomicLong::get).sum();
+            try {
+                return new LiveSubscriber.Frame(sequence.incrementAndGet(),
+                        objectMapper.writeValueAsString(new LiveCountsFrame(formId, total, memberTypes)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize live counts", e);
+            }
+        }
+
+        private long count(MemberTypeDto type) {
+            AtomicLong count = counts.get(type.getId());
+            return count != null ? count.get() : 0;
+        }
+    }
+}
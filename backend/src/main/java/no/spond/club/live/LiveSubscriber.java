@@ -0,0 +1,137 @@
+package no.spond.club.live;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * One open stream. Holds at most one unsent frame: a newer frame replaces it, since only the
+ * latest counts matter. Memory per subscriber is therefore one frame however slow the client
+ * is, and the number of replaced frames tells how far behind it has fallen.
+ */
+final class LiveSubscriber {
+
+    record Frame(long id, String data) {
+    }
+
+    private static final Frame HEARTBEAT = new Frame(-1, null);
+
+    private final String formId;
+    private final String client;
+    private final FrameSink sink;
+    private final Executor sender;
+    private final int maxSkippedFrames;
+    private final BiConsumer<LiveSubscriber, Exception> onFailure;
+    private final AtomicReference<Frame> pending = new AtomicReference<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile long sendStartedAt;
+
+    LiveSubscriber(String formId, String client, FrameSink sink, Executor sender, int maxSkippedFrames,
+                   BiConsumer<LiveSubscriber, Exception> onFailure) {
+        this.formId = formId;
+        this.client = client;
+        this.sink = sink;
+        this.sender = sender;
+        this.maxSkippedFrames = maxSkippedFrames;
+        this.onFailure = onFailure;
+    }
+
+    String formId() {
+        return formId;
+    }
+
+    /**
+     * The address the stream was opened from, as resolved for rate limiting.
+     */
+    String client() {
+        return client;
+    }
+
+    /**
+     * @return false if the subscriber has skipped too many frames and should be dropped
+     */
+    boolean offer(Frame frame) {
+        Frame replaced = pending.getAndSet(frame);
+        if (replaced != null && replaced != HEARTBEAT && skipped.incrementAndGet() > maxSkippedFrames) {
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Sent only when nothing else is waiting.
+     */
+    void heartbeat() {
+        if (pending.compareAndSet(null, HEARTBEAT)) {
+            schedule();
+        }
+    }
+
+    /**
+     * True if a write has been in progress for longer than {@code timeoutNanos}.
+     */
+    boolean stuck(long now, long timeoutNanos) {
+        long started = sendStartedAt;
+        return started != 0 && now - started > timeoutNanos;
+    }
+
+    /**
+     * @return false if it was already closed
+     */
+    boolean close() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        pending.set(null);
+        sink.close();
+        return true;
+    }
+
+    private void schedule() {
+        if (closed.get() || !sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            sending.set(false);
+        }
+    }
+
+    private void drain() {
+        while (!closed.get()) {
+            Frame frame = pending.getAndSet(null);
+            if (frame == null) {
+                sending.set(false);
+                // Another frame may have been offered after the poll but before the flag was cleared
+                if (pending.get() == null || !sending.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            sendStartedAt = System.nanoTime();
+            try {
+                if (frame == HEARTBEAT) {
+                    sink.heartbeat();
+                } else {
+                    sink.send(frame.id(), frame.data());
+                    skipped.set(0);
+                }
+            } catch (Exception e) {
+                sending.set(false);
+                onFailure.accept(this, e);
+                return;
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+        sending.set(false);
+    }
+}
@@ -0,0 +1,30 @@
+package no.spond.club.live;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+class SseFrameSink implements FrameSink {
+
+    private final SseEmitter emitter;
+
+    SseFrameSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(long id, String data) throws IOException {
+        // Plain string data is written as is; the JSON was serialized once for all subscribers
+        emitter.send(SseEmitter.event().id(Long.toString(id)).name("counts").data(data));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keepalive"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,7 @@
+package no.spond.club.mail;
+
+/**
+ * A plain-text e-mail ready to hand to a {@link MailPort}.
+ */
+public record EmailMessage(String to, String subject, String body) {
+}
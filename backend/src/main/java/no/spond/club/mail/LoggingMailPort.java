@@ -0,0 +1,18 @@
+package no.spond.club.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Used when no SMTP server is configured (local development). Logs that a message
+ * would have been sent, without the body.
+ */
+public class LoggingMailPort implements MailPort {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoggingMailPort.class);
+    
+    @Override
+    public void send(EmailMessage message) {
+        log.info("No SMTP server configured, skipping e-mail '{}'", message.subject());
+    }
+}
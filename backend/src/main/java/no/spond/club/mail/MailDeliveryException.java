@@ -0,0 +1,8 @@
+package no.spond.club.mail;
+
+public class MailDeliveryException extends Exception {
+    
+    public MailDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package no.spond.club.mail;
+
+/**
+ * Outgoing mail transport used by the outbox dispatcher. Implementations must throw
+ * {@link MailDeliveryException} when a message was not accepted, so it can be retried.
+ */
+public interface MailPort {
+    
+    void send(EmailMessage message) throws MailDeliveryException;
+}
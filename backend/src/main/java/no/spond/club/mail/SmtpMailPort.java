@@ -0,0 +1,33 @@
+package no.spond.club.mail;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Sends mail through the SMTP server configured under {@code spring.mail.*}.
+ */
+public class SmtpMailPort implements MailPort {
+    
+    private final JavaMailSender mailSender;
+    private final String fromAddress;
+    
+    public SmtpMailPort(JavaMailSender mailSender, String fromAddress) {
+        this.mailSender = mailSender;
+        this.fromAddress = fromAddress;
+    }
+    
+    @Override
+    public void send(EmailMessage message) throws MailDeliveryException {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(fromAddress);
+        mail.setTo(message.to());
+        mail.setSubject(message.subject());
+        mail.setText(message.body());
+        try {
+            mailSender.send(mail);
+        } catch (MailException e) {
+            throw new MailDeliveryException("SMTP delivery failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package no.spond.club.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.LocalDate;
+
+/**
+ * Who may pick a member type or be placed in a group. Ages are whole years on the day of
+ * registration; the birth-date cutoffs are for cohorts such as "født 2010 eller senere".
+ * Every bound is inclusive and optional.
+ */
+@Embeddable
+public class EligibilityRule {
+
+    @PositiveOrZero
+    @Column(name = "min_age")
+    private Integer minAge;
+
+    @PositiveOrZero
+    @Column(name = "max_age")
+    private Integer maxAge;
+
+    @Column(name = "born_on_or_after")
+    private LocalDate bornOnOrAfter;
+
+    @Column(name = "born_on_or_before")
+    private LocalDate bornOnOrBefore;
+
+    // Constructors
+    public EligibilityRule() {}
+
+    public EligibilityRule(Integer minAge, Integer maxAge) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Embeddables must not be shared between entities, so cloned forms get their own copy.
+     */
+    public static EligibilityRule copyOf(EligibilityRule rule) {
+        if (rule == null) {
+            return null;
+        }
+        EligibilityRule copy = new EligibilityRule(rule.minAge, rule.maxAge);
+        copy.bornOnOrAfter = rule.bornOnOrAfter;
+        copy.bornOnOrBefore = rule.bornOnOrBefore;
+        return copy;
+    }
+
+    // Getters and Setters
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public LocalDate getBornOnOrAfter() {
+        return bornOnOrAfter;
+    }
+
+    public void setBornOnOrAfter(LocalDate bornOnOrAfter) {
+        this.bornOnOrAfter = bornOnOrAfter;
+    }
+
+    public LocalDate getBornOnOrBefore() {
+        return bornOnOrBefore;
+    }
+
+    public void setBornOnOrBefore(LocalDate bornOnOrBefore) {
+        this.bornOnOrBefore = bornOnOrBefore;
+    }
+}
@@ -2,13 +2,21 @@ package no.spond.club.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import no.spond.club.cache.FormChangeListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "groups")
+@EntityListeners(FormChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "groups")
 public class Group {
     
+    // Sequence-generated like member types, for batched inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "groups_seq")
+    @SequenceGenerator(name = "groups_seq", sequenceName = "groups_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -18,6 +26,12 @@ public class Group {
     @Column(columnDefinition = "TEXT")
     private String description;
     
+    /**
+     * Null when anyone is eligible.
+     */
+    @Embedded
+    private EligibilityRule eligibility;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "form_id", nullable = false)
     private RegistrationForm form;
@@ -55,6 +69,14 @@ public class Group {
         this.description = description;
     }
     
+    public EligibilityRule getEligibility() {
+        return eligibility;
+    }
+    
+    public void setEligibility(EligibilityRule eligibility) {
+        this.eligibility = eligibility;
+    }
+    
     public RegistrationForm getForm() {
         return form;
     }
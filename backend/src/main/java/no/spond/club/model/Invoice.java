@@ -0,0 +1,70 @@
+package no.spond.club.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The membership fee of one registration, at the price of its member type when it was billed.
+ * Rows are written in batches by {@link no.spond.club.invoicing.InvoicingJob}; a registration is
+ * billed at most once.
+ */
+@Entity
+@Table(name = "invoices", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_invoices_registration", columnNames = "registration_id")
+}, indexes = {
+    @Index(name = "idx_invoices_form", columnList = "form_id")
+})
+public class Invoice {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "registration_id", nullable = false)
+    private Long registrationId;
+    
+    @Column(name = "form_id", nullable = false)
+    private Long formId;
+    
+    @Column(name = "member_type_id", nullable = false)
+    private Long memberTypeId;
+    
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+    
+    public Long getFormId() {
+        return formId;
+    }
+    
+    public Long getMemberTypeId() {
+        return memberTypeId;
+    }
+    
+    public Long getRunId() {
+        return runId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,117 @@
+package no.spond.club.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One invoicing run over a form. {@code lastRegistrationId} is the checkpoint: every
+ * registration up to it has been billed and committed, so an interrupted run resumes after it.
+ */
+@Entity
+@Table(name = "invoice_runs", indexes = @Index(name = "idx_invoice_runs_form", columnList = "form_id"))
+public class InvoiceRun {
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "form_id", nullable = false)
+    private Long formId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    
+    @Column(name = "last_registration_id", nullable = false)
+    private long lastRegistrationId;
+    
+    @Column(nullable = false)
+    private long invoiced;
+    
+    /**
+     * Registrations of member types that cost nothing, which get no invoice.
+     */
+    @Column(name = "free_registrations", nullable = false)
+    private long freeRegistrations;
+    
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    // Constructors
+    public InvoiceRun() {
+    }
+    
+    public InvoiceRun(Long formId, LocalDateTime startedAt) {
+        this.formId = formId;
+        this.status = Status.RUNNING;
+        this.totalAmount = BigDecimal.ZERO;
+        this.startedAt = startedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getFormId() {
+        return formId;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public long getLastRegistrationId() {
+        return lastRegistrationId;
+    }
+    
+    public long getInvoiced() {
+        return invoiced;
+    }
+    
+    public long getFreeRegistrations() {
+        return freeRegistrations;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -4,16 +4,30 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import no.spond.club.cache.FormChangeListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "member_types")
+@EntityListeners(FormChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member-types")
 public class MemberType {
     
+    /**
+     * From a sequence rather than an identity column, so a form's member types are inserted in one
+     * JDBC batch.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_types_seq")
+    @SequenceGenerator(name = "member_types_seq", sequenceName = "member_types_seq", allocationSize = 50)
     private Long id;
     
+    @Column(name = "external_id", unique = true, length = 32)
+    private String externalId;
+    
     @NotBlank
     @Column(nullable = false)
     private String name;
@@ -26,6 +40,12 @@ public class MemberType {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
     
+    /**
+     * Null when anyone is eligible.
+     */
+    @Embedded
+    private EligibilityRule eligibility;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "form_id", nullable = false)
     private RegistrationForm form;
@@ -39,6 +59,17 @@ public class MemberType {
         this.price = price;
     }
     
+    /**
+     * Assigned on insert rather than in the constructor, which Hibernate also calls for every
+     * row it loads.
+     */
+    @PrePersist
+    void assignExternalId() {
+        if (externalId == null) {
+            externalId = RegistrationForm.newExternalId();
+        }
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -48,6 +79,14 @@ public class MemberType {
         this.id = id;
     }
     
+    public String getExternalId() {
+        return externalId;
+    }
+    
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+    
     public String getName() {
         return name;
     }
@@ -72,6 +111,14 @@ public class MemberType {
         this.price = price;
     }
     
+    public EligibilityRule getEligibility() {
+        return eligibility;
+    }
+    
+    public void setEligibility(EligibilityRule eligibility) {
+        this.eligibility = eligibility;
+    }
+    
     public RegistrationForm getForm() {
         return form;
     }
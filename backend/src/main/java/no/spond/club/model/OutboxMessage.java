@@ -0,0 +1,152 @@
+package no.spond.club.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A confirmation e-mail waiting to be sent. Rows are written in the same transaction
+ * as the registration they belong to and delivered later by the outbox dispatcher.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"))
+public class OutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "registration_id")
+    private Long registrationId;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    @Column(nullable = false)
+    private String subject;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String body;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    // Constructors
+    public OutboxMessage() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+        this.status = OutboxStatus.PENDING;
+    }
+    
+    public OutboxMessage(Long registrationId, String recipient, String subject, String body) {
+        this();
+        this.registrationId = registrationId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+    
+    public void setRegistrationId(Long registrationId) {
+        this.registrationId = registrationId;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+    }
+    
+    public OutboxStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,7 @@
+package no.spond.club.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
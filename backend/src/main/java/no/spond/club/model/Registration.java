@@ -9,7 +9,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "registrations")
+@Table(name = "registrations", uniqueConstraints = {
+    // Includes the partition key, as PostgreSQL requires on a partitioned table
+    @UniqueConstraint(name = "uk_registrations_journal_key", columnNames = {"journal_key", "form_id"})
+}, indexes = {
+    // Keyset order of the duplicate scan
+    @Index(name = "idx_registrations_birth_date", columnList = "birth_date, id"),
+    // Keyset order of invoicing within a form
+    @Index(name = "idx_registrations_form_id", columnList = "form_id, id")
+})
 public class Registration {
     
     @Id
@@ -37,6 +45,12 @@ public class Registration {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
+    /**
+     * Set when the registration was applied from the local journal; makes replay idempotent.
+     */
+    @Column(name = "journal_key", length = 64)
+    private String journalKey;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "form_id", nullable = false)
     private RegistrationForm form;
@@ -111,6 +125,14 @@ public class Registration {
         this.createdAt = createdAt;
     }
     
+    public String getJournalKey() {
+        return journalKey;
+    }
+    
+    public void setJournalKey(String journalKey) {
+        this.journalKey = journalKey;
+    }
+    
     public RegistrationForm getForm() {
         return form;
     }
@@ -3,18 +3,31 @@ package no.spond.club.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import no.spond.club.cache.FormChangeListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
 @Table(name = "registration_forms")
+@EntityListeners(FormChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "forms")
 public class RegistrationForm {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @Column(name = "external_id", unique = true, length = 32)
+    private String externalId;
+    
+    @Column(name = "club_id")
+    private String clubId;
+    
     @NotBlank
     @Column(nullable = false)
     private String title;
@@ -29,10 +42,34 @@ public class RegistrationForm {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
+    /**
+     * Set on every change made through the admin API, so the form's version moves even when
+     * only a member type or group was edited.
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    /**
+     * When registration closes by itself; null keeps the form open until it is closed by hand.
+     */
+    @Column(name = "registration_closes")
+    private LocalDateTime registrationCloses;
+    
+    /**
+     * Null while the form accepts registrations.
+     */
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+    
+    @Version
+    private Long version;
+    
     @OneToMany(mappedBy = "form", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "form-member-types")
     private List<MemberType> memberTypes;
     
     @OneToMany(mappedBy = "form", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "form-groups")
     private List<Group> groups;
     
     @OneToMany(mappedBy = "form", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -50,6 +87,17 @@ public class RegistrationForm {
         this.registrationDate = registrationDate;
     }
     
+    /**
+     * Assigned on insert rather than in the constructor, which Hibernate also calls for every
+     * row it loads.
+     */
+    @PrePersist
+    void assignExternalId() {
+        if (externalId == null) {
+            externalId = newExternalId();
+        }
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -59,6 +107,22 @@ public class RegistrationForm {
         this.id = id;
     }
     
+    public String getExternalId() {
+        return externalId;
+    }
+    
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+    
+    public String getClubId() {
+        return clubId;
+    }
+    
+    public void setClubId(String clubId) {
+        this.clubId = clubId;
+    }
+    
     public String getTitle() {
         return title;
     }
@@ -91,6 +155,42 @@ public class RegistrationForm {
         this.createdAt = createdAt;
     }
     
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getRegistrationCloses() {
+        return registrationCloses;
+    }
+    
+    public void setRegistrationCloses(LocalDateTime registrationCloses) {
+        this.registrationCloses = registrationCloses;
+    }
+    
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+    
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+    
+    public boolean isClosed() {
+        return closedAt != null;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public List<MemberType> getMemberTypes() {
         return memberTypes;
     }
@@ -114,4 +214,11 @@ public class RegistrationForm {
     public void setRegistrations(List<Registration> registrations) {
         this.registrations = registrations;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Public identifiers are 32 upper-case hex characters, like the ones the API has always used.
+     */
+    public static String newExternalId() {
+        return UUID.randomUUID().toString().replace("-", "").toUpperCase();
+    }
+}
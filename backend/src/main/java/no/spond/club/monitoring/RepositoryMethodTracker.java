@@ -0,0 +1,80 @@
+package no.spond.club.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which Spring Data repository method is running on the current thread,
+ * so statements seen by the JDBC proxy can be attributed to it, and times the
+ * repository call as a whole.
+ */
+@Aspect
+@Component
+public class RepositoryMethodTracker {
+
+    public static final String UNKNOWN = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryMethodTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The repository method currently executing on this thread, e.g.
+     * {@code RegistrationRepository.findByFormId}, or {@value #UNKNOWN}.
+     */
+    public static String currentMethod() {
+        String method = CURRENT.get();
+        return method != null ? method : UNKNOWN;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = repositoryName(joinPoint.getThis().getClass()) + "." + joinPoint.getSignature().getName();
+        String outer = CURRENT.get();
+        // Keep the outermost method when repositories call each other
+        if (outer == null) {
+            CURRENT.set(method);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            outcome = "error";
+            throw t;
+        } finally {
+            sample.stop(Timer.builder("spondy.repository.invocations")
+                    .description("Spring Data repository method execution time")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            if (outer == null) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    private String repositoryName(Class<?> proxyClass) {
+        return repositoryNames.computeIfAbsent(proxyClass, type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
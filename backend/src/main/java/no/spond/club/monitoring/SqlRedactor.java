@@ -0,0 +1,55 @@
+package no.spond.club.monitoring;
+
+import java.util.regex.Pattern;
+
+/**
+ * Strips literal values out of SQL before it is written to the log. Prepared statements
+ * already use {@code ?} placeholders; this covers inlined string and numeric literals
+ * so names, e-mails and phone numbers never end up in log files.
+ */
+public final class SqlRedactor {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlRedactor() {
+    }
+
+    public static String redact(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String redacted = STRING_LITERAL.matcher(sql).replaceAll("'?'");
+        redacted = NUMERIC_LITERAL.matcher(redacted).replaceAll("?");
+        return WHITESPACE.matcher(redacted).replaceAll(" ").trim();
+    }
+
+    /**
+     * Classifies a statement by its leading keyword: select, insert, update, delete or other.
+     */
+    public static String statementType(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase();
+        switch (keyword) {
+            case "select":
+            case "with":
+                return "select";
+            case "insert":
+            case "update":
+            case "delete":
+                return keyword;
+            case "merge":
+                return "update";
+            default:
+                return "other";
+        }
+    }
+}
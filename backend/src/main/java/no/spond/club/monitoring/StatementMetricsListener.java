@@ -0,0 +1,64 @@
+package no.spond.club.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC statement executed through the proxied datasource, tagged with the
+ * repository method that issued it, and logs statements slower than the configured
+ * threshold. Bind parameters are never logged, only how many there were.
+ */
+public class StatementMetricsListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementMetricsListener.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowQueryThresholdMillis;
+
+    public StatementMetricsListener(MeterRegistry meterRegistry, Duration slowQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nothing to do before execution; timing is provided by datasource-proxy
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        String method = RepositoryMethodTracker.currentMethod();
+        String sql = queryInfoList.get(0).getQuery();
+        long elapsedMillis = execInfo.getElapsedTime();
+
+        Timer.builder("spondy.jdbc.statements")
+                .description("JDBC statement execution time per repository method")
+                .tag("method", method)
+                .tag("type", SqlRedactor.statementType(sql))
+                .tag("outcome", execInfo.isSuccess() ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+
+        if (elapsedMillis >= slowQueryThresholdMillis) {
+            int parameterCount = queryInfoList.stream()
+                    .mapToInt(query -> query.getParametersList().isEmpty() ? 0 : query.getParametersList().get(0).size())
+                    .sum();
+            log.warn("Slow query ({} ms, method={}, batchSize={}, params={} redacted): {}",
+                    elapsedMillis, method, Math.max(execInfo.getBatchSize(), 1), parameterCount,
+                    SqlRedactor.redact(sql));
+        }
+    }
+}
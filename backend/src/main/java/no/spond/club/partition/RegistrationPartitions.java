@@ -0,0 +1,313 @@
+package no.spond.club.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.spond.club.config.PartitioningProperties;
+import no.spond.club.model.InvoiceRun;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps {@code registrations}, list-partitioned by form on PostgreSQL, in shape: every form gets
+ * a partition of its own, so its queries read only its own rows and indexes, and a form that has
+ * been closed for {@code spondy.partitioning.archive-after} has its partition detached, written
+ * to a gzipped CSV file and dropped. Unless {@code require-invoiced} is turned off, that waits
+ * until the form's latest invoice run has completed, since invoicing reads only the live table.
+ *
+ * <p>Rows land in {@code registrations_default} until their form has a partition, and are moved
+ * across when it is created. Each step is a short transaction with a lock timeout; a step that
+ * cannot get its locks, or that another instance is already running, is retried on the next run.
+ * A partition that was detached but not yet archived is picked up again the same way.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spondy.partitioning", name = "enabled", havingValue = "true")
+public class RegistrationPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationPartitions.class);
+
+    static final String PARENT = "registrations";
+    static final String DEFAULT_PARTITION = "registrations_default";
+    private static final String PARTITION_PREFIX = "registrations_f";
+    /**
+     * Advisory lock key for partition changes, shared by all instances.
+     */
+    private static final long LOCK_KEY = 0x7265675f70617274L;
+    private static final DateTimeFormatter ARCHIVE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitioningProperties properties;
+    private final Clock clock;
+    private final Counter createdCounter;
+    private final Counter archivedCounter;
+
+    @Autowired
+    public RegistrationPartitions(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  PartitioningProperties properties,
+                                  Clock clock,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+        this.createdCounter = Counter.builder("spondy.partitions.created")
+                .description("Form partitions created in registrations")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("spondy.partitions.archived")
+                .description("Form partitions written to the archive directory and dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Also runs once the application is ready, after the startup runners have seeded any forms.
+     * Forms created later land in the default partition until the next run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${spondy.partitioning.maintenance-interval:PT15M}",
+            initialDelayString = "${spondy.partitioning.maintenance-interval:PT15M}")
+    public void scheduledMaintenance() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Partition maintenance failed, retrying on next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives leftover detached partitions, then archives or partitions each form as due.
+     */
+    public void maintain() {
+        for (String table : detachedPartitions()) {
+            archiveTable(table);
+        }
+
+        Set<String> attached = new HashSet<>(attachedPartitions());
+        LocalDateTime archiveBefore = LocalDateTime.now(clock).minus(properties.getArchiveAfter());
+        List<FormState> forms = jdbcTemplate.query(
+                "SELECT f.id, f.external_id, f.closed_at, (SELECT r.status FROM invoice_runs r " +
+                "WHERE r.form_id = f.id ORDER BY r.id DESC LIMIT 1) AS invoice_status " +
+                "FROM registration_forms f ORDER BY f.id",
+                (rs, row) -> new FormState(rs.getLong("id"), rs.getString("external_id"),
+                        toLocalDateTime(rs.getTimestamp("closed_at")), rs.getString("invoice_status")));
+
+        for (FormState form : forms) {
+            boolean archiveDue = archiveDue(form, archiveBefore, properties.isRequireInvoiced());
+            boolean partitioned = attached.contains(partitionName(form.id()));
+            if (!archiveDue) {
+                if (!partitioned) {
+                    ensurePartition(form.id());
+                }
+            } else if (partitioned || hasRegistrations(form.id())) {
+                if (partitioned || ensurePartition(form.id())) {
+                    archive(form.id());
+                }
+            }
+        }
+    }
+
+    /**
+     * A form is due once it has been closed since before {@code archiveBefore} and, if invoicing
+     * is required, its latest invoice run has completed. A form left uninvoiced stays in the
+     * database; archiving it would drop rows that were never billed.
+     */
+    static boolean archiveDue(FormState form, LocalDateTime archiveBefore, boolean requireInvoiced) {
+        if (form.closedAt() == null || !form.closedAt().isBefore(archiveBefore)) {
+            return false;
+        }
+        if (requireInvoiced && !InvoiceRun.Status.COMPLETED.name().equals(form.invoiceStatus())) {
+            log.debug("Form {} is due for archiving but not invoiced, keeping it", form.externalId());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates the form's partition and moves its rows out of the default partition.
+     *
+     * @return true if the form has a partition afterwards
+     */
+    public boolean ensurePartition(long formId) {
+        String partition = partitionName(formId);
+        Boolean created = inLockedTransaction(() -> {
+            if (isAttached(partition)) {
+                return true;
+            }
+            // Taken up front, as ATTACH needs it anyway; a registration for the form inserted
+            // between the move and the attach would otherwise make the attach fail
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("CREATE TABLE " + partition
+                    + " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            String columns = String.join(", ", jdbcTemplate.queryForList(
+                    "SELECT attname FROM pg_attribute WHERE attrelid = ?::regclass AND attnum > 0 " +
+                    "AND NOT attisdropped ORDER BY attnum", String.class, PARENT));
+            int moved = jdbcTemplate.update(
+                    "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE form_id = ? RETURNING " + columns + ") " +
+                    "INSERT INTO " + partition + " (" + columns + ") SELECT " + columns + " FROM moved", formId);
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + partition
+                    + " FOR VALUES IN (" + formId + ")");
+            createdCounter.increment();
+            log.info("Created partition {} with {} existing registrations", partition, moved);
+            return true;
+        });
+        return Boolean.TRUE.equals(created);
+    }
+
+    /**
+     * Detaches the form's partition, writes it to the archive directory and drops it.
+     */
+    public void archive(long formId) {
+        String partition = partitionName(formId);
+        Boolean detached = inLockedTransaction(() -> {
+            if (!isAttached(partition)) {
+                return false;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition);
+            return true;
+        });
+        if (Boolean.TRUE.equals(detached)) {
+            archiveTable(partition);
+        }
+    }
+
+    /**
+     * Copies a detached partition to {@code registrations-<form>-<timestamp>.csv.gz} and drops
+     * it once the file is complete.
+     */
+    void archiveTable(String table) {
+        long formId = Long.parseLong(table.substring(PARTITION_PREFIX.length()));
+        String externalId = jdbcTemplate.query("SELECT external_id FROM registration_forms WHERE id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, formId);
+        String name = "registrations-" + (externalId != null ? externalId : "form" + formId)
+                + "-" + LocalDateTime.now(clock).format(ARCHIVE_TIMESTAMP) + ".csv.gz";
+        Path target = properties.getArchiveDirectory().resolve(name);
+
+        Long rows = inLockedTransaction(() -> {
+            // Another instance may have archived it since
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, table)) {
+                return null;
+            }
+            long copied = copyToFile(table, target);
+            jdbcTemplate.execute("DROP TABLE " + table);
+            return copied;
+        });
+        if (rows != null) {
+            archivedCounter.increment();
+            log.info("Archived {} registrations from {} to {}", rows, table, target);
+        }
+    }
+
+    private long copyToFile(String table, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try {
+                        return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(
+                                "COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            // Only a complete file ever carries the archive's name
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive " + target, e);
+        }
+    }
+
+    List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = ?::regclass", String.class, PARENT);
+    }
+
+    /**
+     * Form partitions that are no longer attached: an archive run stopped after detaching one.
+     */
+    List<String> detachedPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = current_schema() AND c.relkind = 'r' AND NOT c.relispartition " +
+                "AND c.relname ~ '^registrations_f[0-9]+$'", String.class);
+    }
+
+    private boolean isAttached(String partition) {
+        return attachedPartitions().contains(partition);
+    }
+
+    private boolean hasRegistrations(long formId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + PARENT + " WHERE form_id = ?)", Boolean.class, formId));
+    }
+
+    /**
+     * Runs the step in a transaction holding the shared advisory lock.
+     *
+     * @return the step's result, or null if another instance holds the lock or a table lock timed out
+     */
+    private <T> T inLockedTransaction(Supplier<T> step) {
+        try {
+            return transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = " + properties.getLockTimeout().toMillis());
+                if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY))) {
+                    return null;
+                }
+                return step.get();
+            });
+        } catch (DataAccessException e) {
+            log.warn("Partition maintenance step skipped until next run: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static String partitionName(long formId) {
+        return PARTITION_PREFIX + formId;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * @param invoiceStatus the status of the form's latest invoice run, or null if it has none
+     */
+    record FormState(long id, String externalId, LocalDateTime closedAt, String invoiceStatus) {
+    }
+}
@@ -0,0 +1,33 @@
+package no.spond.club.ratelimit;
+
+/**
+ * Works out which address a request came from.
+ *
+ * <p>Every proxy appends the address it received the request from to {@code X-Forwarded-For},
+ * so only the last {@code trustedProxies} hops of the chain (the header followed by the
+ * connection's own address) are known to be genuine. The client is the address the outermost
+ * trusted proxy saw; anything a client puts in the header itself lies further left and is ignored.
+ */
+public final class ClientAddress {
+
+    private ClientAddress() {
+    }
+
+    public static String resolve(String remoteAddress, String forwardedFor, int trustedProxies) {
+        if (trustedProxies <= 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddress;
+        }
+        // The connection's address is the innermost proxy, so skip one entry fewer in the header
+        int end = forwardedFor.length();
+        for (int skip = trustedProxies - 1; skip > 0; skip--) {
+            int comma = forwardedFor.lastIndexOf(',', end - 1);
+            if (comma < 0) {
+                break;
+            }
+            end = comma;
+        }
+        int start = forwardedFor.lastIndexOf(',', end - 1) + 1;
+        String client = forwardedFor.substring(start, end).trim();
+        return client.isEmpty() ? remoteAddress : client;
+    }
+}
@@ -0,0 +1,113 @@
+package no.spond.club.ratelimit;
+
+import no.spond.club.config.RateLimitProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * The buckets of every client of one configured endpoint.
+ *
+ * <p>Lookups are lock-free; only a client's first request inserts. The number of buckets is
+ * capped at {@code maxClients}: once reached, new clients share a single overflow bucket until
+ * the sweep has dropped idle ones, so spraying addresses cannot grow memory or escape the limit.
+ */
+final class EndpointLimit {
+
+    private final String name;
+    private final Set<String> methods;
+    private final List<PathPattern> paths;
+    private final int capacity;
+    private final long refillNanos;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final TokenBucket overflow;
+
+    EndpointLimit(String name, RateLimitProperties.Endpoint endpoint, int maxClients, long now) {
+        if (endpoint.getCapacity() < 1 || endpoint.getRefillPerSecond() <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a capacity and refill rate above 0");
+        }
+        this.name = name;
+        this.methods = endpoint.getMethods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.paths = endpoint.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.capacity = endpoint.getCapacity();
+        this.refillNanos = Math.max(1, Math.round(1_000_000_000 / endpoint.getRefillPerSecond()));
+        this.maxClients = maxClients;
+        this.overflow = new TokenBucket(refillNanos, capacity, now);
+    }
+
+    String name() {
+        return name;
+    }
+
+    boolean matches(String method, PathContainer path) {
+        if (!methods.isEmpty() && !methods.contains(method)) {
+            return false;
+        }
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean appliesTo(String method) {
+        return methods.isEmpty() || methods.contains(method);
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    long acquire(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = insert(client, now);
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    private TokenBucket insert(String client, long now) {
+        if (size.get() >= maxClients) {
+            return overflow;
+        }
+        TokenBucket created = new TokenBucket(refillNanos, capacity, now);
+        TokenBucket existing = buckets.putIfAbsent(client, created);
+        if (existing != null) {
+            return existing;
+        }
+        size.incrementAndGet();
+        return created;
+    }
+
+    /**
+     * Drops buckets that have been full since {@code idleSince}. A full bucket is no different
+     * from a new one, so a client returning later starts exactly where it left off.
+     *
+     * @return the number of buckets dropped
+     */
+    int sweep(long idleSince) {
+        int removed = 0;
+        for (var entry : buckets.entrySet()) {
+            if (entry.getValue().fullSince(idleSince) && buckets.remove(entry.getKey(), entry.getValue())) {
+                size.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    int clients() {
+        return size.get();
+    }
+}
@@ -0,0 +1,100 @@
+package no.spond.club.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.spond.club.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets for the endpoints under {@code spondy.rate-limit.endpoints}.
+ *
+ * <p>This is the application's own limit, independent of nginx: one client behind a shared
+ * address cannot use up the budget of other clients, and the backend stays protected when
+ * it runs without a proxy. Clients are identified by {@link ClientAddress}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spondy.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final List<EndpointLimit> endpoints = new ArrayList<>();
+    private final List<Counter> rejected = new ArrayList<>();
+    private final int trustedProxies;
+    private final long idleNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.trustedProxies = properties.getTrustedProxies();
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        properties.getEndpoints().forEach((name, endpoint) -> {
+            EndpointLimit limit = new EndpointLimit(name, endpoint, properties.getMaxClients(), now);
+            endpoints.add(limit);
+            rejected.add(Counter.builder("spondy.ratelimit.rejected")
+                    .description("Requests refused with 429")
+                    .tag("endpoint", name)
+                    .register(meterRegistry));
+            Gauge.builder("spondy.ratelimit.clients", limit, EndpointLimit::clients)
+                    .description("Clients with a bucket")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    /**
+     * Takes a token from the client's bucket for the first endpoint matching the request.
+     *
+     * @param path the request path without the context path
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long acquire(String method, String path, String remoteAddress, String forwardedFor) {
+        PathContainer parsed = null;
+        for (int i = 0; i < endpoints.size(); i++) {
+            EndpointLimit endpoint = endpoints.get(i);
+            if (!endpoint.appliesTo(method)) {
+                continue;
+            }
+            if (parsed == null) {
+                parsed = PathContainer.parsePath(path);
+            }
+            if (endpoint.matches(method, parsed)) {
+                String client = ClientAddress.resolve(remoteAddress, forwardedFor, trustedProxies);
+                long wait = endpoint.acquire(client, nanoClock.getAsLong());
+                if (wait > 0) {
+                    rejected.get(i).increment();
+                }
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${spondy.rate-limit.sweep-interval:PT1M}")
+    public void sweep() {
+        long idleSince = nanoClock.getAsLong() - idleNanos;
+        for (EndpointLimit endpoint : endpoints) {
+            int removed = endpoint.sweep(idleSince);
+            if (removed > 0) {
+                log.debug("Dropped {} idle rate limit buckets for {}, {} left", removed, endpoint.name(), endpoint.clients());
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package no.spond.club.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single timestamp: the time at which it will be full again
+ * (the generic cell rate algorithm). Taking a token pushes that time one refill interval
+ * further out, and a request is refused when that would put it more than a full bucket
+ * ahead of now. One compare-and-set per request, no lock and no background refill.
+ */
+final class TokenBucket {
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(long refillNanos, int capacity, long now) {
+        this.refillNanos = refillNanos;
+        this.burstNanos = refillNanos * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + refillNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True if the bucket has been full since before {@code since}; it then behaves exactly like a new one.
+     */
+    boolean fullSince(long since) {
+        return fullAt.get() - since <= 0;
+    }
+}
@@ -0,0 +1,111 @@
+package no.spond.club.reactive;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most {@code maxInFlight} pieces of work at once, without blocking a thread for the rest.
+ *
+ * <p>Work goes into a bounded buffer drained by a {@code flatMap} with that concurrency, so a
+ * new piece is only taken once one finishes. When {@code maxQueued} pieces are already waiting,
+ * or one waited longer than {@code queueTimeout}, the caller gets {@link Rejected} instead of
+ * piling up behind a saturated database.
+ */
+final class ConcurrencyLimiter {
+
+    static final class Rejected extends RuntimeException {
+
+        Rejected(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private final Sinks.Many<Job<?>> jobs;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Disposable worker;
+
+    ConcurrencyLimiter(int maxInFlight, int maxQueued, Duration queueTimeout) {
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.jobs = Sinks.many().unicast().onBackpressureBuffer(Queues.<Job<?>>get(maxQueued + 1).get());
+        this.worker = jobs.asFlux().flatMap(Job::run, maxInFlight, 1).subscribe();
+    }
+
+    <T> Mono<T> submit(Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return Mono.error(new Rejected("Too many registrations waiting"));
+            }
+            Job<T> job = new Job<>(work, System.nanoTime());
+            Sinks.EmitResult result;
+            // Emission is serialized; another thread emitting at the same moment is brief
+            while ((result = jobs.tryEmitNext(job)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+            if (result.isFailure()) {
+                queued.decrementAndGet();
+                return Mono.error(new Rejected("Registrations are not being accepted: " + result));
+            }
+            return job.result.asMono().doOnCancel(() -> job.cancelled = true);
+        });
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    void dispose() {
+        worker.dispose();
+    }
+
+    private final class Job<T> {
+
+        private final Supplier<Mono<T>> work;
+        private final long enqueuedAt;
+        private final Sinks.One<T> result = Sinks.one();
+        private volatile boolean cancelled;
+
+        Job(Supplier<Mono<T>> work, long enqueuedAt) {
+            this.work = work;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        Mono<Void> run() {
+            queued.decrementAndGet();
+            if (cancelled) {
+                return Mono.empty();
+            }
+            if (System.nanoTime() - enqueuedAt > queueTimeoutNanos) {
+                result.tryEmitError(new Rejected("Waited too long for a registration slot"));
+                return Mono.empty();
+            }
+            inFlight.incrementAndGet();
+            return Mono.defer(work)
+                    .doOnSuccess(value -> {
+                        if (value == null) {
+                            result.tryEmitEmpty();
+                        } else {
+                            result.tryEmitValue(value);
+                        }
+                    })
+                    .doOnError(result::tryEmitError)
+                    .onErrorResume(e -> Mono.empty())
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .then();
+        }
+    }
+}
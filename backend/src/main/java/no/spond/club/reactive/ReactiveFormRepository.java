@@ -0,0 +1,140 @@
+package no.spond.club.reactive;
+
+import io.r2dbc.spi.Readable;
+import no.spond.club.model.EligibilityRule;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.OutboxMessage;
+import no.spond.club.model.Registration;
+import no.spond.club.model.RegistrationForm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * SQL for the tables the servlet application maps with JPA, read into the same model classes
+ * so the form DTO, eligibility rules and confirmation e-mail are built by the same code.
+ */
+@Repository
+@Profile(ReactiveRegistrationApplication.PROFILE)
+public class ReactiveFormRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveFormRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * The form with its member types and groups, or empty if there is no such form.
+     */
+    public Mono<RegistrationForm> findByExternalIdWithDetails(String externalId) {
+        return databaseClient.sql("SELECT id, external_id, club_id, title, description, registration_date, registration_closes, closed_at, version " +
+                        "FROM registration_forms WHERE external_id = :externalId")
+                .bind("externalId", externalId)
+                .map(ReactiveFormRepository::form)
+                .one()
+                .flatMap(form -> databaseClient.sql("SELECT id, external_id, name, min_age, max_age, born_on_or_after, born_on_or_before " +
+                                "FROM member_types WHERE form_id = :formId")
+                        .bind("formId", form.getId())
+                        .map(ReactiveFormRepository::memberType)
+                        .all()
+                        .collectList()
+                        .zipWith(databaseClient.sql("SELECT id, name, min_age, max_age, born_on_or_after, born_on_or_before " +
+                                        "FROM groups WHERE form_id = :formId")
+                                .bind("formId", form.getId())
+                                .map(ReactiveFormRepository::group)
+                                .all()
+                                .collectList())
+                        .map(children -> {
+                            form.setMemberTypes(children.getT1());
+                            form.setGroups(children.getT2());
+                            return form;
+                        }));
+    }
+
+    /**
+     * Inserts the registration and returns its generated ID.
+     */
+    public Mono<Long> insert(Registration registration) {
+        return databaseClient.sql("INSERT INTO registrations " +
+                        "(full_name, email, phone_number, birth_date, created_at, form_id, member_type_id, group_id) " +
+                        "VALUES (:fullName, :email, :phoneNumber, :birthDate, :createdAt, :formId, :memberTypeId, :groupId)")
+                .bind("fullName", registration.getFullName())
+                .bind("email", registration.getEmail())
+                .bind("phoneNumber", registration.getPhoneNumber())
+                .bind("birthDate", registration.getBirthDate())
+                .bind("createdAt", registration.getCreatedAt())
+                .bind("formId", registration.getForm().getId())
+                .bind("memberTypeId", registration.getMemberType().getId())
+                .bind("groupId", registration.getGroup().getId())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<Void> insert(OutboxMessage message) {
+        return databaseClient.sql("INSERT INTO email_outbox " +
+                        "(registration_id, recipient, subject, body, status, attempts, next_attempt_at, created_at) " +
+                        "VALUES (:registrationId, :recipient, :subject, :body, :status, :attempts, :nextAttemptAt, :createdAt)")
+                .bind("registrationId", message.getRegistrationId())
+                .bind("recipient", message.getRecipient())
+                .bind("subject", message.getSubject())
+                .bind("body", message.getBody())
+                .bind("status", message.getStatus().name())
+                .bind("attempts", message.getAttempts())
+                .bind("nextAttemptAt", message.getNextAttemptAt())
+                .bind("createdAt", message.getCreatedAt())
+                .then();
+    }
+
+    private static RegistrationForm form(Readable row) {
+        RegistrationForm form = new RegistrationForm(
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("registration_date", LocalDate.class));
+        form.setId(row.get("id", Long.class));
+        form.setExternalId(row.get("external_id", String.class));
+        form.setClubId(row.get("club_id", String.class));
+        form.setRegistrationCloses(row.get("registration_closes", LocalDateTime.class));
+        form.setClosedAt(row.get("closed_at", LocalDateTime.class));
+        form.setVersion(row.get("version", Long.class));
+        return form;
+    }
+
+    private static MemberType memberType(Readable row) {
+        MemberType memberType = new MemberType();
+        memberType.setId(row.get("id", Long.class));
+        memberType.setExternalId(row.get("external_id", String.class));
+        memberType.setName(row.get("name", String.class));
+        memberType.setEligibility(eligibility(row));
+        return memberType;
+    }
+
+    private static Group group(Readable row) {
+        Group group = new Group(row.get("name", String.class), null);
+        group.setId(row.get("id", Long.class));
+        group.setEligibility(eligibility(row));
+        return group;
+    }
+
+    /**
+     * Null when no column is set, as Hibernate reads the embedded rule.
+     */
+    private static EligibilityRule eligibility(Readable row) {
+        EligibilityRule rule = new EligibilityRule(row.get("min_age", Integer.class), row.get("max_age", Integer.class));
+        rule.setBornOnOrAfter(row.get("born_on_or_after", LocalDate.class));
+        rule.setBornOnOrBefore(row.get("born_on_or_before", LocalDate.class));
+        if (rule.getMinAge() == null && rule.getMaxAge() == null
+                && rule.getBornOnOrAfter() == null && rule.getBornOnOrBefore() == null) {
+            return null;
+        }
+        return rule;
+    }
+}
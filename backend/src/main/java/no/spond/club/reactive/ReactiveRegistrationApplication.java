@@ -0,0 +1,69 @@
+package no.spond.club.reactive;
+
+import jakarta.validation.Validator;
+import no.spond.club.ClubMembershipApplication;
+import no.spond.club.service.FieldValidationService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Clock;
+
+/**
+ * The public registration endpoints on WebFlux and R2DBC, started by
+ * {@link ClubMembershipApplication#main} when the {@code reactive} profile is active.
+ *
+ * <p>Only {@code GET /api/form}, {@code GET /api/form/{id}}, {@code POST /api/form/{formId}/register}
+ * and {@code POST /api/form/{formId}/validate} are served, with the same contract as the servlet
+ * application. The schema and forms are owned by the servlet application, which keeps serving
+ * administration, search and live counts against the same database.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {
+    DataSourceAutoConfiguration.class,
+    DataSourceTransactionManagerAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    JpaRepositoriesAutoConfiguration.class
+})
+@ComponentScan(basePackageClasses = ReactiveRegistrationApplication.class)
+@EnableConfigurationProperties(ReactiveRegistrationProperties.class)
+@Profile(ReactiveRegistrationApplication.PROFILE)
+public class ReactiveRegistrationApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static SpringApplication application() {
+        SpringApplication application = new SpringApplication(ReactiveRegistrationApplication.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.setAdditionalProfiles(PROFILE);
+        return application;
+    }
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    @Bean
+    public FieldValidationService fieldValidationService(Validator validator) {
+        return new FieldValidationService(validator);
+    }
+
+    /**
+     * Tomcat is on the classpath for the servlet application and would otherwise be preferred.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
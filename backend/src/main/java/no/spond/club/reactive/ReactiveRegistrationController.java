@@ -0,0 +1,140 @@
+package no.spond.club.reactive;
+
+import jakarta.validation.Valid;
+import no.spond.club.controller.RegistrationController;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.service.FieldValidationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The public endpoints of {@link RegistrationController} on WebFlux, with the same responses.
+ */
+@RestController
+@RequestMapping("/api")
+@Profile(ReactiveRegistrationApplication.PROFILE)
+public class ReactiveRegistrationController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRegistrationController.class);
+
+    private final ReactiveRegistrationService registrationService;
+    private final FieldValidationService fieldValidationService;
+
+    @Autowired
+    public ReactiveRegistrationController(ReactiveRegistrationService registrationService,
+                                          FieldValidationService fieldValidationService) {
+        this.registrationService = registrationService;
+        this.fieldValidationService = fieldValidationService;
+    }
+
+    @GetMapping("/form")
+    public Mono<ResponseEntity<Map<String, Object>>> getDefaultForm() {
+        return registrationService.getDefaultForm()
+            .map(form -> ResponseEntity.ok(data(form)))
+            .onErrorResume(e -> Mono.just(error(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Kunne ikke hente registreringsskjema. Prøv igjen senere.", "FORM_FETCH_ERROR")));
+    }
+
+    @GetMapping("/form/{id}")
+    public Mono<ResponseEntity<Map<String, Object>>> getFormById(@PathVariable String id) {
+        return registrationService.getFormById(id)
+            .map(form -> ResponseEntity.ok(data(form)))
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(error(HttpStatus.NOT_FOUND, e.getMessage(), "FORM_NOT_FOUND")))
+            .onErrorResume(e -> Mono.just(error(HttpStatus.NOT_FOUND, "Fant ikke registreringsskjema med ID: " + id, "FORM_NOT_FOUND")));
+    }
+
+    @PostMapping("/form/{formId}/register")
+    public Mono<ResponseEntity<Map<String, Object>>> registerMember(
+            @PathVariable String formId,
+            @Valid @RequestBody RegistrationRequestDto request) {
+        return registrationService.registerMember(formId, request)
+            .map(registrationId -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Takk for din registrering! Du vil motta en bekreftelse på e-post.");
+                response.put("registrationId", registrationId);
+                response.put("memberName", request.getFullName());
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            })
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(error(HttpStatus.BAD_REQUEST, e.getMessage(), "INVALID_INPUT")))
+            .onErrorResume(ConcurrencyLimiter.Rejected.class, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Mange registrerer seg akkurat nå. Prøv igjen om litt.", "SERVER_BUSY").getBody())))
+            .onErrorResume(e -> {
+                log.error("Registration failed", e);
+                return Mono.just(error(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "En uventet feil oppstod under registrering. Prøv igjen senere.", "REGISTRATION_ERROR"));
+            });
+    }
+
+    /**
+     * Runs on the event loop: the checks are pure and read nothing.
+     */
+    @PostMapping("/form/{formId}/validate")
+    public Mono<ResponseEntity<Map<String, Object>>> validateFields(
+            @PathVariable String formId,
+            @RequestBody RegistrationRequestDto request) {
+        Map<String, String> fieldErrors = fieldValidationService.validateFields(request);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", fieldErrors.isEmpty());
+        if (!fieldErrors.isEmpty()) {
+            response.put("message", "Vennligst rett opp følgende feil:");
+            response.put("error", "VALIDATION_ERROR");
+        }
+        response.put("fieldErrors", fieldErrors);
+        return Mono.just(ResponseEntity.ok(response));
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleValidationErrors(WebExchangeBindException e) {
+        Map<String, String> fieldErrors = e.getFieldErrors()
+            .stream()
+            .collect(Collectors.toMap(
+                FieldError::getField,
+                FieldError::getDefaultMessage,
+                (existing, replacement) -> existing
+            ));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Vennligst rett opp følgende feil:");
+        response.put("error", "VALIDATION_ERROR");
+        response.put("fieldErrors", fieldErrors);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, Object>> handleException(Exception e) {
+        log.error("Unhandled exception", e);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "En uventet feil oppstod. Vennligst prøv igjen senere.", "INTERNAL_ERROR");
+    }
+
+    private static Map<String, Object> data(Object data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", data);
+        return response;
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message, String error) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        response.put("error", error);
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,65 @@
+package no.spond.club.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spondy.reactive")
+public class ReactiveRegistrationProperties {
+
+    /**
+     * Registrations being written at once. Each holds a pooled connection for its transaction,
+     * so this should not exceed {@code spring.r2dbc.pool.max-size}.
+     */
+    private int maxInFlight = 8;
+
+    /**
+     * Registrations waiting for a slot. They hold no thread and no connection; beyond this
+     * the endpoint answers 503 right away instead of queueing without bound.
+     */
+    private int maxQueued = 256;
+
+    /**
+     * A queued registration not started within this time is answered with 503.
+     */
+    private Duration queueTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Forms are reloaded at most this often. There is no change notification in the reactive
+     * application, so this bounds how long an edited form is served stale.
+     */
+    private Duration formCacheTtl = Duration.ofSeconds(30);
+
+    // Getters and Setters
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public Duration getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    public void setQueueTimeout(Duration queueTimeout) {
+        this.queueTimeout = queueTimeout;
+    }
+
+    public Duration getFormCacheTtl() {
+        return formCacheTtl;
+    }
+
+    public void setFormCacheTtl(Duration formCacheTtl) {
+        this.formCacheTtl = formCacheTtl;
+    }
+}
@@ -0,0 +1,163 @@
+package no.spond.club.reactive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.dto.RegistrationFormDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.eligibility.FormEligibility;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.OutboxMessage;
+import no.spond.club.model.Registration;
+import no.spond.club.model.RegistrationForm;
+import no.spond.club.schedule.FormWindow;
+import no.spond.club.service.ConfirmationEmailOutbox;
+import no.spond.club.service.RegistrationFormService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registration on R2DBC, with the rules of {@link RegistrationFormService}: the same request
+ * checks, compiled eligibility rules and confirmation e-mail, written in one transaction.
+ *
+ * <p>Registrations run through a {@link ConcurrencyLimiter}, so a burst waits without holding
+ * threads and is refused with 503 once the queue is full. Committed registrations are not
+ * published to in-process subscribers; search and live counts run in the servlet application.
+ */
+@Service
+@Profile(ReactiveRegistrationApplication.PROFILE)
+public class ReactiveRegistrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRegistrationService.class);
+
+    /**
+     * A form as read from the database, with its DTO, rules and window.
+     */
+    record LoadedForm(RegistrationForm form, RegistrationFormDto dto, FormEligibility eligibility, FormWindow window) {
+    }
+
+    private final ReactiveFormRepository formRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ConcurrencyLimiter limiter;
+    private final Duration formCacheTtl;
+    private final String defaultFormId;
+    private final Map<String, Mono<LoadedForm>> forms = new ConcurrentHashMap<>();
+    private final Counter rejected;
+    private final Clock clock;
+
+    @Autowired
+    public ReactiveRegistrationService(ReactiveFormRepository formRepository,
+                                       ReactiveTransactionManager transactionManager,
+                                       ReactiveRegistrationProperties properties,
+                                       MeterRegistry meterRegistry,
+                                       Clock clock,
+                                       @Value("${spondy.forms.default-form-id:B171388180BC457D9887AD92B6CCFC86}") String defaultFormId) {
+        this.formRepository = formRepository;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.limiter = new ConcurrencyLimiter(properties.getMaxInFlight(), properties.getMaxQueued(), properties.getQueueTimeout());
+        this.formCacheTtl = properties.getFormCacheTtl();
+        this.defaultFormId = defaultFormId;
+        this.clock = clock;
+        this.rejected = Counter.builder("spondy.reactive.rejected")
+                .description("Registrations refused because too many were waiting")
+                .register(meterRegistry);
+        Gauge.builder("spondy.reactive.in-flight", limiter, ConcurrencyLimiter::inFlight).register(meterRegistry);
+        Gauge.builder("spondy.reactive.queued", limiter, ConcurrencyLimiter::queued).register(meterRegistry);
+    }
+
+    public Mono<RegistrationFormDto> getDefaultForm() {
+        return getFormById(defaultFormId);
+    }
+
+    public Mono<RegistrationFormDto> getFormById(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Ugyldig skjema-ID"));
+        }
+        return form(id).map(LoadedForm::dto);
+    }
+
+    /**
+     * @return the new registration's ID
+     */
+    public Mono<Long> registerMember(String formId, RegistrationRequestDto request) {
+        return Mono.fromRunnable(() -> RegistrationFormService.validateRequest(formId, request))
+                .then(Mono.defer(() -> form(formId)))
+                .flatMap(loaded -> {
+                    loaded.window().requireOpen(clock.instant(), clock.getZone());
+                    LocalDate birthDate = request.getBirthDateAsLocalDate();
+                    FormEligibility.Assignment assignment =
+                            loaded.eligibility().assign(request.getMemberTypeId(), birthDate, LocalDate.now(clock));
+
+                    Registration registration = new Registration(
+                            request.getFullName().trim(), request.getEmail(), request.getPhoneNumber(), birthDate);
+                    registration.setForm(loaded.form());
+                    registration.setMemberType(memberType(loaded.form(), assignment.memberTypeId()));
+                    registration.setGroup(group(loaded.form(), assignment.groupId()));
+                    return limiter.submit(() -> persist(registration));
+                })
+                .doOnError(ConcurrencyLimiter.Rejected.class, e -> rejected.increment());
+    }
+
+    private Mono<Long> persist(Registration registration) {
+        return formRepository.insert(registration)
+                .flatMap(id -> {
+                    registration.setId(id);
+                    // Same transaction as the insert: the e-mail is queued if and only if the registration commits
+                    OutboxMessage confirmation = ConfirmationEmailOutbox.confirmation(registration);
+                    return formRepository.insert(confirmation).thenReturn(id);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(id -> log.debug("Registrering fullført med ID: {}", id));
+    }
+
+    /**
+     * Loads of the same form share one query, and the result is kept for {@code form-cache-ttl}.
+     * Unknown forms and failed loads are not kept.
+     */
+    private Mono<LoadedForm> form(String externalId) {
+        Mono<LoadedForm> cached = forms.computeIfAbsent(externalId, id -> formRepository.findByExternalIdWithDetails(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Ugyldig skjema-ID")))
+                .map(form -> {
+                    FormWindow window = FormWindow.of(form, clock.getZone());
+                    return new LoadedForm(form, RegistrationFormService.toDto(form, window, clock.instant()),
+                            FormEligibility.compile(form.getMemberTypes(), form.getGroups(), LocalDate.now(clock)), window);
+                })
+                .cache(loaded -> formCacheTtl, error -> Duration.ZERO, () -> Duration.ZERO));
+        return cached.doOnError(e -> forms.remove(externalId, cached));
+    }
+
+    private static MemberType memberType(RegistrationForm form, long id) {
+        return form.getMemberTypes().stream()
+                .filter(type -> type.getId() == id)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Ugyldig medlemstype valgt. Vennligst velg en gyldig medlemstype."));
+    }
+
+    private static Group group(RegistrationForm form, long id) {
+        return form.getGroups().stream()
+                .filter(candidate -> candidate.getId() == id)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Gruppen finnes ikke lenger: " + id));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        limiter.dispose();
+    }
+}
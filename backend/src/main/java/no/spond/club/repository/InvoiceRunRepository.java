@@ -0,0 +1,43 @@
+package no.spond.club.repository;
+
+import no.spond.club.model.InvoiceRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Counters and the checkpoint are updated in place rather than by saving the entity, since
+ * several workers add to them at once.
+ */
+@Repository
+public interface InvoiceRunRepository extends JpaRepository<InvoiceRun, Long> {
+    
+    Optional<InvoiceRun> findFirstByFormIdOrderByIdDesc(Long formId);
+    
+    /**
+     * Called in the transaction that inserts the chunk's invoices.
+     */
+    @Modifying
+    @Query("UPDATE InvoiceRun r SET r.invoiced = r.invoiced + :invoiced, " +
+           "r.freeRegistrations = r.freeRegistrations + :free, r.totalAmount = r.totalAmount + :amount " +
+           "WHERE r.id = :id")
+    int addBilled(Long id, long invoiced, long free, BigDecimal amount);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE InvoiceRun r SET r.lastRegistrationId = :lastRegistrationId " +
+           "WHERE r.id = :id AND r.lastRegistrationId < :lastRegistrationId")
+    int advanceCheckpoint(Long id, long lastRegistrationId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE InvoiceRun r SET r.status = :status, r.finishedAt = :finishedAt, r.lastError = :error " +
+           "WHERE r.id = :id")
+    int updateStatus(Long id, InvoiceRun.Status status, LocalDateTime finishedAt, String error);
+}
@@ -4,6 +4,15 @@ import no.spond.club.model.MemberType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MemberTypeRepository extends JpaRepository<MemberType, Long> {
+    
+    Optional<MemberType> findByExternalId(String externalId);
+    
+    List<MemberType> findByExternalIdIsNull();
+    
+    List<MemberType> findByFormId(Long formId);
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package no.spond.club.repository;
+
+import no.spond.club.model.OutboxMessage;
+import no.spond.club.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    
+    /**
+     * Locks up to {@code limit} due messages. Rows already locked by another dispatcher
+     * are skipped rather than waited on, so several instances can drain the outbox in parallel.
+     */
+    @Query(value = "SELECT * FROM email_outbox " +
+                   "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "ORDER BY id LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxMessage> claimDue(LocalDateTime now, int limit);
+    
+    long countByStatus(OutboxStatus status);
+    
+    Optional<OutboxMessage> findFirstByStatusOrderByIdAsc(OutboxStatus status);
+}
@@ -1,20 +1,92 @@
 package no.spond.club.repository;
 
+import jakarta.persistence.QueryHint;
+import no.spond.club.model.Group;
 import no.spond.club.model.RegistrationForm;
+import no.spond.club.schedule.ScheduledForm;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RegistrationFormRepository extends JpaRepository<RegistrationForm, Long> {
     
+    /**
+     * Second-level cache region for the cacheable form lookups below. Results are invalidated when any
+     * form, member type or group changes on this instance, and evicted by
+     * {@link no.spond.club.cache.FormInvalidationListener} for changes made elsewhere.
+     */
+    String QUERY_CACHE_REGION = "form-queries";
+    
+    /**
+     * The form with its member types and groups, in two queries. Fetching both lists in one
+     * query would return a row for every member type and group combination, so each list is
+     * joined in a query of its own, and the second query fills in the form the first one loaded.
+     */
+    @Transactional(readOnly = true)
+    default Optional<RegistrationForm> findByIdWithDetails(Long id) {
+        Optional<RegistrationForm> form = findByIdWithMemberTypes(id);
+        form.ifPresent(loaded -> findByIdWithGroups(id));
+        return form;
+    }
+    
     @Query("SELECT f FROM RegistrationForm f " +
            "LEFT JOIN FETCH f.memberTypes " +
+           "WHERE f.id = :id")
+    Optional<RegistrationForm> findByIdWithMemberTypes(Long id);
+    
+    @Query("SELECT f FROM RegistrationForm f " +
            "LEFT JOIN FETCH f.groups " +
            "WHERE f.id = :id")
-    Optional<RegistrationForm> findByIdWithDetails(Long id);
+    Optional<RegistrationForm> findByIdWithGroups(Long id);
+    
+    @Query("SELECT f FROM RegistrationForm f " +
+           "LEFT JOIN FETCH f.memberTypes " +
+           "WHERE f.externalId = :externalId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    Optional<RegistrationForm> findByExternalIdWithMemberTypes(String externalId);
+    
+    @Query("SELECT g FROM Group g WHERE g.form.externalId = :externalId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Group> findGroupsByExternalId(String externalId);
+    
+    @Query("SELECT f.id FROM RegistrationForm f WHERE f.externalId = :externalId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    Optional<Long> findIdByExternalId(String externalId);
+    
+    /**
+     * Forms that are still to open or to close by schedule, as of {@code today} and {@code now}.
+     */
+    @Query("SELECT new no.spond.club.schedule.ScheduledForm(f.externalId, f.registrationDate, f.registrationCloses) " +
+           "FROM RegistrationForm f " +
+           "WHERE f.closedAt IS NULL AND (f.registrationDate >= :today OR f.registrationCloses > :now)")
+    List<ScheduledForm> findScheduled(LocalDate today, LocalDateTime now);
+    
+    boolean existsByExternalId(String externalId);
+    
+    @Modifying
+    @Query("UPDATE RegistrationForm f SET f.version = 0 WHERE f.version IS NULL")
+    int backfillVersions();
+    
+    List<RegistrationForm> findByExternalIdIsNull();
     
     Optional<RegistrationForm> findFirstByOrderByIdAsc();
 } 
\ No newline at end of file
@@ -1,15 +1,95 @@
 package no.spond.club.repository;
 
+import no.spond.club.duplicates.DuplicateCandidate;
+import no.spond.club.event.RegistrationCommitted;
+import no.spond.club.invoicing.BillableRegistration;
+import no.spond.club.live.CountedRegistration;
 import no.spond.club.model.Registration;
+import no.spond.club.revalidation.RevalidationRow;
+import no.spond.club.search.IndexedRegistration;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * On PostgreSQL the table is partitioned by form (see {@link no.spond.club.partition.RegistrationPartitions}),
+ * so queries that can name the form's internal ID only read that form's partition.
+ */
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
     
     List<Registration> findByFormId(Long formId);
     
     boolean existsByEmailAndFormId(String email, Long formId);
+    
+    boolean existsByJournalKeyAndFormId(String journalKey, Long formId);
+    
+    boolean existsByMemberTypeIdAndFormId(Long memberTypeId, Long formId);
+    
+    boolean existsByGroupIdAndFormId(Long groupId, Long formId);
+    
+    /**
+     * Rebuilds the events of registrations whose event was spilled to disk as its ID only.
+     */
+    @Query("SELECT new no.spond.club.event.RegistrationCommitted(r.id, f.externalId, t.externalId, r.fullName, " +
+           "r.email, r.birthDate, r.createdAt) " +
+           "FROM Registration r JOIN r.form f JOIN r.memberType t WHERE r.id IN :ids")
+    List<RegistrationCommitted> findCommittedByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT new no.spond.club.search.IndexedRegistration(r.id, f.externalId, r.fullName, r.email) " +
+           "FROM Registration r JOIN r.form f WHERE r.id > :afterId ORDER BY r.id")
+    List<IndexedRegistration> findForSearchIndex(long afterId, Pageable pageable);
+    
+    /**
+     * The next page in (birth date, ID) order after the given position. The first condition bounds
+     * the index range; the second only filters rows on the boundary date.
+     */
+    @Query("SELECT new no.spond.club.duplicates.DuplicateCandidate(r.id, f.externalId, r.fullName, r.email, " +
+           "r.phoneNumber, r.birthDate) " +
+           "FROM Registration r JOIN r.form f " +
+           "WHERE r.birthDate >= :afterDate AND (r.birthDate > :afterDate OR r.id > :afterId) " +
+           "ORDER BY r.birthDate, r.id")
+    List<DuplicateCandidate> findForDuplicateScan(LocalDate afterDate, long afterId, Pageable pageable);
+    
+    /**
+     * Keyset page of the form's registrations that have no invoice yet, in ID order. Ordering by
+     * the form as well lets H2 read the index in order and stop after the page.
+     */
+    @Query("SELECT new no.spond.club.invoicing.BillableRegistration(r.id, r.memberType.id) " +
+           "FROM Registration r " +
+           "WHERE r.form.id = :formId AND r.id > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM Invoice i WHERE i.registrationId = r.id) " +
+           "ORDER BY r.form.id, r.id")
+    List<BillableRegistration> findBillable(Long formId, long afterId, Pageable pageable);
+    
+    /**
+     * Keyset page of the form's registrations in the ID range {@code (afterId, toId]}, with the
+     * fields a submission is validated on.
+     */
+    @Query("SELECT new no.spond.club.revalidation.RevalidationRow(r.id, r.fullName, r.email, r.phoneNumber, " +
+           "r.birthDate, t.externalId, r.createdAt) " +
+           "FROM Registration r JOIN r.memberType t " +
+           "WHERE r.form.id = :formId AND r.id > :afterId AND r.id <= :toId " +
+           "ORDER BY r.form.id, r.id")
+    List<RevalidationRow> findForRevalidation(Long formId, long afterId, long toId, Pageable pageable);
+    
+    @Query("SELECT COALESCE(MIN(r.id), 0) FROM Registration r WHERE r.form.id = :formId")
+    long findMinIdByFormId(Long formId);
+    
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM Registration r WHERE r.form.id = :formId")
+    long findMaxIdByFormId(Long formId);
+    
+    /**
+     * The form's registrations with their member type, in ID order. One statement, so the
+     * result is a single consistent snapshot.
+     */
+    @Query("SELECT new no.spond.club.live.CountedRegistration(r.id, t.externalId) " +
+           "FROM Registration r JOIN r.memberType t " +
+           "WHERE r.form.id = :formId ORDER BY r.form.id, r.id")
+    List<CountedRegistration> findCountedByFormId(Long formId);
 } 
\ No newline at end of file
@@ -0,0 +1,63 @@
+package no.spond.club.revalidation;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.eligibility.FormEligibility;
+import no.spond.club.service.RegistrationFormService;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs a stored registration through the checks a submission goes through today: the bean
+ * constraints of {@link RegistrationRequestDto}, {@link RegistrationFormService#validateRequest}
+ * and the form's eligibility rules. Ages are taken on the day the registration was made, so a
+ * member who has since grown out of their member type is not reported.
+ *
+ * <p>Not thread-safe, as the eligibility table is recompiled as the registration day changes;
+ * each worker uses its own.
+ */
+public class RegistrationRevalidator {
+
+    private static final DateTimeFormatter BIRTH_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final Validator validator;
+    private final String formId;
+    private final FormEligibility eligibility;
+
+    public RegistrationRevalidator(Validator validator, String formId, FormEligibility eligibility) {
+        this.validator = validator;
+        this.formId = formId;
+        this.eligibility = eligibility;
+    }
+
+    /**
+     * @return the violations ordered by field, empty if the registration would be accepted
+     */
+    public List<Violation> check(RevalidationRow row) {
+        RegistrationRequestDto request = new RegistrationRequestDto(row.fullName(), row.email(), row.phoneNumber(),
+                row.birthDate().format(BIRTH_DATE), row.memberTypeId());
+        List<Violation> violations = new ArrayList<>();
+        for (ConstraintViolation<RegistrationRequestDto> violation : validator.validate(request)) {
+            violations.add(new Violation(row.id(), violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+        if (violations.isEmpty()) {
+            // Stops at the first failure, so only run when the fields pass on their own
+            try {
+                RegistrationFormService.validateRequest(formId, request);
+            } catch (IllegalArgumentException e) {
+                violations.add(new Violation(row.id(), "request", e.getMessage()));
+            }
+        }
+        try {
+            eligibility.assign(row.memberTypeId(), row.birthDate(), row.createdAt().toLocalDate());
+        } catch (IllegalArgumentException e) {
+            violations.add(new Violation(row.id(), "eligibility", e.getMessage()));
+        }
+        violations.sort(Comparator.comparing(Violation::field).thenComparing(Violation::message));
+        return violations;
+    }
+}
@@ -0,0 +1,314 @@
+package no.spond.club.revalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import no.spond.club.config.RevalidationProperties;
+import no.spond.club.eligibility.FormEligibility;
+import no.spond.club.job.CsvReport;
+import no.spond.club.job.SingleRunExecutor;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.repository.MemberTypeRepository;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks every stored registration of a form against the rules a submission has to pass today,
+ * in the background, and streams the violations to {@code revalidation-<form>-<timestamp>.csv}
+ * in the report directory, one line per violation.
+ *
+ * <p>The form's ID span is cut into keyset ranges of {@code range-size}, which a fork-join pool
+ * of {@code parallelism} workers splits between them; each range is read in pages of
+ * {@code page-size}, one short read-only query per page, and checked by the worker that read it.
+ * Nothing is written to the database and no transaction is held while checking, so live
+ * submissions are not held up. One run at a time per instance.
+ */
+@Component
+public class RevalidationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RevalidationJob.class);
+    private static final DateTimeFormatter REPORT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    static final String REPORT_HEADER = "registration_id,field,message";
+
+    private final RegistrationRepository registrationRepository;
+    private final RegistrationFormRepository formRepository;
+    private final MemberTypeRepository memberTypeRepository;
+    private final Validator validator;
+    private final RevalidationProperties properties;
+    private final Clock clock;
+    private final Timer runTimer;
+    private final SingleRunExecutor runner = new SingleRunExecutor("revalidation");
+
+    private volatile RevalidationStatus lastStatus = RevalidationStatus.idle();
+    private volatile Progress current;
+    private volatile ForkJoinPool workers;
+
+    @Autowired
+    public RevalidationJob(RegistrationRepository registrationRepository,
+                           RegistrationFormRepository formRepository,
+                           MemberTypeRepository memberTypeRepository,
+                           Validator validator,
+                           RevalidationProperties properties,
+                           Clock clock,
+                           MeterRegistry meterRegistry) {
+        this.registrationRepository = registrationRepository;
+        this.formRepository = formRepository;
+        this.memberTypeRepository = memberTypeRepository;
+        this.validator = validator;
+        this.properties = properties;
+        this.clock = clock;
+        this.runTimer = Timer.builder("spondy.revalidation.run")
+                .description("Re-validation runs over a form's registrations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts re-validating the form's registrations in the background.
+     *
+     * @return false if a run is already in progress
+     * @throws IllegalArgumentException if the form does not exist
+     */
+    public boolean start(String formId) {
+        long formKey = formRepository.findIdByExternalId(formId)
+                .orElseThrow(() -> new IllegalArgumentException("Ugyldig skjema-ID"));
+        Progress progress = new Progress(formId, LocalDateTime.now(clock));
+        return runner.start(() -> current = progress, () -> {
+            try {
+                run(formKey, progress);
+            } finally {
+                current = null;
+            }
+        });
+    }
+
+    /**
+     * Progress of the running job, or the outcome of the last one.
+     */
+    public RevalidationStatus status() {
+        Progress progress = current;
+        if (progress != null) {
+            return progress.status(RevalidationStatus.State.RUNNING, null, null, null);
+        }
+        return lastStatus;
+    }
+
+    /**
+     * The report of the last completed run.
+     */
+    public Optional<Path> latestReport() {
+        RevalidationStatus status = lastStatus;
+        if (status.state() != RevalidationStatus.State.COMPLETED) {
+            return Optional.empty();
+        }
+        Path report = properties.getReportDirectory().resolve(status.report());
+        return Files.exists(report) ? Optional.of(report) : Optional.empty();
+    }
+
+    RevalidationStatus run(long formKey, Progress progress) {
+        String name = "revalidation-" + progress.formId + "-" + progress.startedAt.format(REPORT_TIMESTAMP) + ".csv";
+        Path target = properties.getReportDirectory().resolve(name);
+        Path temporary = target.resolveSibling(name + ".tmp");
+        long start = System.nanoTime();
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        workers = pool;
+        try {
+            // Read once; each range compiles its own eligibility table from them
+            List<MemberType> memberTypes = memberTypeRepository.findByFormId(formKey);
+            List<Group> groups = formRepository.findGroupsByExternalId(progress.formId);
+            List<long[]> ranges = ranges(formKey);
+            progress.ranges = ranges.size();
+
+            Files.createDirectories(target.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(REPORT_HEADER);
+                writer.newLine();
+                if (!ranges.isEmpty()) {
+                    pool.invoke(new RangeTask(formKey, ranges, 0, ranges.size(), memberTypes, groups, writer, progress));
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            lastStatus = progress.status(RevalidationStatus.State.COMPLETED, LocalDateTime.now(clock), name, null);
+            log.info("Re-validated {} registrations of form {}: {} no longer pass, {} violations, in {} ms",
+                    progress.checked.sum(), progress.formId, progress.invalid.sum(), progress.violationCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            CsvReport.deleteQuietly(temporary);
+            lastStatus = progress.status(RevalidationStatus.State.FAILED, LocalDateTime.now(clock), null, e.getMessage());
+            log.error("Re-validating form {} failed", progress.formId, e);
+        } finally {
+            pool.shutdownNow();
+            workers = null;
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return lastStatus;
+    }
+
+    /**
+     * The form's ID span cut into {@code (after, upTo]} ranges. IDs are shared by all forms, so
+     * a range may hold fewer of this form's registrations than its size.
+     */
+    private List<long[]> ranges(long formKey) {
+        long first = registrationRepository.findMinIdByFormId(formKey);
+        long last = registrationRepository.findMaxIdByFormId(formKey);
+        List<long[]> ranges = new ArrayList<>();
+        if (first == 0) {
+            return ranges;
+        }
+        long size = Math.max(1, properties.getRangeSize());
+        for (long after = first - 1; after < last; after += size) {
+            ranges.add(new long[] {after, Math.min(after + size, last)});
+        }
+        return ranges;
+    }
+
+    /**
+     * Checks ranges {@code from} to {@code to}, splitting until a task has one range.
+     */
+    private final class RangeTask extends RecursiveAction {
+
+        private final long formKey;
+        private final List<long[]> ranges;
+        private final int from;
+        private final int to;
+        private final List<MemberType> memberTypes;
+        private final List<Group> groups;
+        private final BufferedWriter writer;
+        private final Progress progress;
+
+        RangeTask(long formKey, List<long[]> ranges, int from, int to, List<MemberType> memberTypes,
+                  List<Group> groups, BufferedWriter writer, Progress progress) {
+            this.formKey = formKey;
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.memberTypes = memberTypes;
+            this.groups = groups;
+            this.writer = writer;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(formKey, ranges, from, middle, memberTypes, groups, writer, progress),
+                        new RangeTask(formKey, ranges, middle, to, memberTypes, groups, writer, progress));
+                return;
+            }
+            long[] range = ranges.get(from);
+            RegistrationRevalidator revalidator = new RegistrationRevalidator(validator, progress.formId,
+                    FormEligibility.compile(memberTypes, groups, LocalDate.now(clock)));
+            long afterId = range[0];
+            List<RevalidationRow> page;
+            do {
+                page = registrationRepository.findForRevalidation(formKey, afterId, range[1],
+                        PageRequest.ofSize(properties.getPageSize()));
+                StringBuilder lines = new StringBuilder();
+                for (RevalidationRow row : page) {
+                    List<Violation> violations = revalidator.check(row);
+                    if (!violations.isEmpty()) {
+                        progress.invalid.increment();
+                        for (Violation violation : violations) {
+                            progress.violation(violation.message());
+                            lines.append(violation.registrationId()).append(',')
+                                    .append(CsvReport.field(violation.field())).append(',')
+                                    .append(CsvReport.field(violation.message())).append('\n');
+                        }
+                    }
+                    afterId = row.id();
+                }
+                progress.checked.add(page.size());
+                write(writer, lines);
+            } while (page.size() == properties.getPageSize());
+            progress.rangesDone.incrementAndGet();
+        }
+    }
+
+    private static void write(BufferedWriter writer, CharSequence lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (writer) {
+                writer.append(lines);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counters of a run as it goes, updated from the workers.
+     */
+    static final class Progress {
+
+        private final String formId;
+        private final LocalDateTime startedAt;
+        private final AtomicInteger rangesDone = new AtomicInteger();
+        private final LongAdder checked = new LongAdder();
+        private final LongAdder invalid = new LongAdder();
+        private final Map<String, LongAdder> violations = new ConcurrentHashMap<>();
+        private volatile int ranges;
+
+        Progress(String formId, LocalDateTime startedAt) {
+            this.formId = formId;
+            this.startedAt = startedAt;
+        }
+
+        void violation(String message) {
+            violations.computeIfAbsent(message, key -> new LongAdder()).increment();
+        }
+
+        long violationCount() {
+            return violations.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        RevalidationStatus status(RevalidationStatus.State state, LocalDateTime finishedAt, String report, String error) {
+            Map<String, Long> byMessage = new TreeMap<>();
+            violations.forEach((message, count) -> byMessage.put(message, count.sum()));
+            return new RevalidationStatus(state, formId, startedAt, finishedAt, ranges, rangesDone.get(),
+                    checked.sum(), invalid.sum(), byMessage, report, error);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool pool = workers;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        runner.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package no.spond.club.revalidation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A stored registration as it would have been submitted, read in ID order.
+ *
+ * @param memberTypeId external ID of the member type, as in a request
+ */
+public record RevalidationRow(long id, String fullName, String email, String phoneNumber,
+                              LocalDate birthDate, String memberTypeId, LocalDateTime createdAt) {
+}
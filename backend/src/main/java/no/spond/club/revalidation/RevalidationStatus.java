@@ -0,0 +1,25 @@
+package no.spond.club.revalidation;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Progress of the running re-validation, or the outcome of the last one.
+ *
+ * @param ranges     keyset ranges the form's registrations were split into
+ * @param invalid    registrations with at least one violation
+ * @param violations number of violations by message
+ * @param report     file name of the report in the report directory, once completed
+ */
+public record RevalidationStatus(State state, String formId, LocalDateTime startedAt, LocalDateTime finishedAt,
+                                 int ranges, int rangesDone, long checked, long invalid,
+                                 Map<String, Long> violations, String report, String error) {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    static RevalidationStatus idle() {
+        return new RevalidationStatus(State.IDLE, null, null, null, 0, 0, 0, 0, Map.of(), null, null);
+    }
+}
@@ -0,0 +1,10 @@
+package no.spond.club.revalidation;
+
+/**
+ * A rule a stored registration no longer meets.
+ *
+ * @param field the request field, {@code request} for the cross-field checks or
+ *              {@code eligibility} for the form's age rules
+ */
+public record Violation(long registrationId, String field, String message) {
+}
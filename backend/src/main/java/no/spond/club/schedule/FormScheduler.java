@@ -0,0 +1,182 @@
+package no.spond.club.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.FormScheduleProperties;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.service.RegistrationFormService;
+import no.spond.club.warmup.RegistrationWarmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps forms that open or close by schedule ready for their next transition. The schedules of
+ * forms still to open or close are read every {@code poll-interval}; each tick then only
+ * compares the clock with the earliest instant anything is due.
+ *
+ * <p>{@code prewarm-lead} before a form opens it is warmed by {@link RegistrationWarmup} on a
+ * thread of its own. When a form opens or closes its cached copy is rebuilt and published in
+ * place, so the form's {@code closed} flag and compiled rules follow the clock without a cache
+ * miss. Submissions are checked against the clock by {@link RegistrationFormService#requireOpen}
+ * whether or not this runs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spondy.forms.schedule", name = "enabled", havingValue = "true")
+public class FormScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FormScheduler.class);
+
+    /**
+     * A scheduled form, with the state it was last seen in and the opening it was warmed for.
+     */
+    private record Tracked(FormWindow window, FormWindow.State state, Instant warmedFor) {
+    }
+
+    private final RegistrationFormRepository formRepository;
+    private final RegistrationFormService registrationFormService;
+    private final RegistrationWarmup warmup;
+    private final FormScheduleProperties properties;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Tracked> forms = new ConcurrentHashMap<>();
+    private final ExecutorService warmer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "form-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Instant nextDue = Instant.MAX;
+
+    @Autowired
+    public FormScheduler(RegistrationFormRepository formRepository,
+                         RegistrationFormService registrationFormService,
+                         RegistrationWarmup warmup,
+                         FormScheduleProperties properties,
+                         Clock clock,
+                         MeterRegistry meterRegistry) {
+        this.formRepository = formRepository;
+        this.registrationFormService = registrationFormService;
+        this.warmup = warmup;
+        this.properties = properties;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${spondy.forms.schedule.poll-interval:PT1M}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Reading form schedules failed, retrying on next poll: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spondy.forms.schedule.tick:PT1S}")
+    public void scheduledTick() {
+        if (clock.instant().isBefore(nextDue)) {
+            return;
+        }
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.warn("Form schedule tick failed, retrying on next tick: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the schedules with those in the database, keeping what was already done for
+     * windows that did not change.
+     */
+    public synchronized void reload() {
+        // A form that just closed is no longer read, so its transition is handled first
+        tick();
+        Instant now = clock.instant();
+        Map<String, Tracked> read = new HashMap<>();
+        for (ScheduledForm form : formRepository.findScheduled(
+                LocalDate.ofInstant(now, clock.getZone()), LocalDateTime.ofInstant(now, clock.getZone()))) {
+            FormWindow window = form.window(clock.getZone());
+            Tracked known = forms.get(form.formId());
+            read.put(form.formId(), known != null && known.window().equals(window)
+                    ? known
+                    : new Tracked(window, window.state(now), null));
+        }
+        forms.keySet().retainAll(read.keySet());
+        forms.putAll(read);
+        nextDue = Instant.MIN;
+    }
+
+    /**
+     * Warms forms about to open and refreshes those whose state changed.
+     */
+    public synchronized void tick() {
+        Instant now = clock.instant();
+        Instant due = Instant.MAX;
+        for (Map.Entry<String, Tracked> entry : forms.entrySet()) {
+            String formId = entry.getKey();
+            Tracked tracked = entry.getValue();
+            FormWindow window = tracked.window();
+
+            FormWindow.State state = window.state(now);
+            if (state != tracked.state()) {
+                transition(formId, state);
+                tracked = new Tracked(window, state, tracked.warmedFor());
+            }
+
+            Instant prewarmAt = window.opens().minus(properties.getPrewarmLead());
+            if (state == FormWindow.State.UPCOMING && !window.opens().equals(tracked.warmedFor())) {
+                if (!now.isBefore(prewarmAt)) {
+                    prewarm(formId);
+                    tracked = new Tracked(window, state, window.opens());
+                } else {
+                    due = earliest(due, prewarmAt);
+                }
+            }
+            entry.setValue(tracked);
+
+            Instant transition = window.nextTransition(now);
+            if (transition != null) {
+                due = earliest(due, transition);
+            }
+        }
+        nextDue = due;
+    }
+
+    private void transition(String formId, FormWindow.State state) {
+        log.info("Form {} is now {}", formId, state);
+        meterRegistry.counter("spondy.forms.schedule.transitions", "state", state.name()).increment();
+        registrationFormService.refreshCachedForm(formId);
+    }
+
+    private void prewarm(String formId) {
+        warmer.execute(() -> {
+            try {
+                warmup.warmUp(formId);
+            } catch (RuntimeException e) {
+                log.warn("Pre-warming form {} failed: {}", formId, e.getMessage());
+            }
+        });
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmer.shutdownNow();
+    }
+}
@@ -0,0 +1,83 @@
+package no.spond.club.schedule;
+
+import no.spond.club.model.RegistrationForm;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * When a form takes registrations, computed once when the form is cached so a submission only
+ * compares two instants with the clock. Registration opens at the start of the form's
+ * registration date and closes at the earlier of its scheduled close and the moment it was
+ * closed by hand.
+ *
+ * @param opens  first instant registrations are accepted
+ * @param closes first instant they are refused again, or null if the form stays open
+ */
+public record FormWindow(Instant opens, Instant closes) {
+
+    private static final DateTimeFormatter OPENS_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy 'kl.' HH:mm");
+
+    /**
+     * For forms cached without a schedule.
+     */
+    public static final FormWindow ALWAYS_OPEN = new FormWindow(Instant.MIN, null);
+
+    public enum State {
+        UPCOMING, OPEN, CLOSED
+    }
+
+    public static FormWindow of(RegistrationForm form, ZoneId zone) {
+        return of(form.getRegistrationDate(), form.getRegistrationCloses(), form.getClosedAt(), zone);
+    }
+
+    public static FormWindow of(LocalDate registrationDate, LocalDateTime registrationCloses, LocalDateTime closedAt,
+                                ZoneId zone) {
+        Instant opens = registrationDate.atStartOfDay(zone).toInstant();
+        Instant closes = earliest(instant(registrationCloses, zone), instant(closedAt, zone));
+        return new FormWindow(opens, closes);
+    }
+
+    public State state(Instant now) {
+        if (closes != null && !now.isBefore(closes)) {
+            return State.CLOSED;
+        }
+        return now.isBefore(opens) ? State.UPCOMING : State.OPEN;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the form does not take registrations at {@code now}
+     */
+    public void requireOpen(Instant now, ZoneId zone) {
+        switch (state(now)) {
+            case UPCOMING -> throw new IllegalArgumentException(
+                "Påmeldingen til dette skjemaet åpner " + OPENS_FORMAT.format(opens.atZone(zone)) + ".");
+            case CLOSED -> throw new IllegalArgumentException("Påmeldingen til dette skjemaet er stengt.");
+            case OPEN -> { }
+        }
+    }
+
+    /**
+     * The next instant the state changes after {@code now}, or null if it never changes again.
+     */
+    public Instant nextTransition(Instant now) {
+        if (now.isBefore(opens)) {
+            return closes != null && !closes.isAfter(opens) ? closes : opens;
+        }
+        return closes != null && now.isBefore(closes) ? closes : null;
+    }
+
+    private static Instant instant(LocalDateTime time, ZoneId zone) {
+        return time != null ? time.atZone(zone).toInstant() : null;
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isBefore(b) ? a : b;
+    }
+}
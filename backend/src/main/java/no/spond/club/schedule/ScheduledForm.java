@@ -0,0 +1,15 @@
+package no.spond.club.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The scheduling fields of a form that is not closed by hand.
+ */
+public record ScheduledForm(String formId, LocalDate registrationDate, LocalDateTime registrationCloses) {
+
+    public FormWindow window(ZoneId zone) {
+        return FormWindow.of(registrationDate, registrationCloses, null, zone);
+    }
+}
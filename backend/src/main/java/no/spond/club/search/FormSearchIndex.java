@@ -0,0 +1,388 @@
+package no.spond.club.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over the registrants of one form.
+ *
+ * <p>Every word of the name and the whole e-mail address are padded the way pg_trgm does it
+ * ({@code "  ola "}), so besides inner trigrams there are word-start trigrams ({@code "  o"},
+ * {@code " ol"}) that answer one- and two-letter prefix queries. Posting lists are sorted
+ * {@code int[]} arrays of document numbers, which are assigned in insertion order.
+ *
+ * <p>A query term of three or more characters matches registrants whose name or e-mail
+ * contains it; a shorter term matches the start of a word. All terms must match. Candidates
+ * from the posting list intersection are verified against the text, since sharing every
+ * trigram does not guarantee a substring match.
+ *
+ * <p>Among equal scores the earliest registrants make the page, which is then ordered by name.
+ * That lets a full page skip candidates whose word-start postings show they cannot score
+ * higher, so broad queries like {@code "@gmail"} verify only a page worth of text.
+ */
+class FormSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int NAME_START = 8;
+    private static final int WORD_START = 4;
+    private static final int EMAIL_START = 3;
+    private static final int SUBSTRING = 1;
+    private static final String NAME_START_MARKER = "\u0000";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final LongIntMap documentByRegistration = new LongIntMap();
+
+    private long[] registrationIds = new long[INITIAL_CAPACITY];
+    private String[] fullNames = new String[INITIAL_CAPACITY];
+    private String[] emails = new String[INITIAL_CAPACITY];
+    private String[] normalizedNames = new String[INITIAL_CAPACITY];
+    private String[] normalizedEmails = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return false if the registration was already indexed
+     */
+    boolean add(long registrationId, String fullName, String email) {
+        lock.writeLock().lock();
+        try {
+            if (documentByRegistration.get(registrationId) >= 0) {
+                return false;
+            }
+            ensureCapacity(size + 1);
+            int document = size++;
+            registrationIds[document] = registrationId;
+            fullNames[document] = fullName;
+            emails[document] = email;
+            normalizedNames[document] = normalize(fullName);
+            normalizedEmails[document] = normalize(email);
+            documentByRegistration.put(registrationId, document);
+
+            String[] words = normalizedNames[document].split(" ");
+            for (String word : words) {
+                indexToken(word, document);
+            }
+            indexNameStart(words[0], document);
+            indexToken(normalizedEmails[document], document);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<SearchHit> search(String query, int limit) {
+        String[] terms = terms(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (String term : terms) {
+                for (long trigram : queryTrigrams(term)) {
+                    PostingList list = postings.get(trigram);
+                    if (list == null) {
+                        return List.of();
+                    }
+                    lists.add(list);
+                }
+            }
+            // Walk the rarest trigram; the others are probed only for candidates worth scoring
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            PostingList driver = lists.get(0);
+            Cursor[] required = new Cursor[lists.size() - 1];
+            for (int i = 0; i < required.length; i++) {
+                required[i] = new Cursor(lists.get(i + 1));
+            }
+
+            String[] wordStarts = new String[terms.length];
+            Cursor[] nameStartCursors = new Cursor[terms.length];
+            Cursor[] wordStartCursors = new Cursor[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                wordStarts[i] = " " + terms[i];
+                nameStartCursors[i] = new Cursor(postings.get(nameStartTrigram(terms[i])));
+                wordStartCursors[i] = new Cursor(postings.get(wordStartTrigram(terms[i])));
+            }
+            int maxScore = NAME_START * terms.length;
+
+            // Min-heap of (score, document) packed into a long; the root is the weakest entry
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+            candidates:
+            for (int i = 0; i < driver.size; i++) {
+                int document = driver.documents[i];
+                if (best.size() == limit) {
+                    int worstScore = (int) (best.peek() >>> 32);
+                    // Candidates come in document order, so a later one needs a strictly higher score
+                    if (worstScore == maxScore) {
+                        break;
+                    }
+                    if (upperBound(document, nameStartCursors, wordStartCursors) <= worstScore) {
+                        continue;
+                    }
+                }
+                for (Cursor cursor : required) {
+                    if (!cursor.contains(document)) {
+                        continue candidates;
+                    }
+                }
+                int score = score(document, terms, wordStarts);
+                if (score > 0) {
+                    best.add(((long) score << 32) | (Integer.MAX_VALUE - document));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(best.size());
+            for (long entry : best) {
+                int document = Integer.MAX_VALUE - (int) entry;
+                hits.add(new SearchHit(registrationIds[document], fullNames[document], emails[document],
+                        (int) (entry >>> 32)));
+            }
+            hits.sort(SearchHit.RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 0 if the document does not match every term. Otherwise higher for matches at the start
+     * of the name, then the start of a word, then the start of the e-mail, then anywhere.
+     */
+    private int score(int document, String[] terms, String[] wordStarts) {
+        String name = normalizedNames[document];
+        String email = normalizedEmails[document];
+        int score = 0;
+        for (int i = 0; i < terms.length; i++) {
+            String term = terms[i];
+            int termScore;
+            if (name.startsWith(term)) {
+                termScore = NAME_START;
+            } else if (name.contains(wordStarts[i])) {
+                termScore = WORD_START;
+            } else if (email.startsWith(term)) {
+                termScore = EMAIL_START;
+            } else if (term.length() >= 3 && (name.contains(term) || email.contains(term))) {
+                termScore = SUBSTRING;
+            } else {
+                return 0;
+            }
+            score += termScore;
+        }
+        return score;
+    }
+
+    /**
+     * Highest score the document could reach without looking at its text: a term can only
+     * score above {@link #SUBSTRING} where some word or the e-mail starts with it, and only
+     * {@link #NAME_START} where the name does.
+     */
+    private static int upperBound(int document, Cursor[] nameStarts, Cursor[] wordStarts) {
+        int bound = 0;
+        for (int i = 0; i < nameStarts.length; i++) {
+            if (nameStarts[i].contains(document)) {
+                bound += NAME_START;
+            } else if (wordStarts[i].contains(document)) {
+                bound += WORD_START;
+            } else {
+                bound += SUBSTRING;
+            }
+        }
+        return bound;
+    }
+
+    private void indexToken(String token, int document) {
+        if (token.isEmpty()) {
+            return;
+        }
+        String padded = "  " + token + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            postings.computeIfAbsent(trigram(padded, i), key -> new PostingList()).add(document);
+        }
+    }
+
+    private void indexNameStart(String firstWord, int document) {
+        if (firstWord.isEmpty()) {
+            return;
+        }
+        postings.computeIfAbsent(nameStartTrigram(firstWord.substring(0, 1)), key -> new PostingList()).add(document);
+        if (firstWord.length() > 1) {
+            postings.computeIfAbsent(nameStartTrigram(firstWord), key -> new PostingList()).add(document);
+        }
+    }
+
+    private static long[] queryTrigrams(String term) {
+        if (term.length() < 3) {
+            return new long[] {wordStartTrigram(term)};
+        }
+        long[] trigrams = new long[term.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = trigram(term, i);
+        }
+        return trigrams;
+    }
+
+    /**
+     * The padded trigram a word starting with the term begins with: {@code "  o"} or {@code " ol"}.
+     */
+    private static long wordStartTrigram(String term) {
+        String padded = term.length() == 1 ? "  " + term : " " + term.substring(0, 2);
+        return trigram(padded, 0);
+    }
+
+    /**
+     * Like {@link #wordStartTrigram} for the first word of the name only. The marker character
+     * keeps these keys apart from trigrams of the indexed text.
+     */
+    private static long nameStartTrigram(String term) {
+        String padded = term.length() == 1 ? NAME_START_MARKER + NAME_START_MARKER + term
+                : NAME_START_MARKER + term.substring(0, 2);
+        return trigram(padded, 0);
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    static String[] terms(String query) {
+        if (query == null) {
+            return new String[0];
+        }
+        String normalized = normalize(query);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= registrationIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, registrationIds.length * 2);
+        registrationIds = Arrays.copyOf(registrationIds, newCapacity);
+        fullNames = Arrays.copyOf(fullNames, newCapacity);
+        emails = Arrays.copyOf(emails, newCapacity);
+        normalizedNames = Arrays.copyOf(normalizedNames, newCapacity);
+        normalizedEmails = Arrays.copyOf(normalizedEmails, newCapacity);
+    }
+
+    private static final class PostingList {
+
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            // A word repeating a trigram, or name and e-mail sharing one, adds the document once
+            if (size > 0 && documents[size - 1] == document) {
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+    }
+
+    /**
+     * Forward-only membership test over a posting list, for documents probed in ascending order.
+     */
+    private static final class Cursor {
+
+        private final PostingList list;
+        private int position;
+
+        Cursor(PostingList list) {
+            this.list = list;
+        }
+
+        boolean contains(int document) {
+            if (list == null) {
+                return false;
+            }
+            while (position < list.size && list.documents[position] < document) {
+                position++;
+            }
+            return position < list.size && list.documents[position] == document;
+        }
+    }
+
+    /**
+     * Open-addressing map from registration ID to document number; -1 when absent.
+     */
+    private static final class LongIntMap {
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] values = new int[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package no.spond.club.search;
+
+/**
+ * The columns the search index needs, read in batches when the index is rebuilt.
+ */
+public record IndexedRegistration(Long id, String formId, String fullName, String email) {
+}
@@ -0,0 +1,81 @@
+package no.spond.club.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.spond.club.repository.RegistrationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory search over registrants' names and e-mail addresses, one {@link FormSearchIndex}
+ * per form. Built from the database once the application is ready and kept current by
+ * {@link RegistrationSearchIndexer} as registrations commit. Adding a registration twice is
+ * harmless, so events arriving during the rebuild need no coordination.
+ */
+@Component
+public class RegistrationSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationSearchIndex.class);
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private final RegistrationRepository registrationRepository;
+    private final Map<String, FormSearchIndex> forms = new ConcurrentHashMap<>();
+    private final Timer searchTimer;
+
+    @Autowired
+    public RegistrationSearchIndex(RegistrationRepository registrationRepository, MeterRegistry meterRegistry) {
+        this.registrationRepository = registrationRepository;
+        this.searchTimer = Timer.builder("spondy.search.queries")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("spondy.search.documents", this, RegistrationSearchIndex::size).register(meterRegistry);
+    }
+
+    public void add(String formId, long registrationId, String fullName, String email) {
+        forms.computeIfAbsent(formId, id -> new FormSearchIndex()).add(registrationId, fullName, email);
+    }
+
+    /**
+     * Ranked registrants of the form whose name or e-mail matches every term of the query.
+     */
+    public List<SearchHit> search(String formId, String query, int limit) {
+        FormSearchIndex index = forms.get(formId);
+        if (index == null) {
+            return List.of();
+        }
+        return searchTimer.record(() -> index.search(query, limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        int indexed = 0;
+        List<IndexedRegistration> batch;
+        do {
+            batch = registrationRepository.findForSearchIndex(afterId, PageRequest.ofSize(REBUILD_BATCH_SIZE));
+            for (IndexedRegistration registration : batch) {
+                add(registration.formId(), registration.id(), registration.fullName(), registration.email());
+                afterId = registration.id();
+            }
+            indexed += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        log.info("Search index built: {} registrations in {} forms in {} ms",
+                indexed, forms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        return forms.values().stream().mapToInt(FormSearchIndex::size).sum();
+    }
+}
@@ -0,0 +1,25 @@
+package no.spond.club.search;
+
+import no.spond.club.event.RegistrationCommitted;
+import no.spond.club.event.RegistrationSubscriber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds each committed registration to the search index.
+ */
+@Component
+public class RegistrationSearchIndexer implements RegistrationSubscriber {
+
+    private final RegistrationSearchIndex index;
+
+    @Autowired
+    public RegistrationSearchIndexer(RegistrationSearchIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void onRegistrationCommitted(RegistrationCommitted event) {
+        index.add(event.formId(), event.registrationId(), event.fullName(), event.email());
+    }
+}
@@ -0,0 +1,16 @@
+package no.spond.club.search;
+
+import java.util.Comparator;
+
+/**
+ * One ranked search result.
+ */
+public record SearchHit(long registrationId, String fullName, String email, int score) {
+
+    /**
+     * Best first: higher score, then name, then registration ID.
+     */
+    static final Comparator<SearchHit> RANKING = Comparator.comparingInt(SearchHit::score).reversed()
+            .thenComparing(SearchHit::fullName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(SearchHit::registrationId);
+}
@@ -0,0 +1,49 @@
+package no.spond.club.service;
+
+import no.spond.club.model.OutboxMessage;
+import no.spond.club.model.Registration;
+import no.spond.club.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Queues the confirmation e-mail for a registration. Must run inside the transaction
+ * that inserts the registration, so the e-mail exists if and only if the registration does.
+ */
+@Component
+public class ConfirmationEmailOutbox {
+    
+    private static final DateTimeFormatter BIRTH_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    
+    private final OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    public ConfirmationEmailOutbox(OutboxMessageRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxMessage enqueue(Registration registration) {
+        return outboxRepository.save(confirmation(registration));
+    }
+    
+    /**
+     * The unsaved confirmation e-mail for a registration with its form and member type set.
+     */
+    public static OutboxMessage confirmation(Registration registration) {
+        String formTitle = registration.getForm().getTitle();
+        String subject = "Bekreftelse på registrering – " + formTitle;
+        String body = "Hei " + registration.getFullName() + "!\n\n" +
+                "Takk for din registrering til " + formTitle + ".\n\n" +
+                "Medlemstype: " + registration.getMemberType().getName() + "\n" +
+                "Fødselsdato: " + registration.getBirthDate().format(BIRTH_DATE_FORMATTER) + "\n" +
+                "Telefon: " + registration.getPhoneNumber() + "\n\n" +
+                "Vennlig hilsen\n" + formTitle + "\n";
+        
+        return new OutboxMessage(registration.getId(), registration.getEmail(), subject, body);
+    }
+}
@@ -0,0 +1,56 @@
+package no.spond.club.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import no.spond.club.dto.RegistrationRequestDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Checks the fields of a registration a registrant has filled in so far, for feedback while
+ * the form is being filled in. Only the rules that need nothing but the value itself run: no
+ * transaction is started and nothing is read from the database or the form cache, so whether
+ * the member type belongs to the form, age limits and duplicates are left to registration.
+ */
+@Service
+public class FieldValidationService {
+
+    private static final Map<String, Function<RegistrationRequestDto, String>> FIELDS = fields();
+
+    private final Validator validator;
+
+    @Autowired
+    public FieldValidationService(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * @return the first error of each field that was given and is invalid, by field name
+     */
+    public Map<String, String> validateFields(RegistrationRequestDto request) {
+        Map<String, String> fieldErrors = new LinkedHashMap<>();
+        FIELDS.forEach((field, value) -> {
+            if (value.apply(request) == null) {
+                return;
+            }
+            for (ConstraintViolation<RegistrationRequestDto> violation : validator.validateProperty(request, field)) {
+                fieldErrors.putIfAbsent(field, violation.getMessage());
+            }
+        });
+        return fieldErrors;
+    }
+
+    private static Map<String, Function<RegistrationRequestDto, String>> fields() {
+        Map<String, Function<RegistrationRequestDto, String>> fields = new LinkedHashMap<>();
+        fields.put("fullName", RegistrationRequestDto::getFullName);
+        fields.put("email", RegistrationRequestDto::getEmail);
+        fields.put("phoneNumber", RegistrationRequestDto::getPhoneNumber);
+        fields.put("birthDate", RegistrationRequestDto::getBirthDate);
+        fields.put("memberTypeId", RegistrationRequestDto::getMemberTypeId);
+        return fields;
+    }
+}
@@ -0,0 +1,300 @@
+package no.spond.club.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import no.spond.club.cache.FormCache;
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.GroupAdminDto;
+import no.spond.club.dto.MemberTypeAdminDto;
+import no.spond.club.model.EligibilityRule;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.RegistrationForm;
+import no.spond.club.repository.GroupRepository;
+import no.spond.club.repository.MemberTypeRepository;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and edits whole forms. Each call writes the form with its member types and groups in
+ * one transaction; children are sequence-generated, so their inserts and updates go to the
+ * database in JDBC batches. Every change moves the form's version, and a client updating from
+ * an older version gets a conflict instead of overwriting someone else's edit.
+ *
+ * <p>Once the transaction commits, the form as written is put into {@link FormCache}, so this
+ * instance serves the new version without a reload; other instances are told by
+ * {@link no.spond.club.cache.FormChangeListener}.
+ */
+@Service
+@Transactional
+public class FormAdministrationService {
+
+    private final RegistrationFormRepository formRepository;
+    private final MemberTypeRepository memberTypeRepository;
+    private final GroupRepository groupRepository;
+    private final RegistrationRepository registrationRepository;
+    private final RegistrationFormService registrationFormService;
+    private final FormCache formCache;
+    private final Clock clock;
+
+    @Autowired
+    public FormAdministrationService(RegistrationFormRepository formRepository,
+                                     MemberTypeRepository memberTypeRepository,
+                                     GroupRepository groupRepository,
+                                     RegistrationRepository registrationRepository,
+                                     RegistrationFormService registrationFormService,
+                                     FormCache formCache,
+                                     Clock clock) {
+        this.formRepository = formRepository;
+        this.memberTypeRepository = memberTypeRepository;
+        this.groupRepository = groupRepository;
+        this.registrationRepository = registrationRepository;
+        this.registrationFormService = registrationFormService;
+        this.formCache = formCache;
+        this.clock = clock;
+    }
+
+    /**
+     * @throws EntityNotFoundException if the form does not exist
+     */
+    @Transactional(readOnly = true)
+    public FormAdminDto getForm(String formId) {
+        return toAdminDto(loadForm(formId));
+    }
+
+    public FormAdminDto createForm(FormAdminDto request) {
+        RegistrationForm form = new RegistrationForm(request.getTitle(), request.getDescription(), request.getRegistrationDate());
+        form.setClubId(request.getClubId());
+        form.setRegistrationCloses(registrationCloses(request));
+        form.setMemberTypes(new ArrayList<>());
+        form.setGroups(new ArrayList<>());
+        applyMemberTypes(form, request.getMemberTypes());
+        applyGroups(form, request.getGroups());
+        return save(form);
+    }
+
+    /**
+     * Replaces the form's fields, member types and groups with those in the request. Member
+     * types and groups are matched on their IDs; those without one are added and those left
+     * out are removed.
+     *
+     * @throws EntityNotFoundException               if the form does not exist
+     * @throws ObjectOptimisticLockingFailureException if the form has changed since {@code request.version}
+     * @throws IllegalArgumentException              if the request names a member type or group the form
+     *                                               does not have, or closes registration before it opens
+     * @throws IllegalStateException                 if a member type or group to remove has registrations
+     */
+    public FormAdminDto updateForm(String formId, FormAdminDto request) {
+        if (request.getVersion() == null) {
+            throw new IllegalArgumentException("Versjon mangler. Hent skjemaet på nytt før du endrer det.");
+        }
+        RegistrationForm form = loadForm(formId);
+        if (!Objects.equals(request.getVersion(), form.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(RegistrationForm.class, formId);
+        }
+
+        form.setClubId(request.getClubId());
+        form.setTitle(request.getTitle());
+        form.setDescription(request.getDescription());
+        form.setRegistrationDate(request.getRegistrationDate());
+        form.setRegistrationCloses(registrationCloses(request));
+        applyMemberTypes(form, request.getMemberTypes());
+        applyGroups(form, request.getGroups());
+        return save(form);
+    }
+
+    /**
+     * Copies the form with its member types and groups, but not its registrations. The copy
+     * gets new IDs, opens on the requested registration date and has no scheduled close.
+     *
+     * @throws EntityNotFoundException if the form does not exist
+     */
+    public FormAdminDto cloneForm(String formId, FormCloneRequestDto request) {
+        RegistrationForm original = loadForm(formId);
+
+        RegistrationForm copy = new RegistrationForm(
+            request != null && request.getTitle() != null ? request.getTitle() : original.getTitle(),
+            original.getDescription(),
+            request != null && request.getRegistrationDate() != null ? request.getRegistrationDate() : original.getRegistrationDate()
+        );
+        copy.setClubId(original.getClubId());
+        copy.setMemberTypes(new ArrayList<>());
+        copy.setGroups(new ArrayList<>());
+        for (MemberType memberType : sortedById(original.getMemberTypes(), MemberType::getId)) {
+            MemberType cloned = new MemberType(memberType.getName(), memberType.getDescription(), memberType.getPrice());
+            cloned.setEligibility(EligibilityRule.copyOf(memberType.getEligibility()));
+            cloned.setForm(copy);
+            copy.getMemberTypes().add(cloned);
+        }
+        for (Group group : sortedById(original.getGroups(), Group::getId)) {
+            Group cloned = new Group(group.getName(), group.getDescription());
+            cloned.setEligibility(EligibilityRule.copyOf(group.getEligibility()));
+            cloned.setForm(copy);
+            copy.getGroups().add(cloned);
+        }
+        return save(copy);
+    }
+
+    /**
+     * Stops the form taking registrations. Closing a closed form changes nothing.
+     *
+     * @throws EntityNotFoundException if the form does not exist
+     */
+    public FormAdminDto closeForm(String formId) {
+        RegistrationForm form = loadForm(formId);
+        if (form.isClosed()) {
+            return toAdminDto(form);
+        }
+        form.setClosedAt(LocalDateTime.now(clock));
+        return save(form);
+    }
+
+    private static LocalDateTime registrationCloses(FormAdminDto request) {
+        LocalDateTime closes = request.getRegistrationCloses();
+        if (closes != null && !closes.isAfter(request.getRegistrationDate().atStartOfDay())) {
+            throw new IllegalArgumentException("Påmeldingen må stenge etter at den åpner.");
+        }
+        return closes;
+    }
+
+    private FormAdminDto save(RegistrationForm form) {
+        // Dirties the form itself, so its version moves even if only a child changed
+        form.setUpdatedAt(LocalDateTime.now(clock));
+        formRepository.saveAndFlush(form);
+
+        // Registered after the flush, so it runs after FormChangeListener's evictions for this change
+        String formId = form.getExternalId();
+        FormCache.CachedForm cached = registrationFormService.cachedForm(form, form.getGroups());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                formCache.publish(formId, cached);
+            }
+        });
+        return toAdminDto(form);
+    }
+
+    private void applyMemberTypes(RegistrationForm form, List<MemberTypeAdminDto> requested) {
+        Map<String, MemberType> existing = form.getMemberTypes().stream()
+            .collect(Collectors.toMap(MemberType::getExternalId, Function.identity()));
+        Set<String> kept = requested.stream()
+            .map(MemberTypeAdminDto::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+        List<MemberType> removed = existing.values().stream()
+            .filter(memberType -> !kept.contains(memberType.getExternalId()))
+            .toList();
+        for (MemberType memberType : removed) {
+            if (registrationRepository.existsByMemberTypeIdAndFormId(memberType.getId(), form.getId())) {
+                throw new IllegalStateException("Medlemstypen «" + memberType.getName() + "» har påmeldinger og kan ikke fjernes.");
+            }
+        }
+        form.getMemberTypes().removeAll(removed);
+        memberTypeRepository.deleteAll(removed);
+
+        for (MemberTypeAdminDto dto : requested) {
+            MemberType memberType;
+            if (dto.getId() == null) {
+                memberType = new MemberType();
+                memberType.setForm(form);
+                form.getMemberTypes().add(memberType);
+            } else {
+                memberType = existing.get(dto.getId());
+                if (memberType == null) {
+                    throw new IllegalArgumentException("Ukjent medlemstype: " + dto.getId());
+                }
+            }
+            memberType.setName(dto.getName());
+            memberType.setDescription(dto.getDescription());
+            memberType.setPrice(dto.getPrice());
+            memberType.setEligibility(EligibilityRule.copyOf(dto.getEligibility()));
+        }
+    }
+
+    private void applyGroups(RegistrationForm form, List<GroupAdminDto> requested) {
+        Map<Long, Group> existing = form.getGroups().stream()
+            .collect(Collectors.toMap(Group::getId, Function.identity()));
+        Set<Long> kept = requested.stream()
+            .map(GroupAdminDto::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+        List<Group> removed = existing.values().stream()
+            .filter(group -> !kept.contains(group.getId()))
+            .toList();
+        for (Group group : removed) {
+            if (registrationRepository.existsByGroupIdAndFormId(group.getId(), form.getId())) {
+                throw new IllegalStateException("Gruppen «" + group.getName() + "» har påmeldinger og kan ikke fjernes.");
+            }
+        }
+        form.getGroups().removeAll(removed);
+        groupRepository.deleteAll(removed);
+
+        for (GroupAdminDto dto : requested) {
+            Group group;
+            if (dto.getId() == null) {
+                group = new Group();
+                group.setForm(form);
+                form.getGroups().add(group);
+            } else {
+                group = existing.get(dto.getId());
+                if (group == null) {
+                    throw new IllegalArgumentException("Ukjent gruppe: " + dto.getId());
+                }
+            }
+            group.setName(dto.getName());
+            group.setDescription(dto.getDescription());
+            group.setEligibility(EligibilityRule.copyOf(dto.getEligibility()));
+        }
+    }
+
+    private RegistrationForm loadForm(String formId) {
+        RegistrationForm form = formRepository.findByExternalIdWithMemberTypes(formId)
+            .orElseThrow(() -> new EntityNotFoundException("Fant ikke registreringsskjema med ID: " + formId));
+        // Second bag, loaded on its own rather than joined with the member types
+        form.getGroups().size();
+        return form;
+    }
+
+    private FormAdminDto toAdminDto(RegistrationForm form) {
+        FormAdminDto dto = new FormAdminDto();
+        dto.setFormId(form.getExternalId());
+        dto.setClubId(form.getClubId());
+        dto.setTitle(form.getTitle());
+        dto.setDescription(form.getDescription());
+        dto.setRegistrationDate(form.getRegistrationDate());
+        dto.setRegistrationCloses(form.getRegistrationCloses());
+        dto.setClosedAt(form.getClosedAt());
+        dto.setVersion(form.getVersion());
+        dto.setMemberTypes(sortedById(form.getMemberTypes(), MemberType::getId).stream()
+            .map(type -> new MemberTypeAdminDto(type.getExternalId(), type.getName(), type.getDescription(),
+                type.getPrice(), type.getEligibility()))
+            .toList());
+        dto.setGroups(sortedById(form.getGroups(), Group::getId).stream()
+            .map(group -> new GroupAdminDto(group.getId(), group.getName(), group.getDescription(), group.getEligibility()))
+            .toList());
+        return dto;
+    }
+
+    private static <T> List<T> sortedById(List<T> entities, Function<T, Long> id) {
+        return entities.stream().sorted(Comparator.comparing(id)).toList();
+    }
+}
@@ -0,0 +1,279 @@
+package no.spond.club.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.JournalProperties;
+import no.spond.club.journal.JournalEntry;
+import no.spond.club.journal.JournaledRegistration;
+import no.spond.club.journal.RegistrationJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Applies journaled registrations to the database in sequence order. Runs on its own thread,
+ * woken by new appends or every {@code spondy.journal.replay-interval}. When the database is
+ * unavailable a pass stops at the first failing entry and the next pass starts there again.
+ * Any other failure is permanent for that entry, so it is rejected and replay moves past it
+ * rather than holding up every registration behind it. A rejected entry was already
+ * acknowledged to the client, so its payload and the reason are appended to
+ * {@code rejected.jsonl} in the journal directory, and forced to disk, before the checkpoint
+ * lets compaction delete its segment.
+ *
+ * <p>Progress is checkpointed after each batch. An entry applied just before a crash is
+ * replayed again on restart and skipped by its journal key.
+ */
+@Service
+@ConditionalOnProperty(prefix = "spondy.journal", name = "enabled", havingValue = "true")
+public class JournalReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalReplayer.class);
+
+    static final String DEAD_LETTERS = "rejected.jsonl";
+
+    private final RegistrationJournal journal;
+    private final RegistrationFormService registrationFormService;
+    private final ObjectMapper objectMapper;
+    private final JournalProperties properties;
+    private final Clock clock;
+    private final Path deadLetters;
+    private final AtomicLong deadLetterCount;
+    private final Counter applied;
+    private final Counter duplicates;
+    private final Counter rejected;
+
+    private final Object signal = new Object();
+    private boolean wakeUpRequested;
+    private volatile boolean running;
+    private volatile boolean databaseDown;
+    private Thread worker;
+
+    @Autowired
+    public JournalReplayer(RegistrationJournal journal,
+                           RegistrationFormService registrationFormService,
+                           ObjectMapper objectMapper,
+                           JournalProperties properties,
+                           Clock clock,
+                           MeterRegistry meterRegistry) throws IOException {
+        this.journal = journal;
+        this.registrationFormService = registrationFormService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+        this.deadLetters = properties.getDirectory().resolve(DEAD_LETTERS);
+        this.deadLetterCount = new AtomicLong(countLines(deadLetters));
+        Gauge.builder("spondy.journal.dead-letters", deadLetterCount, AtomicLong::get)
+                .description("Rejected journal entries kept in " + DEAD_LETTERS)
+                .register(meterRegistry);
+        this.applied = Counter.builder("spondy.journal.replayed").tag("outcome", "applied").register(meterRegistry);
+        this.duplicates = Counter.builder("spondy.journal.replayed").tag("outcome", "duplicate").register(meterRegistry);
+        this.rejected = Counter.builder("spondy.journal.replayed").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Started only once the application is ready, so forms seeded at startup exist before
+     * the first entry is applied.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "journal-replayer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeUpRequested = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Applies every durable entry that has not been applied yet.
+     *
+     * @return number of entries processed, or -1 if the pass stopped on a database failure
+     */
+    public synchronized int replayPending() {
+        int processed = 0;
+        while (true) {
+            List<JournalEntry> batch = journal.readAfter(journal.confirmedSequence(), properties.getReplayBatchSize());
+            if (batch.isEmpty()) {
+                return processed;
+            }
+
+            long lastApplied = journal.confirmedSequence();
+            try {
+                for (JournalEntry entry : batch) {
+                    apply(entry);
+                    lastApplied = entry.sequence();
+                    processed++;
+                }
+                if (databaseDown) {
+                    databaseDown = false;
+                    log.info("Database reachable again, journal replay resumed");
+                }
+            } catch (RuntimeException e) {
+                if (!databaseDown) {
+                    databaseDown = true;
+                    log.warn("Journal replay paused at sequence {}: {}", lastApplied + 1, e.getMessage());
+                }
+                checkpoint(lastApplied);
+                return -1;
+            }
+            checkpoint(lastApplied);
+        }
+    }
+
+    private void apply(JournalEntry entry) {
+        JournaledRegistration registration;
+        try {
+            registration = objectMapper.readValue(entry.payload(), JournaledRegistration.class);
+        } catch (IOException e) {
+            reject(entry, "Unreadable entry: " + e.getMessage());
+            log.error("Skipping unreadable journal entry {}", entry.sequence(), e);
+            return;
+        }
+
+        try {
+            if (registrationFormService.applyJournaled(journal.keyOf(entry.sequence()), registration)) {
+                applied.increment();
+            } else {
+                duplicates.increment();
+            }
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            // The form, member type or group was removed after the registration was accepted,
+            // or the entry cannot be stored; it would fail the same way on every retry
+            reject(entry, e.getMessage());
+            log.error("Journaled registration {} rejected: {}", entry.sequence(), e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the entry to the dead-letter file. If that fails the exception stops the pass
+     * before the checkpoint, so the entry is tried again rather than dropped.
+     */
+    private void reject(JournalEntry entry, String reason) {
+        Map<String, Object> deadLetter = new LinkedHashMap<>();
+        deadLetter.put("key", journal.keyOf(entry.sequence()));
+        deadLetter.put("rejectedAt", LocalDateTime.now(clock).toString());
+        deadLetter.put("reason", reason);
+        deadLetter.put("payload", new String(entry.payload(), StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(deadLetters,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            byte[] line = (objectMapper.writeValueAsString(deadLetter) + "\n").getBytes(StandardCharsets.UTF_8);
+            channel.write(ByteBuffer.wrap(line));
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write rejected journal entry " + entry.sequence(), e);
+        }
+        deadLetterCount.incrementAndGet();
+        rejected.increment();
+    }
+
+    /**
+     * Rejected entries kept in the dead-letter file, including those from earlier runs.
+     */
+    public long deadLetterCount() {
+        return deadLetterCount.get();
+    }
+
+    Path deadLetters() {
+        return deadLetters;
+    }
+
+    private static long countLines(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            return lines.count();
+        }
+    }
+
+    /**
+     * Whether the failure is the database being unreachable or busy, so the entry may apply later.
+     * {@link org.springframework.jdbc.CannotGetJdbcConnectionException} is a resource failure.
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkpoint(long sequence) {
+        try {
+            journal.confirm(sequence);
+        } catch (IOException e) {
+            log.warn("Could not write journal checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void run() {
+        while (running) {
+            int processed = replayPending();
+            try {
+                if (processed < 0) {
+                    // Database unavailable: back off rather than retrying on every new append
+                    Thread.sleep(properties.getReplayInterval().toMillis());
+                    continue;
+                }
+                synchronized (signal) {
+                    if (!wakeUpRequested && running) {
+                        signal.wait(properties.getReplayInterval().toMillis());
+                    }
+                    wakeUpRequested = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(5_000);
+        }
+    }
+}
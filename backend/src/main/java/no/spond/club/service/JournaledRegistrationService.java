@@ -0,0 +1,142 @@
+package no.spond.club.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.spond.club.config.JournalProperties;
+import no.spond.club.dto.MemberTypeDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.journal.JournaledRegistration;
+import no.spond.club.journal.RegistrationJournal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts registrations in durability mode: a request is validated, written to the local
+ * journal and acknowledged as soon as the entry is on disk. {@link JournalReplayer} applies
+ * it to the database afterwards, so submissions keep working while the database is down.
+ *
+ * <p>Member types are checked against the form as last read from the database. A form that
+ * has never been seen by this instance cannot be validated, and is rejected while the
+ * database is unreachable.
+ */
+@Service
+@ConditionalOnProperty(prefix = "spondy.journal", name = "enabled", havingValue = "true")
+public class JournaledRegistrationService {
+
+    private final RegistrationFormService registrationFormService;
+    private final RegistrationJournal journal;
+    private final JournalReplayer replayer;
+    private final ObjectMapper objectMapper;
+    private final JournalProperties properties;
+    private final Clock clock;
+    private final Timer appendTimer;
+    private final Map<String, Set<String>> knownMemberTypes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JournaledRegistrationService(RegistrationFormService registrationFormService,
+                                        RegistrationJournal journal,
+                                        JournalReplayer replayer,
+                                        ObjectMapper objectMapper,
+                                        JournalProperties properties,
+                                        Clock clock,
+                                        MeterRegistry meterRegistry) {
+        this.registrationFormService = registrationFormService;
+        this.journal = journal;
+        this.replayer = replayer;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+        this.appendTimer = Timer.builder("spondy.journal.append")
+                .description("Time from append until the entry is durable")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the journal sequence number of the accepted registration
+     */
+    public long submit(String formId, RegistrationRequestDto request) {
+        RegistrationFormService.validateRequest(formId, request);
+
+        if (!memberTypeIds(formId).contains(request.getMemberTypeId())) {
+            throw new IllegalArgumentException("Ugyldig medlemstype valgt. Vennligst velg en gyldig medlemstype.");
+        }
+        checkEligibility(formId, request);
+
+        JournaledRegistration entry = new JournaledRegistration(
+            formId,
+            request.getFullName(),
+            request.getEmail(),
+            request.getPhoneNumber(),
+            request.getBirthDateAsLocalDate().toString(),
+            request.getMemberTypeId(),
+            LocalDateTime.now(clock)
+        );
+
+        long sequence = append(entry);
+        replayer.wakeUp();
+        return sequence;
+    }
+
+    private long append(JournaledRegistration entry) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return journal.append(payload).get(properties.getAppendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the journal", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Registration could not be written to the journal", e);
+        } finally {
+            appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void checkEligibility(String formId, RegistrationRequestDto request) {
+        try {
+            registrationFormService.requireOpen(formId);
+            registrationFormService.assign(formId, request.getMemberTypeId(), request.getBirthDateAsLocalDate());
+        } catch (DataAccessException | TransactionException e) {
+            // Checked again when the entry is replayed
+        }
+    }
+
+    private Set<String> memberTypeIds(String formId) {
+        try {
+            Set<String> ids = registrationFormService.getFormById(formId).getMemberTypes().stream()
+                .map(MemberTypeDto::getId)
+                .collect(Collectors.toUnmodifiableSet());
+            knownMemberTypes.put(formId, ids);
+            return ids;
+        } catch (DataAccessException | TransactionException e) {
+            Set<String> ids = knownMemberTypes.get(formId);
+            if (ids == null) {
+                throw e;
+            }
+            return ids;
+        }
+    }
+}
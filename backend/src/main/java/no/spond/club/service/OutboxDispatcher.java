@@ -0,0 +1,204 @@
+package no.spond.club.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.spond.club.config.OutboxProperties;
+import no.spond.club.mail.EmailMessage;
+import no.spond.club.mail.MailDeliveryException;
+import no.spond.club.mail.MailPort;
+import no.spond.club.model.OutboxMessage;
+import no.spond.club.model.OutboxStatus;
+import no.spond.club.repository.OutboxMessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the e-mail outbox in the background, so mail delivery never sits on the
+ * registration request path.
+ *
+ * <p>Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} in a short transaction that
+ * only pushes the messages' next attempt past a lease. Mail is then sent with no
+ * transaction or connection held, and the outcome is written back in a second short
+ * transaction. A dispatcher that dies mid-batch leaves its messages to be picked up
+ * again once the lease expires.
+ */
+@Service
+public class OutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    private final OutboxMessageRepository outboxRepository;
+    private final MailPort mailPort;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+    private final AtomicLong pendingGauge = new AtomicLong();
+    
+    @Autowired
+    public OutboxDispatcher(OutboxMessageRepository outboxRepository,
+                            MailPort mailPort,
+                            OutboxProperties properties,
+                            PlatformTransactionManager transactionManager,
+                            Clock clock,
+                            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.mailPort = mailPort;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        
+        this.sentCounter = Counter.builder("spondy.outbox.sent")
+                .description("Confirmation e-mails delivered")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("spondy.outbox.retries")
+                .description("Delivery attempts that failed and were rescheduled")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("spondy.outbox.failed")
+                .description("E-mails given up on after the maximum number of attempts")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("spondy.outbox.lag")
+                .description("Time from registration commit until the e-mail was delivered")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("spondy.outbox.pending", pendingGauge);
+    }
+    
+    @Scheduled(fixedDelayString = "${spondy.outbox.poll-interval:PT2S}")
+    public void scheduledDispatch() {
+        if (!properties.isDispatcherEnabled()) {
+            return;
+        }
+        try {
+            dispatchAll();
+        } catch (RuntimeException e) {
+            log.warn("Outbox dispatch failed, retrying on next poll: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Sends batches until no due messages remain.
+     *
+     * @return number of messages attempted
+     */
+    public int dispatchAll() {
+        int total = 0;
+        int attempted;
+        do {
+            attempted = dispatchBatch();
+            total += attempted;
+        } while (attempted == properties.getBatchSize());
+        
+        pendingGauge.set(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        return total;
+    }
+    
+    /**
+     * Claims, sends and records the outcome of a single batch.
+     *
+     * @return number of messages attempted
+     */
+    public int dispatchBatch() {
+        List<EmailToSend> claimed = claimBatch();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, String> failures = new HashMap<>();
+        for (EmailToSend email : claimed) {
+            try {
+                mailPort.send(email.message());
+            } catch (MailDeliveryException | RuntimeException e) {
+                failures.put(email.id(), e.getMessage());
+            }
+        }
+        
+        recordOutcome(claimed, failures);
+        return claimed.size();
+    }
+    
+    private List<EmailToSend> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<OutboxMessage> due = outboxRepository.claimDue(now, properties.getBatchSize());
+            List<EmailToSend> claimed = new ArrayList<>(due.size());
+            for (OutboxMessage message : due) {
+                message.setNextAttemptAt(now.plus(properties.getLease()));
+                claimed.add(new EmailToSend(message.getId(),
+                        new EmailMessage(message.getRecipient(), message.getSubject(), message.getBody())));
+            }
+            return claimed;
+        });
+    }
+    
+    private void recordOutcome(List<EmailToSend> claimed, Map<Long, String> failures) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<Long> ids = claimed.stream().map(EmailToSend::id).toList();
+            for (OutboxMessage message : outboxRepository.findAllById(ids)) {
+                String error = failures.get(message.getId());
+                message.setAttempts(message.getAttempts() + 1);
+                if (error == null) {
+                    message.setStatus(OutboxStatus.SENT);
+                    message.setSentAt(now);
+                    message.setLastError(null);
+                    sentCounter.increment();
+                    lagTimer.record(Duration.between(message.getCreatedAt(), now));
+                } else if (message.getAttempts() >= properties.getMaxAttempts()) {
+                    message.setStatus(OutboxStatus.FAILED);
+                    message.setLastError(truncate(error));
+                    failedCounter.increment();
+                    log.error("Giving up on outbox message {} after {} attempts: {}",
+                            message.getId(), message.getAttempts(), error);
+                } else {
+                    message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                    message.setLastError(truncate(error));
+                    retryCounter.increment();
+                    log.warn("Outbox message {} failed (attempt {}), retrying at {}: {}",
+                            message.getId(), message.getAttempts(), message.getNextAttemptAt(), error);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Exponential backoff: the initial delay doubled for every attempt after the first,
+     * capped at the configured maximum.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff();
+        for (int i = 1; i < attempts && delay.compareTo(properties.getMaxBackoff()) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+    
+    private static String truncate(String error) {
+        if (error == null) {
+            return "unknown error";
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+    
+    private record EmailToSend(Long id, EmailMessage message) {
+    }
+}
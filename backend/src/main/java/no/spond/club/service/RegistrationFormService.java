@@ -1,133 +1,311 @@
 package no.spond.club.service;
 
+import no.spond.club.cache.FormCache;
 import no.spond.club.dto.*;
+import no.spond.club.eligibility.FormEligibility;
+import no.spond.club.event.RegistrationCommitted;
+import no.spond.club.journal.JournaledRegistration;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.Registration;
+import no.spond.club.model.RegistrationForm;
+import no.spond.club.repository.MemberTypeRepository;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import no.spond.club.schedule.FormWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
 @Transactional
 public class RegistrationFormService {
-    
-    private static final List<String> ALLOWED_MEMBER_TYPES = Arrays.asList(
-        "8FE4113D4E4020E0DCF887803A886981", // Active Member
-        "4237C55C5CC3B4B082CBF2540612778E"  // Social Member
-    );
-    
-    public RegistrationFormService() {
-        // Constructor for service with hardcoded data
-    }
-    
-    @Transactional(readOnly = true)
+
+    private final RegistrationFormRepository formRepository;
+    private final MemberTypeRepository memberTypeRepository;
+    private final RegistrationRepository registrationRepository;
+    private final ConfirmationEmailOutbox confirmationEmailOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FormCache formCache;
+    private final Clock clock;
+    private final String defaultFormId;
+
+    @Autowired
+    public RegistrationFormService(RegistrationFormRepository formRepository,
+                                   MemberTypeRepository memberTypeRepository,
+                                   RegistrationRepository registrationRepository,
+                                   ConfirmationEmailOutbox confirmationEmailOutbox,
+                                   ApplicationEventPublisher eventPublisher,
+                                   FormCache formCache,
+                                   Clock clock,
+                                   @Value("${spondy.forms.default-form-id:B171388180BC457D9887AD92B6CCFC86}") String defaultFormId) {
+        this.formRepository = formRepository;
+        this.memberTypeRepository = memberTypeRepository;
+        this.registrationRepository = registrationRepository;
+        this.confirmationEmailOutbox = confirmationEmailOutbox;
+        this.eventPublisher = eventPublisher;
+        this.formCache = formCache;
+        this.clock = clock;
+        this.defaultFormId = defaultFormId;
+    }
+
+    /**
+     * Served from {@link FormCache}. SUPPORTS keeps cache hits from opening a transaction,
+     * which would take a pooled connection.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public RegistrationFormDto getFormById(String id) {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("Ugyldig skjema-ID");
         }
-        
-        // Validate that the form ID is the expected one
-        if (!"B171388180BC457D9887AD92B6CCFC86".equals(id)) {
-            throw new IllegalArgumentException("Ugyldig skjema-ID");
-        }
-        
-        return getDefaultForm(); // Return the form for the valid ID
+
+        return formCache.get(id, () -> loadCachedForm(id));
     }
-    
-    @Transactional(readOnly = true)
+
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public RegistrationFormDto getDefaultForm() {
-        // Return data according to task specification (Appendix 1)
-        List<MemberTypeDto> memberTypes = Arrays.asList(
-            new MemberTypeDto("8FE4113D4E4020E0DCF887803A886981", "Active Member"),
-            new MemberTypeDto("4237C55C5CC3B4B082CBF2540612778E", "Social Member")
-        );
-        
-        return new RegistrationFormDto(
-            "britsport",  // clubId
-            "B171388180BC457D9887AD92B6CCFC86",  // formId
-            "Coding camp summer 2025",  // title
-            "Join our exciting coding camp this summer! Learn programming, work on projects, and have fun with fellow developers.",  // description
-            LocalDateTime.of(2024, 12, 16, 0, 0, 0),  // registrationOpens
-            memberTypes
-        );
+        return formCache.get(defaultFormId, () -> loadCachedForm(defaultFormId));
     }
-    
+
     public Long registerMember(String formId, RegistrationRequestDto request) {
+        validateRequest(formId, request);
+
+        requireOpen(formId);
+
+        // The member type must belong to the form and be open to the registrant's age
+        RegistrationForm form = loadForm(formId);
+        FormEligibility.Assignment assignment = assign(formId, request.getMemberTypeId(), request.getBirthDateAsLocalDate());
+
+        // Log the registration details for debugging (in real app, use proper logging)
+        System.out.println("=== REGISTRERING MOTTATT ===");
+        System.out.println("Skjema-ID: " + formId);
+        System.out.println("Navn: " + request.getFullName());
+        System.out.println("E-post: " + request.getEmail());
+        System.out.println("Telefon: " + request.getPhoneNumber());
+        System.out.println("Fødselsdato: " + request.getBirthDate());
+        System.out.println("Medlemstype: " + request.getMemberTypeId());
+        System.out.println("Tidspunkt: " + LocalDateTime.now(clock));
+        System.out.println("============================");
+
+        Registration registration = new Registration(
+            request.getFullName().trim(),
+            request.getEmail(),
+            request.getPhoneNumber(),
+            request.getBirthDateAsLocalDate()
+        );
+        persist(registration, form, assignment);
+
+        System.out.println("Registrering fullført med ID: " + registration.getId());
+
+        return registration.getId();
+    }
+
+    /**
+     * The checks that need nothing but the request itself. Membership of the member type is
+     * checked against the form by the caller. Static, so the reactive endpoints apply the same rules.
+     */
+    public static void validateRequest(String formId, RegistrationRequestDto request) {
         // Validate form ID
         if (formId == null || formId.trim().isEmpty()) {
             throw new IllegalArgumentException("Ugyldig skjema-ID");
         }
-        
+
         // Validate request object
         if (request == null) {
             throw new IllegalArgumentException("Registreringsdata mangler");
         }
-        
+
         // Validate birth date format and that it's in the past
         if (!request.isValidBirthDate()) {
             throw new IllegalArgumentException("Ugyldig fødselsdato. Må være i format DD.MM.YYYY og i fortiden.");
         }
-        
+
         // Validate phone number is numeric only and correct length
         String phoneNumber = request.getPhoneNumber();
         if (phoneNumber == null || !phoneNumber.matches("^\\d{8,11}$")) {
             throw new IllegalArgumentException("Telefonnummer må være mellom 8-11 siffer og kun inneholde tall.");
         }
-        
-        // Validate that memberTypeId is one of the allowed values
-        if (!ALLOWED_MEMBER_TYPES.contains(request.getMemberTypeId())) {
-            throw new IllegalArgumentException("Ugyldig medlemstype valgt. Vennligst velg en gyldig medlemstype.");
-        }
-        
+
         // Validate email format (additional check beyond annotation)
         String email = request.getEmail();
         if (email == null || !email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
             throw new IllegalArgumentException("Ugyldig e-postadresse format.");
         }
-        
+
         // Validate full name is not just whitespace
         String fullName = request.getFullName();
         if (fullName == null || fullName.trim().isEmpty()) {
             throw new IllegalArgumentException("Fullt navn kan ikke være tomt.");
         }
-        
-        // Log the registration details for debugging (in real app, use proper logging)
-        System.out.println("=== REGISTRERING MOTTATT ===");
-        System.out.println("Skjema-ID: " + formId);
-        System.out.println("Navn: " + request.getFullName());
-        System.out.println("E-post: " + request.getEmail());
-        System.out.println("Telefon: " + request.getPhoneNumber());
-        System.out.println("Fødselsdato: " + request.getBirthDate());
-        System.out.println("Medlemstype: " + request.getMemberTypeId());
-        System.out.println("Tidspunkt: " + LocalDateTime.now());
-        System.out.println("============================");
-        
-        // Simple registration logic - in real app would save to database
-        // Generate a unique registration ID based on current time and hash
-        long registrationId = System.currentTimeMillis() + request.hashCode();
-        
-        System.out.println("Registrering fullført med ID: " + registrationId);
-        
-        return registrationId;
-    }
-    
+    }
+
+    /**
+     * Applies a registration that was acknowledged from the local journal. Entries that were
+     * already applied are skipped, so replaying the same entry twice is harmless.
+     *
+     * @return false if the entry was already applied
+     */
+    public boolean applyJournaled(String journalKey, JournaledRegistration entry) {
+        RegistrationForm form = loadForm(entry.formId());
+        if (registrationRepository.existsByJournalKeyAndFormId(journalKey, form.getId())) {
+            return false;
+        }
+
+        LocalDate birthDate = LocalDate.parse(entry.birthDate());
+        // Ages count on the day the registration was accepted, however late it is applied
+        FormEligibility.Assignment assignment = assign(entry.formId(), entry.memberTypeId(), birthDate,
+            entry.receivedAt().toLocalDate());
+
+        Registration registration = new Registration(
+            entry.fullName().trim(),
+            entry.email(),
+            entry.phoneNumber(),
+            birthDate
+        );
+        registration.setCreatedAt(entry.receivedAt());
+        registration.setJournalKey(journalKey);
+        persist(registration, form, assignment);
+        return true;
+    }
+
+    /**
+     * Checks the member type and birth date against the form's compiled eligibility rules and
+     * picks the registrant's group.
+     *
+     * @throws IllegalArgumentException if the form or member type is unknown or the birth date does not qualify
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public FormEligibility.Assignment assign(String formId, String memberTypeId, LocalDate birthDate) {
+        return assign(formId, memberTypeId, birthDate, LocalDate.now(clock));
+    }
+
+    /**
+     * @param today the day ages are counted on
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public FormEligibility.Assignment assign(String formId, String memberTypeId, LocalDate birthDate, LocalDate today) {
+        FormEligibility eligibility = formCache.entry(formId, () -> loadCachedForm(formId)).eligibility();
+        return eligibility.assign(memberTypeId, birthDate, today);
+    }
+
+    private void persist(Registration registration, RegistrationForm form, FormEligibility.Assignment assignment) {
+        // The compiled rules may predate a member type or group that has since been removed
+        MemberType memberType = form.getMemberTypes().stream()
+            .filter(type -> type.getId() == assignment.memberTypeId())
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Ugyldig medlemstype valgt. Vennligst velg en gyldig medlemstype."));
+        Group group = form.getGroups().stream()
+            .filter(candidate -> candidate.getId() == assignment.groupId())
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Gruppen finnes ikke lenger: " + assignment.groupId()));
+
+        registration.setForm(form);
+        registration.setMemberType(memberType);
+        registration.setGroup(group);
+        registrationRepository.save(registration);
+
+        // Same transaction as the insert: the e-mail is queued if and only if the registration commits
+        confirmationEmailOutbox.enqueue(registration);
+
+        // Delivered to subscribers on their own executors once the transaction commits
+        eventPublisher.publishEvent(new RegistrationCommitted(
+            registration.getId(),
+            form.getExternalId(),
+            memberType.getExternalId(),
+            registration.getFullName(),
+            registration.getEmail(),
+            registration.getBirthDate(),
+            registration.getCreatedAt()
+        ));
+    }
+
     /**
      * Helper method to get member type name by ID
      */
+    @Transactional(readOnly = true)
     public String getMemberTypeName(String memberTypeId) {
         if (memberTypeId == null) {
             return "Ukjent medlemstype";
         }
-        
-        switch (memberTypeId) {
-            case "8FE4113D4E4020E0DCF887803A886981":
-                return "Active Member";
-            case "4237C55C5CC3B4B082CBF2540612778E":
-                return "Social Member";
-            default:
-                return "Ukjent medlemstype";
-        }
+
+        return memberTypeRepository.findByExternalId(memberTypeId)
+            .map(MemberType::getName)
+            .orElse("Ukjent medlemstype");
+    }
+
+    /**
+     * Checks the clock against the form's window as cached, so a form opens and closes on time
+     * without being reloaded.
+     *
+     * @throws IllegalArgumentException if the form has not opened yet or no longer takes registrations
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public void requireOpen(String formId) {
+        formCache.entry(formId, () -> loadCachedForm(formId)).window().requireOpen(clock.instant(), clock.getZone());
+    }
+
+    /**
+     * Loads the form and replaces the cached copy without evicting it first, so requests keep
+     * being served from the old copy until the new one is in place.
+     */
+    @Transactional(readOnly = true)
+    public FormCache.CachedForm refreshCachedForm(String formId) {
+        FormCache.CachedForm cached = loadCachedForm(formId);
+        formCache.publish(formId, cached);
+        return cached;
+    }
+
+    private FormCache.CachedForm loadCachedForm(String externalId) {
+        RegistrationForm form = loadForm(externalId);
+        return cachedForm(form, formRepository.findGroupsByExternalId(externalId));
+    }
+
+    /**
+     * Also used to publish a form straight after an admin change, from the entities that were written.
+     */
+    FormCache.CachedForm cachedForm(RegistrationForm form, List<Group> groups) {
+        FormEligibility eligibility = FormEligibility.compile(form.getMemberTypes(), groups, LocalDate.now(clock));
+        FormWindow window = FormWindow.of(form, clock.getZone());
+        return new FormCache.CachedForm(toDto(form, window, clock.instant()), eligibility,
+            form.getVersion() != null ? form.getVersion() : 0, window);
+    }
+
+    private RegistrationForm loadForm(String externalId) {
+        return formRepository.findByExternalIdWithMemberTypes(externalId)
+            .orElseThrow(() -> new IllegalArgumentException("Ugyldig skjema-ID"));
+    }
+
+    /**
+     * @param form a form with its member types
+     * @param now  the instant {@code closed} is computed for
+     */
+    public static RegistrationFormDto toDto(RegistrationForm form, FormWindow window, Instant now) {
+        List<MemberTypeDto> memberTypes = form.getMemberTypes().stream()
+            .sorted(Comparator.comparing(MemberType::getId))
+            .map(type -> new MemberTypeDto(type.getExternalId(), type.getName()))
+            .toList();
+
+        RegistrationFormDto dto = new RegistrationFormDto(
+            form.getClubId(),
+            form.getExternalId(),
+            form.getTitle(),
+            form.getDescription(),
+            form.getRegistrationDate().atStartOfDay(),
+            memberTypes
+        );
+        dto.setRegistrationCloses(form.getRegistrationCloses());
+        dto.setClosed(window.state(now) == FormWindow.State.CLOSED);
+        return dto;
     }
 }
- 
\ No newline at end of file
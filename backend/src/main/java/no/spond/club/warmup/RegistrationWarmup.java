@@ -0,0 +1,173 @@
+package no.spond.club.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import no.spond.club.cache.FormCache;
+import no.spond.club.config.WarmupProperties;
+import no.spond.club.dto.MemberTypeDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.partition.RegistrationPartitions;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import no.spond.club.service.RegistrationFormService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets a form ready for a rush of registrations without registering anyone: the cached form is
+ * rebuilt, the form's partition created, the form and the index behind the journal key check
+ * read {@code spondy.warmup.round-trips} times in read-only transactions, and the request
+ * parsing, validation, eligibility check and response serialization run
+ * {@code spondy.warmup.iterations} times so the JIT compiles them.
+ */
+@Component
+public class RegistrationWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationWarmup.class);
+    private static final String[] BIRTH_DATES = {"15.06.1990", "03.03.2012", "24.12.1950"};
+
+    private final RegistrationFormService registrationFormService;
+    private final RegistrationFormRepository formRepository;
+    private final RegistrationRepository registrationRepository;
+    private final RegistrationPartitions partitions;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final WarmupProperties properties;
+    private final Clock clock;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer warmupTimer;
+
+    @Autowired
+    public RegistrationWarmup(RegistrationFormService registrationFormService,
+                              RegistrationFormRepository formRepository,
+                              RegistrationRepository registrationRepository,
+                              ObjectProvider<RegistrationPartitions> partitions,
+                              ObjectMapper objectMapper,
+                              Validator validator,
+                              WarmupProperties properties,
+                              Clock clock,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.registrationFormService = registrationFormService;
+        this.formRepository = formRepository;
+        this.registrationRepository = registrationRepository;
+        this.partitions = partitions.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = properties;
+        this.clock = clock;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.warmupTimer = Timer.builder("spondy.warmup")
+                .description("Time spent warming a form up before it takes registrations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the form does not exist
+     */
+    public void warmUp(String formId) {
+        long start = System.nanoTime();
+        FormCache.CachedForm cached = registrationFormService.refreshCachedForm(formId);
+
+        long formKey = formRepository.findIdByExternalId(formId)
+                .orElseThrow(() -> new IllegalArgumentException("Ugyldig skjema-ID"));
+        if (partitions != null) {
+            partitions.ensurePartition(formKey);
+        }
+        for (int i = 0; i < properties.getRoundTrips(); i++) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                formRepository.findByExternalIdWithMemberTypes(formId);
+                registrationRepository.existsByJournalKeyAndFormId("warmup", formKey);
+            });
+        }
+
+        // Ages are checked as of the opening day, so its rules are compiled now rather than by the first registrant
+        Instant now = clock.instant();
+        LocalDate day = (now.isBefore(cached.window().opens()) ? cached.window().opens() : now)
+                .atZone(clock.getZone()).toLocalDate();
+        List<byte[]> bodies = cached.form().getMemberTypes().stream()
+                .map(MemberTypeDto::getId)
+                .flatMap(memberTypeId -> List.of(BIRTH_DATES).stream().map(birthDate -> body(memberTypeId, birthDate)))
+                .toList();
+        Map<String, Object> formResponse = Map.of("success", true, "data", cached.form());
+        long accepted = 0;
+        for (int i = 0; i < properties.getIterations(); i++) {
+            for (byte[] body : bodies) {
+                accepted += rehearse(formId, cached, body, day);
+            }
+            serialize(formResponse);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        warmupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warmed up form {} in {} ms ({} rehearsed registrations, {} eligible)", formId,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), (long) properties.getIterations() * bodies.size(), accepted);
+    }
+
+    /**
+     * What a registration request goes through before it is written, without writing it.
+     *
+     * @return 1 if the registrant would have been accepted
+     */
+    private int rehearse(String formId, FormCache.CachedForm cached, byte[] body, LocalDate day) {
+        RegistrationRequestDto request;
+        try {
+            request = objectMapper.readValue(body, RegistrationRequestDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, Object> response = new HashMap<>();
+        int accepted = 0;
+        try {
+            if (validator.validate(request).isEmpty()) {
+                RegistrationFormService.validateRequest(formId, request);
+                cached.eligibility().assign(request.getMemberTypeId(), request.getBirthDateAsLocalDate(), day);
+                response.put("success", true);
+                response.put("memberName", request.getFullName());
+                accepted = 1;
+            }
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+        }
+        serialize(response);
+        return accepted;
+    }
+
+    private byte[] body(String memberTypeId, String birthDate) {
+        Map<String, String> request = Map.of(
+                "fullName", "Oppvarming Testesen",
+                "email", "oppvarming@example.com",
+                "phoneNumber", "12345678",
+                "birthDate", birthDate,
+                "memberTypeId", memberTypeId);
+        return serialize(request);
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package no.spond.club.warmup;
+
+import jakarta.annotation.PreDestroy;
+import no.spond.club.config.WarmupProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Warms the default form up once the application has started, on a thread of its own, so the
+ * first registrations after a restart do not run on interpreted code. The code paths are shared
+ * by every form, so one form is enough. Readiness reports OUT_OF_SERVICE until this is done, see
+ * {@link no.spond.club.health.WarmupHealthIndicator}.
+ *
+ * <p>A failed warmup is logged and counts as done: it only makes the first requests slower.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    public enum State {
+        PENDING, RUNNING, DONE, FAILED, DISABLED
+    }
+
+    private final RegistrationWarmup warmup;
+    private final String defaultFormId;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "startup-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile State state;
+    private volatile long durationMillis;
+
+    @Autowired
+    public StartupWarmup(RegistrationWarmup warmup,
+                         WarmupProperties properties,
+                         @Value("${spondy.forms.default-form-id:B171388180BC457D9887AD92B6CCFC86}") String defaultFormId) {
+        this.warmup = warmup;
+        this.defaultFormId = defaultFormId;
+        this.state = properties.isOnStartup() ? State.PENDING : State.DISABLED;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (state != State.PENDING) {
+            return;
+        }
+        state = State.RUNNING;
+        runner.execute(this::run);
+    }
+
+    void run() {
+        long start = System.nanoTime();
+        State outcome;
+        try {
+            warmup.warmUp(defaultFormId);
+            outcome = State.DONE;
+        } catch (RuntimeException e) {
+            log.warn("Startup warmup of form {} failed, taking traffic cold: {}", defaultFormId, e.getMessage());
+            outcome = State.FAILED;
+        }
+        durationMillis = (System.nanoTime() - start) / 1_000_000;
+        state = outcome;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Whether the instance may take traffic as far as warmup is concerned.
+     */
+    public boolean isFinished() {
+        State current = state;
+        return current == State.DONE || current == State.FAILED || current == State.DISABLED;
+    }
+
+    public long durationMillis() {
+        return durationMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
@@ -0,0 +1,51 @@
+-- Turns registrations into a table list-partitioned by form, before Hibernate validates and
+-- updates the schema. Safe to run on every startup: a new database gets the partitioned table
+-- directly, an existing plain table becomes its default partition, and an already partitioned
+-- one is left alone. RegistrationPartitions moves each form's rows into a partition of its own.
+DO $$
+DECLARE
+    legacy regclass := to_regclass('registrations');
+    legacy_constraint record;
+BEGIN
+    IF legacy IS NOT NULL AND (SELECT relkind FROM pg_class WHERE oid = legacy) = 'p' THEN
+        RETURN;
+    END IF;
+
+    CREATE SEQUENCE IF NOT EXISTS registrations_id_seq;
+
+    IF legacy IS NOT NULL THEN
+        ALTER TABLE registrations RENAME TO registrations_default;
+        ALTER TABLE registrations_default ALTER COLUMN id DROP DEFAULT;
+        -- Unique constraints on a partitioned table have to include the partition key
+        FOR legacy_constraint IN
+            SELECT conname FROM pg_constraint WHERE conrelid = legacy AND contype IN ('p', 'u')
+        LOOP
+            EXECUTE format('ALTER TABLE registrations_default DROP CONSTRAINT %I', legacy_constraint.conname);
+        END LOOP;
+    END IF;
+
+    CREATE TABLE registrations (
+        id bigint NOT NULL DEFAULT nextval('registrations_id_seq'),
+        birth_date date NOT NULL,
+        created_at timestamp(6) NOT NULL,
+        email varchar(255) NOT NULL,
+        full_name varchar(255) NOT NULL,
+        journal_key varchar(64),
+        phone_number varchar(255) NOT NULL,
+        form_id bigint NOT NULL,
+        group_id bigint NOT NULL,
+        member_type_id bigint NOT NULL,
+        CONSTRAINT registrations_pkey PRIMARY KEY (id, form_id),
+        CONSTRAINT uk_registrations_journal_key UNIQUE (journal_key, form_id)
+    ) PARTITION BY LIST (form_id);
+    ALTER SEQUENCE registrations_id_seq OWNED BY registrations.id;
+
+    IF legacy IS NOT NULL THEN
+        ALTER TABLE registrations ATTACH PARTITION registrations_default DEFAULT;
+    ELSE
+        CREATE TABLE registrations_default PARTITION OF registrations DEFAULT;
+    END IF;
+
+    CREATE INDEX idx_registrations_form_email ON registrations (form_id, email);
+END
+$$
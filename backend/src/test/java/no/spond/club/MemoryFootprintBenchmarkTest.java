@@ -0,0 +1,211 @@
+package no.spond.club;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap, metaspace and resident set size of the application in its own JVM, once after warmup
+ * and at the peak of a registration burst. Compares the flags the image used to run with in a
+ * 512MB container against the {@code lowmem} profile and flags in a 320MB one; the container
+ * limit is simulated with {@code -XX:MaxRAM}. H2 runs in the same heap, so heap figures include
+ * the test data. Linux only. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Memory Footprint Benchmark")
+class MemoryFootprintBenchmarkTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+    private static final int WARMUP_REQUESTS = 500;
+    private static final int LOAD_REQUESTS = 3_000;
+    private static final int CLIENTS = 32;
+    private static final long MB = 1024 * 1024;
+
+    /**
+     * JAVA_OPTS in docker-compose.prod.yml, with its memory limit.
+     */
+    private static final List<String> LOWMEM_FLAGS = List.of(
+        "-XX:MaxRAM=384m", "-XX:MaxRAMPercentage=30", "-XX:+UseSerialGC", "-XX:MaxMetaspaceSize=128m",
+        "-XX:ReservedCodeCacheSize=40m", "-XX:CICompilerCount=2", "-Xss512k", "-XX:MaxDirectMemorySize=16m");
+
+    /**
+     * The Dockerfile's former flags, with compose's ignored -Xmx256m left out.
+     */
+    private static final List<String> PREVIOUS_FLAGS = List.of(
+        "-XX:MaxRAM=512m", "-XX:MaxRAMPercentage=75", "-XX:+UseG1GC", "-XX:+UseStringDeduplication");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    record Footprint(long heapUsed, long heapCommitted, long metaspace, long rss) {
+
+        @Override
+        public String toString() {
+            return "heap %d/%d MB, metaspace %d MB, RSS %d MB".formatted(
+                heapUsed / MB, heapCommitted / MB, metaspace / MB, rss / MB);
+        }
+    }
+
+    @Test
+    @DisplayName("Footprint with the previous flags and with the lowmem profile")
+    void compareFootprints() throws Exception {
+        Footprint[] previous = measure("previous", PREVIOUS_FLAGS, "default");
+        Footprint[] lowmem = measure("lowmem", LOWMEM_FLAGS, "lowmem");
+
+        // The whole process, not only the heap, has to fit the container
+        assertTrue(lowmem[1].rss() < 384 * MB, "lowmem RSS under load: " + lowmem[1]);
+        assertTrue(lowmem[1].rss() < previous[1].rss(), "lowmem should use less than before");
+    }
+
+    /**
+     * @return the footprint after warmup and under load
+     */
+    private Footprint[] measure(String name, List<String> flags, String profile) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(flags);
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ClubMembershipApplication.class.getName(),
+            "--spring.profiles.active=" + profile,
+            "--server.port=" + port,
+            "--spring.datasource.url=jdbc:h2:mem:footprint",
+            "--spondy.rate-limit.enabled=false",
+            "--spondy.outbox.dispatcher-enabled=false",
+            "--management.endpoints.web.exposure.include=health,metrics",
+            "--logging.level.root=WARN",
+            "--logging.level.no.spond.club=WARN",
+            "--logging.level.org.springframework.web=WARN"));
+        Path log = Files.createTempFile("footprint-" + name, ".log");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        String baseUrl = "http://localhost:" + port;
+        try {
+            awaitStarted(process, baseUrl, log);
+
+            load(baseUrl, WARMUP_REQUESTS, "warm" + name);
+            Footprint warm = footprint(process, baseUrl);
+
+            Footprint[] peak = {warm};
+            CompletableFuture<Void> burst = CompletableFuture.runAsync(() -> load(baseUrl, LOAD_REQUESTS, "load" + name));
+            while (!burst.isDone()) {
+                Footprint now = footprint(process, baseUrl);
+                if (now.rss() > peak[0].rss()) {
+                    peak[0] = now;
+                }
+                Thread.sleep(200);
+            }
+            burst.join();
+            // VmHWM catches a peak between samples
+            Footprint underLoad = new Footprint(peak[0].heapUsed(), peak[0].heapCommitted(), peak[0].metaspace(),
+                Math.max(peak[0].rss(), procStatus(process, "VmHWM")));
+
+            System.out.printf("%-8s after warmup: %s%n", name, warm);
+            System.out.printf("%-8s under load:   %s (%d clients)%n", name, underLoad, CLIENTS);
+            return new Footprint[] {warm, underLoad};
+        } finally {
+            process.destroy();
+            process.waitFor();
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private void awaitStarted(Process process, String baseUrl, Path log) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                fail("Application exited during startup:\n" + Files.readString(log));
+            }
+            try {
+                HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        fail("Application did not start:\n" + Files.readString(log));
+    }
+
+    /**
+     * Registrations and form reads in equal parts, {@value #CLIENTS} at a time.
+     */
+    private void load(String baseUrl, int requests, String prefix) {
+        Semaphore clients = new Semaphore(CLIENTS);
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<?>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            clients.acquireUninterruptibly();
+            HttpRequest request = i % 2 == 0
+                ? HttpRequest.newBuilder(URI.create(baseUrl + "/api/form/" + FORM_ID + "/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"fullName":"Benchmark Member","email":"%s%d@example.com","phoneNumber":"12345678",\
+                        "birthDate":"15.06.1990","memberTypeId":"%s"}""".formatted(prefix, i, ACTIVE_MEMBER_TYPE_ID)))
+                    .build()
+                : HttpRequest.newBuilder(URI.create(baseUrl + "/api/form/" + FORM_ID)).build();
+            results.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (response == null || response.statusCode() >= 300) {
+                        failed.incrementAndGet();
+                    }
+                    clients.release();
+                }));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        assertEquals(0, failed.get(), "failed requests");
+    }
+
+    private Footprint footprint(Process process, String baseUrl) throws Exception {
+        return new Footprint(
+            metric(baseUrl, "jvm.memory.used", "area:heap"),
+            metric(baseUrl, "jvm.memory.committed", "area:heap"),
+            metric(baseUrl, "jvm.memory.used", "id:Metaspace"),
+            procStatus(process, "VmRSS"));
+    }
+
+    private long metric(String baseUrl, String name, String tag) throws Exception {
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name + "?tag=" + tag)).build(),
+            HttpResponse.BodyHandlers.ofString());
+        JsonNode measurement = objectMapper.readTree(response.body()).path("measurements").path(0);
+        return measurement.path("value").asLong();
+    }
+
+    /**
+     * A size from {@code /proc/<pid>/status}, in bytes.
+     */
+    private static long procStatus(Process process, String field) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status"))) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            }
+        }
+        throw new IllegalStateException(field + " not in /proc status");
+    }
+}
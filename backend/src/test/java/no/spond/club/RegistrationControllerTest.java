@@ -1,11 +1,14 @@
 package no.spond.club;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.support.SqlStatementCountingConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -15,10 +18,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 
+import static no.spond.club.support.QueryAssertions.assertQueries;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
+@Import(SqlStatementCountingConfig.class)
 @Transactional
 public class RegistrationControllerTest {
     
@@ -28,6 +33,9 @@ public class RegistrationControllerTest {
     @Autowired
     private TestRestTemplate restTemplate;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Test
     public void shouldGetDefaultFormSuccessfully() throws Exception {
         ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
@@ -49,6 +57,10 @@ public class RegistrationControllerTest {
         assertTrue(formData.containsKey("title"));
         assertTrue(formData.containsKey("memberTypes"));
         assertEquals("Coding camp summer 2025", formData.get("title"));
+        
+        // Loaded once, then served from the form cache
+        restTemplate.getForEntity("http://localhost:" + port + "/api/form", Map.class);
+        assertQueries();
     }
     
     @Test
@@ -108,6 +120,34 @@ public class RegistrationControllerTest {
         
         // Should have field errors
         assertTrue(responseBody.containsKey("fieldErrors"));
+        
+        // Rejected before anything is read
+        assertQueries();
+    }
+    
+    @Test
+    public void shouldRejectNameLongerThanTheColumn() throws Exception {
+        RegistrationRequestDto request = new RegistrationRequestDto(
+                "K".repeat(300),
+                "lang@example.com",
+                "12345678",
+                "15.06.1990",
+                "8FE4113D4E4020E0DCF887803A886981"
+        );
+        
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/form/B171388180BC457D9887AD92B6CCFC86/register",
+                HttpMethod.POST,
+                new org.springframework.http.HttpEntity<>(request),
+                new ParameterizedTypeReference<Map<String, Object>>() {});
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Map<String, Object> responseBody = response.getBody();
+        assertNotNull(responseBody);
+        assertEquals("VALIDATION_ERROR", responseBody.get("error"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fieldErrors = (Map<String, Object>) responseBody.get("fieldErrors");
+        assertEquals("Fullt navn kan ikke være lengre enn 255 tegn", fieldErrors.get("fullName"));
     }
     
     @Test
@@ -137,4 +177,52 @@ public class RegistrationControllerTest {
         String message = (String) responseBody.get("message");
         assertTrue(message.contains("medlemstype"));
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void shouldValidateOnlyTheFieldsGivenWithoutTouchingTheDatabase() throws Exception {
+        long connectionsBefore = meterRegistry.get("hikaricp.connections.acquire").timer().count();
+        
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/form/B171388180BC457D9887AD92B6CCFC86/validate",
+                HttpMethod.POST,
+                new org.springframework.http.HttpEntity<>(Map.of("email", "test@example.com", "phoneNumber", "12345678")),
+                new ParameterizedTypeReference<Map<String, Object>>() {});
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> responseBody = response.getBody();
+        assertNotNull(responseBody);
+        assertTrue((Boolean) responseBody.get("success"));
+        assertEquals(Map.of(), responseBody.get("fieldErrors"));
+        
+        assertQueries();
+        assertEquals(connectionsBefore, meterRegistry.get("hikaricp.connections.acquire").timer().count());
+    }
+    
+    @Test
+    public void shouldReturnFieldErrorsForInvalidFieldsGiven() throws Exception {
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/form/B171388180BC457D9887AD92B6CCFC86/validate",
+                HttpMethod.POST,
+                new org.springframework.http.HttpEntity<>(Map.of(
+                        "fullName", " ",
+                        "phoneNumber", "123",
+                        "birthDate", "31.02.1990")),
+                new ParameterizedTypeReference<Map<String, Object>>() {});
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> responseBody = response.getBody();
+        assertNotNull(responseBody);
+        assertFalse((Boolean) responseBody.get("success"));
+        assertEquals("VALIDATION_ERROR", responseBody.get("error"));
+        
+        @SuppressWarnings("unchecked")
+        Map<String, String> fieldErrors = (Map<String, String>) responseBody.get("fieldErrors");
+        assertEquals("Fullt navn er påkrevd", fieldErrors.get("fullName"));
+        assertEquals("Telefonnummer må være mellom 8-11 siffer", fieldErrors.get("phoneNumber"));
+        assertEquals("Ugyldig fødselsdato. Må være i format DD.MM.YYYY og i fortiden", fieldErrors.get("birthDate"));
+        // Not given, so not checked yet
+        assertFalse(fieldErrors.containsKey("email"));
+        assertFalse(fieldErrors.containsKey("memberTypeId"));
+        assertQueries();
+    }
+}
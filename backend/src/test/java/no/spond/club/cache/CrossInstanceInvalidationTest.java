@@ -0,0 +1,97 @@
+package no.spond.club.cache;
+
+import no.spond.club.ClubMembershipApplication;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts against one PostgreSQL database: an edit made through one
+ * instance must evict the form cached by the other.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Cross-Instance Cache Invalidation Tests")
+class CrossInstanceInvalidationTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+
+    @BeforeAll
+    static void startInstances() {
+        instanceA = startInstance();
+        instanceB = startInstance();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (instanceB != null) {
+            instanceB.close();
+        }
+        if (instanceA != null) {
+            instanceA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startInstance() {
+        return new SpringApplicationBuilder(ClubMembershipApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "spring.datasource.driver-class-name=org.postgresql.Driver",
+                "spring.jpa.hibernate.ddl-auto=update",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                "spondy.forms.cache.notify-enabled=true",
+                "spondy.outbox.dispatcher-enabled=false")
+            .run();
+    }
+
+    private static void awaitListening(ConfigurableApplicationContext instance) throws InterruptedException {
+        FormInvalidationListener listener = instance.getBean(FormInvalidationListener.class);
+        for (int i = 0; i < 50 && !listener.isListening(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(listener.isListening());
+    }
+
+    @Test
+    @DisplayName("Should evict and reload a form edited through another instance")
+    void shouldInvalidateFormEditedOnAnotherInstance() throws InterruptedException {
+        // Given
+        awaitListening(instanceA);
+        awaitListening(instanceB);
+        RegistrationFormService serviceB = instanceB.getBean(RegistrationFormService.class);
+        String originalTitle = serviceB.getFormById(FORM_ID).getTitle();
+        assertTrue(instanceB.getBean(FormCache.class).contains(FORM_ID));
+
+        // When
+        RegistrationFormRepository repositoryA = instanceA.getBean(RegistrationFormRepository.class);
+        instanceA.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+            repositoryA.findByExternalIdWithMemberTypes(FORM_ID).orElseThrow().setTitle(originalTitle + " (oppdatert)"));
+
+        // Then
+        String seenByB = originalTitle;
+        for (int i = 0; i < 50 && seenByB.equals(originalTitle); i++) {
+            Thread.sleep(100);
+            seenByB = serviceB.getFormById(FORM_ID).getTitle();
+        }
+        assertEquals(originalTitle + " (oppdatert)", seenByB);
+    }
+}
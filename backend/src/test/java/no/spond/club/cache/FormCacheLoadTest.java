@@ -0,0 +1,231 @@
+package no.spond.club.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.spond.club.config.FormCacheProperties;
+import no.spond.club.dto.RegistrationFormDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Form Cache Load Tests")
+class FormCacheLoadTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final FormCacheProperties properties = new FormCacheProperties();
+    private final ExecutorService callers = Executors.newFixedThreadPool(16);
+    private FormCache formCache;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (formCache != null) {
+            formCache.shutdown();
+        }
+    }
+
+    private FormCache formCache(Supplier<Long> clock) {
+        formCache = new FormCache(properties, meterRegistry, clock::get);
+        return formCache;
+    }
+
+    private static FormCache.CachedForm form(long version) {
+        RegistrationFormDto form = new RegistrationFormDto();
+        form.setFormId(FORM_ID);
+        form.setTitle("Versjon " + version);
+        return new FormCache.CachedForm(form, null, version);
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.get());
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("spondy.forms.cache.coalesced").counter().count();
+    }
+
+    @Nested
+    @DisplayName("Single-Flight Tests")
+    class SingleFlightTests {
+
+        @Test
+        @DisplayName("Should share one load between concurrent misses")
+        void shouldShareOneLoad() throws Exception {
+            // Given - a load that takes until released
+            FormCache cache = formCache(System::nanoTime);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger loads = new AtomicInteger();
+            Supplier<FormCache.CachedForm> loader = () -> {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return form(1);
+            };
+
+            // When
+            List<Future<FormCache.CachedForm>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(callers.submit(() -> cache.entry(FORM_ID, loader)));
+            }
+            await(() -> coalesced() == 15);
+            release.countDown();
+
+            // Then
+            FormCache.CachedForm first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<FormCache.CachedForm> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertTrue(cache.contains(FORM_ID));
+        }
+
+        @Test
+        @DisplayName("Should hand a failed load's exception to every waiter and retry on the next miss")
+        void shouldShareFailure() throws Exception {
+            // Given
+            FormCache cache = formCache(System::nanoTime);
+            CountDownLatch release = new CountDownLatch(1);
+            Supplier<FormCache.CachedForm> failing = () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalArgumentException("Skjema ikke funnet: " + FORM_ID);
+            };
+            Future<FormCache.CachedForm> leader = callers.submit(() -> cache.entry(FORM_ID, failing));
+            Future<FormCache.CachedForm> waiter = callers.submit(() -> cache.entry(FORM_ID, failing));
+            await(() -> coalesced() == 1);
+
+            // When
+            release.countDown();
+
+            // Then
+            for (Future<FormCache.CachedForm> result : List.of(leader, waiter)) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+            }
+            assertFalse(cache.contains(FORM_ID));
+            assertEquals(2, cache.entry(FORM_ID, () -> form(2)).version());
+        }
+
+        @Test
+        @DisplayName("Should stop waiting after the load timeout and let the next miss take over")
+        void shouldTimeOutStuckLoad() throws Exception {
+            // Given - a load that never finishes
+            properties.setLoadTimeout(Duration.ofMillis(100));
+            FormCache cache = formCache(System::nanoTime);
+            CountDownLatch never = new CountDownLatch(1);
+            callers.submit(() -> cache.entry(FORM_ID, () -> {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return form(1);
+            }));
+            Thread.sleep(20);
+
+            // When
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> cache.entry(FORM_ID, () -> form(2)));
+
+            // Then - the timeout has passed, so this one loads itself
+            assertTrue(e.getMessage().contains("lastes fortsatt"));
+            assertEquals(2, cache.entry(FORM_ID, () -> form(2)).version());
+            never.countDown();
+        }
+
+        @Test
+        @DisplayName("Should not cache a load that overlapped an invalidation")
+        void shouldNotCacheLoadOverlappingInvalidation() {
+            // Given
+            FormCache cache = formCache(System::nanoTime);
+
+            // When - the form changes while it is being read
+            FormCache.CachedForm loaded = cache.entry(FORM_ID, () -> {
+                cache.invalidate(FORM_ID, 1L);
+                return form(1);
+            });
+
+            // Then
+            assertEquals(1, loaded.version());
+            assertFalse(cache.contains(FORM_ID));
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Should serve the cached copy and reload it in the background once due")
+        void shouldRefreshAhead() throws Exception {
+            // Given
+            properties.setRefreshAfter(Duration.ofMinutes(5));
+            properties.setExpireAfter(Duration.ofMinutes(10));
+            FormCache cache = formCache(now::get);
+            cache.entry(FORM_ID, () -> form(1));
+            now.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+            // When
+            FormCache.CachedForm served = cache.entry(FORM_ID, () -> form(2));
+
+            // Then
+            assertEquals(1, served.version());
+            await(() -> cache.entry(FORM_ID, () -> form(3)).version() == 2);
+        }
+
+        @Test
+        @DisplayName("Should reload an expired entry before serving it")
+        void shouldReloadExpired() {
+            // Given
+            properties.setExpireAfter(Duration.ofMinutes(10));
+            FormCache cache = formCache(now::get);
+            cache.entry(FORM_ID, () -> form(1));
+
+            // When
+            now.addAndGet(TimeUnit.MINUTES.toNanos(11));
+
+            // Then
+            assertEquals(2, cache.entry(FORM_ID, () -> form(2)).version());
+        }
+
+        @Test
+        @DisplayName("Should never expire or refresh by default")
+        void shouldKeepEntriesByDefault() {
+            // Given
+            FormCache cache = formCache(now::get);
+            cache.entry(FORM_ID, () -> form(1));
+
+            // When
+            now.addAndGet(TimeUnit.DAYS.toNanos(30));
+
+            // Then
+            assertEquals(1, cache.entry(FORM_ID, () -> form(2)).version());
+        }
+    }
+}
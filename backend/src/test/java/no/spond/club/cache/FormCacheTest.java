@@ -0,0 +1,145 @@
+package no.spond.club.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.RegistrationForm;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:formcachetest")
+@ActiveProfiles("test")
+@DisplayName("Form Cache Tests")
+class FormCacheTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ORIGINAL_TITLE = "Coding camp summer 2025";
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private RegistrationFormRepository formRepository;
+
+    @Autowired
+    private FormCache formCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        formCache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+            formRepository.findByExternalIdWithMemberTypes(FORM_ID).orElseThrow().setTitle(ORIGINAL_TITLE));
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("spondy.forms.cache").tag("result", "hit").counter().count();
+    }
+
+    @Nested
+    @DisplayName("Caching Tests")
+    class CachingTests {
+
+        @Test
+        @DisplayName("Should serve repeated reads from the cache")
+        void shouldServeRepeatedReadsFromCache() {
+            // Given
+            registrationFormService.getFormById(FORM_ID);
+            double hitsBefore = cacheHits();
+
+            // When
+            registrationFormService.getFormById(FORM_ID);
+
+            // Then
+            assertEquals(hitsBefore + 1, cacheHits());
+            assertTrue(formCache.contains(FORM_ID));
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should evict a form when it is updated")
+        void shouldEvictFormWhenUpdated() {
+            // Given
+            registrationFormService.getFormById(FORM_ID);
+
+            // When
+            transactionTemplate.executeWithoutResult(status ->
+                formRepository.findByExternalIdWithMemberTypes(FORM_ID).orElseThrow().setTitle("Coding camp 2026"));
+
+            // Then
+            assertFalse(formCache.contains(FORM_ID));
+            assertEquals("Coding camp 2026", registrationFormService.getFormById(FORM_ID).getTitle());
+        }
+
+        @Test
+        @DisplayName("Should evict a form when one of its member types changes")
+        void shouldEvictFormWhenMemberTypeChanges() {
+            // Given
+            registrationFormService.getFormById(FORM_ID);
+
+            // When
+            transactionTemplate.executeWithoutResult(status -> {
+                MemberType memberType = formRepository.findByExternalIdWithMemberTypes(FORM_ID)
+                    .orElseThrow().getMemberTypes().get(0);
+                memberType.setDescription(memberType.getDescription() + " ");
+            });
+
+            // Then
+            assertFalse(formCache.contains(FORM_ID));
+        }
+
+        @Test
+        @DisplayName("Should keep the form cached when the change rolls back")
+        void shouldKeepFormWhenChangeRollsBack() {
+            // Given
+            registrationFormService.getFormById(FORM_ID);
+
+            // When
+            transactionTemplate.executeWithoutResult(status -> {
+                RegistrationForm form = formRepository.findByExternalIdWithMemberTypes(FORM_ID).orElseThrow();
+                form.setTitle("Never committed");
+                formRepository.flush();
+                status.setRollbackOnly();
+            });
+
+            // Then
+            assertTrue(formCache.contains(FORM_ID));
+            assertEquals(ORIGINAL_TITLE, registrationFormService.getFormById(FORM_ID).getTitle());
+        }
+
+        @Test
+        @DisplayName("Should ignore notifications older than the cached version")
+        void shouldIgnoreOlderVersions() {
+            // Given
+            registrationFormService.getFormById(FORM_ID);
+            long version = formRepository.findByExternalIdWithMemberTypes(FORM_ID).orElseThrow().getVersion();
+
+            // When & Then
+            assertFalse(formCache.invalidate(FORM_ID, version - 1));
+            assertTrue(formCache.invalidate(FORM_ID, version));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package no.spond.club.cache;
+
+import no.spond.club.config.HibernateCacheProperties;
+import no.spond.club.config.SecondLevelCacheConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Second-Level Cache Config Tests")
+class SecondLevelCacheConfigTest {
+
+    private static long maximumSize(CacheManager cacheManager, String region) {
+        com.github.benmanes.caffeine.cache.Cache<?, ?> cache =
+            cacheManager.getCache(region).unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        return cache.policy().eviction().orElseThrow().getMaximum();
+    }
+
+    @Test
+    @DisplayName("Should lower the listed regions and leave the rest as in application.conf")
+    void shouldOverrideRegionSizes() {
+        // Given
+        HibernateCacheProperties properties = new HibernateCacheProperties();
+        properties.setMaximumSize(Map.of("groups", 200L));
+
+        // When
+        try (CacheManager cacheManager = new SecondLevelCacheConfig().hibernateCacheManager(properties)) {
+            // Then
+            assertEquals(200, maximumSize(cacheManager, "groups"));
+            assertEquals(10_000, maximumSize(cacheManager, "member-types"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a region that is not configured")
+    void shouldRefuseUnknownRegion() {
+        HibernateCacheProperties properties = new HibernateCacheProperties();
+        properties.setMaximumSize(Map.of("no-such-region", 10L));
+
+        assertThrows(IllegalStateException.class, () -> new SecondLevelCacheConfig().hibernateCacheManager(properties));
+    }
+}
@@ -0,0 +1,152 @@
+package no.spond.club.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.model.Registration;
+import no.spond.club.model.RegistrationForm;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import no.spond.club.service.FormAdministrationService;
+import no.spond.club.service.RegistrationFormService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:l2cachetest",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@DisplayName("Second-Level Cache Tests")
+class SecondLevelCacheTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+
+    @Autowired
+    private RegistrationFormRepository formRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * What registering a member reads: the form with its member types, then its groups.
+     */
+    private String readForm() {
+        return transaction.execute(status -> {
+            RegistrationForm form = formRepository.findByExternalIdWithMemberTypes(FORM_ID).orElseThrow();
+            form.getGroups().size();
+            formRepository.findGroupsByExternalId(FORM_ID).size();
+            return form.getTitle();
+        });
+    }
+
+    @Test
+    @DisplayName("Should read a warm form, its member types and groups without SQL")
+    void shouldReadWarmFormWithoutSql() {
+        // Given
+        readForm();
+        long cold = statistics.getPrepareStatementCount();
+        assertTrue(cold > 0);
+
+        // When
+        readForm();
+
+        // Then
+        assertEquals(cold, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads almost entirely from the cache")
+    void shouldHaveHighHitRatio() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            readForm();
+        }
+
+        // Then - only the first read misses
+        CacheRegionStatistics queries = statistics.getQueryRegionStatistics(RegistrationFormRepository.QUERY_CACHE_REGION);
+        assertEquals(2, queries.getMissCount());
+        assertEquals(198, queries.getHitCount());
+        CacheRegionStatistics groups = statistics.getDomainDataRegionStatistics("form-groups");
+        assertTrue(groups.getHitCount() >= 99 * (groups.getHitCount() + groups.getMissCount()) / 100,
+            () -> "hits " + groups.getHitCount() + ", misses " + groups.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should resolve a registration's member type and group from the cache")
+    void shouldResolveReferencesFromCache() {
+        // Given
+        Long registrationId = registrationFormService.registerMember(FORM_ID, new RegistrationRequestDto(
+            "Ola Nordmann", "ola.cache@example.com", "12345678", "15.06.1990", ACTIVE_MEMBER_TYPE_ID));
+        readForm();
+        long before = statistics.getPrepareStatementCount();
+
+        // When
+        String names = transaction.execute(status -> {
+            Registration registration = registrationRepository.findById(registrationId).orElseThrow();
+            return registration.getMemberType().getName() + "/" + registration.getGroup().getName();
+        });
+
+        // Then - only the registration itself is read
+        assertEquals("Active Member/Alle deltakere", names);
+        assertEquals(before + 1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should not serve a form changed on this instance from the cache")
+    void shouldInvalidateOnChange() {
+        // Given
+        String original = readForm();
+        FormAdminDto form = formAdministrationService.getForm(FORM_ID);
+        form.setTitle(original + " (endret)");
+
+        try {
+            // When
+            formAdministrationService.updateForm(FORM_ID, form);
+
+            // Then
+            assertEquals(original + " (endret)", readForm());
+        } finally {
+            FormAdminDto changed = formAdministrationService.getForm(FORM_ID);
+            changed.setTitle(original);
+            formAdministrationService.updateForm(FORM_ID, changed);
+        }
+    }
+}
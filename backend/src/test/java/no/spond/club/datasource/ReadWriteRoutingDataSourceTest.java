@@ -0,0 +1,177 @@
+package no.spond.club.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routingprimary",
+    "spondy.datasource.routing.enabled=true",
+    "spondy.datasource.routing.max-lag=5s",
+    "spondy.datasource.routing.check-interval=PT1H",
+    "spondy.datasource.routing.lag-query=select coalesce(max(seconds), 0) from replication_lag",
+    "spondy.datasource.replica.url=jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1",
+    "spondy.datasource.replica.username=sa",
+    "spondy.datasource.replica.password="
+})
+@ActiveProfiles("test")
+@DisplayName("Read/Write Routing Tests")
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaHealthMonitor replicaHealthMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        replicaJdbcTemplate.execute("create table if not exists replication_lag (seconds int)");
+        replicaJdbcTemplate.update("delete from replication_lag");
+        replicaHealthMonitor.check();
+    }
+
+    private String databaseServing(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+
+    private double routed(String route) {
+        return meterRegistry.get("spondy.datasource.route").tag("route", route).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Routing Tests")
+    class RoutingTests {
+
+        @Test
+        @DisplayName("Should send read-only transactions to the replica")
+        void shouldSendReadOnlyTransactionsToReplica() {
+            // When
+            double before = routed("replica");
+            String database = databaseServing(true);
+
+            // Then
+            assertEquals("ROUTINGREPLICA", database);
+            assertEquals(before + 1, routed("replica"));
+        }
+
+        @Test
+        @DisplayName("Should send read-write transactions to the primary")
+        void shouldSendReadWriteTransactionsToPrimary() {
+            assertEquals("ROUTINGPRIMARY", databaseServing(false));
+        }
+
+        @Test
+        @DisplayName("Should send work outside transactions to the primary")
+        void shouldSendNonTransactionalWorkToPrimary() {
+            assertEquals("ROUTINGPRIMARY", jdbcTemplate.queryForObject("select database()", String.class));
+        }
+
+        @Test
+        @DisplayName("Should pass per-call credentials to the pool it routes to")
+        void shouldRouteConnectionsWithCredentials() throws SQLException {
+            // Given
+            DataSource primary = mock(DataSource.class);
+            DataSource replica = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            when(primary.getConnection("reporting", "secret")).thenReturn(connection);
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica,
+                mock(ReplicaHealthMonitor.class), new SimpleMeterRegistry());
+
+            // When & Then
+            assertSame(connection, routing.getConnection("reporting", "secret"));
+            verifyNoInteractions(replica);
+        }
+    }
+
+    @Nested
+    @DisplayName("Fallback Tests")
+    class FallbackTests {
+
+        @Test
+        @DisplayName("Should fall back to the primary while the replica lags")
+        void shouldFallBackWhileReplicaLags() {
+            // Given
+            replicaJdbcTemplate.update("insert into replication_lag values (60)");
+
+            // When
+            replicaHealthMonitor.check();
+
+            // Then
+            assertFalse(replicaHealthMonitor.isHealthy());
+            double before = routed("fallback");
+            assertEquals("ROUTINGPRIMARY", databaseServing(true));
+            assertEquals(before + 1, routed("fallback"));
+
+            // And back once it has caught up
+            replicaJdbcTemplate.update("delete from replication_lag");
+            replicaHealthMonitor.check();
+            assertEquals("ROUTINGREPLICA", databaseServing(true));
+        }
+
+        @Test
+        @DisplayName("Should fall back to the primary when the replica check fails")
+        void shouldFallBackWhenReplicaIsDown() {
+            // Given
+            replicaJdbcTemplate.execute("drop table replication_lag");
+
+            // When
+            replicaHealthMonitor.check();
+
+            // Then
+            assertFalse(replicaHealthMonitor.isHealthy());
+            assertEquals("ROUTINGPRIMARY", databaseServing(true));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pool Metrics Tests")
+    class PoolMetricsTests {
+
+        @Test
+        @DisplayName("Should expose Hikari metrics per pool")
+        void shouldExposeMetricsPerPool() {
+            // Given
+            databaseServing(true);
+            databaseServing(false);
+
+            // Then
+            assertNotNull(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "primary").timer());
+            assertNotNull(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "replica").timer());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package no.spond.club.duplicates;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Detection time for a quarter, half and whole million synthetic registrations with about one
+ * percent planted duplicates. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Duplicate Detection Benchmark")
+class DuplicateDetectionBenchmarkTest {
+
+    private static final String[] FIRST_NAMES = {
+        "Ola", "Kari", "Per", "Anne", "Lars", "Ingrid", "Jon", "Marit", "Nils", "Sigrid", "Kristian", "Emma",
+        "Henrik", "Nora", "Magnus", "Sofie", "Jonas", "Ida", "Mohammed", "Sara", "Erik", "Thea", "Sander", "Maja",
+        "Aksel", "Frida", "Tobias", "Hedda", "Oskar", "Selma", "Filip", "Julie", "Emil", "Astrid", "Mathias", "Linnea"};
+    private static final String[] LAST_NAMES = {
+        "Hansen", "Johansen", "Olsen", "Larsen", "Andersen", "Pedersen", "Nilsen", "Kristiansen", "Jensen",
+        "Karlsen", "Johnsen", "Pettersen", "Eriksen", "Berg", "Haugen", "Hagen", "Johannessen", "Andreassen",
+        "Jacobsen", "Dahl", "Jørgensen", "Halvorsen", "Henriksen", "Lund", "Sørensen", "Jakobsen", "Moen",
+        "Gundersen", "Iversen", "Strand", "Solberg", "Svendsen", "Eide", "Knutsen", "Martinsen", "Paulsen"};
+    private static final int BIRTH_DATES = 80 * 365;
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+
+    @Test
+    @DisplayName("Should grow about linearly from a quarter to a whole million registrations")
+    void shouldScaleLinearly() throws InterruptedException {
+        // Given
+        List<DuplicateCandidate> million = candidates(1_000_000, new Random(42));
+
+        // When - warm up, then measure each size, sorted as the keyset query returns them
+        detect(sorted(million.subList(0, 100_000)));
+        long[] millis = new long[3];
+        int[] sizes = {250_000, 500_000, 1_000_000};
+        for (int i = 0; i < sizes.length; i++) {
+            List<DuplicateCandidate> rows = sorted(million.subList(0, sizes[i]));
+            long start = System.nanoTime();
+            long[] counts = detect(rows);
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%,d registrations: %,d comparisons, %,d matches in %,d ms%n",
+                sizes[i], counts[0], counts[1], millis[i]);
+        }
+
+        // Then - four times the rows, well under sixteen times the work of all pairs
+        double growth = (double) Math.max(millis[2], 1) / Math.max(millis[0], 1);
+        System.out.printf("Growth from 250k to 1M: %.1fx%n", growth);
+        assertTrue(growth < 8, "Detection grew " + growth + "x for 4x the registrations");
+    }
+
+    private static long[] detect(List<DuplicateCandidate> candidates) throws InterruptedException {
+        LongAdder matches = new LongAdder();
+        DuplicateDetector detector = new DuplicateDetector(new DuplicateScorer(), 0.9, 0, 50_000,
+            match -> matches.increment());
+        candidates.forEach(detector::accept);
+        detector.finish();
+        assertTrue(matches.sum() > 0);
+        return new long[] {detector.comparisons(), matches.sum()};
+    }
+
+    private static List<DuplicateCandidate> sorted(List<DuplicateCandidate> candidates) {
+        List<DuplicateCandidate> copy = new ArrayList<>(candidates);
+        copy.sort((a, b) -> a.birthDate().equals(b.birthDate())
+            ? Long.compare(a.id(), b.id()) : a.birthDate().compareTo(b.birthDate()));
+        return copy;
+    }
+
+    private static List<DuplicateCandidate> candidates(int count, Random random) {
+        List<DuplicateCandidate> candidates = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            LocalDate birthDate = FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATES));
+            String phone = String.valueOf(40_000_000 + random.nextInt(59_999_999));
+            candidates.add(new DuplicateCandidate(id, "FORM" + random.nextInt(50), first + " " + last,
+                (first + "." + last + id + "@example.com").toLowerCase(), phone, birthDate));
+            if (random.nextInt(100) == 0 && id < count) {
+                // The same member again, with a shorter first name and the same phone
+                id++;
+                candidates.add(new DuplicateCandidate(id, "FORM" + random.nextInt(50),
+                    first.substring(0, first.length() - 1) + " " + last, null, phone, birthDate));
+            }
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,118 @@
+package no.spond.club.duplicates;
+
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.service.FormAdministrationService;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:duplicatetest",
+    // Several pages, so the keyset continues across a birth date
+    "spondy.duplicates.page-size=2"
+})
+@ActiveProfiles("test")
+@DisplayName("Duplicate Detection Job Tests")
+class DuplicateDetectionJobTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+
+    @TempDir
+    static Path reportDirectory;
+
+    @DynamicPropertySource
+    static void reportDirectory(DynamicPropertyRegistry registry) {
+        registry.add("spondy.duplicates.report-directory", reportDirectory::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    private String url(String path) {
+        return "http://localhost:" + port + "/api/admin/duplicates" + path;
+    }
+
+    private void register(String formId, String memberTypeId, String name, String email, String phone, String birthDate) {
+        RegistrationRequestDto request = new RegistrationRequestDto();
+        request.setFullName(name);
+        request.setEmail(email);
+        request.setPhoneNumber(phone);
+        request.setBirthDate(birthDate);
+        request.setMemberTypeId(memberTypeId);
+        registrationFormService.registerMember(formId, request);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> awaitCompletion() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, Object> data = (Map<String, Object>) restTemplate.getForEntity(url(""), Map.class)
+                .getBody().get("data");
+            if (!"RUNNING".equals(data.get("state"))) {
+                return data;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Duplicate detection did not finish");
+    }
+
+    @Test
+    @DisplayName("Should report the same person registered on two forms and skip look-alikes")
+    void shouldReportDuplicatesAcrossForms() throws InterruptedException {
+        // Given
+        FormAdminDto winter = formAdministrationService
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Duplikat vinter", LocalDate.now().minusDays(1)));
+        String winterMemberType = winter.getMemberTypes().get(0).getId();
+        register(FORM_ID, ACTIVE_MEMBER_TYPE_ID, "Kristian Bjørnstad", "kristian@example.com", "12345678", "03.03.1977");
+        register(winter.getFormId(), winterMemberType, "Christian Bjornstad", "chris@example.com", "4712345678", "03.03.1977");
+        register(FORM_ID, ACTIVE_MEMBER_TYPE_ID, "Ingrid Bjørnstad", "ingrid@example.com", "87654321", "03.03.1977");
+        register(winter.getFormId(), winterMemberType, "Kristian Bjørnstad", "kb@example.com", "11112222", "04.03.1977");
+
+        // When
+        ResponseEntity<Map> started = restTemplate.postForEntity(url(""), null, Map.class);
+        Map<String, Object> status = awaitCompletion();
+        ResponseEntity<String> report = restTemplate.getForEntity(url("/report"), String.class);
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, started.getStatusCode());
+        assertEquals("COMPLETED", status.get("state"), status.toString());
+        assertEquals(HttpStatus.OK, report.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", report.getHeaders().getContentType().toString());
+        List<String> lines = report.getBody().lines().toList();
+        assertEquals(DuplicateDetectionJob.REPORT_HEADER, lines.get(0));
+        List<String> ours = lines.stream().filter(line -> line.contains("Bjornstad") || line.contains("Bjørnstad")).toList();
+        assertEquals(1, ours.size(), lines.toString());
+        assertTrue(ours.get(0).contains("Kristian Bjørnstad,kristian@example.com"), ours.get(0));
+        assertTrue(ours.get(0).contains("Christian Bjornstad,chris@example.com,false,true"), ours.get(0));
+        assertTrue(ours.get(0).contains(winter.getFormId()), ours.get(0));
+    }
+}
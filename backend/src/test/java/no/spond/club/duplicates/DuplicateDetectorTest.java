@@ -0,0 +1,194 @@
+package no.spond.club.duplicates;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Duplicate Detector Tests")
+class DuplicateDetectorTest {
+
+    private static final LocalDate BIRTH_DATE = LocalDate.of(1990, 6, 15);
+
+    private final DuplicateScorer scorer = new DuplicateScorer();
+
+    private static DuplicateCandidate candidate(long id, String name, String email, String phone, LocalDate birthDate) {
+        return new DuplicateCandidate(id, "FORM" + (id % 2), name, email, phone, birthDate);
+    }
+
+    private static DuplicateCandidate candidate(long id, String name, String email) {
+        return candidate(id, name, email, null, BIRTH_DATE);
+    }
+
+    private List<DuplicateMatch> detect(List<DuplicateCandidate> candidates) throws InterruptedException {
+        List<DuplicateMatch> matches = new CopyOnWriteArrayList<>();
+        DuplicateDetector detector = new DuplicateDetector(scorer, 0.9, 2, 100, matches::add);
+        candidates.forEach(detector::accept);
+        detector.finish();
+        return matches;
+    }
+
+    @Nested
+    @DisplayName("Scorer")
+    class ScorerTests {
+
+        @Test
+        @DisplayName("Should give spelling variants of a Norwegian name the same phonetic code")
+        void shouldShareCodeForSpellingVariants() {
+            assertEquals(DuplicateScorer.phonetic("christian"), DuplicateScorer.phonetic("kristian"));
+            assertEquals(DuplicateScorer.phonetic("sophie"), DuplicateScorer.phonetic("sofie"));
+            assertEquals(DuplicateScorer.phonetic("mohammed"), DuplicateScorer.phonetic("muhammad"));
+            assertEquals(DuplicateScorer.phonetic("anna"), DuplicateScorer.phonetic("ana"));
+            assertNotEquals(DuplicateScorer.phonetic("kari"), DuplicateScorer.phonetic("per"));
+        }
+
+        @Test
+        @DisplayName("Should fold Norwegian letters, accents and punctuation in names")
+        void shouldNormalizeNames() {
+            assertEquals("bjorn aero", DuplicateScorer.normalizeName("  Bjørn Ærø "));
+            assertEquals("ase helene o brien", DuplicateScorer.normalizeName("Åse-Helene O'Brien"));
+            assertEquals("rene", DuplicateScorer.normalizeName("René"));
+        }
+
+        @Test
+        @DisplayName("Should compare e-mail without tag and phone without country code")
+        void shouldNormalizeContactDetails() {
+            assertEquals("ola@example.com", DuplicateScorer.normalizeEmail(" Ola+klubb@Example.com"));
+            assertEquals("12345678", DuplicateScorer.normalizePhone("+47 123 45 678"));
+            assertEquals("12345678", DuplicateScorer.normalizePhone("0047 12345678"));
+        }
+
+        @Test
+        @DisplayName("Should score reordered names and shared contact details as likely duplicates")
+        void shouldScoreVariants() {
+            // Given
+            DuplicateScorer.Profile ola = scorer.profile(candidate(1, "Ola Nordmann", "ola@example.com"));
+            DuplicateScorer.Profile reordered = scorer.profile(candidate(2, "Nordmann Ola", null));
+            DuplicateScorer.Profile middleName = scorer.profile(candidate(3, "Ola Johan Nordmann", "OLA+fotball@example.com"));
+            DuplicateScorer.Profile other = scorer.profile(candidate(4, "Kari Hansen", "kari@example.com"));
+            DuplicateScorer.Profile twin = scorer.profile(candidate(5, "Kari Nordmann", null));
+
+            // When
+            DuplicateMatch byOrder = scorer.match(reordered, ola, 0.9);
+            DuplicateMatch byMiddleName = scorer.match(ola, middleName, 0.9);
+
+            // Then
+            assertNotNull(byOrder);
+            assertEquals(1, byOrder.first().id());
+            assertEquals(2, byOrder.second().id());
+            assertNotNull(byMiddleName);
+            assertTrue(byMiddleName.sameEmail());
+            assertTrue(byMiddleName.score() > 0.95);
+            assertNull(scorer.match(ola, other, 0.9));
+            assertNull(scorer.match(ola, twin, 0.9));
+            assertNull(scorer.match(reordered, twin, 0.9));
+        }
+    }
+
+    @Nested
+    @DisplayName("Blocking")
+    class BlockingTests {
+
+        @Test
+        @DisplayName("Should find variants in the first-name and the last-name block")
+        void shouldFindVariantsAcrossBlocks() throws InterruptedException {
+            // Given
+            List<DuplicateCandidate> candidates = List.of(
+                candidate(1, "Christian Hansen", "christian@example.com"),
+                candidate(2, "Kristian Hansen", null),
+                // Different first-name code, same last-name code and phone
+                candidate(3, "Per Olsen", null, "12345678", BIRTH_DATE),
+                candidate(4, "Peder Olsen", null, "+47 12345678", BIRTH_DATE),
+                candidate(5, "Kari Nordmann", "kari@example.com"));
+
+            // When
+            List<DuplicateMatch> matches = detect(candidates);
+
+            // Then
+            assertEquals(2, matches.size(), matches.toString());
+            assertTrue(matches.stream().anyMatch(m -> m.first().id() == 1 && m.second().id() == 2));
+            assertTrue(matches.stream().anyMatch(m -> m.first().id() == 3 && m.second().id() == 4 && m.samePhone()));
+        }
+
+        @Test
+        @DisplayName("Should report a pair sharing both name codes once")
+        void shouldReportPairOnce() throws InterruptedException {
+            // When
+            List<DuplicateMatch> matches = detect(List.of(
+                candidate(1, "Ola Nordmann", null),
+                candidate(2, "Ola Nordman", null)));
+
+            // Then
+            assertEquals(1, matches.size());
+        }
+
+        @Test
+        @DisplayName("Should not compare registrations with different birth dates")
+        void shouldNotCompareAcrossBirthDates() throws InterruptedException {
+            // Given
+            List<DuplicateMatch> matches = new CopyOnWriteArrayList<>();
+            DuplicateDetector detector = new DuplicateDetector(scorer, 0.9, 2, 100, matches::add);
+
+            // When
+            detector.accept(candidate(1, "Ola Nordmann", null, null, BIRTH_DATE));
+            detector.accept(candidate(2, "Ola Nordmann", null, null, BIRTH_DATE.plusDays(1)));
+            detector.finish();
+
+            // Then
+            assertTrue(matches.isEmpty());
+            assertEquals(2, detector.candidates());
+            assertEquals(0, detector.comparisons());
+        }
+
+        @Test
+        @DisplayName("Should split a large block and still compare every pair in it once")
+        void shouldSplitLargeBlock() throws InterruptedException {
+            // Given - 300 Ola Nordmanns in one block, 44,850 pairs
+            List<DuplicateMatch> matches = new CopyOnWriteArrayList<>();
+            DuplicateDetector detector = new DuplicateDetector(scorer, 0.9, 4, 1_000, matches::add);
+
+            // When
+            for (long id = 1; id <= 300; id++) {
+                detector.accept(candidate(id, "Ola Nordmann", null));
+            }
+            detector.finish();
+
+            // Then
+            assertEquals(300L * 299 / 2, detector.comparisons());
+            assertEquals(300L * 299 / 2, matches.size());
+        }
+
+        @Test
+        @DisplayName("Should reject candidates out of birth date order")
+        void shouldRejectUnorderedCandidates() {
+            // Given
+            DuplicateDetector detector = new DuplicateDetector(scorer, 0.9, 1, 100, match -> { });
+            detector.accept(candidate(1, "Ola Nordmann", null, null, BIRTH_DATE));
+
+            // When / Then
+            assertThrows(IllegalArgumentException.class,
+                () -> detector.accept(candidate(2, "Kari Nordmann", null, null, BIRTH_DATE.minusDays(1))));
+            detector.cancel();
+        }
+
+        @Test
+        @DisplayName("Should surface a failing sink from finish")
+        void shouldSurfaceSinkFailure() {
+            // Given
+            DuplicateDetector detector = new DuplicateDetector(scorer, 0.9, 1, 100, match -> {
+                throw new IllegalStateException("disk full");
+            });
+            detector.accept(candidate(1, "Ola Nordmann", null));
+            detector.accept(candidate(2, "Ola Nordmann", null));
+
+            // When / Then
+            IllegalStateException e = assertThrows(IllegalStateException.class, detector::finish);
+            assertEquals("disk full", e.getCause().getMessage());
+        }
+    }
+}
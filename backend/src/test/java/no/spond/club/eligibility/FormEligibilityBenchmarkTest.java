@@ -0,0 +1,106 @@
+package no.spond.club.eligibility;
+
+import no.spond.club.model.EligibilityRule;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compile time and check latency for 10k rules spread over 1000 forms. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Form Eligibility Benchmark")
+class FormEligibilityBenchmarkTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 15);
+    private static final int FORMS = 1_000;
+    private static final int MEMBER_TYPES_PER_FORM = 4;
+    private static final int GROUPS_PER_FORM = 6;
+    private static final int CHECKS = 2_000_000;
+    private static final String[] MEMBER_TYPE_IDS = {"MT0", "MT1", "MT2", "MT3"};
+
+    @Test
+    @DisplayName("Should check and assign a registration in well under a microsecond")
+    void shouldCheckAndAssignQuickly() {
+        // Given
+        Random random = new Random(42);
+        List<List<MemberType>> memberTypes = new ArrayList<>();
+        List<List<Group>> groups = new ArrayList<>();
+        long id = 1;
+        for (int form = 0; form < FORMS; form++) {
+            List<MemberType> formTypes = new ArrayList<>();
+            for (int i = 0; i < MEMBER_TYPES_PER_FORM; i++) {
+                MemberType memberType = new MemberType("Type " + i, null, BigDecimal.ZERO);
+                memberType.setId(id++);
+                memberType.setExternalId("MT" + i);
+                // Half open to all ages, the rest with a random age band
+                memberType.setEligibility(i % 2 == 0 ? null : ageBand(random));
+                formTypes.add(memberType);
+            }
+            List<Group> formGroups = new ArrayList<>();
+            for (int i = 0; i < GROUPS_PER_FORM; i++) {
+                Group group = new Group("Gruppe " + i, null);
+                group.setId(id++);
+                group.setEligibility(i == 0 ? null : ageBand(random));
+                formGroups.add(group);
+            }
+            memberTypes.add(formTypes);
+            groups.add(formGroups);
+        }
+
+        long compileStart = System.nanoTime();
+        FormEligibility[] forms = new FormEligibility[FORMS];
+        for (int form = 0; form < FORMS; form++) {
+            forms[form] = FormEligibility.compile(memberTypes.get(form), groups.get(form), TODAY);
+        }
+        long compileMicros = (System.nanoTime() - compileStart) / 1_000;
+
+        LocalDate[] birthDates = new LocalDate[4096];
+        for (int i = 0; i < birthDates.length; i++) {
+            birthDates[i] = TODAY.minusDays(random.nextInt(80 * 365));
+        }
+
+        // When - warm up, then measure
+        long accepted = runChecks(forms, birthDates, CHECKS);
+        long start = System.nanoTime();
+        accepted = runChecks(forms, birthDates, CHECKS);
+        double nanosPerCheck = (double) (System.nanoTime() - start) / CHECKS;
+
+        // Then
+        System.out.printf("compiled %d rules in %d us; %.0f ns per check, %d of %d accepted%n",
+            FORMS * (MEMBER_TYPES_PER_FORM + GROUPS_PER_FORM), compileMicros, nanosPerCheck, accepted, CHECKS);
+        assertTrue(accepted > 0);
+        assertTrue(nanosPerCheck < 1_000, "Check took " + nanosPerCheck + " ns");
+    }
+
+    private static EligibilityRule ageBand(Random random) {
+        int minAge = random.nextInt(60);
+        return new EligibilityRule(minAge, minAge + random.nextInt(20));
+    }
+
+    /**
+     * Uses the non-throwing lookup, so rejections are not dominated by building exceptions.
+     */
+    private static long runChecks(FormEligibility[] forms, LocalDate[] birthDates, int checks) {
+        long accepted = 0;
+        for (int i = 0; i < checks; i++) {
+            FormEligibility form = forms[i % forms.length];
+            int memberType = form.memberTypeIndex(MEMBER_TYPE_IDS[i & 3]);
+            if (form.lookup(memberType, birthDates[i & (birthDates.length - 1)], TODAY) >= 0) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,180 @@
+package no.spond.club.eligibility;
+
+import no.spond.club.model.EligibilityRule;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Form Eligibility Tests")
+class FormEligibilityTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 15);
+
+    private static final long JUNIOR = 1;
+    private static final long SENIOR = 2;
+    private static final long SUPPORTER = 3;
+    private static final long MEN = 11;
+    private static final long YOUTH = 13;
+    private static final long CHILDREN = 14;
+
+    private FormEligibility eligibility;
+
+    @BeforeEach
+    void setUp() {
+        eligibility = FormEligibility.compile(
+            List.of(
+                memberType(JUNIOR, new EligibilityRule(null, 17)),
+                memberType(SENIOR, new EligibilityRule(18, null)),
+                memberType(SUPPORTER, null)
+            ),
+            List.of(
+                group(MEN, null),
+                group(12, null),
+                group(YOUTH, new EligibilityRule(13, 17)),
+                group(CHILDREN, new EligibilityRule(6, 12))
+            ),
+            TODAY
+        );
+    }
+
+    private static MemberType memberType(long id, EligibilityRule rule) {
+        MemberType memberType = new MemberType("Type " + id, null, BigDecimal.ZERO);
+        memberType.setId(id);
+        memberType.setExternalId("MT" + id);
+        memberType.setEligibility(rule);
+        return memberType;
+    }
+
+    private static Group group(long id, EligibilityRule rule) {
+        Group group = new Group("Gruppe " + id, null);
+        group.setId(id);
+        group.setEligibility(rule);
+        return group;
+    }
+
+    @Nested
+    @DisplayName("Member Type Tests")
+    class MemberTypeTests {
+
+        @Test
+        @DisplayName("Should allow a junior the day before they turn 18")
+        void shouldAllowJuniorBeforeEighteenthBirthday() {
+            FormEligibility.Assignment assignment =
+                eligibility.assign("MT" + JUNIOR, LocalDate.of(2008, 6, 16), TODAY);
+
+            assertEquals(JUNIOR, assignment.memberTypeId());
+        }
+
+        @Test
+        @DisplayName("Should reject a junior on their 18th birthday and allow a senior")
+        void shouldRejectJuniorOnEighteenthBirthday() {
+            LocalDate birthDate = LocalDate.of(2008, 6, 15);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> eligibility.assign("MT" + JUNIOR, birthDate, TODAY));
+            assertTrue(exception.getMessage().contains("alderskravet"));
+            assertEquals(SENIOR, eligibility.assign("MT" + SENIOR, birthDate, TODAY).memberTypeId());
+        }
+
+        @Test
+        @DisplayName("Should allow anyone for a member type without a rule")
+        void shouldAllowAnyoneWithoutRule() {
+            assertEquals(SUPPORTER, eligibility.assign("MT" + SUPPORTER, LocalDate.of(1940, 1, 1), TODAY).memberTypeId());
+            assertEquals(SUPPORTER, eligibility.assign("MT" + SUPPORTER, LocalDate.of(2025, 1, 1), TODAY).memberTypeId());
+        }
+
+        @Test
+        @DisplayName("Should reject a member type that is not on the form")
+        void shouldRejectUnknownMemberType() {
+            assertThrows(IllegalArgumentException.class,
+                () -> eligibility.assign("UNKNOWN", LocalDate.of(2000, 1, 1), TODAY));
+        }
+
+        @Test
+        @DisplayName("Should apply the age limits of the day of registration")
+        void shouldRecompileOnNewDay() {
+            // Born on a leap day: 17 on 28 February 2026, 18 the day after
+            LocalDate birthDate = LocalDate.of(2008, 2, 29);
+
+            assertEquals(JUNIOR, eligibility.assign("MT" + JUNIOR, birthDate, LocalDate.of(2026, 2, 28)).memberTypeId());
+            assertThrows(IllegalArgumentException.class,
+                () -> eligibility.assign("MT" + JUNIOR, birthDate, LocalDate.of(2026, 3, 1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Group Assignment Tests")
+    class GroupAssignmentTests {
+
+        @Test
+        @DisplayName("Should place registrants in the age group that matches")
+        void shouldPlaceInMatchingAgeGroup() {
+            assertEquals(CHILDREN, eligibility.assign("MT" + JUNIOR, LocalDate.of(2016, 1, 1), TODAY).groupId());
+            assertEquals(YOUTH, eligibility.assign("MT" + JUNIOR, LocalDate.of(2011, 1, 1), TODAY).groupId());
+        }
+
+        @Test
+        @DisplayName("Should fall back to the first group without a rule")
+        void shouldFallBackToFirstUnrestrictedGroup() {
+            assertEquals(MEN, eligibility.assign("MT" + SENIOR, LocalDate.of(1990, 1, 1), TODAY).groupId());
+            assertEquals(MEN, eligibility.assign("MT" + JUNIOR, LocalDate.of(2022, 1, 1), TODAY).groupId());
+        }
+
+        @Test
+        @DisplayName("Should honour birth-date cutoffs")
+        void shouldHonourBirthDateCutoffs() {
+            // Given - a cohort group for those born in 2014 or 2015
+            EligibilityRule cohort = new EligibilityRule();
+            cohort.setBornOnOrAfter(LocalDate.of(2014, 1, 1));
+            cohort.setBornOnOrBefore(LocalDate.of(2015, 12, 31));
+            FormEligibility cohorts = FormEligibility.compile(
+                List.of(memberType(JUNIOR, null)),
+                List.of(group(20, cohort)),
+                TODAY);
+
+            // Then
+            assertEquals(20, cohorts.assign("MT" + JUNIOR, LocalDate.of(2015, 12, 31), TODAY).groupId());
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> cohorts.assign("MT" + JUNIOR, LocalDate.of(2016, 1, 1), TODAY));
+            assertTrue(exception.getMessage().contains("Ingen grupper"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Compilation Tests")
+    class CompilationTests {
+
+        @Test
+        @DisplayName("Should handle more member types than fit in one word")
+        void shouldHandleManyMemberTypes() {
+            // Given - member type i is for those aged i or older
+            List<MemberType> memberTypes = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                memberTypes.add(memberType(100 + i, new EligibilityRule(i, null)));
+            }
+            FormEligibility many = FormEligibility.compile(memberTypes, List.of(group(1, null)), TODAY);
+            LocalDate seventyYearsOld = TODAY.minusYears(70);
+
+            // Then
+            assertEquals(170, many.assign("MT170", seventyYearsOld, TODAY).memberTypeId());
+            assertThrows(IllegalArgumentException.class, () -> many.assign("MT171", seventyYearsOld, TODAY));
+        }
+
+        @Test
+        @DisplayName("Should cut the birth-date axis once per distinct boundary")
+        void shouldCutAxisPerBoundary() {
+            // Junior, senior and youth all cut at turning 18, the age groups at 13 and 6
+            assertEquals(4, eligibility.segmentCount());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package no.spond.club.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.spond.club.config.EventBusProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Registration Event Bus Tests")
+class RegistrationEventBusTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BlockingSubscriber subscriber;
+    private RegistrationEventBus bus;
+    /**
+     * Stands in for the database the spilled events are read back from.
+     */
+    private final Map<Long, RegistrationCommitted> committed = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriber = new BlockingSubscriber();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriber.release();
+        if (bus != null) {
+            bus.shutdown();
+        }
+    }
+
+    private RegistrationEventBus busWith(OverflowPolicy policy) {
+        EventBusProperties properties = new EventBusProperties();
+        properties.setSpillDirectory(spillDirectory);
+        properties.getDefaults().setThreads(1);
+        properties.getDefaults().setQueueCapacity(1);
+        properties.getDefaults().setOverflowPolicy(policy);
+        properties.getDefaults().setBlockTimeout(Duration.ofMillis(50));
+
+        bus = new RegistrationEventBus(List.of(subscriber), properties,
+            ids -> ids.stream().map(committed::get).filter(event -> event != null).toList(), meterRegistry);
+        return bus;
+    }
+
+    private RegistrationCommitted event(long id) {
+        RegistrationCommitted event = new RegistrationCommitted(id, "FORM", "TYPE", "Kari Nordmann",
+            "kari@example.com", LocalDate.of(1990, 6, 15), LocalDateTime.now());
+        committed.put(id, event);
+        return event;
+    }
+
+    private void drainUntil(RegistrationEventBus bus, int count) throws InterruptedException {
+        for (int i = 0; i < 20 && subscriber.receivedIds().size() < count; i++) {
+            bus.drainSpills();
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Fills the single worker thread and the one-slot queue, so the next event overflows.
+     */
+    private void saturate(RegistrationEventBus bus) throws InterruptedException {
+        bus.onRegistrationCommitted(event(1));
+        assertTrue(subscriber.started.await(2, TimeUnit.SECONDS));
+        bus.onRegistrationCommitted(event(2));
+        assertEquals(1, bus.queueDepth());
+    }
+
+    private double overflowCount(String outcome) {
+        return meterRegistry.get("spondy.events.listener.overflow")
+            .tag("listener", "BlockingSubscriber")
+            .tag("outcome", outcome)
+            .counter()
+            .count();
+    }
+
+    @Nested
+    @DisplayName("Overflow Policy Tests")
+    class OverflowPolicyTests {
+
+        @Test
+        @DisplayName("Should drop events when the queue is full under DROP")
+        void shouldDropEventsWhenQueueIsFull() throws Exception {
+            RegistrationEventBus bus = busWith(OverflowPolicy.DROP);
+            saturate(bus);
+
+            // When
+            long start = System.nanoTime();
+            bus.onRegistrationCommitted(event(3));
+
+            // Then: returns immediately and the event is counted as dropped
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 40);
+            assertEquals(1.0, overflowCount("dropped"));
+
+            subscriber.release();
+            subscriber.awaitCount(2);
+            assertEquals(List.of(1L, 2L), subscriber.receivedIds());
+        }
+
+        @Test
+        @DisplayName("Should wait for room up to the block timeout under BLOCK")
+        void shouldWaitForRoomUnderBlock() throws Exception {
+            RegistrationEventBus bus = busWith(OverflowPolicy.BLOCK);
+            saturate(bus);
+
+            // When: the queue stays full for longer than the block timeout
+            long start = System.nanoTime();
+            bus.onRegistrationCommitted(event(3));
+
+            // Then
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+            assertEquals(1.0, overflowCount("dropped"));
+        }
+
+        @Test
+        @DisplayName("Should spill overflowing events to disk and replay them under SPILL")
+        void shouldSpillAndReplayEvents() throws Exception {
+            RegistrationEventBus bus = busWith(OverflowPolicy.SPILL);
+            saturate(bus);
+
+            // When
+            bus.onRegistrationCommitted(event(3));
+            bus.onRegistrationCommitted(event(4));
+
+            // Then
+            assertEquals(2.0, overflowCount("spilled"));
+            assertTrue(spillDirectory.resolve("BlockingSubscriber.jsonl").toFile().length() > 0);
+
+            subscriber.release();
+            subscriber.awaitCount(2);
+            drainUntil(bus, 4);
+            assertEquals(List.of(1L, 2L, 3L, 4L), subscriber.receivedIds());
+        }
+
+        @Test
+        @DisplayName("Should spill only the registration ID, never personal data")
+        void shouldSpillOnlyRegistrationIds() throws Exception {
+            RegistrationEventBus bus = busWith(OverflowPolicy.SPILL);
+            saturate(bus);
+
+            // When
+            bus.onRegistrationCommitted(event(3));
+
+            // Then
+            String spilled = Files.readString(spillDirectory.resolve("BlockingSubscriber.jsonl"), StandardCharsets.UTF_8);
+            assertEquals("3\n", spilled);
+            assertFalse(spilled.contains("kari@example.com"));
+        }
+
+        @Test
+        @DisplayName("Should skip spilled registrations that no longer exist and rewrite older spill lines as IDs")
+        void shouldSkipDeletedAndRewriteLegacyLines() throws Exception {
+            // Given - a line in the earlier whole-event format, and a registration deleted since
+            event(5);
+            Path file = spillDirectory.resolve("BlockingSubscriber.jsonl");
+            Files.writeString(file, "{\"registrationId\":5,\"email\":\"kari@example.com\"}\n9\n",
+                StandardCharsets.UTF_8);
+            RegistrationEventBus bus = busWith(OverflowPolicy.SPILL);
+            subscriber.release();
+
+            // When
+            drainUntil(bus, 1);
+
+            // Then
+            assertEquals(List.of(5L), subscriber.receivedIds());
+            assertEquals("", Files.readString(file, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should publish queue depth and latency per listener")
+        void shouldPublishQueueDepthAndLatency() throws Exception {
+            RegistrationEventBus bus = busWith(OverflowPolicy.DROP);
+            saturate(bus);
+
+            assertEquals(1.0, meterRegistry.get("spondy.events.listener.queue.depth")
+                .tag("listener", "BlockingSubscriber").gauge().value());
+
+            subscriber.release();
+            subscriber.awaitCount(2);
+            Thread.sleep(50);
+
+            assertEquals(2, meterRegistry.get("spondy.events.listener.latency")
+                .tag("listener", "BlockingSubscriber").timer().count());
+        }
+    }
+
+    static class BlockingSubscriber implements RegistrationSubscriber {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final List<Long> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onRegistrationCommitted(RegistrationCommitted event) throws InterruptedException {
+            started.countDown();
+            gate.await(5, TimeUnit.SECONDS);
+            received.add(event.registrationId());
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void awaitCount(int count) throws InterruptedException {
+            for (int i = 0; i < 100 && received.size() < count; i++) {
+                Thread.sleep(10);
+            }
+        }
+
+        List<Long> receivedIds() {
+            return List.copyOf(received);
+        }
+    }
+}
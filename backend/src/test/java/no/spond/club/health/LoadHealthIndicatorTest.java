@@ -0,0 +1,71 @@
+package no.spond.club.health;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Load Health Indicator Tests")
+class LoadHealthIndicatorTest {
+
+    private final AtomicReference<Double> value = new AtomicReference<>(0.0);
+    private MeterRegistry meterRegistry;
+    private LoadHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        indicator = new LoadHealthIndicator("queue-depth", value::get, 100, 20, meterRegistry);
+    }
+
+    private Status statusAt(double current) {
+        value.set(current);
+        return indicator.health().getStatus();
+    }
+
+    @Test
+    @DisplayName("Should go out of service at the high threshold and stay out until the low one")
+    void shouldApplyHysteresis() {
+        assertEquals(Status.UP, statusAt(99));
+        assertEquals(Status.OUT_OF_SERVICE, statusAt(100));
+        assertEquals(Status.OUT_OF_SERVICE, statusAt(50));
+        assertEquals(Status.OUT_OF_SERVICE, statusAt(21));
+        assertEquals(Status.UP, statusAt(20));
+        assertEquals(Status.UP, statusAt(50));
+    }
+
+    @Test
+    @DisplayName("Should report the value and thresholds and export the state as a gauge")
+    void shouldReportDetails() {
+        // When
+        value.set(150.0);
+        var health = indicator.health();
+
+        // Then
+        assertEquals(150.0, health.getDetails().get("value"));
+        assertEquals(100.0, health.getDetails().get("high"));
+        assertEquals(20.0, health.getDetails().get("low"));
+        assertEquals(1.0, meterRegistry.get("spondy.health.load.shedding").tag("signal", "queue-depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not keep the instance out of service on a value it cannot read")
+    void shouldTreatUnknownAsUp() {
+        assertEquals(Status.OUT_OF_SERVICE, statusAt(100));
+        assertEquals(Status.UP, statusAt(Double.NaN));
+        assertEquals("unknown", indicator.health().getDetails().get("value"));
+    }
+
+    @Test
+    @DisplayName("Should refuse a low threshold above the high one")
+    void shouldRefuseInvertedThresholds() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new LoadHealthIndicator("bad", () -> 0, 10, 20, meterRegistry));
+    }
+}
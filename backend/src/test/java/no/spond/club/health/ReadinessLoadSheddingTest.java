@@ -0,0 +1,111 @@
+package no.spond.club.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:readinesstest",
+    "management.endpoint.health.show-details=always",
+    "spondy.health.load.queue-gauges=test.readiness.queue",
+    "spondy.health.load.queue-depth.high=10",
+    "spondy.health.load.queue-depth.low=2"
+})
+@ActiveProfiles("test")
+@DisplayName("Readiness Load Shedding Tests")
+class ReadinessLoadSheddingTest {
+
+    private static final AtomicInteger QUEUE = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        Gauge.builder("test.readiness.queue", QUEUE, AtomicInteger::get).register(meterRegistry);
+        QUEUE.set(0);
+        get("/actuator/health/readiness");
+    }
+
+    private ResponseEntity<Map> get(String path) {
+        return restTemplate.getForEntity("http://localhost:" + port + path, Map.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String componentStatus(ResponseEntity<Map> response, String component) {
+        Map<String, Map<String, Object>> components = (Map<String, Map<String, Object>>) response.getBody().get("components");
+        return (String) components.get(component).get("status");
+    }
+
+    @Test
+    @DisplayName("Should include every load signal in the readiness group")
+    void shouldIncludeLoadSignals() {
+        // When
+        ResponseEntity<Map> response = get("/actuator/health/readiness");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("UP", response.getBody().get("status"));
+        for (String component : List.of("readinessState", "hikariLoad", "tomcatLoad", "queueLoad", "latencyLoad")) {
+            assertEquals("UP", componentStatus(response, component), component);
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer 503 on readiness while overloaded and recover only below the low threshold")
+    void shouldShedLoadWithHysteresis() {
+        // When
+        QUEUE.set(10);
+        ResponseEntity<Map> overloaded = get("/actuator/health/readiness");
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, overloaded.getStatusCode());
+        assertEquals("OUT_OF_SERVICE", overloaded.getBody().get("status"));
+        assertEquals("OUT_OF_SERVICE", componentStatus(overloaded, "queueLoad"));
+        assertEquals(HttpStatus.OK, get("/actuator/health/liveness").getStatusCode());
+
+        QUEUE.set(5);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, get("/actuator/health/readiness").getStatusCode());
+
+        QUEUE.set(2);
+        assertEquals(HttpStatus.OK, get("/actuator/health/readiness").getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should read Tomcat's threads and the public endpoints' 99th percentile")
+    void shouldReadServerSignals() {
+        // Given
+        assertEquals(HttpStatus.OK, get("/api/form").getStatusCode());
+
+        // When
+        ResponseEntity<Map> response = get("/actuator/health/readiness");
+
+        // Then
+        assertTrue(LoadSignals.p99Seconds(meterRegistry, List.of("/api/form")) > 0);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> tomcat = (Map<String, Object>) ((Map<String, Map<String, Object>>) response.getBody()
+            .get("components")).get("tomcatLoad").get("details");
+        assertInstanceOf(Double.class, tomcat.get("value"));
+    }
+}
@@ -0,0 +1,106 @@
+package no.spond.club.health;
+
+import no.spond.club.config.WarmupProperties;
+import no.spond.club.warmup.RegistrationWarmup;
+import no.spond.club.warmup.StartupWarmup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Warmup Health Indicator Tests")
+class WarmupHealthIndicatorTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+
+    private final RegistrationWarmup warmup = mock(RegistrationWarmup.class);
+    private StartupWarmup startupWarmup;
+
+    @AfterEach
+    void tearDown() {
+        if (startupWarmup != null) {
+            startupWarmup.shutdown();
+        }
+    }
+
+    private WarmupHealthIndicator indicator(boolean onStartup) {
+        WarmupProperties properties = new WarmupProperties();
+        properties.setOnStartup(onStartup);
+        startupWarmup = new StartupWarmup(warmup, properties, FORM_ID);
+        return new WarmupHealthIndicator(startupWarmup);
+    }
+
+    private void awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!startupWarmup.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(startupWarmup.isFinished(), "warmup did not finish");
+    }
+
+    @Test
+    @DisplayName("Should be out of service until the warmup has run")
+    void shouldBeOutOfServiceUntilWarm() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(10, TimeUnit.SECONDS)).when(warmup).warmUp(FORM_ID);
+        WarmupHealthIndicator indicator = indicator(true);
+
+        // When
+        Health beforeStart = indicator.health();
+        startupWarmup.start();
+        Health running = indicator.health();
+        release.countDown();
+        awaitFinished();
+        Health done = indicator.health();
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, beforeStart.getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, running.getStatus());
+        assertEquals(StartupWarmup.State.RUNNING, running.getDetails().get("state"));
+        assertEquals(Status.UP, done.getStatus());
+        assertEquals(StartupWarmup.State.DONE, done.getDetails().get("state"));
+        assertTrue(done.getDetails().containsKey("durationMs"));
+        verify(warmup).warmUp(FORM_ID);
+    }
+
+    @Test
+    @DisplayName("Should become ready when the warmup fails")
+    void shouldBeReadyWhenWarmupFails() throws Exception {
+        // Given
+        doThrow(new IllegalArgumentException("Ugyldig skjema-ID")).when(warmup).warmUp(anyString());
+        WarmupHealthIndicator indicator = indicator(true);
+
+        // When
+        startupWarmup.start();
+        awaitFinished();
+
+        // Then
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(StartupWarmup.State.FAILED, health.getDetails().get("state"));
+    }
+
+    @Test
+    @DisplayName("Should be ready at once when startup warmup is disabled")
+    void shouldBeReadyWhenDisabled() {
+        // Given
+        WarmupHealthIndicator indicator = indicator(false);
+
+        // When
+        startupWarmup.start();
+
+        // Then
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(StartupWarmup.State.DISABLED, indicator.health().getDetails().get("state"));
+        verifyNoInteractions(warmup);
+    }
+}
@@ -1,6 +1,10 @@
 package no.spond.club.integration;
 
 import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.event.RegistrationCommitted;
+import no.spond.club.model.Registration;
+import no.spond.club.repository.RegistrationRepository;
+import no.spond.club.support.SqlStatementCountingConfig;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
@@ -18,12 +23,26 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+import static no.spond.club.support.QueryAssertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
+@Import(SqlStatementCountingConfig.class)
 @Transactional
 @DisplayName("Registration Integration Tests")
 class RegistrationIntegrationTest {
@@ -34,6 +53,9 @@ class RegistrationIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
     private static final String VALID_FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
     private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
     private static final String SOCIAL_MEMBER_TYPE_ID = "4237C55C5CC3B4B082CBF2540612778E";
@@ -544,4 +566,360 @@ class RegistrationIntegrationTest {
             assertTrue((Boolean) responseBody2.get("success"));
         }
     }
-} 
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Registrant Search Integration Tests")
+    class SearchIntegrationTests {
+
+        private ResponseEntity<Map<String, Object>> search(String formId, String query) {
+            return restTemplate.exchange(
+                "http://localhost:" + port + "/api/admin/forms/" + formId + "/registrations/search?q=" + query,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+        }
+
+        @Test
+        @DisplayName("Should find a new registrant by partial name and e-mail")
+        @SuppressWarnings("unchecked")
+        void shouldFindNewRegistrantByPartialNameAndEmail() throws InterruptedException {
+            // Given
+            RegistrationRequestDto request = new RegistrationRequestDto(
+                "Torbjørg Søkeland",
+                "torbjorg.sokeland@example.com",
+                "12345678",
+                "15.06.1990",
+                ACTIVE_MEMBER_TYPE_ID
+            );
+            restTemplate.exchange(
+                "http://localhost:" + port + "/api/form/" + VALID_FORM_ID + "/register",
+                HttpMethod.POST,
+                new HttpEntity<>(request),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+
+            // When - the index is updated asynchronously after commit
+            List<Map<String, Object>> hits = List.of();
+            for (int attempt = 0; attempt < 50 && hits.isEmpty(); attempt++) {
+                Thread.sleep(50);
+                hits = (List<Map<String, Object>>) search(VALID_FORM_ID, "søkel").getBody().get("data");
+            }
+
+            // Then
+            assertEquals(1, hits.size());
+            assertEquals("Torbjørg Søkeland", hits.get(0).get("fullName"));
+            List<Map<String, Object>> byEmail =
+                (List<Map<String, Object>>) search(VALID_FORM_ID, "sokeland@ex").getBody().get("data");
+            assertEquals(1, byEmail.size());
+        }
+
+        @Test
+        @DisplayName("Should read a spilled registration's event back from the database")
+        void shouldLoadSpilledRegistration() {
+            // Given - the indexer's spill file holds only the registration ID
+            RegistrationRequestDto request = new RegistrationRequestDto(
+                "Sigrid Spill",
+                "sigrid.spill@example.com",
+                "12345678",
+                "15.06.1990",
+                ACTIVE_MEMBER_TYPE_ID
+            );
+            restTemplate.exchange(
+                "http://localhost:" + port + "/api/form/" + VALID_FORM_ID + "/register",
+                HttpMethod.POST,
+                new HttpEntity<>(request),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+            Registration registration = registrationRepository.findAll().stream()
+                .filter(candidate -> "sigrid.spill@example.com".equals(candidate.getEmail()))
+                .findFirst()
+                .orElseThrow();
+
+            // When
+            List<RegistrationCommitted> events =
+                registrationRepository.findCommittedByIdIn(List.of(registration.getId(), -1L));
+
+            // Then
+            assertEquals(1, events.size());
+            RegistrationCommitted event = events.get(0);
+            assertEquals(registration.getId(), event.registrationId());
+            assertEquals(VALID_FORM_ID, event.formId());
+            assertEquals(ACTIVE_MEMBER_TYPE_ID, event.memberTypeId());
+            assertEquals("Sigrid Spill", event.fullName());
+            assertEquals(registration.getBirthDate(), event.birthDate());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown form")
+        void shouldReturnNotFoundForUnknownForm() {
+            ResponseEntity<Map<String, Object>> response = search("UNKNOWN", "ola");
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals("FORM_NOT_FOUND", response.getBody().get("error"));
+        }
+
+        @Test
+        @DisplayName("Should reject an empty query")
+        void shouldRejectEmptyQuery() {
+            ResponseEntity<Map<String, Object>> response = search(VALID_FORM_ID, " ");
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+    }
+
+    @Nested
+    @DisplayName("Live Counts Integration Tests")
+    class LiveCountsIntegrationTests {
+
+        @Test
+        @DisplayName("Should stream updated counts after a registration")
+        void shouldStreamUpdatedCounts() throws Exception {
+            // Given
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<Stream<String>> stream = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/form/" + VALID_FORM_ID + "/live"))
+                    .header("Accept", "text/event-stream")
+                    .build(),
+                HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, stream.statusCode());
+            assertTrue(stream.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+            Iterator<String> lines = stream.body().iterator();
+
+            try {
+                long before = nextTotal(lines);
+
+                // When
+                restTemplate.exchange(
+                    "http://localhost:" + port + "/api/form/" + VALID_FORM_ID + "/register",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new RegistrationRequestDto(
+                        "Live Tester", "live@example.com", "12345678", "15.06.1990", ACTIVE_MEMBER_TYPE_ID)),
+                    new ParameterizedTypeReference<Map<String, Object>>() {}
+                );
+
+                // Then
+                assertEquals(before + 1, nextTotal(lines));
+            } finally {
+                stream.body().close();
+            }
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown form")
+        void shouldReturnNotFoundForUnknownForm() throws Exception {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/form/UNKNOWN/live"))
+                    .header("Accept", "text/event-stream")
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(404, response.statusCode());
+            assertTrue(response.body().contains("FORM_NOT_FOUND"));
+        }
+
+        private long nextTotal(Iterator<String> lines) throws Exception {
+            return CompletableFuture.supplyAsync(() -> {
+                while (lines.hasNext()) {
+                    String line = lines.next();
+                    if (line.startsWith("data:")) {
+                        Matcher total = Pattern.compile("\"total\":(\\d+)").matcher(line);
+                        assertTrue(total.find());
+                        return Long.parseLong(total.group(1));
+                    }
+                }
+                throw new IllegalStateException("Stream ended");
+            }).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Nested
+    @DisplayName("Form Administration Integration Tests")
+    class FormAdministrationIntegrationTests {
+
+        private ResponseEntity<Map<String, Object>> send(HttpMethod method, String path, Object body) {
+            return restTemplate.exchange(
+                "http://localhost:" + port + "/api/admin/forms" + path,
+                method,
+                body != null ? new HttpEntity<>(body) : null,
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+        }
+
+        private Map<String, Object> newForm() {
+            return new HashMap<>(Map.of(
+                "title", "Høstcamp 2026",
+                "registrationDate", "2026-09-01",
+                "memberTypes", List.of(Map.of("name", "Deltaker", "price", 900)),
+                "groups", List.of(Map.of("name", "Alle"))
+            ));
+        }
+
+        @Test
+        @DisplayName("Should create a form that the public API serves")
+        @SuppressWarnings("unchecked")
+        void shouldCreateFormServedByPublicApi() {
+            // When
+            ResponseEntity<Map<String, Object>> created = send(HttpMethod.POST, "", newForm());
+
+            // Then
+            assertEquals(HttpStatus.CREATED, created.getStatusCode());
+            Map<String, Object> data = (Map<String, Object>) created.getBody().get("data");
+            assertEquals(0, data.get("version"));
+
+            ResponseEntity<Map<String, Object>> form = restTemplate.exchange(
+                "http://localhost:" + port + "/api/form/" + data.get("formId"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+            assertEquals(HttpStatus.OK, form.getStatusCode());
+            assertEquals("Høstcamp 2026", ((Map<String, Object>) form.getBody().get("data")).get("title"));
+        }
+
+        @Test
+        @DisplayName("Should return 409 when updating from a stale version")
+        @SuppressWarnings("unchecked")
+        void shouldReturnConflictForStaleVersion() {
+            // Given
+            Map<String, Object> data = (Map<String, Object>) send(HttpMethod.POST, "", newForm()).getBody().get("data");
+            String formId = (String) data.get("formId");
+            assertEquals(HttpStatus.OK, send(HttpMethod.PUT, "/" + formId, data).getStatusCode());
+
+            // When - the same version again
+            ResponseEntity<Map<String, Object>> response = send(HttpMethod.PUT, "/" + formId, data);
+
+            // Then
+            assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+            assertEquals("VERSION_CONFLICT", response.getBody().get("error"));
+        }
+
+        @Test
+        @DisplayName("Should reject a form without member types")
+        @SuppressWarnings("unchecked")
+        void shouldRejectFormWithoutMemberTypes() {
+            // Given
+            Map<String, Object> form = newForm();
+            form.put("memberTypes", List.of());
+
+            // When
+            ResponseEntity<Map<String, Object>> response = send(HttpMethod.POST, "", form);
+
+            // Then
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            assertEquals("VALIDATION_ERROR", response.getBody().get("error"));
+            assertTrue(((Map<String, Object>) response.getBody().get("fieldErrors")).containsKey("memberTypes"));
+        }
+
+        @Test
+        @DisplayName("Should return 404 when cloning an unknown form")
+        void shouldReturnNotFoundForUnknownForm() {
+            ResponseEntity<Map<String, Object>> response = send(HttpMethod.POST, "/UNKNOWN/clone", Map.of());
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals("FORM_NOT_FOUND", response.getBody().get("error"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Statement Count Integration Tests")
+    class StatementCountIntegrationTests {
+
+        private ResponseEntity<Map<String, Object>> register(String fullName, String email) {
+            RegistrationRequestDto request = new RegistrationRequestDto(
+                fullName,
+                email,
+                "12345678",
+                "15.06.1990",
+                ACTIVE_MEMBER_TYPE_ID
+            );
+            return restTemplate.exchange(
+                "http://localhost:" + port + "/api/form/" + VALID_FORM_ID + "/register",
+                HttpMethod.POST,
+                new HttpEntity<>(request),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+        }
+
+        @Test
+        @DisplayName("Should serve a loaded form without SQL")
+        void shouldServeLoadedFormWithoutSql() {
+            // Given
+            restTemplate.getForEntity("http://localhost:" + port + "/api/form/" + VALID_FORM_ID, Map.class);
+
+            // When
+            ResponseEntity<Map> response =
+                restTemplate.getForEntity("http://localhost:" + port + "/api/form/" + VALID_FORM_ID, Map.class);
+
+            // Then
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertQueries();
+        }
+
+        @Test
+        @DisplayName("Should only insert the registration and its confirmation e-mail")
+        void shouldOnlyInsertOnRegistration() {
+            // Given - the form and its member types and groups are cached
+            register("Kari Telling", "kari.telling@example.com");
+
+            // When
+            ResponseEntity<Map<String, Object>> response = register("Per Telling", "per.telling@example.com");
+
+            // Then
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+            assertQueries(insert(2));
+        }
+
+        @Test
+        @DisplayName("Should search registrants without SQL")
+        void shouldSearchWithoutSql() {
+            // Given
+            restTemplate.getForEntity("http://localhost:" + port + "/api/form/" + VALID_FORM_ID, Map.class);
+
+            // When
+            restTemplate.getForEntity(
+                "http://localhost:" + port + "/api/admin/forms/" + VALID_FORM_ID + "/registrations/search?q=nordmann", Map.class);
+
+            // Then
+            assertQueries();
+        }
+
+        @Test
+        @DisplayName("Should read a loaded form for administration without SQL")
+        void shouldReadLoadedAdminFormWithoutSql() {
+            // Given
+            restTemplate.getForEntity("http://localhost:" + port + "/api/admin/forms/" + VALID_FORM_ID, Map.class);
+
+            // When
+            ResponseEntity<Map> response =
+                restTemplate.getForEntity("http://localhost:" + port + "/api/admin/forms/" + VALID_FORM_ID, Map.class);
+
+            // Then
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertQueries();
+        }
+
+        @Test
+        @DisplayName("Should create a form with one insert per table")
+        void shouldCreateFormWithBatchedInserts() {
+            // Given
+            Map<String, Object> form = Map.of(
+                "title", "Sommercamp 2027",
+                "registrationDate", "2027-06-01",
+                "memberTypes", List.of(
+                    Map.of("name", "Deltaker", "price", 900),
+                    Map.of("name", "Leder", "price", 0),
+                    Map.of("name", "Frivillig", "price", 0)),
+                "groups", List.of(Map.of("name", "Barn"), Map.of("name", "Ungdom"))
+            );
+
+            // When
+            ResponseEntity<Map> response =
+                restTemplate.postForEntity("http://localhost:" + port + "/api/admin/forms", form, Map.class);
+
+            // Then
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+            assertQueries(insert(3));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package no.spond.club.invoicing;
+
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.service.FormAdministrationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Invoicing time for a form with 100,000 registrations on the in-memory database. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:invoicingbenchmark",
+    "logging.level.no.spond.club=INFO",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@DisplayName("Invoicing Benchmark")
+class InvoicingBenchmarkTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final int REGISTRATIONS = 100_000;
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    @Autowired
+    private RegistrationFormRepository formRepository;
+
+    @Autowired
+    private InvoicingJob invoicingJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should bill 100,000 registrations in seconds")
+    void shouldBillHundredThousandRegistrations() throws InterruptedException {
+        // Given
+        FormAdminDto form = formAdministrationService
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Fakturabenchmark", LocalDate.now().minusDays(1)));
+        long formKey = formRepository.findIdByExternalId(form.getFormId()).orElseThrow();
+        List<Long> memberTypes = jdbcTemplate.queryForList(
+            "SELECT id FROM member_types WHERE form_id = ? ORDER BY id", Long.class, formKey);
+        long groupKey = jdbcTemplate.queryForObject("SELECT MIN(id) FROM groups WHERE form_id = ?", Long.class, formKey);
+        List<Object[]> rows = new ArrayList<>(REGISTRATIONS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            rows.add(new Object[] {"Faktura " + i, "faktura" + i + "@example.com", "12345678",
+                LocalDate.of(1990, 1, 1).plusDays(i % 5000), now, formKey, memberTypes.get(i % memberTypes.size()), groupKey});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO registrations (full_name, email, phone_number, birth_date, created_at, "
+            + "form_id, member_type_id, group_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        // When
+        long start = System.nanoTime();
+        assertTrue(invoicingJob.start(form.getFormId()));
+        InvoicingStatus status = invoicingJob.status();
+        while (status.state() == InvoicingStatus.State.RUNNING) {
+            Thread.sleep(10);
+            status = invoicingJob.status();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        System.out.printf("Invoiced %,d registrations in %,d ms: %s%n", REGISTRATIONS, millis, status);
+        assertEquals(InvoicingStatus.State.COMPLETED, status.state(), status.toString());
+        assertEquals(REGISTRATIONS, status.invoiced() + status.free());
+        assertTrue(millis < 10_000, "Invoicing took " + millis + " ms");
+    }
+}
@@ -0,0 +1,170 @@
+package no.spond.club.invoicing;
+
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.service.FormAdministrationService;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:invoicingtest",
+    // Several chunks on two workers
+    "spondy.invoicing.chunk-size=3",
+    "spondy.invoicing.parallelism=2"
+})
+@ActiveProfiles("test")
+@DisplayName("Invoicing Job Tests")
+class InvoicingJobTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    @Autowired
+    private RegistrationFormRepository formRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String url(String path) {
+        return "http://localhost:" + port + "/api/admin/invoices" + path;
+    }
+
+    private FormAdminDto newForm(String title) {
+        return formAdministrationService.cloneForm(FORM_ID, new FormCloneRequestDto(title, LocalDate.now().minusDays(1)));
+    }
+
+    private List<Long> register(FormAdminDto form, int memberType, int count, String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RegistrationRequestDto request = new RegistrationRequestDto("Faktura Testesen", prefix + i + "@example.com",
+                "12345678", "15.06.1990", form.getMemberTypes().get(memberType).getId());
+            ids.add(registrationFormService.registerMember(form.getFormId(), request));
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> invoice(String formId) throws InterruptedException {
+        ResponseEntity<Map> started = restTemplate.postForEntity(url("/" + formId), null, Map.class);
+        assertEquals(HttpStatus.ACCEPTED, started.getStatusCode());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, Object> data = (Map<String, Object>) restTemplate.getForEntity(url(""), Map.class)
+                .getBody().get("data");
+            if (!"RUNNING".equals(data.get("state"))) {
+                return data;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Invoicing did not finish");
+    }
+
+    private long formKey(String formId) {
+        return formRepository.findIdByExternalId(formId).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should bill each registration once at its member type's price and skip free ones")
+    void shouldBillAtMemberTypePrices() throws InterruptedException {
+        // Given - Active Member at 1500, Social Member made free
+        FormAdminDto form = newForm("Faktura høst");
+        form.getMemberTypes().get(1).setPrice(BigDecimal.ZERO);
+        form = formAdministrationService.updateForm(form.getFormId(), form);
+        register(form, 0, 7, "aktiv");
+        register(form, 1, 3, "sosial");
+
+        // When
+        Map<String, Object> first = invoice(form.getFormId());
+        Map<String, Object> second = invoice(form.getFormId());
+
+        // Then
+        assertEquals("COMPLETED", first.get("state"), first.toString());
+        assertEquals(10, first.get("read"));
+        assertEquals(7, first.get("invoiced"));
+        assertEquals(3, first.get("free"));
+        assertEquals(10500.0, ((Number) first.get("totalAmount")).doubleValue());
+        assertEquals(7, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM invoices WHERE form_id = ? AND amount = 1500.00", Integer.class, formKey(form.getFormId())));
+
+        // The free registrations are read again, but nobody is billed twice
+        assertEquals("COMPLETED", second.get("state"), second.toString());
+        assertEquals(0, second.get("invoiced"));
+        assertEquals(7, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM invoices WHERE form_id = ?", Integer.class, formKey(form.getFormId())));
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted run after its checkpoint")
+    void shouldResumeAfterCheckpoint() throws InterruptedException {
+        // Given - a run that committed the first chunk and, out of order, part of a later one
+        FormAdminDto form = newForm("Faktura vinter");
+        List<Long> ids = register(form, 1, 8, "vinter");
+        long formKey = formKey(form.getFormId());
+        long memberTypeKey = jdbcTemplate.queryForObject(
+            "SELECT member_type_id FROM registrations WHERE id = ?", Long.class, ids.get(0));
+        jdbcTemplate.update("INSERT INTO invoice_runs (form_id, status, last_registration_id, invoiced, free_registrations, "
+            + "total_amount, started_at) VALUES (?, 'FAILED', ?, 4, 0, 1200.00, ?)", formKey, ids.get(2), LocalDateTime.now());
+        long runId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM invoice_runs", Long.class);
+        for (int i : new int[] {0, 1, 2, 6}) {
+            jdbcTemplate.update(InvoicingJob.INSERT_INVOICE, ids.get(i), formKey, memberTypeKey, runId,
+                new BigDecimal("300.00"), LocalDateTime.now());
+        }
+
+        // When
+        Map<String, Object> status = invoice(form.getFormId());
+
+        // Then
+        assertEquals("COMPLETED", status.get("state"), status.toString());
+        assertEquals(runId, ((Number) status.get("runId")).longValue());
+        assertEquals(ids.get(2), ((Number) status.get("resumedAfter")).longValue());
+        assertEquals(4, status.get("read"));
+        assertEquals(8, status.get("invoiced"));
+        assertEquals(2400.0, ((Number) status.get("totalAmount")).doubleValue());
+        assertEquals(8, jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT registration_id) FROM invoices WHERE form_id = ?", Integer.class, formKey));
+        assertEquals(ids.get(7), jdbcTemplate.queryForObject(
+            "SELECT last_registration_id FROM invoice_runs WHERE id = ?", Long.class, runId));
+        assertEquals("COMPLETED", jdbcTemplate.queryForObject(
+            "SELECT status FROM invoice_runs WHERE id = ?", String.class, runId));
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for an unknown form")
+    void shouldRejectUnknownForm() {
+        ResponseEntity<Map> response = restTemplate.postForEntity(url("/INVALID_FORM_ID"), null, Map.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("FORM_NOT_FOUND", response.getBody().get("error"));
+    }
+}
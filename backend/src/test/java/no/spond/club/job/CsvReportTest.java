@@ -0,0 +1,59 @@
+package no.spond.club.job;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CSV Report Tests")
+class CsvReportTest {
+
+    @Test
+    @DisplayName("Should quote values containing commas, quotes and line breaks")
+    void shouldQuoteValues() {
+        assertEquals("Ola Nordmann", CsvReport.field("Ola Nordmann"));
+        assertEquals("\"Nordmann, Ola\"", CsvReport.field("Nordmann, Ola"));
+        assertEquals("\"Ola \"\"Junior\"\"\"", CsvReport.field("Ola \"Junior\""));
+        assertEquals("\"Ola\nNordmann\"", CsvReport.field("Ola\nNordmann"));
+    }
+
+    @Test
+    @DisplayName("Should write null as an empty field")
+    void shouldWriteNullAsEmpty() {
+        assertEquals("", CsvReport.field(null));
+        assertEquals("", CsvReport.field(""));
+    }
+
+    @Test
+    @DisplayName("Should keep spreadsheets from running values as formulas")
+    void shouldNeutraliseFormulas() {
+        assertEquals("'=1+1", CsvReport.field("=1+1"));
+        assertEquals("\"'=HYPERLINK(\"\"http://example.com\"\")\"",
+            CsvReport.field("=HYPERLINK(\"http://example.com\")"));
+        assertEquals("'+4712345678", CsvReport.field("+4712345678"));
+        assertEquals("'-1", CsvReport.field("-1"));
+        assertEquals("'@SUM(A1)", CsvReport.field("@SUM(A1)"));
+        assertEquals("'\tOla", CsvReport.field("\tOla"));
+        assertEquals("\"'\rOla\"", CsvReport.field("\rOla"));
+        assertEquals("Ola-Kari", CsvReport.field("Ola-Kari"));
+    }
+
+    @Test
+    @DisplayName("Should delete a file and ignore one that is already gone")
+    void shouldDeleteQuietly(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("report.csv.tmp"), "registration_id\n");
+
+        // When
+        CsvReport.deleteQuietly(file);
+        CsvReport.deleteQuietly(file);
+
+        // Then
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,71 @@
+package no.spond.club.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Single Run Executor Tests")
+class SingleRunExecutorTest {
+
+    private final SingleRunExecutor executor = new SingleRunExecutor("single-run-test");
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should refuse a second run while one is in progress and accept one after it")
+    void shouldRunOneAtATime() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger prepared = new AtomicInteger();
+        assertTrue(executor.start(prepared::incrementAndGet, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        }));
+
+        // When & Then
+        assertFalse(executor.start(prepared::incrementAndGet, () -> fail("Second run started")));
+        assertEquals(1, prepared.get());
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        CountDownLatch again = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        boolean started;
+        // The flag is cleared just after the run returns
+        while (!(started = executor.start(() -> { }, again::countDown)) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(started);
+        assertTrue(again.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should not count a run whose preparation failed as in progress")
+    void shouldResetWhenPrepareFails() throws InterruptedException {
+        // Given
+        assertThrows(IllegalStateException.class, () -> executor.start(() -> {
+            throw new IllegalStateException("boom");
+        }, () -> fail("Run started after a failed preparation")));
+
+        // When
+        CountDownLatch ran = new CountDownLatch(1);
+        boolean started = executor.start(() -> { }, ran::countDown);
+
+        // Then
+        assertTrue(started);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,236 @@
+package no.spond.club.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Registration Journal Tests")
+class RegistrationJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private RegistrationJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private RegistrationJournal open() throws IOException {
+        journal = new RegistrationJournal(directory, SEGMENT_SIZE, Duration.ofMillis(1));
+        return journal;
+    }
+
+    private long append(String payload) throws Exception {
+        return journal.append(payload.getBytes(StandardCharsets.UTF_8)).get(5, TimeUnit.SECONDS);
+    }
+
+    private List<String> payloads(List<JournalEntry> entries) {
+        return entries.stream().map(entry -> new String(entry.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    @Nested
+    @DisplayName("Append Tests")
+    class AppendTests {
+
+        @Test
+        @DisplayName("Should acknowledge appends with increasing sequence numbers")
+        void shouldAcknowledgeAppendsWithIncreasingSequence() throws Exception {
+            // Given
+            open();
+
+            // When
+            long first = append("a");
+            long second = append("b");
+
+            // Then
+            assertEquals(1, first);
+            assertEquals(2, second);
+            assertEquals(List.of("a", "b"), payloads(journal.readAfter(0, 10)));
+            assertEquals(List.of("b"), payloads(journal.readAfter(1, 10)));
+        }
+
+        @Test
+        @DisplayName("Should share one flush between concurrent appends")
+        void shouldCompleteConcurrentAppends() throws Exception {
+            // Given
+            open();
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+
+            // When
+            for (int i = 0; i < 200; i++) {
+                futures.add(journal.append(("entry-" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(200, journal.lastSequence());
+            assertEquals(200, journal.readAfter(0, 1000).size());
+            assertTrue(journal.segmentCount() > 1, "small segments should have rolled");
+        }
+    }
+
+    @Nested
+    @DisplayName("Recovery Tests")
+    class RecoveryTests {
+
+        @Test
+        @DisplayName("Should keep entries and sequence across restarts")
+        void shouldKeepEntriesAcrossRestarts() throws Exception {
+            // Given
+            open();
+            append("a");
+            append("b");
+            journal.close();
+
+            // When
+            open();
+            long next = append("c");
+
+            // Then
+            assertEquals(3, next);
+            assertEquals(List.of("a", "b", "c"), payloads(journal.readAfter(0, 10)));
+        }
+
+        @Test
+        @DisplayName("Should truncate a torn record at the end of the journal")
+        void shouldTruncateTornRecord() throws Exception {
+            // Given
+            open();
+            append("complete");
+            journal.close();
+            Path segment = segments().get(segments().size() - 1);
+            try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+                // Checksum and payload of a record whose length was never written
+                file.seek(16 + 16 + "complete".length() + 4);
+                file.writeInt(0xCAFEBABE);
+                file.writeLong(2);
+                file.write("torn".getBytes(StandardCharsets.UTF_8));
+            }
+
+            // When
+            open();
+            long next = append("after");
+
+            // Then
+            assertEquals(2, next);
+            assertEquals(List.of("complete", "after"), payloads(journal.readAfter(0, 10)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Compaction Tests")
+    class CompactionTests {
+
+        @Test
+        @DisplayName("Should delete segments once every entry in them is confirmed")
+        void shouldDeleteConfirmedSegments() throws Exception {
+            // Given
+            open();
+            String payload = "x".repeat(500);
+            for (int i = 0; i < 30; i++) {
+                append(payload);
+            }
+            int segmentsBefore = segments().size();
+
+            // When
+            journal.confirm(30);
+
+            // Then
+            assertTrue(segmentsBefore > 1);
+            assertEquals(1, segments().size(), "only the active segment remains");
+            assertEquals(0, journal.backlog());
+            assertTrue(journal.readAfter(30, 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should resume after the checkpoint when reopened")
+        void shouldResumeAfterCheckpoint() throws Exception {
+            // Given
+            open();
+            append("a");
+            append("b");
+            append("c");
+            journal.confirm(2);
+            journal.close();
+
+            // When
+            open();
+
+            // Then
+            assertEquals(2, journal.confirmedSequence());
+            assertEquals(1, journal.backlog());
+            assertEquals(List.of("c"), payloads(journal.readAfter(journal.confirmedSequence(), 10)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Failure Tests")
+    class FailureTests {
+
+        @Test
+        @DisplayName("Should fail the journal and drop the unforced records when a force fails")
+        void shouldFailOnForceFailure() throws Exception {
+            // Given
+            AtomicBoolean diskFailing = new AtomicBoolean();
+            journal = new RegistrationJournal(directory, SEGMENT_SIZE, Duration.ofMillis(1)) {
+                @Override
+                void force(MappedByteBuffer buffer) {
+                    if (diskFailing.get()) {
+                        throw new UncheckedIOException(new IOException("Input/output error"));
+                    }
+                    super.force(buffer);
+                }
+            };
+            append("forced");
+            diskFailing.set(true);
+
+            // When
+            CompletableFuture<Long> failed = journal.append("lost".getBytes(StandardCharsets.UTF_8));
+
+            // Then
+            assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertTrue(journal.isFailed());
+            assertThrows(IllegalStateException.class,
+                () -> journal.append("after".getBytes(StandardCharsets.UTF_8)));
+            assertEquals(List.of("forced"), payloads(journal.readAfter(0, 10)));
+
+            // And the record is not replayed after a restart
+            journal.close();
+            open();
+            assertEquals(List.of("forced"), payloads(journal.readAfter(0, 10)));
+            assertEquals(2, append("next"));
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package no.spond.club.live;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.event.RegistrationCommitted;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:livetest",
+    // Frames are published by the tests themselves
+    "spondy.live.interval=PT1H",
+    "spondy.live.max-skipped-frames=2",
+    "spondy.live.send-timeout=200ms",
+    "spondy.live.max-subscribers-per-client=3"
+})
+@ActiveProfiles("test")
+@DisplayName("Live Registration Counts Tests")
+class LiveRegistrationCountsTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+    private static final String SOCIAL_MEMBER_TYPE_ID = "4237C55C5CC3B4B082CBF2540612778E";
+    private static final String CLIENT = "203.0.113.7";
+
+    // Far above anything in the database, so the events count
+    private static final AtomicLong registrationIds = new AtomicLong(1_000_000);
+
+    @Autowired
+    private LiveRegistrationCounts liveCounts;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    private final List<LiveSubscriber> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(liveCounts::unsubscribe);
+        // Lets the next publish remove the emptied channel
+        liveCounts.publish();
+    }
+
+    private LiveSubscriber subscribe(FrameSink sink) {
+        return subscribe(CLIENT, sink);
+    }
+
+    private LiveSubscriber subscribe(String client, FrameSink sink) {
+        LiveSubscriber subscriber = liveCounts.subscribe(FORM_ID, client, sink);
+        opened.add(subscriber);
+        return subscriber;
+    }
+
+    private void registered(String memberTypeId) {
+        registered(registrationIds.incrementAndGet(), memberTypeId);
+    }
+
+    private void registered(long registrationId, String memberTypeId) {
+        liveCounts.onRegistrationCommitted(new RegistrationCommitted(registrationId, FORM_ID,
+            memberTypeId, "Kari Nordmann", "kari@example.com", LocalDate.of(1990, 6, 15), LocalDateTime.now()));
+    }
+
+    /**
+     * Records frames, optionally blocking every write until released.
+     */
+    private static class RecordingSink implements FrameSink {
+
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+        volatile boolean closed;
+
+        RecordingSink(boolean blocking) {
+            this.release = new CountDownLatch(blocking ? 1 : 0);
+        }
+
+        @Override
+        public void send(long id, String data) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            frames.add(data);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        void awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (frames.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(count, frames.size());
+        }
+    }
+
+    private JsonNode parse(String frame) throws Exception {
+        return objectMapper.readTree(frame);
+    }
+
+    @Nested
+    @DisplayName("Coalescing Tests")
+    class CoalescingTests {
+
+        @Test
+        @DisplayName("Should send the current counts on subscribe")
+        void shouldSendCurrentCountsOnSubscribe() throws Exception {
+            // When
+            RecordingSink sink = new RecordingSink(false);
+            subscribe(sink);
+
+            // Then
+            sink.awaitFrames(1);
+            JsonNode frame = parse(sink.frames.get(0));
+            assertEquals(FORM_ID, frame.get("formId").asText());
+            assertEquals(2, frame.get("memberTypes").size());
+            assertEquals("Active Member", frame.get("memberTypes").get(0).get("name").asText());
+        }
+
+        @Test
+        @DisplayName("Should coalesce several registrations into one frame")
+        void shouldCoalesceRegistrations() throws Exception {
+            // Given
+            RecordingSink sink = new RecordingSink(false);
+            subscribe(sink);
+            sink.awaitFrames(1);
+            long before = parse(sink.frames.get(0)).get("total").asLong();
+
+            // When
+            registered(ACTIVE_MEMBER_TYPE_ID);
+            registered(ACTIVE_MEMBER_TYPE_ID);
+            registered(SOCIAL_MEMBER_TYPE_ID);
+            liveCounts.publish();
+            liveCounts.publish();
+
+            // Then - one frame for all three, none when nothing changed
+            sink.awaitFrames(2);
+            Thread.sleep(100);
+            assertEquals(2, sink.frames.size());
+            JsonNode frame = parse(sink.frames.get(1));
+            assertEquals(before + 3, frame.get("total").asLong());
+        }
+
+        @Test
+        @DisplayName("Should hand the same serialized frame to every subscriber")
+        void shouldShareFrameBetweenSubscribers() throws Exception {
+            // Given
+            RecordingSink first = new RecordingSink(false);
+            RecordingSink second = new RecordingSink(false);
+            subscribe(first);
+            subscribe(second);
+            first.awaitFrames(1);
+            second.awaitFrames(1);
+
+            // When
+            registered(ACTIVE_MEMBER_TYPE_ID);
+            liveCounts.publish();
+
+            // Then
+            first.awaitFrames(2);
+            second.awaitFrames(2);
+            assertSame(first.frames.get(1), second.frames.get(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Slow Subscriber Tests")
+    class SlowSubscriberTests {
+
+        @Test
+        @DisplayName("Should drop a subscriber that keeps skipping frames and keep the others")
+        void shouldDropSubscriberThatFallsBehind() throws Exception {
+            // Given - the slow sink never finishes its first write
+            RecordingSink slow = new RecordingSink(true);
+            RecordingSink fast = new RecordingSink(false);
+            subscribe(slow);
+            subscribe(fast);
+            fast.awaitFrames(1);
+            long before = parse(fast.frames.get(0)).get("total").asLong();
+            int subscribers = liveCounts.subscriberCount();
+
+            try {
+                // When - the first frame waits, the next two replace it, the third is one too many
+                for (int i = 0; i < 4; i++) {
+                    registered(ACTIVE_MEMBER_TYPE_ID);
+                    liveCounts.publish();
+                    // Lets the fast sink keep up even when its sender gets no CPU in between
+                    fast.awaitFrames(i + 2);
+                }
+
+                // Then
+                assertTrue(slow.closed);
+                assertFalse(fast.closed);
+                assertEquals(subscribers - 1, liveCounts.subscriberCount());
+                assertEquals(before + 4, parse(fast.frames.get(4)).get("total").asLong());
+            } finally {
+                slow.release.countDown();
+            }
+        }
+
+        @Test
+        @DisplayName("Should drop a subscriber whose write blocks past the send timeout")
+        void shouldDropSubscriberStuckInWrite() throws Exception {
+            // Given
+            RecordingSink stuck = new RecordingSink(true);
+            subscribe(stuck);
+            Thread.sleep(300);
+
+            try {
+                // When
+                liveCounts.publish();
+
+                // Then
+                assertTrue(stuck.closed);
+            } finally {
+                stuck.release.countDown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Opening Tests")
+    class OpeningTests {
+
+        @Test
+        @DisplayName("Should count late and out-of-order events by registration ID, once")
+        void shouldCountLateEventsOnce() throws Exception {
+            // Given - a registration in the database whose event has not necessarily arrived yet
+            long registrationId = registrationFormService.registerMember(FORM_ID, new RegistrationRequestDto(
+                "Sen Hendelse", "sen.hendelse@example.com", "12345678", "15.06.1990", ACTIVE_MEMBER_TYPE_ID));
+            RecordingSink sink = new RecordingSink(false);
+            subscribe(sink);
+            sink.awaitFrames(1);
+            long before = parse(sink.frames.get(0)).get("total").asLong();
+
+            // When - its event arrives after the read, and so does one with a lower ID that
+            // committed later and so was not read
+            registered(registrationId, ACTIVE_MEMBER_TYPE_ID);
+            registered(registrationId - 1, ACTIVE_MEMBER_TYPE_ID);
+            liveCounts.publish();
+
+            // Then
+            sink.awaitFrames(2);
+            assertEquals(before + 1, parse(sink.frames.get(1)).get("total").asLong());
+        }
+
+        @Test
+        @DisplayName("Should send every subscriber opening at once the same counts")
+        void shouldShareCountsBetweenConcurrentOpens() throws Exception {
+            // Given
+            int subscribers = 8;
+            ExecutorService pool = Executors.newFixedThreadPool(subscribers);
+            CountDownLatch start = new CountDownLatch(1);
+            List<RecordingSink> sinks = new ArrayList<>();
+            List<Future<LiveSubscriber>> opening = new ArrayList<>();
+
+            try {
+                // When
+                for (int i = 0; i < subscribers; i++) {
+                    RecordingSink sink = new RecordingSink(false);
+                    String client = "198.51.100." + i;
+                    sinks.add(sink);
+                    opening.add(pool.submit(() -> {
+                        start.await();
+                        return liveCounts.subscribe(FORM_ID, client, sink);
+                    }));
+                }
+                start.countDown();
+                for (Future<LiveSubscriber> subscriber : opening) {
+                    opened.add(subscriber.get(5, TimeUnit.SECONDS));
+                }
+
+                // Then
+                sinks.get(0).awaitFrames(1);
+                long total = parse(sinks.get(0).frames.get(0)).get("total").asLong();
+                for (RecordingSink sink : sinks) {
+                    sink.awaitFrames(1);
+                    assertEquals(total, parse(sink.frames.get(0)).get("total").asLong());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Client Limit Tests")
+    class ClientLimitTests {
+
+        @Test
+        @DisplayName("Should refuse a client over its stream limit and leave room for others")
+        void shouldLimitStreamsPerClient() {
+            // Given - the client is at its limit of three
+            int subscribers = liveCounts.subscriberCount();
+            LiveSubscriber first = subscribe(new RecordingSink(false));
+            subscribe(new RecordingSink(false));
+            subscribe(new RecordingSink(false));
+
+            // When & Then
+            assertThrows(LiveRegistrationCounts.ClientLimitReached.class, () -> subscribe(new RecordingSink(false)));
+            assertEquals(subscribers + 3, liveCounts.subscriberCount());
+            assertNotNull(subscribe("198.51.100.200", new RecordingSink(false)));
+
+            liveCounts.unsubscribe(first);
+            assertNotNull(subscribe(new RecordingSink(false)));
+        }
+    }
+}
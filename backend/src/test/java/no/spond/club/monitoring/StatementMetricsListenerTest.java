@@ -0,0 +1,104 @@
+package no.spond.club.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JDBC Instrumentation Tests")
+class StatementMetricsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatementMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new StatementMetricsListener(meterRegistry, Duration.ofMillis(100));
+    }
+
+    private ExecutionInfo executionInfo(long elapsedMillis, boolean success) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMillis);
+        info.setSuccess(success);
+        return info;
+    }
+
+    @Nested
+    @DisplayName("Statement Timing Tests")
+    class StatementTimingTests {
+
+        @Test
+        @DisplayName("Should record statement time tagged by type and method")
+        void shouldRecordStatementTimeTaggedByTypeAndMethod() {
+            // When
+            listener.afterQuery(executionInfo(12, true),
+                    List.of(new QueryInfo("select * from registrations where form_id = ?")));
+
+            // Then
+            Timer timer = meterRegistry.find("spondy.jdbc.statements")
+                    .tag("type", "select")
+                    .tag("method", RepositoryMethodTracker.UNKNOWN)
+                    .tag("outcome", "success")
+                    .timer();
+            assertNotNull(timer);
+            assertEquals(1, timer.count());
+        }
+
+        @Test
+        @DisplayName("Should tag failed statements with error outcome")
+        void shouldTagFailedStatementsWithErrorOutcome() {
+            // When
+            listener.afterQuery(executionInfo(3, false),
+                    List.of(new QueryInfo("insert into registrations (full_name) values (?)")));
+
+            // Then
+            assertNotNull(meterRegistry.find("spondy.jdbc.statements")
+                    .tag("type", "insert")
+                    .tag("outcome", "error")
+                    .timer());
+        }
+    }
+
+    @Nested
+    @DisplayName("Redaction Tests")
+    class RedactionTests {
+
+        @Test
+        @DisplayName("Should redact string and numeric literals")
+        void shouldRedactStringAndNumericLiterals() {
+            String redacted = SqlRedactor.redact(
+                    "select * from registrations where email = 'ola@example.com' and form_id = 42");
+
+            assertEquals("select * from registrations where email = '?' and form_id = ?", redacted);
+            assertFalse(redacted.contains("ola@example.com"));
+        }
+
+        @Test
+        @DisplayName("Should keep identifiers containing digits intact")
+        void shouldKeepIdentifiersContainingDigitsIntact() {
+            String redacted = SqlRedactor.redact("select r1_0.id from registrations r1_0 where r1_0.id = ?");
+
+            assertEquals("select r1_0.id from registrations r1_0 where r1_0.id = ?", redacted);
+        }
+
+        @Test
+        @DisplayName("Should classify statement types")
+        void shouldClassifyStatementTypes() {
+            assertEquals("select", SqlRedactor.statementType("  SELECT 1"));
+            assertEquals("insert", SqlRedactor.statementType("insert into groups values (?)"));
+            assertEquals("update", SqlRedactor.statementType("update member_types set name = ?"));
+            assertEquals("delete", SqlRedactor.statementType("delete from registrations"));
+            assertEquals("other", SqlRedactor.statementType("call next value for seq"));
+        }
+    }
+}
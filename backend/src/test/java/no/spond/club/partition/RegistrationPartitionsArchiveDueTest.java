@@ -0,0 +1,66 @@
+package no.spond.club.partition;
+
+import no.spond.club.partition.RegistrationPartitions.FormState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * When a form is due for archiving, without a database: the checks in
+ * {@link RegistrationPartitionsTest} need PostgreSQL.
+ */
+@DisplayName("Registration Partitions Archive Due Tests")
+class RegistrationPartitionsArchiveDueTest {
+
+    private static final LocalDateTime ARCHIVE_BEFORE = LocalDateTime.of(2026, 5, 1, 0, 0);
+    private static final LocalDateTime CLOSED_LONG_AGO = ARCHIVE_BEFORE.minusDays(10);
+
+    @Test
+    @DisplayName("Should archive a form closed long enough ago once its latest invoice run completed")
+    void shouldArchiveInvoicedForm() {
+        // Given
+        FormState form = new FormState(1, "camp", CLOSED_LONG_AGO, "COMPLETED");
+
+        // When / Then
+        assertTrue(RegistrationPartitions.archiveDue(form, ARCHIVE_BEFORE, true));
+    }
+
+    @Test
+    @DisplayName("Should keep a closed form that was never invoiced, or whose last run did not complete")
+    void shouldKeepUninvoicedForm() {
+        // Given
+        FormState neverInvoiced = new FormState(1, "camp", CLOSED_LONG_AGO, null);
+        FormState failed = new FormState(2, "camp-2", CLOSED_LONG_AGO, "FAILED");
+        FormState running = new FormState(3, "camp-3", CLOSED_LONG_AGO, "RUNNING");
+
+        // When / Then
+        assertFalse(RegistrationPartitions.archiveDue(neverInvoiced, ARCHIVE_BEFORE, true));
+        assertFalse(RegistrationPartitions.archiveDue(failed, ARCHIVE_BEFORE, true));
+        assertFalse(RegistrationPartitions.archiveDue(running, ARCHIVE_BEFORE, true));
+    }
+
+    @Test
+    @DisplayName("Should archive an uninvoiced form when require-invoiced is off")
+    void shouldArchiveUninvoicedFormWhenNotRequired() {
+        // Given
+        FormState form = new FormState(1, "camp", CLOSED_LONG_AGO, null);
+
+        // When / Then
+        assertTrue(RegistrationPartitions.archiveDue(form, ARCHIVE_BEFORE, false));
+    }
+
+    @Test
+    @DisplayName("Should keep an open form, or one closed too recently, however it was invoiced")
+    void shouldKeepOpenOrRecentlyClosedForm() {
+        // Given
+        FormState open = new FormState(1, "camp", null, "COMPLETED");
+        FormState recent = new FormState(2, "camp-2", ARCHIVE_BEFORE.plusDays(1), "COMPLETED");
+
+        // When / Then
+        assertFalse(RegistrationPartitions.archiveDue(open, ARCHIVE_BEFORE, false));
+        assertFalse(RegistrationPartitions.archiveDue(recent, ARCHIVE_BEFORE, false));
+    }
+}
@@ -0,0 +1,228 @@
+package no.spond.club.partition;
+
+import no.spond.club.ClubMembershipApplication;
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.live.CountedRegistration;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
+import no.spond.club.service.FormAdministrationService;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The prod profile's partitioning against PostgreSQL: a table the schema script created
+ * partitioned, a partition per form, pruning in the plans of the repository's queries, and
+ * archival of a form closed long enough ago.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Registration Partitions Tests")
+class RegistrationPartitionsTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @TempDir
+    static Path archiveDirectory;
+
+    private static ConfigurableApplicationContext instance;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startInstance() {
+        // As arguments, so they take precedence over application.yml
+        instance = new SpringApplicationBuilder(ClubMembershipApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                "--spring.jpa.properties.hibernate.hbm2ddl.extra_physical_table_types=PARTITIONED TABLE",
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.schema-locations=classpath:db/registrations-partitioning-postgresql.sql",
+                "--spring.sql.init.separator=^^^ END OF SCRIPT ^^^",
+                "--spondy.partitioning.enabled=true",
+                "--spondy.partitioning.maintenance-interval=PT1H",
+                "--spondy.partitioning.archive-directory=" + archiveDirectory,
+                "--spondy.outbox.dispatcher-enabled=false",
+                "--spondy.rate-limit.enabled=false");
+        jdbcTemplate = instance.getBean(JdbcTemplate.class);
+    }
+
+    @AfterAll
+    static void stopInstance() {
+        if (instance != null) {
+            instance.close();
+        }
+    }
+
+    private static long formKey(String formId) {
+        return instance.getBean(RegistrationFormRepository.class).findIdByExternalId(formId).orElseThrow();
+    }
+
+    private static Long register(String formId, String email) {
+        return register(formId, ACTIVE_MEMBER_TYPE_ID, email);
+    }
+
+    private static Long register(String formId, String memberTypeId, String email) {
+        RegistrationRequestDto request = new RegistrationRequestDto();
+        request.setFullName("Partition Member");
+        request.setEmail(email);
+        request.setPhoneNumber("12345678");
+        request.setBirthDate("15.06.1990");
+        request.setMemberTypeId(memberTypeId);
+        return instance.getBean(RegistrationFormService.class).registerMember(formId, request);
+    }
+
+    private static String plan(String query, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class, args));
+    }
+
+    @Test
+    @DisplayName("Should create the table partitioned and give each seeded form a partition")
+    void shouldPartitionByForm() {
+        // Then
+        assertEquals("p", jdbcTemplate.queryForObject(
+            "SELECT relkind::text FROM pg_class WHERE relname = 'registrations'", String.class));
+        List<String> partitions = instance.getBean(RegistrationPartitions.class).attachedPartitions();
+        assertTrue(partitions.contains(RegistrationPartitions.DEFAULT_PARTITION), partitions.toString());
+        assertTrue(partitions.contains(RegistrationPartitions.partitionName(formKey(FORM_ID))), partitions.toString());
+    }
+
+    @Test
+    @DisplayName("Should read only the form's partition in the repository's queries")
+    void shouldPruneOtherPartitions() {
+        // Given
+        long key = formKey(FORM_ID);
+        Long registrationId = register(FORM_ID, "pruned@example.com");
+        RegistrationRepository repository = instance.getBean(RegistrationRepository.class);
+
+        // When
+        String plan = plan("SELECT COALESCE(MAX(r.id), 0) FROM registrations r WHERE r.form_id = ?", key);
+
+        // Then
+        assertTrue(plan.contains(RegistrationPartitions.partitionName(key)), plan);
+        assertFalse(plan.contains(RegistrationPartitions.DEFAULT_PARTITION), plan);
+        assertTrue(repository.existsByEmailAndFormId("pruned@example.com", key));
+        assertTrue(repository.findMaxIdByFormId(key) >= registrationId);
+        assertTrue(repository.findCountedByFormId(key).stream()
+            .anyMatch(counted -> counted.id() == registrationId && ACTIVE_MEMBER_TYPE_ID.equals(counted.memberTypeId())));
+    }
+
+    @Test
+    @DisplayName("Should move a new form's registrations out of the default partition")
+    void shouldMoveRowsIntoNewPartition() {
+        // Given
+        FormAdminDto form = instance.getBean(FormAdministrationService.class)
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Coding camp winter", LocalDate.now().minusDays(1)));
+        long key = formKey(form.getFormId());
+        String memberTypeId = form.getMemberTypes().get(0).getId();
+        register(form.getFormId(), memberTypeId, "early@example.com");
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations_default WHERE form_id = ?", Integer.class, key));
+
+        // When
+        instance.getBean(RegistrationPartitions.class).maintain();
+
+        // Then
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations_default WHERE form_id = ?", Integer.class, key));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM " + RegistrationPartitions.partitionName(key), Integer.class));
+        register(form.getFormId(), memberTypeId, "later@example.com");
+        assertEquals(2, instance.getBean(RegistrationRepository.class).findByFormId(key).size());
+    }
+
+    @Test
+    @DisplayName("Should archive and drop the partition of a form closed longer than archive-after")
+    void shouldArchiveClosedForm() throws IOException {
+        // Given
+        FormAdministrationService administration = instance.getBean(FormAdministrationService.class);
+        FormAdminDto form = administration
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Coding camp spring", LocalDate.now().minusDays(1)));
+        long key = formKey(form.getFormId());
+        register(form.getFormId(), form.getMemberTypes().get(0).getId(), "archived@example.com");
+        administration.closeForm(form.getFormId());
+        jdbcTemplate.update("UPDATE registration_forms SET closed_at = now() - interval '40 days' WHERE id = ?", key);
+        recordInvoiceRun(key, "COMPLETED");
+
+        // When
+        instance.getBean(RegistrationPartitions.class).maintain();
+
+        // Then
+        assertFalse(instance.getBean(RegistrationPartitions.class).attachedPartitions()
+            .contains(RegistrationPartitions.partitionName(key)));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+            RegistrationPartitions.partitionName(key)));
+        assertTrue(instance.getBean(RegistrationRepository.class).findByFormId(key).isEmpty());
+
+        List<Path> archives;
+        try (var files = Files.list(archiveDirectory)) {
+            archives = files.filter(file -> file.getFileName().toString()
+                .startsWith("registrations-" + form.getFormId() + "-")).toList();
+        }
+        assertEquals(1, archives.size());
+        String csv;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archives.get(0)))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(csv.startsWith("id,"), csv);
+        assertTrue(csv.contains("archived@example.com"), csv);
+    }
+
+    @Test
+    @DisplayName("Should keep the partition of a closed form until its latest invoice run completed")
+    void shouldKeepUninvoicedClosedForm() {
+        // Given
+        FormAdministrationService administration = instance.getBean(FormAdministrationService.class);
+        FormAdminDto form = administration
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Coding camp summer", LocalDate.now().minusDays(1)));
+        long key = formKey(form.getFormId());
+        register(form.getFormId(), form.getMemberTypes().get(0).getId(), "unbilled@example.com");
+        administration.closeForm(form.getFormId());
+        jdbcTemplate.update("UPDATE registration_forms SET closed_at = now() - interval '40 days' WHERE id = ?", key);
+        recordInvoiceRun(key, "FAILED");
+
+        // When
+        instance.getBean(RegistrationPartitions.class).maintain();
+
+        // Then
+        assertTrue(instance.getBean(RegistrationPartitions.class).attachedPartitions()
+            .contains(RegistrationPartitions.partitionName(key)));
+        assertEquals(1, instance.getBean(RegistrationRepository.class).findByFormId(key).size());
+    }
+
+    private void recordInvoiceRun(long formKey, String status) {
+        jdbcTemplate.update("INSERT INTO invoice_runs (form_id, status, last_registration_id, invoiced, " +
+            "free_registrations, total_amount, started_at, finished_at) VALUES (?, ?, 0, 0, 0, 0, now(), now())",
+            formKey, status);
+    }
+}
@@ -0,0 +1,77 @@
+package no.spond.club.ratelimit;
+
+import no.spond.club.dto.RegistrationRequestDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:ratelimittest",
+    "spondy.rate-limit.enabled=true",
+    "spondy.rate-limit.trusted-proxies=1",
+    "spondy.rate-limit.endpoints.register.methods=POST",
+    "spondy.rate-limit.endpoints.register.paths=/api/form/{formId}/register",
+    "spondy.rate-limit.endpoints.register.capacity=2",
+    "spondy.rate-limit.endpoints.register.refill-per-second=0.1"
+})
+@ActiveProfiles("test")
+@DisplayName("Rate Limit Filter Tests")
+class RateLimitFilterTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private ResponseEntity<Map> register(String client, int attempt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", client);
+        RegistrationRequestDto request = new RegistrationRequestDto(
+            "Kari Nordmann", "kari" + attempt + "@example.com", "12345678", "15.06.1990", ACTIVE_MEMBER_TYPE_ID);
+        return restTemplate.postForEntity("http://localhost:" + port + "/api/form/" + FORM_ID + "/register",
+            new HttpEntity<>(request, headers), Map.class);
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once a client's burst is used up")
+    void shouldRefuseOverLimit() {
+        // Given
+        assertEquals(HttpStatus.CREATED, register("203.0.113.10", 1).getStatusCode());
+        assertEquals(HttpStatus.CREATED, register("203.0.113.10", 2).getStatusCode());
+
+        // When
+        ResponseEntity<Map> response = register("203.0.113.10", 3);
+
+        // Then - one token per ten seconds
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("10", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(false, response.getBody().get("success"));
+        assertEquals("RATE_LIMITED", response.getBody().get("error"));
+        assertEquals(HttpStatus.CREATED, register("203.0.113.11", 4).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should leave endpoints without a limit alone")
+    void shouldNotLimitOtherEndpoints() {
+        for (int i = 0; i < 20; i++) {
+            ResponseEntity<Map> response = restTemplate.getForEntity("http://localhost:" + port + "/api/form", Map.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+    }
+}
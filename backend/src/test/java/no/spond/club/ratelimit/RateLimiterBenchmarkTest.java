@@ -0,0 +1,76 @@
+package no.spond.club.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.spond.club.config.RateLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cost of the rate limit check on a request, with 10k clients behind a proxy. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Rate Limiter Benchmark")
+class RateLimiterBenchmarkTest {
+
+    private static final int CLIENTS = 10_000;
+    private static final int REQUESTS = 5_000_000;
+
+    @Test
+    @DisplayName("Should check a request in well under a microsecond")
+    void shouldCheckQuickly() {
+        // Given - the default endpoints, limits high enough that every request is allowed
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustedProxies(1);
+        properties.getEndpoints().put("register", endpoint("POST", List.of("/api/form/{formId}/register")));
+        properties.getEndpoints().put("form", endpoint("GET", List.of("/api/form", "/api/form/{formId}")));
+        RateLimiter rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+
+        String[] forwardedFor = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            forwardedFor[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+        }
+        String[][] requests = {
+            {"GET", "/api/form/B171388180BC457D9887AD92B6CCFC86"},
+            {"POST", "/api/form/B171388180BC457D9887AD92B6CCFC86/register"},
+            {"GET", "/api/form"},
+            {"GET", "/actuator/health"},
+        };
+
+        // When - warm up, then measure
+        long refused = run(rateLimiter, requests, forwardedFor);
+        long start = System.nanoTime();
+        refused += run(rateLimiter, requests, forwardedFor);
+        double nanosPerRequest = (double) (System.nanoTime() - start) / REQUESTS;
+
+        // Then
+        System.out.printf("%.0f ns per request over %d clients%n", nanosPerRequest, CLIENTS);
+        assertEquals(0, refused);
+        assertTrue(nanosPerRequest < 1_000, "Check took " + nanosPerRequest + " ns");
+    }
+
+    private static RateLimitProperties.Endpoint endpoint(String method, List<String> paths) {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setMethods(List.of(method));
+        endpoint.setPaths(paths);
+        endpoint.setCapacity(1_000_000);
+        endpoint.setRefillPerSecond(1_000_000);
+        return endpoint;
+    }
+
+    private static long run(RateLimiter rateLimiter, String[][] requests, String[] forwardedFor) {
+        long refused = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            String[] request = requests[i & 3];
+            if (rateLimiter.acquire(request[0], request[1], "172.18.0.5", forwardedFor[i % CLIENTS]) > 0) {
+                refused++;
+            }
+        }
+        return refused;
+    }
+}
@@ -0,0 +1,220 @@
+package no.spond.club.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.spond.club.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rate Limiter Tests")
+class RateLimiterTest {
+
+    private static final String REGISTER = "/api/form/B171388180BC457D9887AD92B6CCFC86/register";
+    private static final String FORM = "/api/form/B171388180BC457D9887AD92B6CCFC86";
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(1));
+        properties.getEndpoints().put("register", endpoint("POST", "/api/form/{formId}/register", 3, 1));
+        properties.getEndpoints().put("form", endpoint("GET", "/api/form/{formId}", 10, 10));
+    }
+
+    private static RateLimitProperties.Endpoint endpoint(String method, String path, int capacity, double refillPerSecond) {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setMethods(List.of(method));
+        endpoint.setPaths(List.of(path));
+        endpoint.setCapacity(capacity);
+        endpoint.setRefillPerSecond(refillPerSecond);
+        return endpoint;
+    }
+
+    private RateLimiter rateLimiter() {
+        return new RateLimiter(properties, meterRegistry, now::get);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Nested
+    @DisplayName("Bucket Tests")
+    class BucketTests {
+
+        @Test
+        @DisplayName("Should allow a burst up to the capacity and then report the wait")
+        void shouldAllowBurstThenRefuse() {
+            // Given
+            RateLimiter rateLimiter = rateLimiter();
+
+            // When
+            for (int i = 0; i < 3; i++) {
+                assertEquals(0, rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null));
+            }
+            long wait = rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null);
+
+            // Then - one token per second at 1/s
+            assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+            assertEquals(1, meterRegistry.counter("spondy.ratelimit.rejected", "endpoint", "register").count());
+        }
+
+        @Test
+        @DisplayName("Should refill at the configured rate")
+        void shouldRefill() {
+            // Given
+            RateLimiter rateLimiter = rateLimiter();
+            for (int i = 0; i < 3; i++) {
+                rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null);
+            }
+
+            // When
+            advance(Duration.ofMillis(1500));
+
+            // Then - one and a half tokens back, so one request
+            assertEquals(0, rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null));
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(500), rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null));
+        }
+
+        @Test
+        @DisplayName("Should keep clients and endpoints apart")
+        void shouldKeepClientsAndEndpointsApart() {
+            // Given
+            RateLimiter rateLimiter = rateLimiter();
+            for (int i = 0; i < 3; i++) {
+                rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null);
+            }
+
+            // Then
+            assertTrue(rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null) > 0);
+            assertEquals(0, rateLimiter.acquire("POST", REGISTER, "10.0.0.2", null));
+            assertEquals(0, rateLimiter.acquire("GET", FORM, "10.0.0.1", null));
+        }
+
+        @Test
+        @DisplayName("Should not limit requests no endpoint matches")
+        void shouldNotLimitUnmatchedRequests() {
+            // Given
+            RateLimiter rateLimiter = rateLimiter();
+
+            // Then
+            for (int i = 0; i < 100; i++) {
+                assertEquals(0, rateLimiter.acquire("GET", "/api/health", "10.0.0.1", null));
+                assertEquals(0, rateLimiter.acquire("PUT", REGISTER, "10.0.0.1", null));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Client Address Tests")
+    class ClientAddressTests {
+
+        @Test
+        @DisplayName("Should ignore X-Forwarded-For unless proxies are trusted")
+        void shouldIgnoreForwardedForByDefault() {
+            // Given
+            RateLimiter rateLimiter = rateLimiter();
+            for (int i = 0; i < 3; i++) {
+                rateLimiter.acquire("POST", REGISTER, "10.0.0.1", "198.51.100." + i);
+            }
+
+            // Then - a new header value does not make a new client
+            assertTrue(rateLimiter.acquire("POST", REGISTER, "10.0.0.1", "198.51.100.99") > 0);
+        }
+
+        @Test
+        @DisplayName("Should key clients by the address the trusted proxy saw")
+        void shouldUseForwardedForBehindProxy() {
+            // Given
+            properties.setTrustedProxies(1);
+            RateLimiter rateLimiter = rateLimiter();
+            for (int i = 0; i < 3; i++) {
+                rateLimiter.acquire("POST", REGISTER, "172.18.0.5", "203.0.113.7");
+            }
+
+            // Then - same proxy, different client
+            assertTrue(rateLimiter.acquire("POST", REGISTER, "172.18.0.5", "203.0.113.7") > 0);
+            assertEquals(0, rateLimiter.acquire("POST", REGISTER, "172.18.0.5", "203.0.113.8"));
+        }
+
+        @Test
+        @DisplayName("Should not let a client escape its bucket by forging X-Forwarded-For")
+        void shouldIgnoreForgedEntries() {
+            // Given
+            properties.setTrustedProxies(1);
+            RateLimiter rateLimiter = rateLimiter();
+            for (int i = 0; i < 3; i++) {
+                rateLimiter.acquire("POST", REGISTER, "172.18.0.5", "1.2.3." + i + ", 203.0.113.7");
+            }
+
+            // Then
+            assertTrue(rateLimiter.acquire("POST", REGISTER, "172.18.0.5", "1.2.3.99, 203.0.113.7") > 0);
+        }
+
+        @Test
+        @DisplayName("Should pick the client behind several proxies")
+        void shouldResolveThroughSeveralProxies() {
+            assertEquals("203.0.113.7", ClientAddress.resolve("172.18.0.5", "1.2.3.4, 203.0.113.7, 10.0.0.2", 2));
+            assertEquals("203.0.113.7", ClientAddress.resolve("172.18.0.5", " 203.0.113.7 ", 3));
+            assertEquals("172.18.0.5", ClientAddress.resolve("172.18.0.5", "", 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bucket Store Tests")
+    class BucketStoreTests {
+
+        @Test
+        @DisplayName("Should share one bucket between clients beyond the maximum")
+        void shouldShareOverflowBucket() {
+            // Given
+            properties.setMaxClients(2);
+            RateLimiter rateLimiter = rateLimiter();
+            rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null);
+            rateLimiter.acquire("POST", REGISTER, "10.0.0.2", null);
+
+            // When - three new addresses use up the shared bucket
+            for (int i = 3; i < 6; i++) {
+                assertEquals(0, rateLimiter.acquire("POST", REGISTER, "10.0.0." + i, null));
+            }
+
+            // Then
+            assertTrue(rateLimiter.acquire("POST", REGISTER, "10.0.0.6", null) > 0);
+            assertEquals(0, rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null));
+            assertEquals(2, meterRegistry.get("spondy.ratelimit.clients").tag("endpoint", "register").gauge().value());
+        }
+
+        @Test
+        @DisplayName("Should drop buckets that have been full for the idle timeout")
+        void shouldSweepIdleBuckets() {
+            // Given
+            properties.setMaxClients(2);
+            RateLimiter rateLimiter = rateLimiter();
+            rateLimiter.acquire("POST", REGISTER, "10.0.0.1", null);
+            advance(Duration.ofSeconds(30));
+            for (int i = 0; i < 3; i++) {
+                rateLimiter.acquire("POST", REGISTER, "10.0.0.2", null);
+            }
+
+            // When - the first is long full, the second only just
+            advance(Duration.ofSeconds(62));
+            rateLimiter.sweep();
+
+            // Then
+            assertEquals(1, meterRegistry.get("spondy.ratelimit.clients").tag("endpoint", "register").gauge().value());
+            assertEquals(0, rateLimiter.acquire("POST", REGISTER, "10.0.0.3", null));
+            assertEquals(2, meterRegistry.get("spondy.ratelimit.clients").tag("endpoint", "register").gauge().value());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package no.spond.club.reactive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Concurrency Limiter Tests")
+class ConcurrencyLimiterTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ConcurrencyLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (limiter != null) {
+            limiter.dispose();
+        }
+    }
+
+    /**
+     * Work that holds its slot until the test releases it.
+     */
+    private Mono<String> held(AtomicInteger started) {
+        return Mono.fromCallable(() -> {
+            started.incrementAndGet();
+            release.await();
+            return "ok";
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Test
+    @DisplayName("Should run at most the limit at once and start the next when one finishes")
+    void shouldLimitWorkInFlight() throws Exception {
+        // Given
+        limiter = new ConcurrencyLimiter(1, 1, Duration.ofSeconds(5));
+        AtomicInteger started = new AtomicInteger();
+
+        // When
+        Mono<String> first = limiter.submit(() -> held(started)).cache();
+        first.subscribe();
+        Mono<String> second = limiter.submit(() -> held(started)).cache();
+        second.subscribe();
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(1, started.get());
+        assertEquals(1, limiter.inFlight());
+        assertEquals(1, limiter.queued());
+
+        release.countDown();
+        assertEquals(List.of("ok", "ok"),
+            List.of(first.block(Duration.ofSeconds(5)), second.block(Duration.ofSeconds(5))));
+        assertEquals(2, started.get());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    @DisplayName("Should refuse work when the queue is full")
+    void shouldRefuseWhenQueueIsFull() throws Exception {
+        // Given - one running, one waiting
+        limiter = new ConcurrencyLimiter(1, 1, Duration.ofSeconds(5));
+        AtomicInteger started = new AtomicInteger();
+        limiter.submit(() -> held(started)).subscribe(value -> { }, e -> { });
+        limiter.submit(() -> Mono.just("waiting")).subscribe();
+        Thread.sleep(100);
+
+        // When / Then
+        assertThrows(ConcurrencyLimiter.Rejected.class,
+            () -> limiter.submit(() -> Mono.just("refused")).block(Duration.ofSeconds(5)));
+        assertEquals(1, limiter.queued());
+    }
+
+    @Test
+    @DisplayName("Should refuse work that waited past the queue timeout")
+    void shouldRefuseAfterQueueTimeout() throws Exception {
+        // Given
+        limiter = new ConcurrencyLimiter(1, 1, Duration.ofMillis(50));
+        limiter.submit(() -> held(new AtomicInteger())).subscribe(value -> { }, e -> { });
+        AtomicInteger lateRuns = new AtomicInteger();
+        Mono<String> late = limiter.submit(() -> Mono.fromCallable(() -> {
+            lateRuns.incrementAndGet();
+            return "late";
+        })).cache();
+        late.subscribe(value -> { }, e -> { });
+
+        // When
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        assertThrows(ConcurrencyLimiter.Rejected.class, () -> late.block(Duration.ofSeconds(5)));
+        assertEquals(0, lateRuns.get());
+    }
+
+    @Test
+    @DisplayName("Should skip work whose caller went away while it waited")
+    void shouldSkipCancelledWork() throws Exception {
+        // Given
+        limiter = new ConcurrencyLimiter(1, 1, Duration.ofSeconds(5));
+        limiter.submit(() -> held(new AtomicInteger())).subscribe(value -> { }, e -> { });
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        limiter.submit(() -> Mono.fromCallable(cancelledRuns::incrementAndGet)).subscribe().dispose();
+
+        // When - the skipped work gives its place back once the queue reaches it
+        release.countDown();
+        Thread.sleep(100);
+        String next = limiter.submit(() -> Mono.just("next")).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals("next", next);
+        assertEquals(0, cancelledRuns.get());
+    }
+}
@@ -0,0 +1,168 @@
+package no.spond.club.reactive;
+
+import no.spond.club.ClubMembershipApplication;
+import no.spond.club.dto.RegistrationRequestDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the servlet application for the schema and seed data, then the reactive application
+ * against the same in-memory database.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Reactive Registration Tests")
+class ReactiveRegistrationTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+
+    private ConfigurableApplicationContext servlet;
+    private ConfigurableApplicationContext reactive;
+    private WebTestClient client;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void start() {
+        servlet = new SpringApplicationBuilder(ClubMembershipApplication.class)
+            .profiles("test")
+            .run("--spring.datasource.url=jdbc:h2:mem:reactivetest;DB_CLOSE_DELAY=-1", "--server.port=0");
+        reactive = ReactiveRegistrationApplication.application().run(
+            "--spring.profiles.active=test",
+            "--spring.r2dbc.url=r2dbc:h2:mem:///reactivetest?options=DB_CLOSE_DELAY=-1",
+            "--spring.r2dbc.username=sa",
+            "--spring.r2dbc.password=",
+            "--server.port=0");
+        client = WebTestClient.bindToServer()
+            .baseUrl("http://localhost:" + reactive.getEnvironment().getProperty("local.server.port"))
+            .responseTimeout(Duration.ofSeconds(10))
+            .build();
+        jdbcTemplate = servlet.getBean(JdbcTemplate.class);
+    }
+
+    @AfterAll
+    void stop() {
+        if (reactive != null) {
+            reactive.close();
+        }
+        if (servlet != null) {
+            servlet.close();
+        }
+    }
+
+    private RegistrationRequestDto request(String email, String memberTypeId) {
+        return new RegistrationRequestDto("Kari Nordmann", email, "12345678", "15.06.1990", memberTypeId);
+    }
+
+    @Nested
+    @DisplayName("Form Tests")
+    class FormTests {
+
+        @Test
+        @DisplayName("Should serve the default form as the servlet application does")
+        void shouldServeDefaultForm() {
+            client.get().uri("/api/form").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.data.formId").isEqualTo(FORM_ID)
+                .jsonPath("$.data.closed").isEqualTo(false)
+                .jsonPath("$.data.memberTypes[0].id").isEqualTo(ACTIVE_MEMBER_TYPE_ID)
+                .jsonPath("$.data.memberTypes[0].name").isEqualTo("Active Member");
+        }
+
+        @Test
+        @DisplayName("Should answer 404 for an unknown form")
+        void shouldAnswerNotFound() {
+            client.get().uri("/api/form/INVALID_FORM_ID").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("FORM_NOT_FOUND")
+                .jsonPath("$.message").isEqualTo("Ugyldig skjema-ID");
+        }
+    }
+
+    @Nested
+    @DisplayName("Registration Tests")
+    class RegistrationTests {
+
+        @Test
+        @DisplayName("Should store the registration and its confirmation e-mail")
+        void shouldRegister() {
+            // When
+            Map<?, ?> body = client.post().uri("/api/form/" + FORM_ID + "/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("reaktiv@example.com", ACTIVE_MEMBER_TYPE_ID))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+
+            // Then
+            assertEquals(true, body.get("success"));
+            long registrationId = ((Number) body.get("registrationId")).longValue();
+            assertEquals("reaktiv@example.com", jdbcTemplate.queryForObject(
+                "SELECT email FROM registrations WHERE id = ?", String.class, registrationId));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_outbox WHERE registration_id = ? AND status = 'PENDING'", Integer.class, registrationId));
+            assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT group_id FROM registrations WHERE id = ?", Long.class, registrationId));
+        }
+
+        @Test
+        @DisplayName("Should check only the fields given")
+        void shouldValidateFieldsGiven() {
+            client.post().uri("/api/form/" + FORM_ID + "/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", "ikke-epost", "phoneNumber", "12345678"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.error").isEqualTo("VALIDATION_ERROR")
+                .jsonPath("$.fieldErrors.email").isEqualTo("Ugyldig e-postadresse format")
+                .jsonPath("$.fieldErrors.phoneNumber").doesNotExist()
+                .jsonPath("$.fieldErrors.fullName").doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Should report field errors like the servlet application")
+        void shouldReportFieldErrors() {
+            client.post().uri("/api/form/" + FORM_ID + "/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegistrationRequestDto("", "ikke-epost", "123", "01.01.2030", ""))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("VALIDATION_ERROR")
+                .jsonPath("$.fieldErrors.email").exists()
+                .jsonPath("$.fieldErrors.fullName").exists();
+        }
+
+        @Test
+        @DisplayName("Should apply the form's rules to the member type")
+        void shouldRejectUnknownMemberType() {
+            client.post().uri("/api/form/" + FORM_ID + "/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("ukjent@example.com", "INVALID_MEMBER_TYPE"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("INVALID_INPUT");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package no.spond.club.reactive;
+
+import no.spond.club.ClubMembershipApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registration throughput, latency and threads of the servlet and reactive stacks, each with
+ * the small pools of a Raspberry Pi deployment. Both run in this JVM, so heap is not compared;
+ * request threads are the part of the footprint that differs. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Reactive Stack Benchmark")
+class ReactiveStackBenchmarkTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+    private static final int REGISTRATIONS = 2_000;
+    private static final int CLIENTS = 64;
+    private static final String[] QUIET = {
+        "--spring.jpa.show-sql=false",
+        "--logging.level.root=WARN",
+        "--logging.level.no.spond.club=WARN",
+        "--logging.level.org.hibernate.SQL=WARN",
+        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+    };
+
+    private ConfigurableApplicationContext servlet;
+    private ConfigurableApplicationContext reactive;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @BeforeAll
+    void start() {
+        servlet = new SpringApplicationBuilder(ClubMembershipApplication.class)
+            .profiles("test")
+            .run(args(
+                "--spring.datasource.url=jdbc:h2:mem:stackbenchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=4",
+                "--server.tomcat.threads.max=16",
+                "--server.port=0"));
+        reactive = ReactiveRegistrationApplication.application().run(args(
+            "--spring.profiles.active=test",
+            "--spring.r2dbc.url=r2dbc:h2:mem:///stackbenchmark?options=DB_CLOSE_DELAY=-1",
+            "--spring.r2dbc.username=sa",
+            "--spring.r2dbc.password=",
+            "--spring.r2dbc.pool.max-size=4",
+            "--spondy.reactive.max-in-flight=4",
+            "--spondy.reactive.max-queued=" + CLIENTS,
+            "--server.port=0"));
+    }
+
+    @AfterAll
+    void stop() {
+        if (reactive != null) {
+            reactive.close();
+        }
+        if (servlet != null) {
+            servlet.close();
+        }
+    }
+
+    private static String[] args(String... args) {
+        String[] all = Arrays.copyOf(args, args.length + QUIET.length);
+        System.arraycopy(QUIET, 0, all, args.length, QUIET.length);
+        return all;
+    }
+
+    @Test
+    @DisplayName("Concurrent registrations against both stacks")
+    void compareStacks() throws Exception {
+        String servletUrl = "http://localhost:" + servlet.getEnvironment().getProperty("local.server.port");
+        String reactiveUrl = "http://localhost:" + reactive.getEnvironment().getProperty("local.server.port");
+
+        // Warm both before measuring
+        run("servlet", servletUrl, 200, "warm", false);
+        run("reactive", reactiveUrl, 200, "warm", false);
+
+        assertEquals(REGISTRATIONS, run("servlet", servletUrl, REGISTRATIONS, "servlet", true));
+        assertEquals(REGISTRATIONS, run("reactive", reactiveUrl, REGISTRATIONS, "reactive", true));
+    }
+
+    /**
+     * Sends {@code count} registrations with {@value #CLIENTS} in flight and returns how many got 201.
+     */
+    private int run(String stack, String baseUrl, int count, String prefix, boolean report) throws Exception {
+        Semaphore clients = new Semaphore(CLIENTS);
+        AtomicInteger created = new AtomicInteger();
+        long[] latencies = new long[count];
+        List<CompletableFuture<?>> results = new ArrayList<>();
+        int peakThreads = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            clients.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/form/" + FORM_ID + "/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                    {"fullName":"Benchmark Member","email":"%s%d@example.com","phoneNumber":"12345678",\
+                    "birthDate":"15.06.1990","memberTypeId":"%s"}""".formatted(prefix, i, ACTIVE_MEMBER_TYPE_ID)))
+                .build();
+            results.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (response != null && response.statusCode() == 201) {
+                        created.incrementAndGet();
+                    }
+                    clients.release();
+                }));
+            peakThreads = Math.max(peakThreads, ManagementFactory.getThreadMXBean().getThreadCount());
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%s: %d registrations from %d clients in %d ms (%.0f/s), p50 %.1f ms, p99 %.1f ms, "
+                    + "%d request threads, %d JVM threads at peak%n",
+                stack, count, CLIENTS, elapsed / 1_000_000, count / (elapsed / 1e9),
+                latencies[count / 2] / 1e6, latencies[count * 99 / 100] / 1e6,
+                requestThreads(stack), peakThreads);
+        }
+        return created.get();
+    }
+
+    private static long requestThreads(String stack) {
+        String prefix = stack.equals("servlet") ? "http-nio-" : "reactor-http-";
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith(prefix))
+            .count();
+    }
+}
@@ -0,0 +1,157 @@
+package no.spond.club.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.RegistrationForm;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:formrepositorytest",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@DisplayName("RegistrationFormRepository Tests")
+class RegistrationFormRepositoryTest {
+
+    private static final int MEMBER_TYPES = 12;
+    private static final int GROUPS = 9;
+
+    /**
+     * JDBC rows read; Hibernate's own statistics count rows after fetch joins are collapsed.
+     */
+    private static final AtomicLong rowsRead = new AtomicLong();
+
+    @TestConfiguration
+    static class RowCountingConfig {
+
+        @Bean
+        static BeanPostProcessor rowCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .proxyResultSet()
+                        .methodListener(new MethodExecutionListener() {
+                            @Override
+                            public void beforeMethod(MethodExecutionContext context) {
+                            }
+
+                            @Override
+                            public void afterMethod(MethodExecutionContext context) {
+                                if (context.getTarget() instanceof ResultSet
+                                        && context.getMethod().getName().equals("next")
+                                        && Boolean.TRUE.equals(context.getResult())) {
+                                    rowsRead.incrementAndGet();
+                                }
+                            }
+                        })
+                        .build();
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private RegistrationFormRepository formRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Long formId;
+
+    @BeforeEach
+    void setUp() {
+        RegistrationForm form = new RegistrationForm("Stort skjema", null, LocalDate.of(2026, 1, 1));
+        form.setMemberTypes(new ArrayList<>());
+        form.setGroups(new ArrayList<>());
+        for (int i = 0; i < MEMBER_TYPES; i++) {
+            MemberType memberType = new MemberType("Type " + i, null, BigDecimal.TEN);
+            memberType.setForm(form);
+            form.getMemberTypes().add(memberType);
+        }
+        for (int i = 0; i < GROUPS; i++) {
+            Group group = new Group("Gruppe " + i, null);
+            group.setForm(form);
+            form.getGroups().add(group);
+        }
+        formId = formRepository.save(form).getId();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        rowsRead.set(0);
+    }
+
+    @Test
+    @DisplayName("Should load the form with both lists in two queries without row multiplication")
+    void shouldLoadDetailsWithoutCartesianProduct() {
+        // When
+        RegistrationForm form = new TransactionTemplate(transactionManager).execute(status -> {
+            RegistrationForm loaded = formRepository.findByIdWithDetails(formId).orElseThrow();
+            assertTrue(Hibernate.isInitialized(loaded.getMemberTypes()));
+            assertTrue(Hibernate.isInitialized(loaded.getGroups()));
+            return loaded;
+        });
+
+        // Then - one row per member type and one per group, not one per combination
+        assertEquals(MEMBER_TYPES, form.getMemberTypes().size());
+        assertEquals(GROUPS, form.getGroups().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(MEMBER_TYPES + GROUPS, rowsRead.get());
+    }
+
+    @Test
+    @DisplayName("Should initialize both lists without an outer transaction")
+    void shouldLoadDetailsOutsideTransaction() {
+        // When
+        RegistrationForm form = formRepository.findByIdWithDetails(formId).orElseThrow();
+
+        // Then - usable after the repository call returned
+        assertEquals(MEMBER_TYPES, form.getMemberTypes().size());
+        assertEquals(GROUPS, form.getGroups().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should find nothing for an unknown ID with a single query")
+    void shouldReturnEmptyForUnknownForm() {
+        assertTrue(formRepository.findByIdWithDetails(-1L).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,153 @@
+package no.spond.club.revalidation;
+
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.model.EligibilityRule;
+import no.spond.club.service.FormAdministrationService;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:revalidationtest",
+    // Several ranges and pages on two workers
+    "spondy.revalidation.range-size=2",
+    "spondy.revalidation.page-size=1",
+    "spondy.revalidation.parallelism=2"
+})
+@ActiveProfiles("test")
+@DisplayName("Revalidation Job Tests")
+class RevalidationJobTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final DateTimeFormatter BIRTH_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    @TempDir
+    static Path reportDirectory;
+
+    @DynamicPropertySource
+    static void reportDirectory(DynamicPropertyRegistry registry) {
+        registry.add("spondy.revalidation.report-directory", reportDirectory::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String url(String path) {
+        return "http://localhost:" + port + "/api/admin/revalidation" + path;
+    }
+
+    private FormAdminDto newForm() {
+        return formAdministrationService.cloneForm(FORM_ID, new FormCloneRequestDto("Revalidering", LocalDate.now().minusDays(1)));
+    }
+
+    private long register(FormAdminDto form, String email, LocalDate birthDate) {
+        RegistrationRequestDto request = new RegistrationRequestDto("Regel Testesen", email, "12345678",
+            birthDate.format(BIRTH_DATE), form.getMemberTypes().get(0).getId());
+        return registrationFormService.registerMember(form.getFormId(), request);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> revalidate(String formId) throws InterruptedException {
+        ResponseEntity<Map> started = restTemplate.postForEntity(url("/" + formId), null, Map.class);
+        assertEquals(HttpStatus.ACCEPTED, started.getStatusCode());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, Object> data = (Map<String, Object>) restTemplate.getForEntity(url(""), Map.class)
+                .getBody().get("data");
+            if (!"RUNNING".equals(data.get("state"))) {
+                return data;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Revalidation did not finish");
+    }
+
+    @Test
+    @DisplayName("Should report registrations that no longer pass the current rules")
+    @SuppressWarnings("unchecked")
+    void shouldReportViolations() throws InterruptedException {
+        // Given - registrations that passed when they were made
+        FormAdminDto form = newForm();
+        LocalDate today = LocalDate.now();
+        long valid = register(form, "gyldig@example.com", today.minusYears(30));
+        long badPhone = register(form, "telefon@example.com", today.minusYears(30));
+        long badEmail = register(form, "epost@example.com", today.minusYears(30));
+        long tooYoung = register(form, "ung@example.com", today.minusYears(16));
+        long olderSince = register(form, "eldre@example.com", today.minusYears(45));
+        jdbcTemplate.update("UPDATE registrations SET phone_number = '12 34 56 78' WHERE id = ?", badPhone);
+        jdbcTemplate.update("UPDATE registrations SET email = 'epost@example' WHERE id = ?", badEmail);
+        // 35 when they registered, which is what the age rule is checked against
+        jdbcTemplate.update("UPDATE registrations SET created_at = ? WHERE id = ?",
+            LocalDateTime.now().minusYears(10), olderSince);
+
+        // ...and then the member type is limited to ages 18 to 40
+        form.getMemberTypes().get(0).setEligibility(new EligibilityRule(18, 40));
+        formAdministrationService.updateForm(form.getFormId(), form);
+
+        // When
+        Map<String, Object> status = revalidate(form.getFormId());
+
+        // Then
+        assertEquals("COMPLETED", status.get("state"), status.toString());
+        assertEquals(5, status.get("checked"));
+        assertEquals(3, status.get("invalid"));
+        assertEquals(status.get("ranges"), status.get("rangesDone"));
+        Map<String, Object> violations = (Map<String, Object>) status.get("violations");
+        assertEquals(3, violations.size(), violations.toString());
+        assertEquals(1, violations.get("Telefonnummer må være mellom 8-11 siffer"));
+        assertEquals(1, violations.get("Ugyldig e-postadresse format"));
+
+        ResponseEntity<String> report = restTemplate.getForEntity(url("/report"), String.class);
+        assertEquals(HttpStatus.OK, report.getStatusCode());
+        List<String> lines = report.getBody().lines().toList();
+        assertEquals(RevalidationJob.REPORT_HEADER, lines.get(0));
+        assertEquals(4, lines.size(), report.getBody());
+        assertTrue(lines.contains(badPhone + ",phoneNumber,Telefonnummer må være mellom 8-11 siffer"), report.getBody());
+        assertTrue(lines.contains(badEmail + ",email,Ugyldig e-postadresse format"), report.getBody());
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith(tooYoung + ",eligibility,")), report.getBody());
+        assertTrue(lines.stream().noneMatch(line -> line.startsWith(valid + ",") || line.startsWith(olderSince + ",")));
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for an unknown form")
+    void shouldRejectUnknownForm() {
+        ResponseEntity<Map> response = restTemplate.postForEntity(url("/INVALID_FORM_ID"), null, Map.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("FORM_NOT_FOUND", response.getBody().get("error"));
+    }
+}
@@ -0,0 +1,220 @@
+package no.spond.club.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.spond.club.cache.FormCache;
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.service.FormAdministrationService;
+import no.spond.club.service.RegistrationFormService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:scheduletest",
+    // Driven by the tests themselves
+    "spondy.forms.schedule.poll-interval=PT1H",
+    "spondy.forms.schedule.tick=PT1H",
+    "spondy.forms.schedule.prewarm-lead=PT5M",
+    "spondy.warmup.iterations=10"
+})
+@ActiveProfiles("test")
+@DisplayName("Form Scheduler Tests")
+class FormSchedulerTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final ZoneId ZONE = ZoneId.of("Europe/Oslo");
+
+    /**
+     * A clock the tests move.
+     */
+    static class MovableClock extends Clock {
+
+        private volatile Instant now = Instant.now();
+
+        void set(Instant instant) {
+            now = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @TestConfiguration
+    static class ClockConfig {
+
+        @Bean
+        @Primary
+        MovableClock movableClock() {
+            return new MovableClock();
+        }
+    }
+
+    @Autowired
+    private MovableClock clock;
+
+    @Autowired
+    private FormScheduler scheduler;
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private FormCache formCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        clock.set(LocalDate.of(2026, 6, 15).atTime(12, 0).atZone(ZONE).toInstant());
+        today = LocalDate.of(2026, 6, 15);
+    }
+
+    private Long register(FormAdminDto form) {
+        RegistrationRequestDto request = new RegistrationRequestDto(
+            "Tidlig Fugl", "tidlig@example.com", "12345678", "15.06.1990", form.getMemberTypes().get(0).getId());
+        return registrationFormService.registerMember(form.getFormId(), request);
+    }
+
+    private double count(String name, String... tags) {
+        var counter = meterRegistry.find(name).tags(tags).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private long warmups() {
+        Timer timer = meterRegistry.find("spondy.warmup").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private void awaitWarmups(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (warmups() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, warmups());
+    }
+
+    @Test
+    @DisplayName("Should warm a form up before it opens and accept registrations from the opening instant")
+    void shouldPrewarmAndOpenOnTime() throws InterruptedException {
+        // Given
+        FormAdminDto form = formAdministrationService
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Sommerleir", today.plusDays(1)));
+        Instant opens = today.plusDays(1).atStartOfDay(ZONE).toInstant();
+        IllegalArgumentException early = assertThrows(IllegalArgumentException.class, () -> register(form));
+        assertEquals("Påmeldingen til dette skjemaet åpner 16.06.2026 kl. 00:00.", early.getMessage());
+        long warmupsBefore = warmups();
+        double opened = count("spondy.forms.schedule.transitions", "state", "OPEN");
+
+        // When - outside the lead nothing happens
+        scheduler.reload();
+        clock.set(opens.minus(Duration.ofMinutes(6)));
+        scheduler.tick();
+
+        // Then
+        assertEquals(warmupsBefore, warmups());
+
+        // When - within the lead the form is warmed up
+        clock.set(opens.minus(Duration.ofMinutes(4)));
+        scheduler.tick();
+        scheduler.tick();
+
+        // Then - once
+        awaitWarmups(warmupsBefore + 1);
+        assertTrue(formCache.contains(form.getFormId()));
+        assertThrows(IllegalArgumentException.class, () -> register(form));
+
+        // When
+        clock.set(opens);
+        scheduler.tick();
+
+        // Then
+        assertEquals(opened + 1, count("spondy.forms.schedule.transitions", "state", "OPEN"));
+        assertTrue(formCache.contains(form.getFormId()));
+        assertNotNull(register(form));
+        assertEquals(warmupsBefore + 1, warmups());
+    }
+
+    @Test
+    @DisplayName("Should close a form at its scheduled close and mark the cached form closed")
+    void shouldCloseOnSchedule() {
+        // Given
+        FormAdminDto form = formAdministrationService
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Høstleir", today.minusDays(1)));
+        form.setRegistrationCloses(LocalDateTime.of(2026, 6, 15, 18, 0));
+        FormAdminDto scheduled = formAdministrationService.updateForm(form.getFormId(), form);
+        assertNotNull(register(scheduled));
+        assertFalse(registrationFormService.getFormById(form.getFormId()).isClosed());
+        scheduler.reload();
+
+        // When
+        clock.set(LocalDateTime.of(2026, 6, 15, 18, 0).atZone(ZONE).toInstant());
+        scheduler.tick();
+
+        // Then
+        assertTrue(formCache.contains(form.getFormId()));
+        assertTrue(registrationFormService.getFormById(form.getFormId()).isClosed());
+        IllegalArgumentException late = assertThrows(IllegalArgumentException.class, () -> register(scheduled));
+        assertEquals("Påmeldingen til dette skjemaet er stengt.", late.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a scheduled close before the form opens")
+    void shouldRejectCloseBeforeOpening() {
+        // Given
+        FormAdminDto form = formAdministrationService.getForm(FORM_ID);
+        form.setRegistrationCloses(form.getRegistrationDate().atStartOfDay().minusMinutes(1));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> formAdministrationService.updateForm(FORM_ID, form));
+    }
+
+    @Test
+    @DisplayName("Should close a form by hand at the clock's time")
+    void shouldCloseByHandOnClock() {
+        // Given
+        FormAdminDto form = formAdministrationService
+            .cloneForm(FORM_ID, new FormCloneRequestDto("Høstleir", today));
+
+        // When
+        FormAdminDto closed = formAdministrationService.closeForm(form.getFormId());
+
+        // Then
+        assertEquals(LocalDateTime.of(2026, 6, 15, 12, 0), closed.getClosedAt());
+    }
+}
@@ -0,0 +1,71 @@
+package no.spond.club.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query latency over a form with 100k registrants. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Form Search Index Benchmark")
+class FormSearchIndexBenchmarkTest {
+
+    private static final int REGISTRANTS = 100_000;
+    private static final int ITERATIONS = 2_000;
+
+    private static final String[] FIRST_NAMES = {
+        "Ola", "Kari", "Nora", "Per", "Ingrid", "Lars", "Emma", "Jonas", "Sofie", "Magnus",
+        "Ida", "Henrik", "Thea", "Sander", "Maja", "Eirik", "Sara", "Martin", "Hanna", "Kristian"
+    };
+    private static final String[] LAST_NAMES = {
+        "Nordmann", "Hansen", "Johansen", "Olsen", "Larsen", "Andersen", "Pedersen", "Nilsen",
+        "Kristiansen", "Jensen", "Karlsen", "Johnsen", "Pettersen", "Eriksen", "Berg", "Haugen",
+        "Hagen", "Johannessen", "Andreassen", "Jacobsen"
+    };
+    private static final String[] DOMAINS = {"gmail.com", "hotmail.com", "online.no", "outlook.com", "example.com"};
+
+    @Test
+    @DisplayName("Should answer prefix and substring queries in under a millisecond")
+    void shouldAnswerQueriesUnderOneMillisecond() {
+        // Given
+        FormSearchIndex index = new FormSearchIndex();
+        Random random = new Random(42);
+        long buildStart = System.nanoTime();
+        for (int i = 1; i <= REGISTRANTS; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String email = (first + "." + last + i + "@" + DOMAINS[random.nextInt(DOMAINS.length)]).toLowerCase();
+            index.add(i, first + " " + last, email);
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        // When / Then
+        for (String query : new String[] {"ola", "@gmail", "nordm", "k", "johansen12"}) {
+            // Warm up the JIT before measuring
+            for (int i = 0; i < ITERATIONS; i++) {
+                index.search(query, 20);
+            }
+            long[] samples = new long[ITERATIONS];
+            int hits = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                hits = index.search(query, 20).size();
+                samples[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(samples);
+            double medianMicros = samples[ITERATIONS / 2] / 1_000.0;
+            double p99Micros = samples[ITERATIONS * 99 / 100] / 1_000.0;
+            System.out.printf("search %-12s hits=%d median=%.1fus p99=%.1fus (index of %d built in %d ms)%n",
+                "\"" + query + "\"", hits, medianMicros, p99Micros, REGISTRANTS, buildMillis);
+
+            assertTrue(hits > 0, "No hits for " + query);
+            assertTrue(medianMicros < 1_000, "Median latency for " + query + " was " + medianMicros + "us");
+        }
+    }
+}
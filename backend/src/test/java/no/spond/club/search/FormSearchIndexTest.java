@@ -0,0 +1,134 @@
+package no.spond.club.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Form Search Index Tests")
+class FormSearchIndexTest {
+
+    private FormSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FormSearchIndex();
+        index.add(1, "Ola Nordmann", "ola.nordmann@gmail.com");
+        index.add(2, "Kari Nordmann", "kari@hotmail.com");
+        index.add(3, "Nora Olsen", "nora.olsen@gmail.com");
+        index.add(4, "Per Hansen", "per@example.com");
+    }
+
+    private List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::registrationId).toList();
+    }
+
+    @Nested
+    @DisplayName("Matching Tests")
+    class MatchingTests {
+
+        @Test
+        @DisplayName("Should match a substring of the name")
+        void shouldMatchNameSubstring() {
+            assertEquals(List.of(2L, 1L), ids(index.search("ordman", 10)));
+        }
+
+        @Test
+        @DisplayName("Should match part of the e-mail address")
+        void shouldMatchEmailPart() {
+            assertEquals(List.of(3L, 1L), ids(index.search("@gmail", 10)));
+        }
+
+        @Test
+        @DisplayName("Should match one- and two-letter queries at the start of a word")
+        void shouldMatchShortPrefixes() {
+            assertEquals(List.of(4L), ids(index.search("p", 10)));
+            assertEquals(List.of(3L, 2L, 1L), ids(index.search("no", 10)));
+            assertTrue(index.search("ls", 10).isEmpty(), "two letters inside a word do not match");
+        }
+
+        @Test
+        @DisplayName("Should require every term to match")
+        void shouldRequireEveryTerm() {
+            assertEquals(List.of(1L), ids(index.search("ola nord", 10)));
+            assertTrue(index.search("ola hansen", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should ignore case")
+        void shouldIgnoreCase() {
+            assertEquals(List.of(4L), ids(index.search("HANSEN", 10)));
+        }
+
+        @Test
+        @DisplayName("Should not match when trigrams are shared but the text is not")
+        void shouldRejectTrigramFalsePositives() {
+            // Has "lan", "ano" and "nor", but not "lanor"
+            index.add(5, "Anorak Lan", "anorak@example.com");
+            assertTrue(index.search("lanor", 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Ranking Tests")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Should rank name-start matches above matches inside a word")
+        void shouldRankNameStartFirst() {
+            // Nora starts with "nor"; the Nordmanns have it at the start of a later word
+            List<SearchHit> hits = index.search("nor", 10);
+
+            assertEquals(3L, hits.get(0).registrationId());
+            assertEquals(3, hits.size());
+        }
+
+        @Test
+        @DisplayName("Should return at most the requested number of hits")
+        void shouldLimitHits() {
+            assertEquals(1, index.search("nor", 1).size());
+            assertEquals(3L, index.search("nor", 1).get(0).registrationId());
+        }
+
+        @Test
+        @DisplayName("Should keep the earliest registrants among equal scores and order them by name")
+        void shouldKeepEarliestAmongEqualScores() {
+            // Given - all four have "hotmail" inside the e-mail only
+            index.add(5, "Zara Lie", "zara@hotmail.com");
+            index.add(6, "Anne Berg", "anne@hotmail.com");
+            index.add(7, "Bjørn Dahl", "bjorn@hotmail.com");
+
+            // When
+            List<SearchHit> firstTwo = index.search("hotmail", 2);
+            List<SearchHit> all = index.search("hotmail", 10);
+
+            // Then - Kari (2) and Zara (5) came first, and each page is ordered by name
+            assertEquals(List.of(2L, 5L), ids(firstTwo));
+            assertEquals(List.of(6L, 7L, 2L, 5L), ids(all));
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Update Tests")
+    class IncrementalUpdateTests {
+
+        @Test
+        @DisplayName("Should find registrations added after the index was built")
+        void shouldFindAddedRegistrations() {
+            index.add(10, "Åse Ødegård", "ase@example.no");
+
+            assertEquals(List.of(10L), ids(index.search("ødeg", 10)));
+        }
+
+        @Test
+        @DisplayName("Should ignore a registration added twice")
+        void shouldIgnoreDuplicateAdds() {
+            assertFalse(index.add(4, "Per Hansen", "per@example.com"));
+            assertEquals(4, index.size());
+        }
+    }
+}
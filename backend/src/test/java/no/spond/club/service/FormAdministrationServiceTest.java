@@ -0,0 +1,274 @@
+package no.spond.club.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import no.spond.club.cache.FormCache;
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.GroupAdminDto;
+import no.spond.club.dto.MemberTypeAdminDto;
+import no.spond.club.dto.RegistrationFormDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.model.EligibilityRule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:formadmintest")
+@ActiveProfiles("test")
+@DisplayName("FormAdministrationService Tests")
+class FormAdministrationServiceTest {
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private FormCache formCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static FormAdminDto newForm(int memberTypes) {
+        FormAdminDto form = new FormAdminDto();
+        form.setClubId("britsport");
+        form.setTitle("Vintercamp 2026");
+        form.setDescription("Camp i vinterferien");
+        form.setRegistrationDate(LocalDate.of(2026, 1, 15));
+        List<MemberTypeAdminDto> types = new ArrayList<>();
+        for (int i = 0; i < memberTypes; i++) {
+            types.add(new MemberTypeAdminDto(null, "Type " + i, null, new BigDecimal("100.00"), null));
+        }
+        form.setMemberTypes(types);
+        form.setGroups(new ArrayList<>(List.of(
+            new GroupAdminDto(null, "Barn", null, new EligibilityRule(6, 12)),
+            new GroupAdminDto(null, "Alle", null, null)
+        )));
+        return form;
+    }
+
+    private static RegistrationRequestDto request(String memberTypeId) {
+        RegistrationRequestDto request = new RegistrationRequestDto();
+        request.setFullName("Ola Nordmann");
+        request.setEmail("ola@example.com");
+        request.setPhoneNumber("12345678");
+        request.setBirthDate("15.06.1990");
+        request.setMemberTypeId(memberTypeId);
+        return request;
+    }
+
+    private long insertStatements() {
+        return meterRegistry.find("spondy.jdbc.statements").tag("type", "insert").timers().stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+
+    @Nested
+    @DisplayName("Create Tests")
+    class CreateTests {
+
+        @Test
+        @DisplayName("Should create a form that registrations can use right away")
+        void shouldCreateUsableForm() {
+            // When
+            FormAdminDto created = formAdministrationService.createForm(newForm(2));
+
+            // Then
+            assertEquals(32, created.getFormId().length());
+            assertEquals(0L, created.getVersion());
+            assertNull(created.getClosedAt());
+            assertEquals(2, created.getMemberTypes().size());
+            assertEquals(2, created.getGroups().size());
+
+            String memberTypeId = created.getMemberTypes().get(0).getId();
+            assertNotNull(registrationFormService.registerMember(created.getFormId(), request(memberTypeId)));
+        }
+
+        @Test
+        @DisplayName("Should insert member types and groups in batches")
+        void shouldBatchChildInserts() {
+            // Given
+            long before = insertStatements();
+
+            // When
+            formAdministrationService.createForm(newForm(40));
+
+            // Then - the form, one batch of member types and one of groups
+            assertEquals(3, insertStatements() - before);
+        }
+
+        @Test
+        @DisplayName("Should publish the new form to the cache when the change commits")
+        void shouldPublishToCache() {
+            // When
+            FormAdminDto created = formAdministrationService.createForm(newForm(1));
+
+            // Then
+            assertTrue(formCache.contains(created.getFormId()));
+            RegistrationFormDto cached = registrationFormService.getFormById(created.getFormId());
+            assertEquals("Vintercamp 2026", cached.getTitle());
+            assertEquals(1, cached.getMemberTypes().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should add, change and remove member types and move the version")
+        void shouldReplaceChildren() {
+            // Given
+            FormAdminDto form = formAdministrationService.createForm(newForm(2));
+            registrationFormService.getFormById(form.getFormId());
+            MemberTypeAdminDto kept = form.getMemberTypes().get(0);
+            kept.setPrice(new BigDecimal("250.00"));
+            form.setMemberTypes(new ArrayList<>(List.of(
+                kept,
+                new MemberTypeAdminDto(null, "Ny type", null, BigDecimal.ZERO, null)
+            )));
+            form.setTitle("Vintercamp 2026 (oppdatert)");
+
+            // When
+            FormAdminDto updated = formAdministrationService.updateForm(form.getFormId(), form);
+
+            // Then
+            assertEquals(1L, updated.getVersion());
+            assertEquals(2, updated.getMemberTypes().size());
+            assertEquals(kept.getId(), updated.getMemberTypes().get(0).getId());
+            assertEquals(0, new BigDecimal("250.00").compareTo(updated.getMemberTypes().get(0).getPrice()));
+            assertEquals("Ny type", updated.getMemberTypes().get(1).getName());
+
+            RegistrationFormDto cached = registrationFormService.getFormById(form.getFormId());
+            assertEquals("Vintercamp 2026 (oppdatert)", cached.getTitle());
+            assertEquals(List.of(kept.getId(), updated.getMemberTypes().get(1).getId()),
+                cached.getMemberTypes().stream().map(type -> type.getId()).toList());
+        }
+
+        @Test
+        @DisplayName("Should move the version when only a group changes")
+        void shouldMoveVersionForChildOnlyChange() {
+            // Given
+            FormAdminDto form = formAdministrationService.createForm(newForm(1));
+            form.getGroups().get(0).setName("Barn (6-12 år)");
+
+            // When
+            FormAdminDto updated = formAdministrationService.updateForm(form.getFormId(), form);
+
+            // Then
+            assertEquals(form.getVersion() + 1, updated.getVersion());
+        }
+
+        @Test
+        @DisplayName("Should reject an update from a stale version")
+        void shouldRejectStaleVersion() {
+            // Given
+            FormAdminDto form = formAdministrationService.createForm(newForm(1));
+            FormAdminDto first = formAdministrationService.updateForm(form.getFormId(), form);
+
+            // When / Then - the second edit still carries version 0
+            form.setTitle("Overskriver");
+            assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> formAdministrationService.updateForm(form.getFormId(), form));
+            assertEquals(first.getTitle(), formAdministrationService.getForm(form.getFormId()).getTitle());
+        }
+
+        @Test
+        @DisplayName("Should refuse to remove a member type that has registrations")
+        void shouldRefuseToRemoveMemberTypeInUse() {
+            // Given
+            FormAdminDto form = formAdministrationService.createForm(newForm(2));
+            registrationFormService.registerMember(form.getFormId(), request(form.getMemberTypes().get(0).getId()));
+            form.setMemberTypes(new ArrayList<>(List.of(form.getMemberTypes().get(1))));
+
+            // When / Then
+            assertThrows(IllegalStateException.class, () -> formAdministrationService.updateForm(form.getFormId(), form));
+            assertEquals(2, formAdministrationService.getForm(form.getFormId()).getMemberTypes().size());
+        }
+
+        @Test
+        @DisplayName("Should reject member types the form does not have")
+        void shouldRejectUnknownMemberType() {
+            // Given
+            FormAdminDto form = formAdministrationService.createForm(newForm(1));
+            form.getMemberTypes().get(0).setId("00000000000000000000000000000000");
+
+            // When / Then
+            assertThrows(IllegalArgumentException.class, () -> formAdministrationService.updateForm(form.getFormId(), form));
+        }
+
+        @Test
+        @DisplayName("Should report unknown forms")
+        void shouldReportUnknownForm() {
+            // Given
+            FormAdminDto form = newForm(1);
+            form.setVersion(0L);
+
+            // When / Then
+            assertThrows(EntityNotFoundException.class, () -> formAdministrationService.updateForm("UNKNOWN", form));
+        }
+    }
+
+    @Nested
+    @DisplayName("Clone and Close Tests")
+    class CloneAndCloseTests {
+
+        @Test
+        @DisplayName("Should clone a form with new IDs and without registrations")
+        void shouldCloneForm() {
+            // Given
+            FormAdminDto original = formAdministrationService.createForm(newForm(2));
+            registrationFormService.registerMember(original.getFormId(), request(original.getMemberTypes().get(0).getId()));
+
+            // When
+            FormAdminDto copy = formAdministrationService.cloneForm(original.getFormId(),
+                new FormCloneRequestDto("Vintercamp 2027", LocalDate.of(2027, 1, 15)));
+
+            // Then
+            assertNotEquals(original.getFormId(), copy.getFormId());
+            assertEquals("Vintercamp 2027", copy.getTitle());
+            assertEquals(original.getDescription(), copy.getDescription());
+            assertEquals(List.of("Type 0", "Type 1"), copy.getMemberTypes().stream().map(MemberTypeAdminDto::getName).toList());
+            assertNotEquals(original.getMemberTypes().get(0).getId(), copy.getMemberTypes().get(0).getId());
+            assertEquals(12, copy.getGroups().get(0).getEligibility().getMaxAge());
+
+            // The copy's member types are free to remove, since nobody registered for them
+            copy.setMemberTypes(new ArrayList<>(List.of(copy.getMemberTypes().get(1))));
+            assertEquals(1, formAdministrationService.updateForm(copy.getFormId(), copy).getMemberTypes().size());
+        }
+
+        @Test
+        @DisplayName("Should stop registrations once the form is closed")
+        void shouldRejectRegistrationsToClosedForm() {
+            // Given
+            FormAdminDto form = formAdministrationService.createForm(newForm(1));
+            String memberTypeId = form.getMemberTypes().get(0).getId();
+
+            // When
+            FormAdminDto closed = formAdministrationService.closeForm(form.getFormId());
+
+            // Then
+            assertNotNull(closed.getClosedAt());
+            assertTrue(registrationFormService.getFormById(form.getFormId()).isClosed());
+            assertThrows(IllegalArgumentException.class,
+                () -> registrationFormService.registerMember(form.getFormId(), request(memberTypeId)));
+
+            // Closing again changes nothing
+            assertEquals(closed.getVersion(), formAdministrationService.closeForm(form.getFormId()).getVersion());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package no.spond.club.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.repository.RegistrationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Journal append and replay throughput. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:journalbenchmark",
+    "spondy.journal.enabled=true",
+    "spondy.journal.replay-interval=1h",
+    "spondy.outbox.dispatcher-enabled=false",
+    "spring.jpa.show-sql=false",
+    "logging.level.no.spond.club=WARN",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+@DisplayName("Journal Replay Benchmark")
+class JournalReplayBenchmarkTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+    private static final int REGISTRATIONS = 5_000;
+    private static final int CLIENTS = 16;
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("spondy.journal.directory", () -> journalDirectory.toString());
+    }
+
+    @Autowired
+    private JournaledRegistrationService journaledRegistrationService;
+
+    @Autowired
+    private JournalReplayer replayer;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Append with concurrent clients, then replay into the database")
+    void appendAndReplayThroughput() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            // Append: every call waits for its fsync, concurrent calls share one
+            long appendStart = System.nanoTime();
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                String email = "member" + i + "@example.com";
+                results.add(clients.submit(() -> journaledRegistrationService.submit(FORM_ID,
+                    new RegistrationRequestDto("Benchmark Member", email, "12345678", "15.06.1990",
+                        ACTIVE_MEMBER_TYPE_ID))));
+            }
+            for (Future<Long> result : results) {
+                result.get();
+            }
+            long appendNanos = System.nanoTime() - appendStart;
+
+            // Replay: the background worker may already have started; wait for the rest
+            long replayStart = System.nanoTime();
+            while (registrationRepository.count() < REGISTRATIONS) {
+                replayer.replayPending();
+            }
+            long replayNanos = System.nanoTime() - replayStart;
+
+            System.out.printf("Journal append: %d registrations from %d clients in %d ms (%.0f/s)%n",
+                REGISTRATIONS, CLIENTS, appendNanos / 1_000_000, REGISTRATIONS / (appendNanos / 1e9));
+            Timer durable = meterRegistry.get("spondy.journal.append").timer();
+            System.out.printf("Journal fsync wait: mean %.2f ms, max %.2f ms%n",
+                durable.mean(TimeUnit.MILLISECONDS), durable.max(TimeUnit.MILLISECONDS));
+            System.out.printf("Journal replay: %d registrations in %d ms (%.0f/s)%n",
+                REGISTRATIONS, replayNanos / 1_000_000, REGISTRATIONS / (replayNanos / 1e9));
+
+            assertEquals(REGISTRATIONS, registrationRepository.count());
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
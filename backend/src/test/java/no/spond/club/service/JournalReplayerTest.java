@@ -0,0 +1,236 @@
+package no.spond.club.service;
+
+import no.spond.club.dto.FormAdminDto;
+import no.spond.club.dto.FormCloneRequestDto;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.journal.JournalEntry;
+import no.spond.club.journal.JournaledRegistration;
+import no.spond.club.journal.RegistrationJournal;
+import no.spond.club.model.EligibilityRule;
+import no.spond.club.model.Registration;
+import no.spond.club.repository.RegistrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:journaltest",
+    "spondy.journal.enabled=true",
+    // Small enough that a handful of entries roll a segment and compaction deletes the old one
+    "spondy.journal.segment-size=2048"
+})
+@ActiveProfiles("test")
+@DisplayName("Journal Replay Tests")
+class JournalReplayerTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("spondy.journal.directory", () -> journalDirectory.toString());
+    }
+
+    @Autowired
+    private JournaledRegistrationService journaledRegistrationService;
+
+    @Autowired
+    private JournalReplayer replayer;
+
+    @Autowired
+    private RegistrationJournal journal;
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private FormAdministrationService formAdministrationService;
+
+    @BeforeEach
+    void setUp() {
+        replayer.replayPending();
+        registrationRepository.deleteAll();
+    }
+
+    private RegistrationRequestDto request(String email, String memberTypeId) {
+        return new RegistrationRequestDto("Kari Nordmann", email, "12345678", "15.06.1990", memberTypeId);
+    }
+
+    @Nested
+    @DisplayName("Submit Tests")
+    class SubmitTests {
+
+        @Test
+        @DisplayName("Should store journaled registrations in the database on replay")
+        void shouldApplyJournaledRegistrations() {
+            // Given
+            journaledRegistrationService.submit(FORM_ID, request("kari@example.com", ACTIVE_MEMBER_TYPE_ID));
+            journaledRegistrationService.submit(FORM_ID, request("ola@example.com", ACTIVE_MEMBER_TYPE_ID));
+
+            // When
+            replayer.replayPending();
+
+            // Then
+            List<Registration> registrations = registrationRepository.findAll();
+            assertEquals(2, registrations.size());
+            assertTrue(registrations.stream().allMatch(registration -> registration.getJournalKey() != null));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid requests before journaling them")
+        void shouldRejectInvalidRequestsBeforeJournaling() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> journaledRegistrationService.submit(FORM_ID, request("kari@example.com", "UNKNOWN")));
+            assertTrue(exception.getMessage().contains("Ugyldig medlemstype"));
+
+            replayer.replayPending();
+            assertEquals(0, registrationRepository.count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Failure Tests")
+    class FailureTests {
+
+        @Test
+        @DisplayName("Should reject an entry that cannot be stored and apply the ones after it")
+        void shouldMovePastPermanentFailures() {
+            // Given - a name longer than the column, which only the request constraints catch
+            journaledRegistrationService.submit(FORM_ID, new RegistrationRequestDto("K".repeat(300),
+                "lang@example.com", "12345678", "15.06.1990", ACTIVE_MEMBER_TYPE_ID));
+            journaledRegistrationService.submit(FORM_ID, request("ola@example.com", ACTIVE_MEMBER_TYPE_ID));
+
+            // When - the replay thread may already have applied them
+            int processed = replayer.replayPending();
+
+            // Then
+            assertTrue(processed >= 0);
+            List<Registration> registrations = registrationRepository.findAll();
+            assertEquals(1, registrations.size());
+            assertEquals("ola@example.com", registrations.get(0).getEmail());
+        }
+
+        @Test
+        @DisplayName("Should keep a rejected entry in the dead-letter file after its segment is compacted")
+        void shouldKeepRejectedEntryAfterCompaction() throws IOException {
+            // Given
+            long deadLettersBefore = replayer.deadLetterCount();
+            long rejectedSequence = journaledRegistrationService.submit(FORM_ID, new RegistrationRequestDto(
+                "K".repeat(300), "avvist@example.com", "12345678", "15.06.1990", ACTIVE_MEMBER_TYPE_ID));
+            long lastSequence = rejectedSequence;
+            for (int i = 0; i < 10; i++) {
+                lastSequence = journaledRegistrationService.submit(FORM_ID,
+                    request("ola" + i + "@example.com", ACTIVE_MEMBER_TYPE_ID));
+            }
+
+            // When
+            replayer.replayPending();
+
+            // Then - checkpointed past it, and its segment deleted
+            assertTrue(journal.confirmedSequence() >= lastSequence);
+            List<JournalEntry> remaining = journal.readAfter(0, Integer.MAX_VALUE);
+            assertTrue(remaining.stream().noneMatch(entry -> entry.sequence() == rejectedSequence));
+
+            assertEquals(deadLettersBefore + 1, replayer.deadLetterCount());
+            List<String> deadLetters = Files.readAllLines(replayer.deadLetters(), StandardCharsets.UTF_8);
+            String deadLetter = deadLetters.get(deadLetters.size() - 1);
+            assertTrue(deadLetter.contains("\"key\":\"" + journal.keyOf(rejectedSequence) + "\""), deadLetter);
+            assertTrue(deadLetter.contains("avvist@example.com"), deadLetter);
+            assertTrue(deadLetter.contains("\"reason\""), deadLetter);
+        }
+
+        @Test
+        @DisplayName("Should only pause on failures the database may recover from")
+        void shouldTellTransientFailures() {
+            assertTrue(JournalReplayer.isTransient(new CannotCreateTransactionException("Connection refused")));
+            assertTrue(JournalReplayer.isTransient(new IllegalStateException("Wrapped",
+                new CannotAcquireLockException("Lock timeout"))));
+            assertFalse(JournalReplayer.isTransient(new DataIntegrityViolationException("Value too long")));
+            assertFalse(JournalReplayer.isTransient(new IllegalStateException("Gruppen finnes ikke lenger")));
+        }
+
+        @Test
+        @DisplayName("Should check ages on the day the registration was accepted")
+        void shouldCheckEligibilityOnReceivedDay() {
+            // Given - 17 when accepted a month ago, 18 by the time it is applied
+            FormAdminDto form = formAdministrationService.cloneForm(FORM_ID,
+                new FormCloneRequestDto("Junior", LocalDate.now().minusDays(60)));
+            form.getMemberTypes().get(0).setEligibility(new EligibilityRule(null, 17));
+            formAdministrationService.updateForm(form.getFormId(), form);
+            JournaledRegistration entry = new JournaledRegistration(
+                form.getFormId(),
+                "Kari Nordmann",
+                "kari@example.com",
+                "12345678",
+                LocalDate.now().minusYears(18).minusDays(10).toString(),
+                form.getMemberTypes().get(0).getId(),
+                LocalDateTime.now().minusDays(30)
+            );
+
+            // When
+            boolean applied = registrationFormService.applyJournaled(UUID.randomUUID() + ":1", entry);
+
+            // Then
+            assertTrue(applied);
+            assertEquals(1, registrationRepository.count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Idempotency Tests")
+    class IdempotencyTests {
+
+        @Test
+        @DisplayName("Should skip an entry that was already applied")
+        void shouldSkipAlreadyAppliedEntry() {
+            // Given
+            String journalKey = UUID.randomUUID() + ":1";
+            JournaledRegistration entry = new JournaledRegistration(
+                FORM_ID,
+                "Kari Nordmann",
+                "kari@example.com",
+                "12345678",
+                "1990-06-15",
+                ACTIVE_MEMBER_TYPE_ID,
+                LocalDateTime.now()
+            );
+
+            // When
+            boolean first = registrationFormService.applyJournaled(journalKey, entry);
+            boolean second = registrationFormService.applyJournaled(journalKey, entry);
+
+            // Then
+            assertTrue(first);
+            assertFalse(second);
+            assertEquals(1, registrationRepository.count());
+        }
+    }
+}
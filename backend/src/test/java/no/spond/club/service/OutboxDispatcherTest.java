@@ -0,0 +1,141 @@
+package no.spond.club.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import no.spond.club.dto.RegistrationRequestDto;
+import no.spond.club.model.OutboxMessage;
+import no.spond.club.model.OutboxStatus;
+import no.spond.club.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outboxtest",
+    "spring.mail.host=localhost",
+    "spring.mail.port=3025",
+    "spondy.outbox.initial-backoff=30s",
+    "spondy.outbox.max-backoff=10m"
+})
+@ActiveProfiles("test")
+@DisplayName("Outbox Dispatcher Tests")
+class OutboxDispatcherTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private RegistrationFormService registrationFormService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+    }
+
+    private Long register(String email) {
+        return registrationFormService.registerMember(FORM_ID, new RegistrationRequestDto(
+            "Kari Nordmann",
+            email,
+            "12345678",
+            "15.06.1990",
+            ACTIVE_MEMBER_TYPE_ID
+        ));
+    }
+
+    @Nested
+    @DisplayName("Delivery Tests")
+    class DeliveryTests {
+
+        @Test
+        @DisplayName("Should queue e-mail with the registration and not send it inline")
+        void shouldQueueEmailWithRegistration() {
+            // When
+            Long registrationId = register("kari@example.com");
+
+            // Then
+            List<OutboxMessage> messages = outboxRepository.findAll();
+            assertEquals(1, messages.size());
+            assertEquals(registrationId, messages.get(0).getRegistrationId());
+            assertEquals(OutboxStatus.PENDING, messages.get(0).getStatus());
+            assertEquals(0, greenMail.getReceivedMessages().length);
+        }
+
+        @Test
+        @DisplayName("Should deliver queued e-mails over SMTP and mark them sent")
+        void shouldDeliverQueuedEmails() throws Exception {
+            // Given
+            register("kari@example.com");
+            register("ola@example.com");
+
+            // When
+            int attempted = dispatcher.dispatchAll();
+
+            // Then
+            assertEquals(2, attempted);
+            MimeMessage[] received = greenMail.getReceivedMessages();
+            assertEquals(2, received.length);
+            assertTrue(received[0].getSubject().contains("Coding camp summer 2025"));
+            assertTrue(outboxRepository.findAll().stream()
+                .allMatch(message -> message.getStatus() == OutboxStatus.SENT && message.getSentAt() != null));
+
+            // Nothing left to send
+            assertEquals(0, dispatcher.dispatchAll());
+        }
+    }
+
+    @Nested
+    @DisplayName("Retry Tests")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Should reschedule with backoff when SMTP is unavailable")
+        void shouldRescheduleWhenSmtpIsUnavailable() {
+            // Given
+            register("kari@example.com");
+            greenMail.stop();
+
+            // When
+            dispatcher.dispatchAll();
+
+            // Then
+            OutboxMessage message = outboxRepository.findAll().get(0);
+            assertEquals(OutboxStatus.PENDING, message.getStatus());
+            assertEquals(1, message.getAttempts());
+            assertNotNull(message.getLastError());
+            assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+            // Not due yet, so a second pass does not retry it
+            assertEquals(0, dispatcher.dispatchAll());
+        }
+
+        @Test
+        @DisplayName("Should double the backoff per attempt up to the maximum")
+        void shouldDoubleBackoffUpToMaximum() {
+            assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+            assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+            assertEquals(Duration.ofSeconds(120), dispatcher.backoff(3));
+            assertEquals(Duration.ofMinutes(10), dispatcher.backoff(10));
+        }
+    }
+}
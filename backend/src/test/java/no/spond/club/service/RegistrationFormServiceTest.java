@@ -1,8 +1,19 @@
 package no.spond.club.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.spond.club.cache.FormCache;
+import no.spond.club.config.FormCacheProperties;
 import no.spond.club.dto.RegistrationFormDto;
 import no.spond.club.dto.RegistrationRequestDto;
 import no.spond.club.dto.MemberTypeDto;
+import no.spond.club.model.EligibilityRule;
+import no.spond.club.model.Group;
+import no.spond.club.model.MemberType;
+import no.spond.club.model.Registration;
+import no.spond.club.model.RegistrationForm;
+import no.spond.club.repository.MemberTypeRepository;
+import no.spond.club.repository.RegistrationFormRepository;
+import no.spond.club.repository.RegistrationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -10,20 +21,95 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @DisplayName("RegistrationFormService Tests")
 class RegistrationFormServiceTest {
 
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-06-15T10:00:00Z"), ZoneId.of("Europe/Oslo"));
+
     private RegistrationFormService registrationFormService;
+    private RegistrationForm form;
 
     @BeforeEach
     void setUp() {
-        registrationFormService = new RegistrationFormService();
+        form = codingCampForm();
+
+        RegistrationFormRepository formRepository = mock(RegistrationFormRepository.class);
+        when(formRepository.findByExternalIdWithMemberTypes(anyString())).thenReturn(Optional.empty());
+        when(formRepository.findByExternalIdWithMemberTypes(FORM_ID)).thenReturn(Optional.of(form));
+        when(formRepository.findGroupsByExternalId(FORM_ID)).thenReturn(form.getGroups());
+
+        MemberTypeRepository memberTypeRepository = mock(MemberTypeRepository.class);
+        when(memberTypeRepository.findByExternalId(anyString())).thenReturn(Optional.empty());
+        for (MemberType memberType : form.getMemberTypes()) {
+            when(memberTypeRepository.findByExternalId(memberType.getExternalId())).thenReturn(Optional.of(memberType));
+        }
+
+        AtomicLong ids = new AtomicLong();
+        RegistrationRepository registrationRepository = mock(RegistrationRepository.class);
+        when(registrationRepository.save(any(Registration.class))).thenAnswer(invocation -> {
+            Registration registration = invocation.getArgument(0);
+            registration.setId(ids.incrementAndGet());
+            return registration;
+        });
+
+        registrationFormService = new RegistrationFormService(
+            formRepository,
+            memberTypeRepository,
+            registrationRepository,
+            mock(ConfirmationEmailOutbox.class),
+            mock(ApplicationEventPublisher.class),
+            new FormCache(new FormCacheProperties(), new SimpleMeterRegistry()),
+            CLOCK,
+            FORM_ID
+        );
+    }
+
+    private static RegistrationForm codingCampForm() {
+        RegistrationForm form = new RegistrationForm(
+            "Coding camp summer 2025",
+            "Join our exciting coding camp this summer! Learn programming, work on projects, and have fun with fellow developers.",
+            LocalDate.of(2024, 12, 16)
+        );
+        form.setId(1L);
+        form.setExternalId(FORM_ID);
+        form.setClubId("britsport");
+
+        MemberType active = new MemberType("Active Member", null, new BigDecimal("1500.00"));
+        active.setId(1L);
+        active.setExternalId("8FE4113D4E4020E0DCF887803A886981");
+        active.setForm(form);
+
+        MemberType social = new MemberType("Social Member", null, new BigDecimal("300.00"));
+        social.setId(2L);
+        social.setExternalId("4237C55C5CC3B4B082CBF2540612778E");
+        social.setForm(form);
+
+        Group group = new Group("Alle deltakere", null);
+        group.setId(1L);
+        group.setForm(form);
+
+        form.setMemberTypes(List.of(active, social));
+        form.setGroups(List.of(group));
+        return form;
     }
 
     @Nested
@@ -89,6 +175,38 @@ class RegistrationFormServiceTest {
     @DisplayName("Member Registration Tests")
     class MemberRegistrationTests {
 
+        @Test
+        @DisplayName("Should reject a member type the registrant is too young for")
+        void shouldRejectMemberTypeOutsideAgeRule() {
+            // Given - social membership is for adults only
+            form.getMemberTypes().get(1).setEligibility(new EligibilityRule(18, null));
+            RegistrationRequestDto request = new RegistrationRequestDto(
+                "Lille Per",
+                "per@example.com",
+                "12345678",
+                "01.01.2015",
+                "4237C55C5CC3B4B082CBF2540612778E" // Social Member
+            );
+
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> registrationFormService.registerMember(FORM_ID, request));
+            assertTrue(exception.getMessage().contains("Social Member"));
+        }
+
+        @Test
+        @DisplayName("Should take the registrant's age on the clock's date")
+        void shouldCheckAgeOnClockDate() {
+            // Given - adults only, and the registrant turns 18 the day after the clock's date
+            form.getMemberTypes().get(1).setEligibility(new EligibilityRule(18, null));
+            String socialMember = "4237C55C5CC3B4B082CBF2540612778E";
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class,
+                () -> registrationFormService.assign(FORM_ID, socialMember, LocalDate.of(2008, 6, 16)));
+            assertNotNull(registrationFormService.assign(FORM_ID, socialMember, LocalDate.of(2008, 6, 15)));
+        }
+
         @Test
         @DisplayName("Should register member successfully with valid data")
         void shouldRegisterMemberSuccessfully() {
@@ -168,6 +286,76 @@ class RegistrationFormServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Registration Window Tests")
+    class RegistrationWindowTests {
+
+        private RegistrationRequestDto request() {
+            return new RegistrationRequestDto(
+                "John Doe",
+                "john.doe@example.com",
+                "12345678",
+                "15.06.1990",
+                "8FE4113D4E4020E0DCF887803A886981"
+            );
+        }
+
+        @Test
+        @DisplayName("Should refuse registrations before the registration date and say when it opens")
+        void shouldRefuseBeforeOpening() {
+            // Given
+            form.setRegistrationDate(LocalDate.of(2026, 6, 16));
+
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> registrationFormService.registerMember(FORM_ID, request()));
+            assertEquals("Påmeldingen til dette skjemaet åpner 16.06.2026 kl. 00:00.", exception.getMessage());
+            assertFalse(registrationFormService.getFormById(FORM_ID).isClosed());
+        }
+
+        @Test
+        @DisplayName("Should open at the start of the registration date in the clock's zone")
+        void shouldOpenAtStartOfDay() {
+            // Given - 12:00 in Oslo
+            form.setRegistrationDate(LocalDate.of(2026, 6, 15));
+
+            // When
+            Long registrationId = registrationFormService.registerMember(FORM_ID, request());
+
+            // Then
+            assertNotNull(registrationId);
+        }
+
+        @Test
+        @DisplayName("Should refuse registrations once the scheduled close has passed")
+        void shouldRefuseAfterScheduledClose() {
+            // Given
+            form.setRegistrationCloses(LocalDateTime.of(2026, 6, 15, 11, 59));
+
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> registrationFormService.registerMember(FORM_ID, request()));
+            assertEquals("Påmeldingen til dette skjemaet er stengt.", exception.getMessage());
+            RegistrationFormDto dto = registrationFormService.getFormById(FORM_ID);
+            assertTrue(dto.isClosed());
+            assertEquals(LocalDateTime.of(2026, 6, 15, 11, 59), dto.getRegistrationCloses());
+        }
+
+        @Test
+        @DisplayName("Should accept registrations until the scheduled close")
+        void shouldAcceptBeforeScheduledClose() {
+            // Given
+            form.setRegistrationCloses(LocalDateTime.of(2026, 6, 15, 12, 1));
+
+            // When
+            Long registrationId = registrationFormService.registerMember(FORM_ID, request());
+
+            // Then
+            assertNotNull(registrationId);
+            assertFalse(registrationFormService.getFormById(FORM_ID).isClosed());
+        }
+    }
+
     @Nested
     @DisplayName("Validation Tests")
     class ValidationTests {
@@ -0,0 +1,69 @@
+package no.spond.club.support;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Statement-count assertions, so an endpoint that starts issuing more queries (an N+1 on a lazy
+ * association, a lost cache) fails the build:
+ *
+ * <pre>{@code
+ * restTemplate.exchange(...);
+ * assertQueries(select(1), insert(2));
+ * }</pre>
+ *
+ * Statement types not listed are expected not to run at all.
+ */
+public final class QueryAssertions {
+
+    private static final List<String> TYPES = List.of("select", "insert", "update", "delete");
+
+    public record Expected(String type, int count) {
+    }
+
+    private QueryAssertions() {
+    }
+
+    public static Expected select(int count) {
+        return new Expected("select", count);
+    }
+
+    public static Expected insert(int count) {
+        return new Expected("insert", count);
+    }
+
+    public static Expected update(int count) {
+        return new Expected("update", count);
+    }
+
+    public static Expected delete(int count) {
+        return new Expected("delete", count);
+    }
+
+    /**
+     * Checks the statements run by the most recent HTTP request.
+     */
+    public static void assertQueries(Expected... expected) {
+        assertQueries(SqlStatementCounter.lastRequest(), expected);
+    }
+
+    public static void assertQueries(QueryCounts actual, Expected... expected) {
+        StringBuilder mismatches = new StringBuilder();
+        for (String type : TYPES) {
+            int wanted = 0;
+            for (Expected candidate : expected) {
+                if (candidate.type().equals(type)) {
+                    wanted = candidate.count();
+                }
+            }
+            if (actual.count(type) != wanted) {
+                mismatches.append(' ').append(type).append(": expected ").append(wanted)
+                        .append(", was ").append(actual.count(type)).append(';');
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new AssertionError(actual.source() + " ran unexpected statements:" + mismatches
+                    + actual.statements().stream().collect(Collectors.joining("\n  ", "\n  ", "")));
+        }
+    }
+}
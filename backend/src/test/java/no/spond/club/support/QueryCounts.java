@@ -0,0 +1,28 @@
+package no.spond.club.support;
+
+import java.util.List;
+
+/**
+ * Statements run while handling one HTTP request (or one recorded block), by type. A JDBC batch
+ * counts once.
+ *
+ * @param source     the request, such as {@code POST /api/form/{id}/register}, or "recorded block"
+ * @param statements every statement in order, for failure messages
+ */
+public record QueryCounts(String source, int select, int insert, int update, int delete, List<String> statements) {
+
+    public int count(String type) {
+        return switch (type) {
+            case "select" -> select;
+            case "insert" -> insert;
+            case "update" -> update;
+            case "delete" -> delete;
+            default -> throw new IllegalArgumentException("Unknown statement type: " + type);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "select=" + select + " insert=" + insert + " update=" + update + " delete=" + delete;
+    }
+}
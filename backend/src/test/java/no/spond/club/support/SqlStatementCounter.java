@@ -0,0 +1,119 @@
+package no.spond.club.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import no.spond.club.monitoring.SqlRedactor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the statements each HTTP request runs, through the datasource proxy. Only statements
+ * on the thread handling the request count; work handed to other threads, such as event
+ * subscribers after commit, does not.
+ *
+ * <p>Registered by {@link SqlStatementCountingConfig}; read through {@link QueryAssertions}.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<Recording> current = new ThreadLocal<>();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static volatile QueryCounts lastRequest;
+
+    /**
+     * Statements run by {@code action} on the calling thread.
+     */
+    public static QueryCounts record(Runnable action) {
+        Recording previous = current.get();
+        Recording recording = new Recording("recorded block");
+        current.set(recording);
+        try {
+            action.run();
+        } finally {
+            current.set(previous);
+        }
+        return recording.counts();
+    }
+
+    /**
+     * The most recent HTTP request. The client may have its response before the server thread
+     * is done with the request, so this waits for requests still in flight.
+     */
+    public static QueryCounts lastRequest() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (inFlight.get() > 0) {
+            throw new AssertionError("Requests still in flight after 5 seconds");
+        }
+        if (lastRequest == null) {
+            throw new AssertionError("No HTTP request has been recorded");
+        }
+        return lastRequest;
+    }
+
+    static void beginRequest(String request) {
+        inFlight.incrementAndGet();
+        current.set(new Recording(request));
+    }
+
+    static void endRequest() {
+        Recording recording = current.get();
+        current.remove();
+        if (recording != null) {
+            lastRequest = recording.counts();
+        }
+        inFlight.decrementAndGet();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Recording recording = current.get();
+        if (recording != null) {
+            queryInfoList.forEach(query -> recording.add(query.getQuery()));
+        }
+    }
+
+    private static final class Recording {
+
+        private final String source;
+        private final List<String> statements = new ArrayList<>();
+        private int select;
+        private int insert;
+        private int update;
+        private int delete;
+
+        Recording(String source) {
+            this.source = source;
+        }
+
+        void add(String sql) {
+            statements.add(sql);
+            switch (SqlRedactor.statementType(sql)) {
+                case "select" -> select++;
+                case "insert" -> insert++;
+                case "update" -> update++;
+                case "delete" -> delete++;
+                default -> {
+                }
+            }
+        }
+
+        QueryCounts counts() {
+            return new QueryCounts(source, select, insert, update, delete, List.copyOf(statements));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package no.spond.club.warmup;
+
+import no.spond.club.ClubMembershipApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of the first requests a freshly started instance takes once readiness reports UP,
+ * with and without the startup warmup. Each run is a JVM of its own so nothing is compiled
+ * beforehand. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Startup Warmup Benchmark")
+class StartupWarmupBenchmarkTest {
+
+    private static final String FORM_ID = "B171388180BC457D9887AD92B6CCFC86";
+    private static final String ACTIVE_MEMBER_TYPE_ID = "8FE4113D4E4020E0DCF887803A886981";
+    private static final int FIRST_REQUESTS = 50;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    record FirstRequests(long firstRegisterMicros, long firstFormMicros, long meanRegisterMicros, long readyMillis) {
+
+        @Override
+        public String toString() {
+            return "first registration %d us, first form read %d us, mean of first %d registrations %d us, ready after %d ms"
+                .formatted(firstRegisterMicros, firstFormMicros, FIRST_REQUESTS, meanRegisterMicros, readyMillis);
+        }
+    }
+
+    @Test
+    @DisplayName("First requests after readiness with and without startup warmup")
+    void compareFirstRequestLatency() throws Exception {
+        FirstRequests cold = measure("cold", false);
+        FirstRequests warm = measure("warm", true);
+
+        System.out.printf("cold: %s%n", cold);
+        System.out.printf("warm: %s%n", warm);
+        assertTrue(warm.firstRegisterMicros() < cold.firstRegisterMicros(),
+            "first registration should be faster after warmup: " + warm + " vs " + cold);
+    }
+
+    private FirstRequests measure(String name, boolean warmup) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ClubMembershipApplication.class.getName(),
+            "--server.port=" + port,
+            "--spring.datasource.url=jdbc:h2:mem:startup" + name,
+            "--spondy.rate-limit.enabled=false",
+            "--spondy.outbox.dispatcher-enabled=false",
+            "--spondy.warmup.on-startup=" + warmup,
+            "--logging.level.root=WARN",
+            "--logging.level.no.spond.club=WARN",
+            "--logging.level.org.springframework.web=WARN"));
+        Path log = Files.createTempFile("startup-" + name, ".log");
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        String baseUrl = "http://localhost:" + port;
+        try {
+            awaitReady(process, baseUrl, log);
+            long readyMillis = (System.nanoTime() - launched) / 1_000_000;
+
+            long firstRegister = timeMicros(register(baseUrl, name + "0"));
+            long firstForm = timeMicros(HttpRequest.newBuilder(URI.create(baseUrl + "/api/form/" + FORM_ID)).build());
+            long total = firstRegister;
+            for (int i = 1; i < FIRST_REQUESTS; i++) {
+                total += timeMicros(register(baseUrl, name + i));
+            }
+            return new FirstRequests(firstRegister, firstForm, total / FIRST_REQUESTS, readyMillis);
+        } finally {
+            process.destroy();
+            process.waitFor();
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static HttpRequest register(String baseUrl, String suffix) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/form/" + FORM_ID + "/register"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("""
+                {"fullName":"Benchmark Member","email":"first%s@example.com","phoneNumber":"12345678",\
+                "birthDate":"15.06.1990","memberTypeId":"%s"}""".formatted(suffix, ACTIVE_MEMBER_TYPE_ID)))
+            .build();
+    }
+
+    private long timeMicros(HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        long elapsed = (System.nanoTime() - start) / 1_000;
+        assertTrue(response.statusCode() < 300, request.uri() + " answered " + response.statusCode());
+        return elapsed;
+    }
+
+    /**
+     * Waits for {@code /actuator/health/readiness}, as the proxy does before sending traffic.
+     */
+    private void awaitReady(Process process, String baseUrl, Path log) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                fail("Application exited during startup:\n" + Files.readString(log));
+            }
+            try {
+                HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(100);
+        }
+        fail("Application did not become ready:\n" + Files.readString(log));
+    }
+}
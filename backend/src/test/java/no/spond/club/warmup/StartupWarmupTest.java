@@ -0,0 +1,63 @@
+package no.spond.club.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:startupwarmuptest",
+    "management.endpoint.health.show-details=always",
+    "spondy.warmup.on-startup=true",
+    "spondy.warmup.iterations=50",
+    "spondy.warmup.round-trips=5"
+})
+@ActiveProfiles("test")
+@DisplayName("Startup Warmup Tests")
+class StartupWarmupTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should warm the default form after startup and then report ready")
+    @SuppressWarnings("unchecked")
+    void shouldReportReadyAfterWarmup() throws Exception {
+        // When
+        ResponseEntity<Map> readiness = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/health/readiness", Map.class);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (readiness.getStatusCode() != HttpStatus.OK && System.nanoTime() < deadline) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, readiness.getStatusCode());
+            Thread.sleep(50);
+            readiness = restTemplate.getForEntity("http://localhost:" + port + "/actuator/health/readiness", Map.class);
+        }
+
+        // Then
+        assertEquals(HttpStatus.OK, readiness.getStatusCode());
+        Map<String, Map<String, Object>> components = (Map<String, Map<String, Object>>) readiness.getBody().get("components");
+        assertEquals("UP", components.get("warmup").get("status"));
+        assertEquals(StartupWarmup.State.DONE, startupWarmup.state());
+        assertEquals(1, meterRegistry.get("spondy.warmup").timer().count());
+    }
+}